@@ -22,9 +22,8 @@ import com.mapbox.search.base.result.SearchResultFactory
 import com.mapbox.search.base.utils.UserAgentProvider
 import com.mapbox.search.base.utils.defaultOnlineRequestTimeoutSeconds
 import com.mapbox.search.base.utils.extension.flatMap
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.internal.bindgen.UserActivityReporterInterface
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 /**
  * Temporary implementation of the [AddressAutofill] based on the two-step search.
@@ -111,10 +110,6 @@ internal class AddressAutofillImpl(
 
     internal companion object {
 
-        private val DEFAULT_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
-            Thread(runnable, "AddressAutofill executor")
-        }
-
         fun create(
             app: Application,
             locationProvider: LocationProvider?,
@@ -138,7 +133,7 @@ internal class AddressAutofillImpl(
                 requestContextProvider = SearchRequestContextProvider(app),
                 historyService = SearchHistoryService.STUB,
                 searchResultFactory = SearchResultFactory(IndexableRecordResolver.EMPTY),
-                engineExecutorService = DEFAULT_EXECUTOR
+                engineExecutorService = SearchExecutorProvider.getDefault().interactiveExecutor,
             )
 
             return AddressAutofillImpl(
@@ -35,19 +35,18 @@ import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.base.utils.UserAgentProvider
 import com.mapbox.search.base.utils.defaultOnlineRequestTimeoutSeconds
 import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
 import com.mapbox.search.internal.bindgen.ApiType
 import kotlinx.coroutines.suspendCancellableCoroutine
 import java.util.concurrent.Executor
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 internal class AutofillSearchEngine(
     private val coreEngine: CoreSearchEngineInterface,
     private val requestContextProvider: SearchRequestContextProvider,
     private val historyService: SearchHistoryService = SearchHistoryService.STUB,
     private val searchResultFactory: SearchResultFactory = SearchResultFactory(IndexableRecordResolver.EMPTY),
-    private val engineExecutorService: ExecutorService = DEFAULT_EXECUTOR
+    private val engineExecutorService: Executor = SearchExecutorProvider.getDefault().interactiveExecutor
 ) : BaseSearchEngine() {
 
     fun search(
@@ -243,10 +242,6 @@ internal class AutofillSearchEngine(
 
     companion object {
 
-        private val DEFAULT_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
-            Thread(runnable, "AddressAutofill executor")
-        }
-
         fun create(
             app: Application,
             locationProvider: LocationProvider,
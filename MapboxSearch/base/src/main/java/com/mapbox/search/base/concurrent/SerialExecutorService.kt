@@ -0,0 +1,77 @@
+package com.mapbox.search.base.concurrent
+
+import java.util.concurrent.AbstractExecutorService
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * [java.util.concurrent.ExecutorService] that runs tasks one at a time in the submission order on [executor].
+ * Lets components that rely on a single-threaded executor share a multi-threaded pool.
+ * Shutdown of this executor doesn't affect [executor].
+ */
+class SerialExecutorService(private val executor: Executor) : AbstractExecutorService() {
+
+    private val lock = ReentrantLock()
+    private val idle = lock.newCondition()
+
+    private val tasks = ArrayDeque<Runnable>()
+    private var active: Runnable? = null
+    private var shutdownRequested = false
+
+    override fun execute(command: Runnable) = lock.withLock {
+        if (shutdownRequested) {
+            throw RejectedExecutionException("Executor is shut down")
+        }
+
+        tasks.addLast(
+            Runnable {
+                try {
+                    command.run()
+                } finally {
+                    scheduleNext()
+                }
+            }
+        )
+
+        if (active == null) {
+            scheduleNext()
+        }
+    }
+
+    private fun scheduleNext() = lock.withLock {
+        val next = tasks.removeFirstOrNull()
+        active = next
+        if (next != null) {
+            executor.execute(next)
+        } else {
+            idle.signalAll()
+        }
+    }
+
+    override fun shutdown() = lock.withLock {
+        shutdownRequested = true
+    }
+
+    override fun shutdownNow(): List<Runnable> = lock.withLock {
+        shutdownRequested = true
+        tasks.toList().also { tasks.clear() }
+    }
+
+    override fun isShutdown(): Boolean = lock.withLock { shutdownRequested }
+
+    override fun isTerminated(): Boolean = lock.withLock { shutdownRequested && active == null }
+
+    override fun awaitTermination(timeout: Long, unit: TimeUnit): Boolean = lock.withLock {
+        var remainingNanos = unit.toNanos(timeout)
+        while (!isTerminated()) {
+            if (remainingNanos <= 0) {
+                return false
+            }
+            remainingNanos = idle.awaitNanos(remainingNanos)
+        }
+        true
+    }
+}
@@ -2,9 +2,12 @@ package com.mapbox.search.base.engine
 
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.base.task.ExtendedAsyncOperationTask
+import java.util.concurrent.Executor
 
 abstract class BaseSearchEngine {
 
+    private val sharedRequests = HashMap<Any, SharedRequestTask<*>>()
+
     protected fun <T> makeRequest(
         callback: T,
         searchCall: (AsyncOperationTaskImpl<T>) -> Unit
@@ -15,4 +18,39 @@ abstract class BaseSearchEngine {
         searchCall(task)
         return task
     }
+
+    /**
+     * Same as [makeRequest], but a request made while another request with equal [requestKey] is in progress
+     * doesn't call [searchCall] and receives the result of the request in progress on its [callbackExecutor].
+     * The shared request is cancelled when all the returned tasks are cancelled.
+     */
+    protected fun <T> makeRequest(
+        requestKey: Any,
+        callback: T,
+        callbackExecutor: Executor,
+        searchCall: (AsyncOperationTaskImpl<T>) -> Unit
+    ): ExtendedAsyncOperationTask<T> {
+        val sharedTask: SharedRequestTask<T>
+        val task = synchronized(sharedRequests) {
+            @Suppress("UNCHECKED_CAST")
+            val inProgress = sharedRequests[requestKey] as SharedRequestTask<T>?
+            val subscription = inProgress?.subscribe(callback, callbackExecutor)
+            if (subscription != null) {
+                return subscription
+            }
+
+            sharedTask = SharedRequestTask { finished ->
+                synchronized(sharedRequests) {
+                    if (sharedRequests[requestKey] === finished) {
+                        sharedRequests.remove(requestKey)
+                    }
+                }
+            }
+            sharedRequests[requestKey] = sharedTask
+            requireNotNull(sharedTask.subscribe(callback, callbackExecutor))
+        }
+
+        searchCall(sharedTask)
+        return task
+    }
 }
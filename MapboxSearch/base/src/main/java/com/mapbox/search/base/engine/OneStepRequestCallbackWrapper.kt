@@ -1,6 +1,5 @@
 package com.mapbox.search.base.engine
 
-import androidx.collection.SparseArrayCompat
 import com.mapbox.search.base.BaseRequestOptions
 import com.mapbox.search.base.BaseResponseInfo
 import com.mapbox.search.base.BaseSearchCallback
@@ -8,6 +7,8 @@ import com.mapbox.search.base.core.CoreSearchCallback
 import com.mapbox.search.base.core.CoreSearchResponse
 import com.mapbox.search.base.core.CoreSearchResponseErrorType
 import com.mapbox.search.base.failDebug
+import com.mapbox.search.base.perf.PerformanceSections
+import com.mapbox.search.base.perf.PerformanceTracker
 import com.mapbox.search.base.result.BaseSearchResult
 import com.mapbox.search.base.result.SearchRequestContext
 import com.mapbox.search.base.result.SearchResultFactory
@@ -29,7 +30,10 @@ class OneStepRequestCallbackWrapper(
     private val isOffline: Boolean
 ) : CoreSearchCallback {
 
+    private val coreRequestSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CORE_REQUEST)
+
     override fun run(response: CoreSearchResponse) {
+        PerformanceTracker.asyncSectionCompleted(coreRequestSection)
         workerExecutor.execute {
             if (searchRequestTask.isCompleted) {
                 return@execute
@@ -99,31 +103,40 @@ class OneStepRequestCallbackWrapper(
                 )
                 val responseInfo = BaseResponseInfo(request, response.mapToBase(), isReproducible = !isOffline)
 
-                val results = SparseArrayCompat<Result<BaseSearchResult>>()
-
-                fun notifyCallbackIfNeeded() {
-                    if (results.size() == responseResult.size) {
+                // User records are resolved on the worker executor, which might be multi-threaded,
+                // so the results are collected on the thread they're provided on.
+                val collector = OrderedResultsCollector<Result<BaseSearchResult>>(responseResult.size) { results ->
+                    try {
                         val searchResults = mutableListOf<BaseSearchResult>()
-                        responseResult.indices.forEach { resultIndex ->
-                            with(results[resultIndex]) {
-                                if (this != null && isSuccess) {
-                                    searchResults.add(getOrThrow())
-                                } else {
-                                    val e = this?.exceptionOrNull()
-                                    throwDebug(e) {
-                                        "Can't parse data from backend: ${responseResult[resultIndex]}: ${e?.message}"
-                                    }
+                        results.forEachIndexed { resultIndex, result ->
+                            if (result.isSuccess) {
+                                searchResults.add(result.getOrThrow())
+                            } else {
+                                val e = result.exceptionOrNull()
+                                throwDebug(e) {
+                                    "Can't parse data from backend: ${responseResult[resultIndex]}: ${e?.message}"
                                 }
                             }
                         }
                         searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
                             onResults(searchResults, responseInfo)
                         }
+                    } catch (e: Exception) {
+                        if (!searchRequestTask.isCancelled && !searchRequestTask.callbackActionExecuted) {
+                            searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
+                                onError(e)
+                            }
+                        } else {
+                            throw e
+                        }
                     }
                 }
 
-                responseResult.forEachIndexed { index, coreSearchResult ->
-                    val rawSearchResult = coreSearchResult.mapToBase()
+                val rawSearchResults = PerformanceTracker.trackPerformanceSync(PerformanceSections.MAP_TO_BASE) {
+                    responseResult.map { it.mapToBase() }
+                }
+
+                rawSearchResults.forEachIndexed { index, rawSearchResult ->
                     when {
                         searchResultFactory.isResolvedSearchResult(rawSearchResult) -> {
                             val searchResult = searchResultFactory.createSearchResult(rawSearchResult, request)
@@ -131,7 +144,7 @@ class OneStepRequestCallbackWrapper(
                                 searchResult != null -> Result.success(searchResult)
                                 else -> Result.failure(Exception("Can't resolve search result: $rawSearchResult"))
                             }
-                            results.append(index, res)
+                            collector.collect(index, res)
                         }
                         searchResultFactory.isUserRecord(rawSearchResult) -> {
                             val task = searchResultFactory.resolveIndexableRecordSearchResultAsync(
@@ -139,23 +152,18 @@ class OneStepRequestCallbackWrapper(
                                 workerExecutor,
                                 request
                             ) { result ->
-                                with(result) {
-                                    results.append(index, this)
-                                    notifyCallbackIfNeeded()
-                                }
+                                collector.collect(index, result)
                             }
                             searchRequestTask += task
                             tasks.add(task)
                         }
                         else -> {
-                            results.append(
+                            collector.collect(
                                 index,
                                 Result.failure(Exception("Can't resolve search result $rawSearchResult"))
                             )
                         }
                     }
-
-                    notifyCallbackIfNeeded()
                 }
 
                 if (responseResult.isEmpty()) {
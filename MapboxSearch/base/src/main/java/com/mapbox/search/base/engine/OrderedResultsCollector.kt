@@ -0,0 +1,26 @@
+package com.mapbox.search.base.engine
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Thread safe collector of results, which might be produced concurrently and in an arbitrary order.
+ * [onCollected] is called once on the thread which provides the last result, with the results ordered by their indices.
+ */
+internal class OrderedResultsCollector<T : Any>(
+    private val size: Int,
+    private val onCollected: (List<T>) -> Unit,
+) {
+
+    private val results = AtomicReferenceArray<T>(size)
+    private val remaining = AtomicInteger(size)
+
+    /**
+     * Collects the [result] for [index]. Repeated results for the same index are ignored.
+     */
+    fun collect(index: Int, result: T) {
+        if (results.compareAndSet(index, null, result) && remaining.decrementAndGet() == 0) {
+            onCollected(List(size) { results.get(it) })
+        }
+    }
+}
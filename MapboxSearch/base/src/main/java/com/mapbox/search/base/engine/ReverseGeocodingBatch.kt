@@ -0,0 +1,185 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.base.concurrent.SerialExecutorService
+import com.mapbox.search.common.AsyncOperationTask
+import java.util.concurrent.Executor
+
+/**
+ * Reverse geocodes a batch of [points].
+ *
+ * Points with the same key that are within [dedupRadiusMeters] from each other are resolved with a single request.
+ * Points found in [cache] are resolved without a request. Other points are requested with [request] function,
+ * at most [maxConcurrentRequests] requests run at the same time.
+ *
+ * Results are delivered to [callback] on [callbackExecutor] in the order of [points].
+ * [Callback.onResult] is called for a point once results of all the preceding points are delivered.
+ * The batch is stopped on the first error.
+ */
+class ReverseGeocodingBatch<K : Any, R : Any>(
+    private val points: List<Point>,
+    private val keys: List<K>,
+    private val dedupRadiusMeters: Double,
+    private val maxConcurrentRequests: Int,
+    private val cache: SpatialResultsCache<K, R>,
+    private val request: (index: Int, callback: RequestCallback<R>) -> AsyncOperationTask,
+    callbackExecutor: Executor,
+    private val callback: Callback<R>,
+) : AsyncOperationTask {
+
+    interface RequestCallback<R> {
+        fun onResult(result: R)
+        fun onError(e: Exception)
+    }
+
+    interface Callback<R> {
+        fun onResult(index: Int, result: R)
+        fun onComplete(results: List<R>)
+        fun onError(e: Exception)
+    }
+
+    // Serializes delivery, so that results are delivered in order even on a multi-threaded executor
+    private val callbackExecutor = SerialExecutorService(callbackExecutor)
+
+    // Index of the point whose result is used for the point
+    private val sources = IntArray(points.size)
+    private val results = ArrayList<R?>(points.size)
+
+    private val pending = ArrayDeque<Int>()
+    private val inProgress = HashMap<Int, AsyncOperationTask>()
+    private var runningRequests = 0
+    private var deliveredCount = 0
+    private var stopped = false
+
+    @Volatile
+    override var isDone: Boolean = false
+        private set
+
+    @Volatile
+    override var isCancelled: Boolean = false
+        private set
+
+    init {
+        require(points.size == keys.size) { "Points and keys should be of the same size" }
+    }
+
+    @Synchronized
+    fun start() {
+        if (points.isNotEmpty()) {
+            val batchIndex = SpatialResultsCache<K, Int>(maxSize = points.size)
+            points.forEachIndexed { index, point ->
+                val source = batchIndex.get(keys[index], point, dedupRadiusMeters)
+                if (source != null) {
+                    sources[index] = source
+                    results.add(null)
+                } else {
+                    sources[index] = index
+                    batchIndex.put(keys[index], point, index)
+
+                    val cached = cache.get(keys[index], point, dedupRadiusMeters)
+                    results.add(cached)
+                    if (cached == null) {
+                        pending.addLast(index)
+                    }
+                }
+            }
+        }
+
+        startPendingRequests()
+        deliverResults()
+    }
+
+    override fun cancel() {
+        val cancelled = synchronized(this) {
+            if (stopped) {
+                return
+            }
+            isCancelled = true
+            stop()
+        }
+        cancelled.forEach { it.cancel() }
+    }
+
+    private fun startPendingRequests() {
+        while (!stopped && pending.isNotEmpty() && runningRequests < maxConcurrentRequests) {
+            val index = pending.removeFirst()
+            runningRequests++
+
+            val task = request(index, IndexedRequestCallback(index))
+            if (!stopped && results[index] == null) {
+                inProgress[index] = task
+            }
+        }
+    }
+
+    private fun deliverResults() {
+        while (!stopped && deliveredCount < points.size) {
+            val index = deliveredCount
+            val result = results[sources[index]] ?: return
+            deliveredCount++
+            callbackExecutor.execute {
+                callback.onResult(index, result)
+            }
+        }
+
+        if (!stopped) {
+            val allResults = List(points.size) { requireNotNull(results[sources[it]]) }
+            isDone = true
+            stop()
+            callbackExecutor.execute {
+                callback.onComplete(allResults)
+            }
+        }
+    }
+
+    private fun onRequestResult(index: Int, result: R) {
+        synchronized(this) {
+            if (stopped) {
+                return
+            }
+
+            runningRequests--
+            inProgress.remove(index)
+            results[index] = result
+            cache.put(keys[index], points[index], result)
+
+            startPendingRequests()
+            deliverResults()
+        }
+    }
+
+    private fun onRequestError(index: Int, e: Exception) {
+        val cancelled = synchronized(this) {
+            if (stopped) {
+                return
+            }
+            inProgress.remove(index)
+            isDone = true
+            val cancelled = stop()
+            callbackExecutor.execute {
+                callback.onError(e)
+            }
+            cancelled
+        }
+        cancelled.forEach { it.cancel() }
+    }
+
+    private fun stop(): List<AsyncOperationTask> {
+        stopped = true
+        pending.clear()
+        return inProgress.values.toList().also {
+            inProgress.clear()
+        }
+    }
+
+    private inner class IndexedRequestCallback(private val index: Int) : RequestCallback<R> {
+
+        override fun onResult(result: R) {
+            onRequestResult(index, result)
+        }
+
+        override fun onError(e: Exception) {
+            onRequestError(index, e)
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.search.base.perf.PerformanceSections
+import com.mapbox.search.base.perf.PerformanceTracker
+import com.mapbox.search.base.task.AsyncOperationTaskImpl
+import java.util.concurrent.Executor
+
+/**
+ * Task of a request shared by several subscribers. Callback actions are dispatched to every subscriber
+ * on the subscriber's executor. The request is cancelled only when all the subscribers cancel their tasks.
+ */
+internal class SharedRequestTask<T>(
+    private val onFinished: (SharedRequestTask<T>) -> Unit,
+) : AsyncOperationTaskImpl<T>() {
+
+    private val subscribers = mutableListOf<Subscriber<T>>()
+
+    /**
+     * @return subscriber's task or null if the request has already finished.
+     */
+    @Synchronized
+    fun subscribe(callback: T, executor: Executor): AsyncOperationTaskImpl<T>? {
+        if (isCompleted) {
+            return null
+        }
+
+        val subscriber = Subscriber(AsyncOperationTaskImpl(callback), executor)
+        subscriber.task.addOnCancelledCallback {
+            onSubscriberCancelled(subscriber)
+        }
+        subscribers.add(subscriber)
+        return subscriber.task
+    }
+
+    private fun onSubscriberCancelled(subscriber: Subscriber<T>) {
+        val cancelled = synchronized(this) {
+            if (isCompleted) {
+                return
+            }
+
+            subscribers.remove(subscriber)
+            if (subscribers.isEmpty()) {
+                // Cancelled under the lock, so that no one subscribes to the request being cancelled
+                super.cancel()
+                true
+            } else {
+                false
+            }
+        }
+
+        if (cancelled) {
+            onFinished(this)
+        }
+    }
+
+    override fun cancel() {
+        synchronized(this) {
+            if (isCompleted) {
+                return
+            }
+            super.cancel()
+        }
+        onFinished(this)
+    }
+
+    override fun markExecutedAndRunOnCallback(action: T.() -> Unit) {
+        val targets = synchronized(this) {
+            if (isCompleted) {
+                return
+            }
+            callbackActionExecuted = true
+            onComplete()
+            subscribers.toList().also { subscribers.clear() }
+        }
+
+        onFinished(this)
+        targets.forEach { subscriber ->
+            val dispatchSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CALLBACK_DISPATCH)
+            subscriber.executor.execute {
+                PerformanceTracker.asyncSectionCompleted(dispatchSection)
+                subscriber.task.markExecutedAndRunOnCallback(action)
+            }
+        }
+    }
+
+    override fun markCancelledAndRunOnCallback(action: T.() -> Unit) {
+        val targets = synchronized(this) {
+            if (isCompleted) {
+                return
+            }
+            callbackActionExecuted = true
+            subscribers.toList().also { subscribers.clear() }
+        }
+
+        cancel()
+        targets.forEach { subscriber ->
+            val dispatchSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CALLBACK_DISPATCH)
+            subscriber.executor.execute {
+                PerformanceTracker.asyncSectionCompleted(dispatchSection)
+                subscriber.task.markCancelledAndRunOnCallback(action)
+            }
+        }
+    }
+
+    // Actions are run on the subscribers' executors, no need to switch threads twice
+    override fun markExecutedAndRunOnCallback(executor: Executor, action: T.() -> Unit) {
+        markExecutedAndRunOnCallback(action)
+    }
+
+    override fun markCancelledAndRunOnCallback(executor: Executor, action: T.() -> Unit) {
+        markCancelledAndRunOnCallback(action)
+    }
+
+    private class Subscriber<T>(val task: AsyncOperationTaskImpl<T>, val executor: Executor)
+}
@@ -0,0 +1,125 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.base.utils.LocalTimeProvider
+import com.mapbox.search.base.utils.TimeProvider
+import com.mapbox.search.base.utils.extension.distanceTo
+import kotlin.math.ceil
+import kotlin.math.cos
+import kotlin.math.floor
+
+/**
+ * Thread safe LRU cache of values associated with a key and a point. A value is looked up by the same key
+ * and the nearest point within the requested radius. Points are indexed in a grid of [CELL_SIZE_METERS] cells,
+ * so that only the entries of the cells around the requested point are checked.
+ */
+class SpatialResultsCache<K : Any, V : Any>(
+    private val maxSize: Int,
+    private val ttlMillis: Long = Long.MAX_VALUE,
+    private val timeProvider: TimeProvider = LocalTimeProvider(),
+) {
+
+    private val entries = LinkedHashMap<Entry<K, V>, Unit>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+    private val cells = HashMap<Cell<K>, MutableList<Entry<K, V>>>()
+
+    val size: Int
+        @Synchronized get() = entries.size
+
+    init {
+        require(maxSize > 0) { "'maxSize' should be greater than 0 (passed value: $maxSize)." }
+    }
+
+    /**
+     * @return value associated with the [key] and the nearest to [point] point within [radiusMeters],
+     * or `null` if there's no such value.
+     */
+    @Synchronized
+    fun get(key: K, point: Point, radiusMeters: Double): V? {
+        val cellsAroundLatitude = ceil(radiusMeters / CELL_SIZE_METERS).toInt()
+        val longitudeScale = cos(Math.toRadians(point.latitude())).coerceAtLeast(MIN_LONGITUDE_SCALE)
+        val cellsAroundLongitude = ceil(radiusMeters / (CELL_SIZE_METERS * longitudeScale)).toInt()
+
+        val cellX = cellIndex(point.longitude())
+        val cellY = cellIndex(point.latitude())
+
+        var nearest: Entry<K, V>? = null
+        var nearestDistance = Double.MAX_VALUE
+        for (x in cellX - cellsAroundLongitude..cellX + cellsAroundLongitude) {
+            for (y in cellY - cellsAroundLatitude..cellY + cellsAroundLatitude) {
+                val cellEntries = cells[Cell(key, x, y)] ?: continue
+                for (entry in cellEntries) {
+                    val distance = entry.point.distanceTo(point)
+                    if (distance <= radiusMeters && distance < nearestDistance) {
+                        nearest = entry
+                        nearestDistance = distance
+                    }
+                }
+            }
+        }
+
+        if (nearest == null) {
+            return null
+        }
+
+        if (timeProvider.currentTimeMillis() - nearest.timestamp >= ttlMillis) {
+            remove(nearest)
+            return null
+        }
+
+        // Updates the access order
+        entries[nearest]
+        return nearest.value
+    }
+
+    /**
+     * Associates [value] with the [key] and [point].
+     */
+    @Synchronized
+    fun put(key: K, point: Point, value: V) {
+        val entry = Entry(
+            cell = Cell(key, cellIndex(point.longitude()), cellIndex(point.latitude())),
+            point = point,
+            value = value,
+            timestamp = timeProvider.currentTimeMillis(),
+        )
+        entries[entry] = Unit
+        cells.getOrPut(entry.cell) { ArrayList(1) }.add(entry)
+
+        while (entries.size > maxSize) {
+            remove(entries.keys.first())
+        }
+    }
+
+    @Synchronized
+    fun clear() {
+        entries.clear()
+        cells.clear()
+    }
+
+    private fun remove(entry: Entry<K, V>) {
+        entries.remove(entry)
+        val cellEntries = cells[entry.cell] ?: return
+        cellEntries.remove(entry)
+        if (cellEntries.isEmpty()) {
+            cells.remove(entry.cell)
+        }
+    }
+
+    private fun cellIndex(degrees: Double): Int = floor(degrees / CELL_SIZE_DEGREES).toInt()
+
+    private data class Cell<K>(val key: K, val x: Int, val y: Int)
+
+    private class Entry<K, V>(val cell: Cell<K>, val point: Point, val value: V, val timestamp: Long)
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+        const val LOAD_FACTOR = 0.75f
+
+        const val CELL_SIZE_METERS = 100.0
+        const val METERS_PER_DEGREE = 111_320.0
+        const val CELL_SIZE_DEGREES = CELL_SIZE_METERS / METERS_PER_DEGREE
+
+        // Limits number of checked cells near the poles
+        const val MIN_LONGITUDE_SCALE = 0.01
+    }
+}
@@ -1,6 +1,5 @@
 package com.mapbox.search.base.engine
 
-import androidx.collection.SparseArrayCompat
 import com.mapbox.search.base.BaseRequestOptions
 import com.mapbox.search.base.BaseResponseInfo
 import com.mapbox.search.base.BaseSearchSelectionCallback
@@ -12,6 +11,8 @@ import com.mapbox.search.base.core.CoreSearchEngineInterface
 import com.mapbox.search.base.core.CoreSearchResponse
 import com.mapbox.search.base.core.CoreSearchResponseErrorType
 import com.mapbox.search.base.failDebug
+import com.mapbox.search.base.perf.PerformanceSections
+import com.mapbox.search.base.perf.PerformanceTracker
 import com.mapbox.search.base.record.SearchHistoryService
 import com.mapbox.search.base.result.BaseSearchSuggestion
 import com.mapbox.search.base.result.BaseSearchSuggestionType
@@ -41,7 +42,10 @@ class TwoStepsRequestCallbackWrapper(
     private val addResultToHistory: Boolean,
 ) : CoreSearchCallback {
 
+    private val coreRequestSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CORE_REQUEST)
+
     override fun run(response: CoreSearchResponse) {
+        PerformanceTracker.asyncSectionCompleted(coreRequestSection)
         workerExecutor.execute {
             if (searchRequestTask.isCompleted) {
                 return@execute
@@ -183,53 +187,51 @@ class TwoStepsRequestCallbackWrapper(
                         }
                     }
                 } else {
-                    val results = SparseArrayCompat<Result<BaseSearchSuggestion>>()
-                    responseResult.forEachIndexed { index, searchResult ->
-                        val rawSearchResult = searchResult.mapToBase()
-                        val task = searchResultFactory.createSearchSuggestionAsync(
-                            rawSearchResult,
-                            requestOptions,
-                            apiType,
-                            workerExecutor
-                        ) {
-                            if (it.isFailure) {
-                                val e = it.exceptionOrNull()
-                                if (e !is InternalIgnorableException) {
-                                    throwDebug(e) {
-                                        "Can't create suggestions ${response.results}: ${e?.message}"
-                                    }
+                    // Server suggestions are created right away, user records are resolved concurrently
+                    // with a single request per data provider. Results are collected on the thread they're provided on.
+                    val suggestionsSection = PerformanceTracker.asyncSectionStarted(
+                        PerformanceSections.SUGGESTIONS_CREATION
+                    )
+                    val collector = OrderedResultsCollector<Result<BaseSearchSuggestion>>(responseResult.size) { results ->
+                        PerformanceTracker.asyncSectionCompleted(suggestionsSection)
+                        try {
+                            val suggestions = results.mapNotNull { it.getOrNull() }
+                            searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
+                                onSuggestions(suggestions, responseInfo)
+                            }
+                        } catch (e: Exception) {
+                            if (!searchRequestTask.isCancelled && !searchRequestTask.callbackActionExecuted) {
+                                searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
+                                    onError(e)
                                 }
+                            } else {
+                                throw e
                             }
+                        }
+                    }
 
-                            results.append(index, it)
-
-                            if (results.size() == responseResult.size) {
-                                try {
-                                    val suggestions = mutableListOf<BaseSearchSuggestion>()
-                                    responseResult.indices.forEach { resultIndex ->
-                                        with(results[resultIndex]) {
-                                            if (this != null && isSuccess) {
-                                                suggestions.add(getOrThrow())
-                                            }
-                                        }
-                                    }
-                                    searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
-                                        onSuggestions(suggestions, responseInfo)
-                                    }
-                                } catch (e: Exception) {
-                                    if (!searchRequestTask.isCancelled && !searchRequestTask.callbackActionExecuted) {
-                                        searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
-                                            onError(e)
-                                        }
-                                    } else {
-                                        throw e
-                                    }
+                    val rawResults = PerformanceTracker.trackPerformanceSync(PerformanceSections.MAP_TO_BASE) {
+                        responseResult.map { it.mapToBase() }
+                    }
+                    val task = searchResultFactory.createSearchSuggestionsAsync(
+                        rawResults,
+                        requestOptions,
+                        apiType,
+                        RESULTS_COLLECTING_EXECUTOR,
+                    ) { index, result ->
+                        if (result.isFailure) {
+                            val e = result.exceptionOrNull()
+                            if (e !is InternalIgnorableException) {
+                                throwDebug(e) {
+                                    "Can't create suggestions ${response.results}: ${e?.message}"
                                 }
                             }
                         }
-                        searchRequestTask += task
-                        tasks.add(task)
+
+                        collector.collect(index, result)
                     }
+                    searchRequestTask += task
+                    tasks.add(task)
 
                     if (responseResult.isEmpty()) {
                         searchRequestTask.markExecutedAndRunOnCallback(callbackExecutor) {
@@ -274,4 +276,10 @@ class TwoStepsRequestCallbackWrapper(
             else -> BaseResponseInfo(request, null, isReproducible = false)
         }
     }
+
+    private companion object {
+
+        // Runs the callbacks of the suggestions creation on the thread they're called from
+        val RESULTS_COLLECTING_EXECUTOR = Executor { it.run() }
+    }
 }
@@ -0,0 +1,79 @@
+package com.mapbox.search.base.perf
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Preallocated ring buffer of started async sections, so that tracking of a section doesn't allocate.
+ * A section is referenced by a handle, which is the section sequence number. When more than [capacity]
+ * sections are in progress, the oldest ones are overwritten and their completion is ignored.
+ */
+internal class AsyncSectionsBuffer(capacity: Int = DEFAULT_CAPACITY) {
+
+    init {
+        require(capacity > 0 && capacity and (capacity - 1) == 0) {
+            "Capacity must be a power of two, provided: $capacity"
+        }
+    }
+
+    private val mask = capacity - 1
+    private val sequence = AtomicLong()
+
+    // A slot is being written while its sequence is WRITING, every field is volatile
+    // so that a reader which sees the same sequence before and after reading the fields reads them consistently.
+    private val sequences = AtomicLongArray(capacity)
+    private val names = AtomicReferenceArray<String>(capacity)
+    private val startTimes = AtomicLongArray(capacity)
+
+    /**
+     * @return handle of the started section.
+     */
+    fun start(name: String, startNanos: Long): Long {
+        val handle = sequence.incrementAndGet()
+        val slot = slot(handle)
+        sequences.set(slot, WRITING)
+        names.set(slot, name)
+        startTimes.set(slot, startNanos)
+        sequences.set(slot, handle)
+        return handle
+    }
+
+    /**
+     * @return name of the section or null if the section has been overwritten or already finished.
+     */
+    fun name(handle: Long): String? {
+        val slot = slot(handle)
+        if (sequences.get(slot) != handle) {
+            return null
+        }
+        val name = names.get(slot)
+        return if (sequences.get(slot) == handle) name else null
+    }
+
+    /**
+     * Releases the section slot.
+     * @return start time of the section or [NO_SECTION] if the section has been overwritten or already finished.
+     */
+    fun finish(handle: Long): Long {
+        val slot = slot(handle)
+        val startNanos = startTimes.get(slot)
+        return if (sequences.compareAndSet(slot, handle, WRITING)) startNanos else NO_SECTION
+    }
+
+    fun reset() {
+        sequence.set(0)
+        for (i in 0 until sequences.length()) {
+            sequences.set(i, WRITING)
+            names.set(i, null)
+        }
+    }
+
+    private fun slot(handle: Long): Int = (handle and mask.toLong()).toInt()
+
+    companion object {
+        const val NO_SECTION = Long.MIN_VALUE
+        private const val WRITING = 0L
+        private const val DEFAULT_CAPACITY = 1024
+    }
+}
@@ -0,0 +1,112 @@
+package com.mapbox.search.base.perf
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Fixed memory, lock-free histogram of latencies in microseconds.
+ *
+ * Values are counted in log-linear buckets: each power of two range is split in [SUB_BUCKETS] equal buckets,
+ * so that the relative error of the reported percentiles doesn't exceed 1 / [SUB_BUCKETS].
+ * Values over [MAX_TRACKABLE_MICROS] are counted in the last bucket, max value is tracked precisely.
+ */
+internal class LatencyHistogram {
+
+    private val counts = AtomicLongArray(BUCKETS_COUNT)
+    private val maxMicros = AtomicLong()
+
+    fun record(micros: Long) {
+        val value = micros.coerceIn(0, MAX_TRACKABLE_MICROS)
+        counts.incrementAndGet(bucketIndex(value))
+
+        var currentMax = maxMicros.get()
+        while (value > currentMax && !maxMicros.compareAndSet(currentMax, value)) {
+            currentMax = maxMicros.get()
+        }
+    }
+
+    fun reset() {
+        for (i in 0 until BUCKETS_COUNT) {
+            counts.set(i, 0)
+        }
+        maxMicros.set(0)
+    }
+
+    /**
+     * Snapshot of the histogram. Values recorded concurrently might be partially included.
+     */
+    fun snapshot(name: String): SectionLatencySnapshot {
+        val snapshot = LongArray(BUCKETS_COUNT) { counts.get(it) }
+        val count = snapshot.sum()
+        val max = maxMicros.get()
+
+        fun percentile(fraction: Double): Double {
+            if (count == 0L) {
+                return 0.0
+            }
+
+            val rank = kotlin.math.ceil(fraction * count).toLong().coerceAtLeast(1)
+            var cumulative = 0L
+            for (i in snapshot.indices) {
+                cumulative += snapshot[i]
+                if (cumulative >= rank) {
+                    return microsToMillis(bucketUpperBound(i).coerceAtMost(max))
+                }
+            }
+            return microsToMillis(max)
+        }
+
+        return SectionLatencySnapshot(
+            name = name,
+            count = count,
+            p50Millis = percentile(P50),
+            p90Millis = percentile(P90),
+            p99Millis = percentile(P99),
+            maxMillis = microsToMillis(max),
+        )
+    }
+
+    internal companion object {
+
+        private const val SUB_BUCKET_BITS = 3
+        const val SUB_BUCKETS = 1 shl SUB_BUCKET_BITS
+
+        // ~2.4 hours
+        private const val MAX_EXPONENT = 32
+        const val MAX_TRACKABLE_MICROS = (1L shl (MAX_EXPONENT + 1)) - 1
+
+        private val BUCKETS_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1
+
+        private const val P50 = 0.5
+        private const val P90 = 0.9
+        private const val P99 = 0.99
+
+        private const val MICROS_IN_MILLI = 1000.0
+
+        /**
+         * Values below [SUB_BUCKETS] have their own buckets, greater values are split by the highest bit
+         * and [SUB_BUCKET_BITS] bits next to it.
+         */
+        fun bucketIndex(value: Long): Int {
+            if (value < SUB_BUCKETS) {
+                return value.toInt()
+            }
+            val exponent = 63 - java.lang.Long.numberOfLeadingZeros(value)
+            val subBucket = (value ushr (exponent - SUB_BUCKET_BITS)).toInt() and (SUB_BUCKETS - 1)
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket
+        }
+
+        fun bucketUpperBound(index: Int): Long {
+            if (index < SUB_BUCKETS) {
+                return index.toLong()
+            }
+            val exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1
+            val subBucket = index % SUB_BUCKETS
+            val shift = exponent - SUB_BUCKET_BITS
+            val lowerBound = (SUB_BUCKETS + subBucket).toLong() shl shift
+            return lowerBound + (1L shl shift) - 1
+        }
+
+        private fun microsToMillis(micros: Long): Double = micros / MICROS_IN_MILLI
+    }
+}
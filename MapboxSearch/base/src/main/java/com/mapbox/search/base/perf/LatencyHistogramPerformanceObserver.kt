@@ -0,0 +1,49 @@
+package com.mapbox.search.base.perf
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Records latencies of completed sections in a [LatencyHistogram] per section name.
+ */
+internal class LatencyHistogramPerformanceObserver : PerformanceObserver {
+
+    private val histograms = ConcurrentHashMap<String, LatencyHistogram>()
+
+    override fun syncSectionStarted(name: String) {
+        // Only durations are recorded
+    }
+
+    override fun syncSectionCompleted(name: String, durationNanos: Long) {
+        record(name, durationNanos)
+    }
+
+    override fun asyncSectionStarted(name: String, id: Int) {
+        // Only durations are recorded
+    }
+
+    override fun asyncSectionFinished(name: String, id: Int, durationNanos: Long) {
+        record(name, durationNanos)
+    }
+
+    fun snapshots(): List<SectionLatencySnapshot> {
+        return histograms.entries
+            .map { (name, histogram) -> histogram.snapshot(name) }
+            .sortedBy { it.name }
+    }
+
+    fun reset() {
+        histograms.values.forEach { it.reset() }
+    }
+
+    private fun record(name: String, durationNanos: Long) {
+        if (durationNanos == PerformanceObserver.UNKNOWN_DURATION) {
+            return
+        }
+        val histogram = histograms[name] ?: histograms.getOrPut(name) { LatencyHistogram() }
+        histogram.record(durationNanos / NANOS_IN_MICRO)
+    }
+
+    private companion object {
+        const val NANOS_IN_MICRO = 1000L
+    }
+}
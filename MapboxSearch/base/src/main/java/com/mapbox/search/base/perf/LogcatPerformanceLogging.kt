@@ -2,7 +2,7 @@ package com.mapbox.search.base.perf
 
 import android.util.Log
 import androidx.annotation.RestrictTo
-import kotlin.time.Duration
+import kotlin.time.Duration.Companion.nanoseconds
 
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
 private const val TAG = "PERFORMANCE"
@@ -12,15 +12,23 @@ internal class LogcatPerformanceLogging : PerformanceObserver {
         Log.d(TAG, "$name section started")
     }
 
-    override fun syncSectionCompleted(name: String, duration: Duration?) {
-        Log.d(TAG, "$name section completed in $duration")
+    override fun syncSectionCompleted(name: String, durationNanos: Long) {
+        Log.d(TAG, "$name section completed in ${formatDuration(durationNanos)}")
     }
 
     override fun asyncSectionStarted(name: String, id: Int) {
         Log.d(TAG, "$name async section started (id: $id)")
     }
 
-    override fun asyncSectionFinished(name: String, id: Int, duration: Duration?) {
-        Log.d(TAG, "$name async section finished (id: $id) in $duration")
+    override fun asyncSectionFinished(name: String, id: Int, durationNanos: Long) {
+        Log.d(TAG, "$name async section finished (id: $id) in ${formatDuration(durationNanos)}")
+    }
+
+    private fun formatDuration(durationNanos: Long): String {
+        return if (durationNanos == PerformanceObserver.UNKNOWN_DURATION) {
+            "unknown time"
+        } else {
+            durationNanos.nanoseconds.toString()
+        }
     }
 }
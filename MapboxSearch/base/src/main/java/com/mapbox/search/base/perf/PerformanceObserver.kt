@@ -1,7 +1,6 @@
 package com.mapbox.search.base.perf
 
 import androidx.annotation.RestrictTo
-import kotlin.time.Duration
 
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
 internal interface PerformanceObserver {
@@ -14,10 +13,11 @@ internal interface PerformanceObserver {
     /**
      * Notifies about synchronous section end.
      * @param name always matches last started synchronous section
-     * @param duration the duration of the section, or null if not available
+     * @param durationNanos the duration of the section in nanoseconds,
+     * or [UNKNOWN_DURATION] if not available
      * @see [syncSectionStarted]
      */
-    fun syncSectionCompleted(name: String, duration: Duration?)
+    fun syncSectionCompleted(name: String, durationNanos: Long)
 
     /**
      * Notifies about new asynchronous section start.
@@ -31,8 +31,17 @@ internal interface PerformanceObserver {
      * Notifies about asynchronous section end.
      * @param name the name of the async section
      * @param id unique numeric identifier for the async section
-     * @param duration the duration of the async section, null if not available
+     * @param durationNanos the duration of the async section in nanoseconds,
+     * or [UNKNOWN_DURATION] if not available
      * @see [asyncSectionStarted]
      */
-    fun asyncSectionFinished(name: String, id: Int, duration: Duration?)
+    fun asyncSectionFinished(name: String, id: Int, durationNanos: Long)
+
+    companion object {
+
+        /**
+         * Duration of sections that completed exceptionally.
+         */
+        const val UNKNOWN_DURATION = -1L
+    }
 }
@@ -0,0 +1,68 @@
+package com.mapbox.search.base.perf
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Lock-free sampler of performance sections. A section is sampled if it's every [sampleEvery]-th
+ * started section and no more than [maxSectionsPerSecond] sections have been sampled in the current second.
+ */
+internal class PerformanceSampler {
+
+    @Volatile
+    var sampleEvery: Int = 1
+        private set
+
+    @Volatile
+    var maxSectionsPerSecond: Int = UNLIMITED
+        private set
+
+    private val sectionsCounter = AtomicLong()
+    private val windowStartNanos = AtomicLong(Long.MIN_VALUE)
+    private val windowSectionsCount = AtomicInteger()
+
+    fun configure(sampleEvery: Int, maxSectionsPerSecond: Int) {
+        require(sampleEvery > 0) {
+            "sampleEvery must be positive, provided: $sampleEvery"
+        }
+        require(maxSectionsPerSecond > 0) {
+            "maxSectionsPerSecond must be positive, provided: $maxSectionsPerSecond"
+        }
+        this.sampleEvery = sampleEvery
+        this.maxSectionsPerSecond = maxSectionsPerSecond
+    }
+
+    fun reset() {
+        configure(1, UNLIMITED)
+        sectionsCounter.set(0)
+        windowStartNanos.set(Long.MIN_VALUE)
+        windowSectionsCount.set(0)
+    }
+
+    fun sample(nowNanos: Long): Boolean {
+        val every = sampleEvery
+        if (every > 1 && sectionsCounter.incrementAndGet() % every != 0L) {
+            return false
+        }
+
+        val limit = maxSectionsPerSecond
+        if (limit == UNLIMITED) {
+            return true
+        }
+
+        val windowStart = windowStartNanos.get()
+        if (windowStart == Long.MIN_VALUE || nowNanos - windowStart >= WINDOW_NANOS) {
+            // Only one of the concurrent callers starts a new window
+            if (windowStartNanos.compareAndSet(windowStart, nowNanos)) {
+                windowSectionsCount.set(0)
+            }
+        }
+        return windowSectionsCount.incrementAndGet() <= limit
+    }
+
+    companion object {
+        const val UNLIMITED = Int.MAX_VALUE
+        private val WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1)
+    }
+}
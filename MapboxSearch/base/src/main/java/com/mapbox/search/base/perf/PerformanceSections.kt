@@ -0,0 +1,41 @@
+package com.mapbox.search.base.perf
+
+import androidx.annotation.RestrictTo
+
+/**
+ * Names of the instrumented stages of search requests.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+object PerformanceSections {
+
+    /**
+     * Time from a request to the core engine till its response.
+     */
+    const val CORE_REQUEST = "CoreSearchEngine#request"
+
+    /**
+     * Mapping of core search results to the SDK types.
+     */
+    const val MAP_TO_BASE = "CoreSearchResult#mapToBase"
+
+    /**
+     * Creation of the suggestions of a response, including user records resolution.
+     */
+    const val SUGGESTIONS_CREATION = "SearchResultFactory#createSearchSuggestions"
+
+    /**
+     * Resolution of the user records which are not loaded yet.
+     */
+    const val RECORDS_RESOLUTION = "IndexableRecordResolver#resolveAll"
+
+    /**
+     * Write of the local data provider records to the storage.
+     * Sections are named with the data provider name suffix, e.g. `LocalDataProviderImpl#persistData:<name>`.
+     */
+    const val LOCAL_DATA_WRITE = "LocalDataProviderImpl#persistData"
+
+    /**
+     * Time from posting a callback to the callback executor till the callback is run.
+     */
+    const val CALLBACK_DISPATCH = "AsyncOperationTask#callbackDispatch"
+}
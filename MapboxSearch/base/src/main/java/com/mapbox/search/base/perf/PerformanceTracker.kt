@@ -2,67 +2,95 @@ package com.mapbox.search.base.perf
 
 import androidx.annotation.RestrictTo
 import org.jetbrains.annotations.TestOnly
-import java.util.concurrent.CopyOnWriteArraySet
-import java.util.concurrent.atomic.AtomicInteger
-import kotlin.time.Duration
-import kotlin.time.ExperimentalTime
-import kotlin.time.TimeSource
-import kotlin.time.measureTime
 
+/**
+ * Tracks performance sections and notifies registered observers about them.
+ *
+ * Tracking doesn't allocate: sync sections are measured with primitive nanos and async sections are stored
+ * in a preallocated ring buffer and referenced by primitive handles. When tracking is disabled,
+ * [trackPerformanceSync] costs a single volatile read. Sections can be sampled with [setSampling].
+ */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
-@OptIn(ExperimentalTime::class)
-class AsyncSection(
-    internal val name: String,
-    internal val id: Int,
-    internal val startMark: TimeSource.Monotonic.ValueTimeMark,
-)
+object PerformanceTracker {
 
-@OptIn(ExperimentalTime::class)
-private val emptyAsyncSection = AsyncSection("empty", -1, TimeSource.Monotonic.markNow())
+    /**
+     * Handle of a section which is not tracked, because tracking is disabled or the section is not sampled.
+     */
+    const val NOT_TRACKED = AsyncSectionsBuffer.NO_SECTION
 
-@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
-object PerformanceTracker {
+    // Array instead of a concurrent collection, so that notifications don't allocate iterators
+    @Volatile
+    private var performanceObservers = emptyArray<PerformanceObserver>()
 
-    private val performanceObservers = CopyOnWriteArraySet<PerformanceObserver>()
-    private val asyncSectionIdCounter = AtomicInteger(0)
+    private val asyncSections = AsyncSectionsBuffer()
+    private val sampler = PerformanceSampler()
 
     val trackingIsActive get() = performanceObservers.isNotEmpty()
 
+    @Synchronized
     internal fun addObserver(observer: PerformanceObserver) {
-        performanceObservers.add(observer)
+        if (observer !in performanceObservers) {
+            performanceObservers += observer
+        }
     }
 
+    @Synchronized
     internal fun removeObserver(observer: PerformanceObserver) {
-        performanceObservers.remove(observer)
+        performanceObservers = performanceObservers.filter { it != observer }.toTypedArray()
+    }
+
+    /**
+     * Tracks every [sampleEvery]-th section and no more than [maxSectionsPerSecond] sections per second.
+     */
+    internal fun setSampling(sampleEvery: Int, maxSectionsPerSecond: Int) {
+        sampler.configure(sampleEvery, maxSectionsPerSecond)
     }
 
     @TestOnly
+    @Synchronized
     internal fun resetStateForTests() {
-        asyncSectionIdCounter.set(0)
-        performanceObservers.clear()
+        asyncSections.reset()
+        sampler.reset()
+        performanceObservers = emptyArray()
     }
 
-    @OptIn(ExperimentalTime::class)
-    fun asyncSectionStarted(name: String): AsyncSection {
-        if (!trackingIsActive) {
-            return emptyAsyncSection
+    /**
+     * @return handle of the started section, which should be passed to [asyncSectionCompleted].
+     */
+    fun asyncSectionStarted(name: String): Long {
+        val observers = performanceObservers
+        if (observers.isEmpty()) {
+            return NOT_TRACKED
         }
-        val id = asyncSectionIdCounter.incrementAndGet()
-        val startMark = TimeSource.Monotonic.markNow()
-        performanceObservers.forEach {
-            it.asyncSectionStarted(name, id)
+
+        val startNanos = System.nanoTime()
+        if (!sampler.sample(startNanos)) {
+            return NOT_TRACKED
         }
-        return AsyncSection(name, id, startMark)
+
+        val handle = asyncSections.start(name, startNanos)
+        val id = handle.toInt()
+        for (observer in observers) {
+            observer.asyncSectionStarted(name, id)
+        }
+        return handle
     }
 
-    @OptIn(ExperimentalTime::class)
-    fun asyncSectionCompleted(section: AsyncSection) {
-        if (section === emptyAsyncSection) {
+    fun asyncSectionCompleted(handle: Long) {
+        if (handle == NOT_TRACKED) {
+            return
+        }
+
+        val name = asyncSections.name(handle) ?: return
+        val startNanos = asyncSections.finish(handle)
+        if (startNanos == AsyncSectionsBuffer.NO_SECTION) {
             return
         }
-        val duration = section.startMark.elapsedNow()
-        performanceObservers.forEach {
-            it.asyncSectionFinished(section.name, section.id, duration)
+
+        val durationNanos = System.nanoTime() - startNanos
+        val id = handle.toInt()
+        for (observer in performanceObservers) {
+            observer.asyncSectionFinished(name, id, durationNanos)
         }
     }
 
@@ -73,28 +101,24 @@ object PerformanceTracker {
      * (e.g., beginSection/endSection). Use only for code that completes on the same
      * call stack; do not pass a suspending block.
      */
-    @OptIn(ExperimentalTime::class)
-    fun <R> trackPerformanceSync(name: String, block: () -> R): R {
+    inline fun <R> trackPerformanceSync(name: String, block: () -> R): R {
         if (!trackingIsActive) {
             return block()
         }
 
-        performanceObservers.forEach {
-            it.syncSectionStarted(name)
+        val startNanos = syncSectionStarted(name)
+        if (startNanos == NOT_TRACKED) {
+            return block()
         }
 
-        val result: R
-        var executionTime: Duration? = null
+        var completed = false
         try {
-            executionTime = measureTime {
-                result = block()
-            }
+            val result = block()
+            completed = true
+            return result
         } finally {
-            performanceObservers.forEach {
-                it.syncSectionCompleted(name, executionTime)
-            }
+            syncSectionCompleted(name, startNanos, completed)
         }
-        return result
     }
 
     /**
@@ -104,7 +128,6 @@ object PerformanceTracker {
      * (e.g., beginAsyncSection/endAsyncSection with an id). Use when work may
      * suspend, hop threads, or outlive the caller.
      */
-    @OptIn(ExperimentalTime::class)
     suspend fun <R> trackPerformanceAsync(name: String, block: suspend () -> R): R {
         if (!trackingIsActive) {
             return block()
@@ -118,4 +141,37 @@ object PerformanceTracker {
         }
         return result
     }
+
+    /**
+     * @return start time of the section or [NOT_TRACKED] if the section is not sampled.
+     */
+    @PublishedApi
+    internal fun syncSectionStarted(name: String): Long {
+        val observers = performanceObservers
+        if (observers.isEmpty()) {
+            return NOT_TRACKED
+        }
+
+        val startNanos = System.nanoTime()
+        if (!sampler.sample(startNanos)) {
+            return NOT_TRACKED
+        }
+
+        for (observer in observers) {
+            observer.syncSectionStarted(name)
+        }
+        return startNanos
+    }
+
+    @PublishedApi
+    internal fun syncSectionCompleted(name: String, startNanos: Long, completed: Boolean) {
+        val durationNanos = if (completed) {
+            System.nanoTime() - startNanos
+        } else {
+            PerformanceObserver.UNKNOWN_DURATION
+        }
+        for (observer in performanceObservers) {
+            observer.syncSectionCompleted(name, durationNanos)
+        }
+    }
 }
@@ -11,6 +11,9 @@ object SearchPerformance {
     private val loggingSwitch = PerformanceObserverSwitch(LogcatPerformanceLogging())
     private val tracingSwitch = PerformanceObserverSwitch(getTraceSectionsPerformanceObserver())
 
+    private val latencyHistograms = LatencyHistogramPerformanceObserver()
+    private val latencyHistogramsSwitch = PerformanceObserverSwitch(latencyHistograms)
+
     /***
      * Controls if Nav SDK logs performance related information to logcat on with info level.
      * @param isEnabled defines if logging is enabled
@@ -35,6 +38,53 @@ object SearchPerformance {
     fun performanceTracingEnabled(isEnabled: Boolean) {
         tracingSwitch.setEnabled(isEnabled)
     }
+
+    /***
+     * Controls how many performance sections are tracked by the enabled logging, tracing and latency histograms,
+     * so that tracking can be left enabled with a predictable overhead.
+     * A section is tracked if it's every [sampleEvery]-th started section
+     * and no more than [maxSectionsPerSecond] sections have already been tracked in the current second.
+     * By default every section is tracked.
+     * @param sampleEvery defines the sampling rate, 1 tracks every section
+     * @param maxSectionsPerSecond defines the max number of sections tracked per second
+     */
+    @MapboxExperimental
+    @JvmOverloads
+    fun performanceSampling(sampleEvery: Int, maxSectionsPerSecond: Int = Int.MAX_VALUE) {
+        PerformanceTracker.setSampling(sampleEvery, maxSectionsPerSecond)
+    }
+
+    /***
+     * Controls if Search SDK records latency histograms of the instrumented stages of search requests,
+     * such as core engine requests, creation of suggestions, or callbacks dispatch.
+     * Histograms have fixed memory footprint and are recorded without locks.
+     * Recorded data is kept when recording is disabled.
+     * @param isEnabled defines if recording is enabled
+     * @see getLatencySnapshots
+     */
+    @MapboxExperimental
+    @MainThread
+    fun latencyHistogramsEnabled(isEnabled: Boolean) {
+        latencyHistogramsSwitch.setEnabled(isEnabled)
+    }
+
+    /***
+     * Returns latency statistics of every section recorded since histograms were enabled or reset,
+     * sorted by the section name. Can be called from any thread.
+     * @return list of sections statistics
+     */
+    @MapboxExperimental
+    fun getLatencySnapshots(): List<SectionLatencySnapshot> {
+        return latencyHistograms.snapshots()
+    }
+
+    /***
+     * Resets recorded latency histograms. Can be called from any thread.
+     */
+    @MapboxExperimental
+    fun resetLatencyHistograms() {
+        latencyHistograms.reset()
+    }
 }
 
 private class PerformanceObserverSwitch(
@@ -0,0 +1,87 @@
+package com.mapbox.search.base.perf
+
+/**
+ * Latency statistics of a performance section recorded since latency histograms were enabled or reset.
+ * Percentiles are approximated with a relative error not exceeding 12.5%.
+ *
+ * @see SearchPerformance.getLatencySnapshots
+ */
+class SectionLatencySnapshot internal constructor(
+
+    /**
+     * Name of the section.
+     */
+    val name: String,
+
+    /**
+     * Number of the recorded section executions.
+     */
+    val count: Long,
+
+    /**
+     * Median latency in milliseconds.
+     */
+    val p50Millis: Double,
+
+    /**
+     * 90th percentile latency in milliseconds.
+     */
+    val p90Millis: Double,
+
+    /**
+     * 99th percentile latency in milliseconds.
+     */
+    val p99Millis: Double,
+
+    /**
+     * Max latency in milliseconds.
+     */
+    val maxMillis: Double,
+) {
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SectionLatencySnapshot
+
+        if (name != other.name) return false
+        if (count != other.count) return false
+        if (p50Millis != other.p50Millis) return false
+        if (p90Millis != other.p90Millis) return false
+        if (p99Millis != other.p99Millis) return false
+        if (maxMillis != other.maxMillis) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = name.hashCode()
+        result = 31 * result + count.hashCode()
+        result = 31 * result + p50Millis.hashCode()
+        result = 31 * result + p90Millis.hashCode()
+        result = 31 * result + p99Millis.hashCode()
+        result = 31 * result + maxMillis.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SectionLatencySnapshot(" +
+                "name='$name', " +
+                "count=$count, " +
+                "p50Millis=$p50Millis, " +
+                "p90Millis=$p90Millis, " +
+                "p99Millis=$p99Millis, " +
+                "maxMillis=$maxMillis" +
+                ")"
+    }
+}
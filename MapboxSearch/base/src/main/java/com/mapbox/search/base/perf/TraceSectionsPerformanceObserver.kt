@@ -4,7 +4,6 @@ import android.annotation.SuppressLint
 import android.os.Build
 import android.os.Trace
 import androidx.annotation.RequiresApi
-import kotlin.time.Duration
 
 private const val MAPBOX_TRACE_ID = "mbx"
 private const val NAV_SDK_PREFIX = "search-sdk"
@@ -17,7 +16,7 @@ internal class TraceSectionsPerformanceObserver : PerformanceObserver {
         Trace.beginSection(wrapSectionName(name))
     }
 
-    override fun syncSectionCompleted(name: String, duration: Duration?) {
+    override fun syncSectionCompleted(name: String, durationNanos: Long) {
         Trace.endSection()
     }
 
@@ -26,7 +25,7 @@ internal class TraceSectionsPerformanceObserver : PerformanceObserver {
         Trace.beginAsyncSection(wrapSectionName(name), id)
     }
 
-    override fun asyncSectionFinished(name: String, id: Int, duration: Duration?) {
+    override fun asyncSectionFinished(name: String, id: Int, durationNanos: Long) {
         Trace.endAsyncSection(wrapSectionName(name), id)
     }
 
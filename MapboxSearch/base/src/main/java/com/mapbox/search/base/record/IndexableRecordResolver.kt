@@ -2,9 +2,18 @@ package com.mapbox.search.base.record
 
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
 
 interface IndexableRecordResolver {
+
+    /**
+     * Returns the record if it's already loaded and can be resolved on the calling thread,
+     * `null` means that the record should be resolved with [resolve].
+     */
+    fun resolveIfLoaded(dataProviderName: String, userRecordId: String): BaseIndexableRecord? = null
+
     fun resolve(
         dataProviderName: String,
         userRecordId: String,
@@ -12,6 +21,47 @@ interface IndexableRecordResolver {
         callback: (Result<BaseIndexableRecord>) -> Unit
     ): AsyncOperationTask
 
+    /**
+     * Resolves records of multiple data providers at once. [userRecordIds] are record ids grouped by data provider name.
+     * [callback] receives the records found in each of the data providers, grouped by their ids,
+     * or an error if the data provider can't provide its records.
+     */
+    fun resolveAll(
+        userRecordIds: Map<String, List<String>>,
+        executor: Executor,
+        callback: (Map<String, Result<Map<String, BaseIndexableRecord>>>) -> Unit
+    ): AsyncOperationTask {
+        val resolvedRecords = ConcurrentHashMap<Pair<String, String>, Result<BaseIndexableRecord>>()
+        val remaining = AtomicInteger(userRecordIds.values.sumOf { it.size })
+        if (remaining.get() == 0) {
+            executor.execute {
+                callback(userRecordIds.mapValues { Result.success(emptyMap()) })
+            }
+            return AsyncOperationTaskImpl.COMPLETED
+        }
+
+        val task = AsyncOperationTaskImpl<Any>()
+        userRecordIds.forEach { (dataProviderName, ids) ->
+            ids.forEach { id ->
+                task += resolve(dataProviderName, id, executor) { result ->
+                    resolvedRecords[dataProviderName to id] = result
+                    if (remaining.decrementAndGet() == 0) {
+                        task.onComplete()
+                        callback(
+                            userRecordIds.mapValues { (name, recordIds) ->
+                                val records = recordIds.mapNotNull { recordId ->
+                                    resolvedRecords[name to recordId]?.getOrNull()?.let { recordId to it }
+                                }
+                                Result.success(records.toMap())
+                            }
+                        )
+                    }
+                }
+            }
+        }
+        return task
+    }
+
     companion object {
         val EMPTY = object : IndexableRecordResolver {
             override fun resolve(
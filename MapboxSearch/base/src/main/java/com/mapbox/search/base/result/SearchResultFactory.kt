@@ -4,6 +4,8 @@ import com.mapbox.search.base.BaseRequestOptions
 import com.mapbox.search.base.core.CoreApiType
 import com.mapbox.search.base.core.CoreResultType
 import com.mapbox.search.base.failDebug
+import com.mapbox.search.base.perf.PerformanceSections
+import com.mapbox.search.base.perf.PerformanceTracker
 import com.mapbox.search.base.record.BaseIndexableRecord
 import com.mapbox.search.base.record.IndexableRecordResolver
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
@@ -191,6 +193,65 @@ class SearchResultFactory(private val recordResolver: IndexableRecordResolver) {
         }
     }
 
+    /**
+     * Creates suggestions for [searchResults], [callback] is called for each of them with the index of the search result.
+     * User records which are not loaded yet are resolved with a single request per data provider,
+     * other suggestions are created with [createSearchSuggestionAsync].
+     */
+    fun createSearchSuggestionsAsync(
+        searchResults: List<BaseRawSearchResult>,
+        requestOptions: BaseRequestOptions,
+        apiType: CoreApiType,
+        callbackExecutor: Executor,
+        callback: (Int, Result<BaseSearchSuggestion>) -> Unit
+    ): AsyncOperationTask {
+        val task = AsyncOperationTaskImpl<Any>()
+        val unresolvedRecords = mutableListOf<IndexedValue<BaseRawSearchResult>>()
+
+        searchResults.forEachIndexed { index, searchResult ->
+            val layerId = searchResult.layerId
+            if (searchResult.type == CoreResultType.USER_RECORD && searchResult.action == null && layerId != null) {
+                val loadedRecord = recordResolver.resolveIfLoaded(layerId, searchResult.userRecordId ?: searchResult.id)
+                if (loadedRecord == null) {
+                    unresolvedRecords.add(IndexedValue(index, searchResult))
+                } else {
+                    callbackExecutor.execute {
+                        callback(index, Result.success(BaseIndexableRecordSearchSuggestion(loadedRecord, searchResult, requestOptions)))
+                    }
+                }
+            } else {
+                task += createSearchSuggestionAsync(searchResult, requestOptions, apiType, callbackExecutor) {
+                    callback(index, it)
+                }
+            }
+        }
+
+        if (unresolvedRecords.isEmpty()) {
+            return task
+        }
+
+        val userRecordIds = unresolvedRecords
+            .groupBy({ requireNotNull(it.value.layerId) }, { it.value.userRecordId ?: it.value.id })
+            .mapValues { (_, ids) -> ids.distinct() }
+
+        val resolutionSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.RECORDS_RESOLUTION)
+        task += recordResolver.resolveAll(userRecordIds, callbackExecutor) { results ->
+            PerformanceTracker.asyncSectionCompleted(resolutionSection)
+            unresolvedRecords.forEach { (index, searchResult) ->
+                val layerId = requireNotNull(searchResult.layerId)
+                val recordId = searchResult.userRecordId ?: searchResult.id
+                val result = (results[layerId] ?: Result.failure(Exception("No result for `$layerId` data provider")))
+                    .mapCatching { records ->
+                        val record = records[recordId]
+                            ?: throw Exception("No record with id `$recordId` in `$layerId` data provider")
+                        BaseIndexableRecordSearchSuggestion(record, searchResult, requestOptions)
+                    }
+                callback(index, result)
+            }
+        }
+        return task
+    }
+
     fun resolveIndexableRecordSearchResultAsync(
         searchResult: BaseRawSearchResult,
         callbackExecutor: Executor,
@@ -216,6 +277,15 @@ class SearchResultFactory(private val recordResolver: IndexableRecordResolver) {
         }
 
         val recordId = searchResult.userRecordId ?: searchResult.id
+
+        val loadedRecord = recordResolver.resolveIfLoaded(layerId, recordId)
+        if (loadedRecord != null) {
+            callbackExecutor.execute {
+                callback(Result.success(loadedRecord))
+            }
+            return AsyncOperationTaskImpl.COMPLETED
+        }
+
         return recordResolver.resolve(layerId, recordId, callbackExecutor, callback)
     }
 
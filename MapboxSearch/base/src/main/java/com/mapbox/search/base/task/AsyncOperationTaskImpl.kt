@@ -2,7 +2,7 @@ package com.mapbox.search.base.task
 
 import androidx.annotation.VisibleForTesting
 
-class AsyncOperationTaskImpl<T>(delegate: T? = null) : ExtendedAsyncOperationTask<T> {
+open class AsyncOperationTaskImpl<T>(delegate: T? = null) : ExtendedAsyncOperationTask<T> {
 
     private val cancelableList: MutableList<CancelableWrapper> = mutableListOf()
     private val onCancelledCallbacks: MutableList<OnCancelledCallback> = mutableListOf()
@@ -12,7 +12,7 @@ class AsyncOperationTaskImpl<T>(delegate: T? = null) : ExtendedAsyncOperationTas
         @Synchronized
         get() = onCancelledCallbacks.isNotEmpty()
 
-    override var callbackDelegate: T? = null
+    final override var callbackDelegate: T? = null
         @Synchronized
         set(value) {
             field = if (isCompleted) {
@@ -24,14 +24,14 @@ class AsyncOperationTaskImpl<T>(delegate: T? = null) : ExtendedAsyncOperationTas
         @Synchronized get
 
     override var callbackActionExecuted: Boolean = false
-        @Synchronized private set
+        @Synchronized protected set
         @Synchronized get
 
-    override var isDone: Boolean = false
+    final override var isDone: Boolean = false
         @Synchronized private set
         @Synchronized get
 
-    override var isCancelled: Boolean = false
+    final override var isCancelled: Boolean = false
         @Synchronized private set
         @Synchronized get
 
@@ -1,6 +1,8 @@
 package com.mapbox.search.base.task
 
 import com.mapbox.common.Cancelable
+import com.mapbox.search.base.perf.PerformanceSections
+import com.mapbox.search.base.perf.PerformanceTracker
 import com.mapbox.search.common.AsyncOperationTask
 import java.util.concurrent.Executor
 import java.util.concurrent.Future
@@ -45,13 +47,17 @@ interface ExtendedAsyncOperationTask<T> : AsyncOperationTask {
     }
 
     fun markExecutedAndRunOnCallback(executor: Executor, action: T.() -> Unit) {
+        val dispatchSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CALLBACK_DISPATCH)
         executor.execute {
+            PerformanceTracker.asyncSectionCompleted(dispatchSection)
             markExecutedAndRunOnCallback(action)
         }
     }
 
     fun markCancelledAndRunOnCallback(executor: Executor, action: T.() -> Unit) {
+        val dispatchSection = PerformanceTracker.asyncSectionStarted(PerformanceSections.CALLBACK_DISPATCH)
         executor.execute {
+            PerformanceTracker.asyncSectionCompleted(dispatchSection)
             markCancelledAndRunOnCallback(action)
         }
     }
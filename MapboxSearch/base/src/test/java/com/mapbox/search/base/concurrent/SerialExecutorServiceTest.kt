@@ -0,0 +1,64 @@
+package com.mapbox.search.base.concurrent
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+internal class SerialExecutorServiceTest {
+
+    @TestFactory
+    fun `Check tasks execution order`() = TestCase {
+        Given("SerialExecutorService with a multi-threaded executor") {
+            val queued = mutableListOf<Runnable>()
+            val executor = SerialExecutorService(Executor { queued.add(it) })
+            val executed = mutableListOf<Int>()
+
+            When("Several tasks submitted") {
+                executor.execute { executed.add(1) }
+                executor.execute { executed.add(2) }
+                executor.execute { executed.add(3) }
+
+                Then("Only one task is passed to the underlying executor", 1, queued.size)
+
+                while (queued.isNotEmpty()) {
+                    queued.removeAt(0).run()
+                }
+
+                Then("Tasks are executed in the submission order", listOf(1, 2, 3), executed)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check executor shutdown`() = TestCase {
+        Given("SerialExecutorService") {
+            val queued = mutableListOf<Runnable>()
+            val executor = SerialExecutorService(Executor { queued.add(it) })
+
+            When("Executor shut down with a task in progress") {
+                executor.execute { }
+                executor.execute { }
+
+                val notStarted = executor.shutdownNow()
+
+                Then("Executor is shut down", true, executor.isShutdown)
+                Then("Not started tasks returned", 1, notStarted.size)
+                Then("Executor is not terminated", false, executor.isTerminated)
+
+                queued.removeAt(0).run()
+
+                Then("Executor is terminated", true, executor.isTerminated)
+                Then("Termination awaited", true, executor.awaitTermination(1, TimeUnit.SECONDS))
+                Then("No more tasks passed to the underlying executor", 0, queued.size)
+            }
+
+            When("Task submitted after shutdown") {
+                val exception = runCatching { executor.execute { } }.exceptionOrNull()
+
+                Then("Task is rejected", true, exception is RejectedExecutionException)
+            }
+        }
+    }
+}
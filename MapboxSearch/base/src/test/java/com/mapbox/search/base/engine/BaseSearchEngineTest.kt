@@ -0,0 +1,107 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.search.base.task.AsyncOperationTaskImpl
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class BaseSearchEngineTest {
+
+    @TestFactory
+    fun `Check identical concurrent requests share a single call`() = TestCase {
+        Given("BaseSearchEngine") {
+            val engine = TestSearchEngine()
+
+            When("Two requests with equal keys and one with different key made") {
+                val results = mutableListOf<String>()
+                val executor1 = RecordingExecutor()
+                val executor2 = RecordingExecutor()
+
+                val task1 = engine.request("key-1", executor1) { results.add("callback-1: $it") }
+                val task2 = engine.request("key-1", executor2) { results.add("callback-2: $it") }
+                engine.request("key-2", executor1) { results.add("callback-3: $it") }
+
+                engine.calls.first().markExecutedAndRunOnCallback(executor1) { onResult("result") }
+
+                Then("Search call made once per key", 2, engine.calls.size)
+                Then("Result delivered to every subscriber", listOf("callback-1: result", "callback-2: result"), results)
+                Then("Result delivered on subscribers' executors", listOf(1, 1), listOf(executor1.runs, executor2.runs))
+                Then("Subscribers' tasks are executed", listOf(true, true), listOf(task1.isDone, task2.isDone))
+            }
+
+            When("Request with equal key made after the shared request finished") {
+                engine.request("key-1", RecordingExecutor()) {}
+
+                Then("New search call made", 3, engine.calls.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check shared request cancellation`() = TestCase {
+        Given("BaseSearchEngine") {
+            val engine = TestSearchEngine()
+
+            When("One of two subscribers cancels request") {
+                val task1 = engine.request("key", RecordingExecutor()) {}
+                val task2 = engine.request("key", RecordingExecutor()) {}
+
+                task1.cancel()
+
+                Then("Subscriber's task is cancelled", true, task1.isCancelled)
+                Then("Shared request is not cancelled", false, engine.calls.single().isCancelled)
+
+                task2.cancel()
+
+                Then("Shared request is cancelled when all the subscribers cancelled", true, engine.calls.single().isCancelled)
+            }
+
+            When("Request with equal key made after the shared request cancelled") {
+                engine.request("key", RecordingExecutor()) {}
+
+                Then("New search call made", 2, engine.calls.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check shared request cancellation initiated by SDK`() = TestCase {
+        Given("BaseSearchEngine") {
+            val engine = TestSearchEngine()
+
+            When("Shared request cancelled by SDK") {
+                val errors = mutableListOf<String>()
+                val task1 = engine.request("key", RecordingExecutor()) { errors.add(it) }
+                val task2 = engine.request("key", RecordingExecutor()) { errors.add(it) }
+
+                engine.calls.single().markCancelledAndRunOnCallback(RecordingExecutor()) { onResult("cancelled") }
+
+                Then("Every subscriber notified", listOf("cancelled", "cancelled"), errors)
+                Then("Subscribers' tasks are cancelled", listOf(true, true), listOf(task1.isCancelled, task2.isCancelled))
+            }
+        }
+    }
+
+    private fun interface TestCallback {
+        fun onResult(result: String)
+    }
+
+    private class TestSearchEngine : BaseSearchEngine() {
+
+        val calls = mutableListOf<AsyncOperationTaskImpl<TestCallback>>()
+
+        fun request(key: String, executor: Executor, callback: TestCallback) = makeRequest(key, callback, executor) {
+            calls.add(it)
+        }
+    }
+
+    private class RecordingExecutor : Executor {
+
+        var runs = 0
+
+        override fun execute(command: Runnable) {
+            runs++
+            command.run()
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+internal class OrderedResultsCollectorTest {
+
+    @TestFactory
+    fun `Check results collected in order of indices`() = TestCase {
+        Given("OrderedResultsCollector of 3 results") {
+            val collected = mutableListOf<List<String>>()
+            val collector = OrderedResultsCollector<String>(3) {
+                collected.add(it)
+            }
+
+            When("Results are provided in arbitrary order") {
+                collector.collect(2, "result-2")
+                collector.collect(0, "result-0")
+                val collectedBeforeLast = collected.toList()
+
+                collector.collect(0, "duplicated result-0")
+                collector.collect(1, "result-1")
+                collector.collect(1, "duplicated result-1")
+
+                Then("Results are not published before all of them are collected", emptyList<List<String>>(), collectedBeforeLast)
+                Then(
+                    "Results are published once, in order of indices",
+                    listOf(listOf("result-0", "result-1", "result-2")),
+                    collected
+                )
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check results collected concurrently`() = TestCase {
+        Given("OrderedResultsCollector of 1000 results") {
+            val size = 1000
+            val collected = mutableListOf<List<Int>>()
+            val latch = CountDownLatch(1)
+            val collector = OrderedResultsCollector<Int>(size) {
+                synchronized(collected) {
+                    collected.add(it)
+                }
+                latch.countDown()
+            }
+
+            When("Results are provided from different threads") {
+                val executor = Executors.newFixedThreadPool(8)
+                (0 until size).reversed().forEach { index ->
+                    executor.execute {
+                        collector.collect(index, index)
+                    }
+                }
+                latch.await(10, TimeUnit.SECONDS)
+                executor.shutdown()
+
+                Then("All the results are published once, in order of indices", listOf((0 until size).toList()), collected)
+            }
+        }
+    }
+}
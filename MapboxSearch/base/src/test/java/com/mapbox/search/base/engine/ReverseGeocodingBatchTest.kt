@@ -0,0 +1,177 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.test.dsl.TestCase
+import io.mockk.mockk
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class ReverseGeocodingBatchTest {
+
+    private val requests = mutableListOf<Pair<Int, ReverseGeocodingBatch.RequestCallback<String>>>()
+    private val tasks = mutableListOf<AsyncOperationTask>()
+
+    private val delivered = mutableListOf<Pair<Int, String>>()
+    private val completed = mutableListOf<List<String>>()
+    private val errors = mutableListOf<Exception>()
+
+    private fun createBatch(
+        points: List<Point>,
+        keys: List<String> = points.map { "key" },
+        maxConcurrentRequests: Int = 2,
+        cache: SpatialResultsCache<String, String> = SpatialResultsCache(maxSize = 10),
+    ) = ReverseGeocodingBatch(
+        points = points,
+        keys = keys,
+        dedupRadiusMeters = 10.0,
+        maxConcurrentRequests = maxConcurrentRequests,
+        cache = cache,
+        request = { index, callback ->
+            requests.add(index to callback)
+            mockk<AsyncOperationTask>(relaxed = true).also { tasks.add(it) }
+        },
+        callbackExecutor = Executor { it.run() },
+        callback = object : ReverseGeocodingBatch.Callback<String> {
+            override fun onResult(index: Int, result: String) {
+                delivered.add(index to result)
+            }
+
+            override fun onComplete(results: List<String>) {
+                completed.add(results)
+            }
+
+            override fun onError(e: Exception) {
+                errors.add(e)
+            }
+        },
+    )
+
+    @TestFactory
+    fun `Check batch results`() = TestCase {
+        Given("ReverseGeocodingBatch with duplicated and cached points") {
+            val cache = SpatialResultsCache<String, String>(maxSize = 10)
+            cache.put("key", Point.fromLngLat(5.0, 5.0), "cached")
+
+            val batch = createBatch(
+                points = listOf(
+                    Point.fromLngLat(1.0, 1.0),
+                    Point.fromLngLat(1.00001, 1.0),
+                    Point.fromLngLat(5.0, 5.0),
+                    Point.fromLngLat(2.0, 2.0),
+                    Point.fromLngLat(3.0, 3.0),
+                ),
+                cache = cache,
+            )
+
+            When("Batch started") {
+                batch.start()
+
+                Then("Concurrent requests limit respected", listOf(0, 3), requests.map { it.first })
+                Then("No results delivered", emptyList<Pair<Int, String>>(), delivered.toList())
+            }
+
+            When("Later request completed first") {
+                requests[1].second.onResult("result-3")
+
+                Then("Next pending point requested", listOf(0, 3, 4), requests.map { it.first })
+                Then("Results are not delivered out of order", emptyList<Pair<Int, String>>(), delivered.toList())
+            }
+
+            When("First request completed") {
+                requests[0].second.onResult("result-0")
+
+                Then(
+                    "Results delivered in order, duplicated and cached points resolved without a request",
+                    listOf(0 to "result-0", 1 to "result-0", 2 to "cached", 3 to "result-3"),
+                    delivered.toList()
+                )
+            }
+
+            When("Last request completed") {
+                requests[2].second.onResult("result-4")
+
+                Then(
+                    "All results delivered",
+                    listOf(listOf("result-0", "result-0", "cached", "result-3", "result-4")),
+                    completed.toList()
+                )
+                Then("Batch is done", true, batch.isDone)
+                Then("Results are cached", "result-4", cache.get("key", Point.fromLngLat(3.0, 3.0), 0.0))
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check points with different keys`() = TestCase {
+        Given("ReverseGeocodingBatch with the same points and different keys") {
+            val point = Point.fromLngLat(1.0, 1.0)
+            val batch = createBatch(points = listOf(point, point), keys = listOf("key-1", "key-2"))
+
+            When("Batch started") {
+                batch.start()
+
+                Then("Each point requested", listOf(0, 1), requests.map { it.first })
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check batch error`() = TestCase {
+        Given("ReverseGeocodingBatch") {
+            val batch = createBatch(points = listOf(Point.fromLngLat(1.0, 1.0), Point.fromLngLat(2.0, 2.0)))
+
+            When("Request failed") {
+                batch.start()
+                requests[1].second.onError(TEST_ERROR)
+                requests[0].second.onResult("result-0")
+
+                Then("Error delivered", listOf(TEST_ERROR), errors.toList())
+                Then("No results delivered after error", emptyList<Pair<Int, String>>(), delivered.toList())
+                Then("Batch is done", true, batch.isDone)
+
+                Verify("Other requests cancelled") {
+                    tasks[0].cancel()
+                }
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check batch cancellation`() = TestCase {
+        Given("ReverseGeocodingBatch") {
+            val batch = createBatch(points = listOf(Point.fromLngLat(1.0, 1.0), Point.fromLngLat(2.0, 2.0)))
+
+            When("Batch cancelled") {
+                batch.start()
+                batch.cancel()
+                requests[0].second.onResult("result-0")
+
+                Then("Batch is cancelled", true, batch.isCancelled)
+                Then("No results delivered", emptyList<Pair<Int, String>>(), delivered.toList())
+
+                Verify("Requests cancelled") {
+                    tasks[0].cancel()
+                    tasks[1].cancel()
+                }
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check empty batch`() = TestCase {
+        Given("ReverseGeocodingBatch without points") {
+            val batch = createBatch(points = emptyList())
+
+            When("Batch started") {
+                batch.start()
+
+                Then("Empty results delivered", listOf(emptyList<String>()), completed.toList())
+            }
+        }
+    }
+
+    private companion object {
+        val TEST_ERROR = Exception("test error")
+    }
+}
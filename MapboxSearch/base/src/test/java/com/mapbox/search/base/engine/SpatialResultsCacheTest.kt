@@ -0,0 +1,74 @@
+package com.mapbox.search.base.engine
+
+import com.mapbox.geojson.Point
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+
+internal class SpatialResultsCacheTest {
+
+    private var currentTime = 0L
+
+    @TestFactory
+    fun `Check values lookup`() = TestCase {
+        Given("SpatialResultsCache with a value") {
+            val cache = SpatialResultsCache<String, String>(maxSize = 10, timeProvider = { currentTime })
+            cache.put("key", BERLIN, "value")
+
+            When("Value requested for a point within radius") {
+                // ~7 meters away
+                val value = cache.get("key", Point.fromLngLat(13.40005, 52.50005), 10.0)
+
+                Then("Value returned", "value", value)
+            }
+
+            When("Value requested for a point outside of radius") {
+                // ~20 meters away
+                val value = cache.get("key", Point.fromLngLat(13.4003, 52.5), 10.0)
+
+                Then("No value returned", null, value)
+            }
+
+            When("Value requested with a different key") {
+                val value = cache.get("another key", BERLIN, 10.0)
+
+                Then("No value returned", null, value)
+            }
+
+            When("Value requested for a point in the neighbouring grid cell") {
+                cache.put("key", Point.fromLngLat(0.00089, 0.0), "equator value")
+                val value = cache.get("key", Point.fromLngLat(0.00091, 0.0), 5.0)
+
+                Then("Value returned", "equator value", value)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check values eviction`() = TestCase {
+        Given("SpatialResultsCache with max size 2") {
+            val cache = SpatialResultsCache<String, String>(maxSize = 2, ttlMillis = 100, timeProvider = { currentTime })
+
+            When("More values than max size put") {
+                cache.put("key", Point.fromLngLat(1.0, 1.0), "value-1")
+                cache.put("key", Point.fromLngLat(2.0, 2.0), "value-2")
+                cache.get("key", Point.fromLngLat(1.0, 1.0), 0.0)
+                cache.put("key", Point.fromLngLat(3.0, 3.0), "value-3")
+
+                Then("Cache size is limited", 2, cache.size)
+                Then("Least recently used value evicted", null, cache.get("key", Point.fromLngLat(2.0, 2.0), 0.0))
+                Then("Recently used value kept", "value-1", cache.get("key", Point.fromLngLat(1.0, 1.0), 0.0))
+            }
+
+            When("Value expired") {
+                currentTime += 100
+
+                Then("No value returned", null, cache.get("key", Point.fromLngLat(3.0, 3.0), 0.0))
+                Then("Expired value removed", 1, cache.size)
+            }
+        }
+    }
+
+    private companion object {
+        val BERLIN: Point = Point.fromLngLat(13.4, 52.5)
+    }
+}
@@ -0,0 +1,72 @@
+package com.mapbox.search.base.perf
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.TimeUnit
+
+internal class LatencyHistogramPerformanceObserverTest {
+
+    @TestFactory
+    fun `Check histogram buckets`() = TestCase {
+        Given("LatencyHistogram buckets") {
+            val values = (0L..100_000L) + listOf(1L shl 20, (1L shl 30) + 12345, LatencyHistogram.MAX_TRACKABLE_MICROS)
+
+            When("Bucket bounds calculated for recorded values") {
+                val valuesOutOfBucket = values.filter { value ->
+                    val index = LatencyHistogram.bucketIndex(value)
+                    val upperBound = LatencyHistogram.bucketUpperBound(index)
+                    val previousUpperBound = if (index == 0) -1 else LatencyHistogram.bucketUpperBound(index - 1)
+                    value > upperBound || value <= previousUpperBound
+                }
+
+                val maxRelativeError = values.filter { it > 0 }.maxOf { value ->
+                    val upperBound = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value))
+                    (upperBound - value).toDouble() / value
+                }
+
+                Then("Every value is within its bucket bounds", emptyList<Long>(), valuesOutOfBucket)
+                Then(
+                    "Relative error doesn't exceed 1 / SUB_BUCKETS",
+                    true,
+                    maxRelativeError < 1.0 / LatencyHistogram.SUB_BUCKETS
+                )
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check recorded latencies`() = TestCase {
+        Given("LatencyHistogramPerformanceObserver") {
+            val observer = LatencyHistogramPerformanceObserver()
+
+            When("Latencies from 1 to 100 ms recorded for sync and async sections") {
+                (1..100).forEach {
+                    observer.syncSectionCompleted("sync", TimeUnit.MILLISECONDS.toNanos(it.toLong()))
+                    observer.asyncSectionFinished("async", it, TimeUnit.MILLISECONDS.toNanos(it.toLong()))
+                }
+                observer.syncSectionCompleted("sync", PerformanceObserver.UNKNOWN_DURATION)
+
+                val snapshots = observer.snapshots()
+                val sync = snapshots.last()
+
+                Then("Snapshots are sorted by name", listOf("async", "sync"), snapshots.map { it.name })
+                Then("Sections without duration are ignored", 100L, sync.count)
+                Then("Max is precise", 100.0, sync.maxMillis)
+                Then("p50 is approximated", true, sync.p50Millis in 50.0..50.0 * 1.125)
+                Then("p90 is approximated", true, sync.p90Millis in 90.0..90.0 * 1.125)
+                Then("p99 is approximated", true, sync.p99Millis in 99.0..100.0)
+                Then("Async sections are recorded the same way", sync.p50Millis, snapshots.first().p50Millis)
+            }
+
+            When("Histograms reset") {
+                observer.reset()
+                observer.syncSectionCompleted("sync", TimeUnit.MICROSECONDS.toNanos(500))
+
+                val sync = observer.snapshots().last()
+
+                Then("Only new latencies are counted", 1L, sync.count)
+                Then("Percentiles don't exceed max", 0.5, sync.p99Millis)
+            }
+        }
+    }
+}
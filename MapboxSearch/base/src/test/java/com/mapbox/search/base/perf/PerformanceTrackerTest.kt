@@ -0,0 +1,150 @@
+package com.mapbox.search.base.perf
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.TestFactory
+
+internal class PerformanceTrackerTest {
+
+    private lateinit var observer: RecordingObserver
+
+    @BeforeEach
+    fun setUp() {
+        PerformanceTracker.resetStateForTests()
+        observer = RecordingObserver()
+        PerformanceTracker.addObserver(observer)
+    }
+
+    @AfterEach
+    fun tearDown() {
+        PerformanceTracker.resetStateForTests()
+    }
+
+    @TestFactory
+    fun `Check sync sections tracking`() = TestCase {
+        Given("PerformanceTracker with an observer") {
+            When("Sync sections tracked") {
+                val result = PerformanceTracker.trackPerformanceSync("success") { 42 }
+                val exception = runCatching {
+                    PerformanceTracker.trackPerformanceSync<Unit>("failure") { throw IllegalStateException() }
+                }.exceptionOrNull()
+
+                Then("Block result is returned", 42, result)
+                Then("Block exception is rethrown", true, exception is IllegalStateException)
+                Then("Sections started", listOf("success", "failure"), observer.syncStarted)
+                Then("Sections completed", listOf("success", "failure"), observer.syncCompleted.map { it.first })
+                Then(
+                    "Duration is known only for the successful section",
+                    listOf(true, false),
+                    observer.syncCompleted.map { it.second != PerformanceObserver.UNKNOWN_DURATION }
+                )
+            }
+
+            When("Observer removed") {
+                PerformanceTracker.removeObserver(observer)
+                PerformanceTracker.trackPerformanceSync("not tracked") { }
+
+                Then("Tracking is not active", false, PerformanceTracker.trackingIsActive)
+                Then("Section is not tracked", false, "not tracked" in observer.syncStarted)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check async sections tracking`() = TestCase {
+        Given("PerformanceTracker with an observer") {
+            When("Async section started and completed twice") {
+                val handle = PerformanceTracker.asyncSectionStarted("async")
+                PerformanceTracker.asyncSectionCompleted(handle)
+                PerformanceTracker.asyncSectionCompleted(handle)
+
+                Then("Section started", listOf("async" to handle.toInt()), observer.asyncStarted)
+                Then("Section finished once", listOf("async" to handle.toInt()), observer.asyncFinished)
+            }
+
+            When("Not tracked section completed") {
+                PerformanceTracker.asyncSectionCompleted(PerformanceTracker.NOT_TRACKED)
+
+                Then("Observer is not notified", 1, observer.asyncFinished.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check async sections overwritten in the buffer`() = TestCase {
+        Given("AsyncSectionsBuffer with capacity of 2") {
+            val buffer = AsyncSectionsBuffer(capacity = 2)
+
+            When("Third section started") {
+                val first = buffer.start("first", 1)
+                val second = buffer.start("second", 2)
+                val third = buffer.start("third", 3)
+
+                Then("Overwritten section has no name", null, buffer.name(first))
+                Then("Overwritten section can't be finished", AsyncSectionsBuffer.NO_SECTION, buffer.finish(first))
+                Then("Section name is available", "second", buffer.name(second))
+                Then("Start time is returned", 2L, buffer.finish(second))
+                Then("Finished section has no name", null, buffer.name(second))
+                Then("Start time is returned", 3L, buffer.finish(third))
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check sections sampling`() = TestCase {
+        Given("PerformanceTracker with 1-in-3 sampling") {
+            PerformanceTracker.setSampling(sampleEvery = 3, maxSectionsPerSecond = Int.MAX_VALUE)
+
+            When("9 sync sections tracked") {
+                repeat(9) { index ->
+                    PerformanceTracker.trackPerformanceSync("section $index") { }
+                }
+
+                Then(
+                    "Every 3rd section is tracked",
+                    listOf("section 2", "section 5", "section 8"),
+                    observer.syncStarted
+                )
+                Then("Only tracked sections completed", 3, observer.syncCompleted.size)
+            }
+        }
+
+        Given("PerformanceSampler limited to 2 sections per second") {
+            val sampler = PerformanceSampler()
+            sampler.configure(sampleEvery = 1, maxSectionsPerSecond = 2)
+
+            When("Sections sampled within a second and in the next second") {
+                val firstSecond = List(3) { sampler.sample(nowNanos = it * 1000L) }
+                val nextSecond = List(3) { sampler.sample(nowNanos = 1_000_000_000L + it) }
+
+                Then("Sections over the limit are not sampled", listOf(true, true, false), firstSecond)
+                Then("Limit is reset in the next second", listOf(true, true, false), nextSecond)
+            }
+        }
+    }
+
+    private class RecordingObserver : PerformanceObserver {
+
+        val syncStarted = mutableListOf<String>()
+        val syncCompleted = mutableListOf<Pair<String, Long>>()
+        val asyncStarted = mutableListOf<Pair<String, Int>>()
+        val asyncFinished = mutableListOf<Pair<String, Int>>()
+
+        override fun syncSectionStarted(name: String) {
+            syncStarted.add(name)
+        }
+
+        override fun syncSectionCompleted(name: String, durationNanos: Long) {
+            syncCompleted.add(name to durationNanos)
+        }
+
+        override fun asyncSectionStarted(name: String, id: Int) {
+            asyncStarted.add(name to id)
+        }
+
+        override fun asyncSectionFinished(name: String, id: Int, durationNanos: Long) {
+            asyncFinished.add(name to id)
+        }
+    }
+}
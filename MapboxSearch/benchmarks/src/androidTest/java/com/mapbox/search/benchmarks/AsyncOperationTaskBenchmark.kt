@@ -0,0 +1,88 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.mapbox.search.base.task.AsyncOperationTaskImpl
+import com.mapbox.search.common.tests.TestExecutor
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures state transitions of [AsyncOperationTaskImpl], which happen several times per search request.
+ */
+@RunWith(AndroidJUnit4::class)
+internal class AsyncOperationTaskBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    @Volatile
+    private var sharedTask = AsyncOperationTaskImpl<Runnable>()
+
+    @Volatile
+    private var contendersStopped = false
+    private val contenders = mutableListOf<Thread>()
+
+    @After
+    fun tearDown() {
+        contendersStopped = true
+        contenders.forEach { it.join() }
+    }
+
+    @Test
+    fun executeTask() {
+        benchmarkRule.measureRepeated {
+            runTask(AsyncOperationTaskImpl(NO_OP_CALLBACK))
+        }
+    }
+
+    @Test
+    fun cancelTask() {
+        benchmarkRule.measureRepeated {
+            val task = AsyncOperationTaskImpl(NO_OP_CALLBACK)
+            task += AsyncOperationTaskImpl.COMPLETED
+            task.cancel()
+            check(task.isCancelled)
+        }
+    }
+
+    /**
+     * Task state is read concurrently by other threads, like it's done by callbacks of the native engine
+     * and by the data providers while a request is in progress.
+     */
+    @Test
+    fun executeTaskUnderContention() {
+        repeat(CONTENDERS_COUNT) {
+            contenders += Thread {
+                while (!contendersStopped) {
+                    val task = sharedTask
+                    if (!task.isCompleted) {
+                        task.callbackActionExecuted
+                    }
+                }
+            }.apply { start() }
+        }
+
+        benchmarkRule.measureRepeated {
+            val task = AsyncOperationTaskImpl(NO_OP_CALLBACK)
+            sharedTask = task
+            runTask(task)
+        }
+    }
+
+    private fun runTask(task: AsyncOperationTaskImpl<Runnable>) {
+        task += AsyncOperationTaskImpl.COMPLETED
+        task.markExecutedAndRunOnCallback(TestExecutor()) {
+            run()
+        }
+        check(task.isDone)
+    }
+
+    private companion object {
+        const val CONTENDERS_COUNT = 3
+        val NO_OP_CALLBACK = Runnable { }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mapbox.search.benchmarks
+
+import com.mapbox.search.base.core.CoreSearchCallback
+import com.mapbox.search.base.core.CoreSearchEngineInterface
+import com.mapbox.search.base.core.CoreSearchResponse
+import com.mapbox.search.base.record.BaseIndexableRecord
+import com.mapbox.search.base.record.IndexableRecordResolver
+import com.mapbox.search.base.task.AsyncOperationTaskImpl
+import com.mapbox.search.common.AsyncOperationTask
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Stand-in for the native search engine, which synchronously responds to every request with [response].
+ * Implemented with a dynamic proxy, so that it's independent of the native engine interface changes.
+ */
+internal class FakeCoreSearchEngine(
+    private val response: () -> CoreSearchResponse,
+) : InvocationHandler {
+
+    private val requestId = AtomicLong()
+
+    val engine: CoreSearchEngineInterface = Proxy.newProxyInstance(
+        CoreSearchEngineInterface::class.java.classLoader,
+        arrayOf(CoreSearchEngineInterface::class.java),
+        this,
+    ) as CoreSearchEngineInterface
+
+    override fun invoke(proxy: Any, method: Method, args: Array<out Any?>?): Any? {
+        return when (method.name) {
+            "equals" -> proxy === args?.firstOrNull()
+            "hashCode" -> System.identityHashCode(proxy)
+            "toString" -> "FakeCoreSearchEngine"
+            else -> {
+                args?.filterIsInstance<CoreSearchCallback>()?.firstOrNull()?.run(response())
+                defaultValue(method.returnType)
+            }
+        }
+    }
+
+    private fun defaultValue(type: Class<*>): Any? = when (type) {
+        java.lang.Long.TYPE -> requestId.incrementAndGet()
+        java.lang.Integer.TYPE -> 0
+        java.lang.Boolean.TYPE -> false
+        java.lang.Double.TYPE -> 0.0
+        else -> null
+    }
+}
+
+internal class FakeIndexableRecordResolver : IndexableRecordResolver {
+    override fun resolve(
+        dataProviderName: String,
+        userRecordId: String,
+        executor: Executor,
+        callback: (Result<BaseIndexableRecord>) -> Unit
+    ): AsyncOperationTask {
+        executor.execute {
+            callback(Result.failure(Exception("No record with id $userRecordId")))
+        }
+        return AsyncOperationTaskImpl.COMPLETED
+    }
+}
@@ -0,0 +1,41 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.mapbox.search.common.HighlightsCalculator
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures calculation of the name highlights, which is done for every suggestion shown in the UI.
+ */
+@RunWith(AndroidJUnit4::class)
+internal class HighlightsBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val highlightsCalculator = HighlightsCalculator.INSTANCE
+
+    @Test
+    fun calculateHighlights() {
+        benchmarkRule.measureRepeated {
+            NAMES.forEach { name ->
+                highlightsCalculator.highlights(name, QUERY)
+            }
+        }
+    }
+
+    private companion object {
+        const val QUERY = "star coff"
+        val NAMES = listOf(
+            "Starbucks Coffee",
+            "Star Coffee House",
+            "Coffee Star",
+            "Central Station Coffee Shop",
+            "Stars and Coffee Beans Roastery",
+        )
+    }
+}
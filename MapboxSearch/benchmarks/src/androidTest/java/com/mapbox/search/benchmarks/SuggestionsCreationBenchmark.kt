@@ -0,0 +1,124 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import com.mapbox.geojson.Point
+import com.mapbox.search.base.BaseRequestOptions
+import com.mapbox.search.base.BaseResponseInfo
+import com.mapbox.search.base.BaseSearchSuggestionsCallback
+import com.mapbox.search.base.core.CoreApiType
+import com.mapbox.search.base.engine.TwoStepsRequestCallbackWrapper
+import com.mapbox.search.base.record.SearchHistoryService
+import com.mapbox.search.base.result.BaseSearchSuggestion
+import com.mapbox.search.base.result.SearchRequestContext
+import com.mapbox.search.base.result.SearchResultFactory
+import com.mapbox.search.base.result.mapToBase
+import com.mapbox.search.base.task.AsyncOperationTaskImpl
+import com.mapbox.search.common.tests.TestExecutor
+import com.mapbox.search.common.tests.createTestCoreRequestOptions
+import com.mapbox.search.common.tests.createTestCoreSearchOptions
+import com.mapbox.search.common.tests.createTestCoreSearchResponseSuccess
+import com.mapbox.search.common.tests.createTestCoreSearchResult
+import com.mapbox.search.common.tests.createTestCoreSuggestAction
+import com.mapbox.search.internal.bindgen.ResultType
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures creation of search suggestions from a response of the native engine.
+ */
+@RunWith(Parameterized::class)
+internal class SuggestionsCreationBenchmark(private val resultsCount: Int) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val searchResultFactory = SearchResultFactory(FakeIndexableRecordResolver())
+
+    private val coreResults = List(resultsCount) { index ->
+        createTestCoreSearchResult(
+            id = "result-$index",
+            types = listOf(ResultType.POI),
+            names = listOf("Search result $index"),
+            fullAddress = "$index Benchmark street, Benchmark city",
+            center = Point.fromLngLat(index % 180.0, index % 90.0),
+            categories = listOf("cafe", "restaurant"),
+            action = createTestCoreSuggestAction(),
+            serverIndex = index,
+        )
+    }
+
+    private val coreResponse = createTestCoreSearchResponseSuccess(
+        request = createTestCoreRequestOptions(query = "benchmark"),
+        results = coreResults,
+    )
+
+    private val coreEngine = FakeCoreSearchEngine { coreResponse }.engine
+
+    @Test
+    fun createSearchSuggestions() {
+        val requestOptions = BaseRequestOptions(coreResponse.request, SearchRequestContext(CoreApiType.SBS))
+        val rawResults = coreResults.map { it.mapToBase() }
+
+        benchmarkRule.measureRepeated {
+            var created = 0
+            searchResultFactory.createSearchSuggestionsAsync(
+                rawResults,
+                requestOptions,
+                CoreApiType.SBS,
+                TestExecutor(),
+            ) { _, result ->
+                check(result.isSuccess)
+                created++
+            }
+            check(created == resultsCount)
+        }
+    }
+
+    @Test
+    fun processSearchResponse() {
+        benchmarkRule.measureRepeated {
+            val callback = SuggestionsCallback()
+            coreEngine.search(
+                "benchmark",
+                emptyList(),
+                createTestCoreSearchOptions(),
+                TwoStepsRequestCallbackWrapper(
+                    apiType = CoreApiType.SBS,
+                    coreEngine = coreEngine,
+                    historyService = SearchHistoryService.STUB,
+                    searchResultFactory = searchResultFactory,
+                    callbackExecutor = TestExecutor(),
+                    workerExecutor = TestExecutor(),
+                    searchRequestTask = AsyncOperationTaskImpl(callback),
+                    searchRequestContext = SearchRequestContext(CoreApiType.SBS),
+                    suggestion = null,
+                    addResultToHistory = false,
+                )
+            )
+            check(callback.suggestionsCount == resultsCount)
+        }
+    }
+
+    private class SuggestionsCallback : BaseSearchSuggestionsCallback {
+
+        var suggestionsCount = -1
+
+        override fun onSuggestions(suggestions: List<BaseSearchSuggestion>, responseInfo: BaseResponseInfo) {
+            suggestionsCount = suggestions.size
+        }
+
+        override fun onError(e: Exception) {
+            throw e
+        }
+    }
+
+    companion object {
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}Results")
+        fun parameters(): List<Int> = listOf(10, 50)
+    }
+}
@@ -37,3 +37,32 @@ public interface OfflineSearchResultCallback {
      */
     public fun onError(e: Exception)
 }
+
+/**
+ * Callback for batch reverse geocoding.
+ * @see OfflineSearchEngine.reverseGeocodeBatch
+ */
+public interface OfflineReverseGeoBatchCallback {
+
+    /**
+     * Called for each of the requested locations in the order they were passed,
+     * once results of the location and all the preceding locations are available.
+     * @param index Index of the location in the batch.
+     * @param results List of [OfflineSearchResult] for the location.
+     * @param responseInfo Search response and request information. Locations resolved with a single request
+     * share the same response information.
+     */
+    public fun onResults(index: Int, results: List<OfflineSearchResult>, responseInfo: OfflineResponseInfo)
+
+    /**
+     * Called once, after [onResults] has been called for all the locations.
+     * @param results Lists of [OfflineSearchResult] in the order the locations were passed.
+     */
+    public fun onComplete(results: List<List<OfflineSearchResult>>)
+
+    /**
+     * Called in case if error occurred during any of the requests. No more results are delivered after the error.
+     * @param e Exception, occurred during request.
+     */
+    public fun onError(e: Exception)
+}
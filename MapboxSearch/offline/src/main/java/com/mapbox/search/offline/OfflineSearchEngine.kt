@@ -23,6 +23,7 @@ import com.mapbox.search.base.utils.UserAgentProvider
 import com.mapbox.search.base.utils.defaultOnlineRequestTimeoutSeconds
 import com.mapbox.search.base.utils.orientation.AndroidScreenOrientationProvider
 import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.common.ReverseGeoBatchOptions
 import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
 import java.util.concurrent.Executor
 
@@ -265,6 +266,55 @@ public interface OfflineSearchEngine {
         callback = callback,
     )
 
+    /**
+     * Performs reverse geocoding of multiple locations.
+     *
+     * Locations closer than [ReverseGeoBatchOptions.dedupRadiusMeters] to each other are resolved
+     * with a single request. Locations close to the locations resolved by the previous batches are served
+     * from the in-memory cache of this [OfflineSearchEngine] without a request.
+     * Offline requests are made one at a time, [ReverseGeoBatchOptions.maxConcurrentRequests] is ignored.
+     *
+     * Results are delivered in the order of [options], see [OfflineReverseGeoBatchCallback].
+     *
+     * @param options Reverse geocoding options, one for each location to resolve.
+     * @param batchOptions Batch options.
+     * @param executor Executor used for events dispatching. By default events are dispatched on the main thread.
+     * @param callback Callback to retrieve results.
+     * @return [AsyncOperationTask] object representing pending completion of the batch.
+     */
+    public fun reverseGeocodeBatch(
+        options: List<OfflineReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        executor: Executor,
+        callback: OfflineReverseGeoBatchCallback,
+    ): AsyncOperationTask
+
+    /**
+     * Performs reverse geocoding of multiple locations.
+     *
+     * Locations closer than [ReverseGeoBatchOptions.dedupRadiusMeters] to each other are resolved
+     * with a single request. Locations close to the locations resolved by the previous batches are served
+     * from the in-memory cache of this [OfflineSearchEngine] without a request.
+     * Offline requests are made one at a time, [ReverseGeoBatchOptions.maxConcurrentRequests] is ignored.
+     *
+     * Results are delivered in the order of [options], see [OfflineReverseGeoBatchCallback].
+     *
+     * @param options Reverse geocoding options, one for each location to resolve.
+     * @param batchOptions Batch options.
+     * @param callback Callback to retrieve results, delivers results on the main thread.
+     * @return [AsyncOperationTask] object representing pending completion of the batch.
+     */
+    public fun reverseGeocodeBatch(
+        options: List<OfflineReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        callback: OfflineReverseGeoBatchCallback,
+    ): AsyncOperationTask = reverseGeocodeBatch(
+        options = options,
+        batchOptions = batchOptions,
+        executor = SearchSdkMainThreadWorker.mainExecutor,
+        callback = callback,
+    )
+
     /**
      * Searches for addresses nearby (around [proximity] point), matched with specified [street] name.
      * Each new search request cancels the previous one if it is still in progress.
@@ -541,6 +591,8 @@ public interface OfflineSearchEngine {
                 activityReporter = getUserActivityReporter(),
                 requestContextProvider = requestContextProvider,
                 searchResultFactory = searchResultFactory,
+                engineExecutorService = settings.executorProvider.interactiveExecutor,
+                selectionExecutorService = settings.executorProvider.selectionExecutor,
             )
         }
 
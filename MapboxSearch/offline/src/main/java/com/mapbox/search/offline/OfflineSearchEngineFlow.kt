@@ -0,0 +1,66 @@
+package com.mapbox.search.offline
+
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.mapLatest
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.Executor
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Returns a [Flow] of offline search results for the [queries]. A search request is made for each query
+ * that stays unchanged for [requestDebounce] time interval, if specified.
+ * Consecutive identical queries are requested only once.
+ *
+ * When a new query is emitted while the request for the previous one is in progress, the previous request
+ * is cancelled and its results are never emitted. The request in progress is also cancelled
+ * when the collecting coroutine is cancelled.
+ *
+ * The flow completes with an exception if any of the requests fails.
+ *
+ * @param queries Flow of search queries, for example, text typed by the user.
+ * @param options Search options applied to each of the requests.
+ * @param requestDebounce Debounce value in milliseconds applied to the [queries].
+ * @return Flow of results lists, one for each request made.
+ * @see OfflineSearchEngine.search
+ */
+@OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+public fun OfflineSearchEngine.searchAsFlow(
+    queries: Flow<String>,
+    options: OfflineSearchOptions = OfflineSearchOptions(),
+    requestDebounce: Int? = null,
+): Flow<List<OfflineSearchResult>> {
+    val debounceMillis = requestDebounce?.toLong() ?: 0L
+    val debounced = if (debounceMillis > 0) queries.debounce(debounceMillis) else queries
+    return debounced
+        .distinctUntilChanged()
+        .mapLatest { query -> searchSuspending(query, options) }
+}
+
+private suspend fun OfflineSearchEngine.searchSuspending(
+    query: String,
+    options: OfflineSearchOptions,
+): List<OfflineSearchResult> {
+    return suspendCancellableCoroutine { continuation ->
+        val task = search(query, options, DIRECT_EXECUTOR, object : OfflineSearchCallback {
+            override fun onResults(results: List<OfflineSearchResult>, responseInfo: OfflineResponseInfo) {
+                continuation.resume(results)
+            }
+
+            override fun onError(e: Exception) {
+                continuation.resumeWithException(e)
+            }
+        })
+
+        continuation.invokeOnCancellation {
+            task.cancel()
+        }
+    }
+}
+
+// Continuation dispatches the results to the collector's context itself.
+private val DIRECT_EXECUTOR = Executor { it.run() }
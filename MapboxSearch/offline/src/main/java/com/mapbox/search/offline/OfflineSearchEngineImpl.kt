@@ -13,10 +13,14 @@ import com.mapbox.search.base.core.CoreSearchEngineInterface
 import com.mapbox.search.base.core.createCoreSearchOptions
 import com.mapbox.search.base.engine.BaseSearchEngine
 import com.mapbox.search.base.engine.OneStepRequestCallbackWrapper
+import com.mapbox.search.base.engine.ReverseGeocodingBatch
+import com.mapbox.search.base.engine.SpatialResultsCache
 import com.mapbox.search.base.logger.logd
 import com.mapbox.search.base.result.SearchResultFactory
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.common.ReverseGeoBatchOptions
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.internal.bindgen.OfflineIndexChangeEvent
 import com.mapbox.search.internal.bindgen.OfflineIndexError
 import com.mapbox.search.internal.bindgen.UserActivityReporterInterface
@@ -24,8 +28,7 @@ import com.mapbox.search.offline.OfflineSearchEngine.EngineReadyCallback
 import com.mapbox.search.offline.OfflineSearchEngine.OnIndexChangeListener
 import com.mapbox.turf.TurfMeasurement
 import java.util.concurrent.Executor
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 internal class OfflineSearchEngineImpl(
     override val settings: OfflineSearchEngineSettings,
@@ -33,7 +36,8 @@ internal class OfflineSearchEngineImpl(
     private val activityReporter: UserActivityReporterInterface,
     private val requestContextProvider: SearchRequestContextProvider,
     private val searchResultFactory: SearchResultFactory,
-    private val engineExecutorService: ExecutorService = DEFAULT_EXECUTOR,
+    private val engineExecutorService: Executor = SearchExecutorProvider.getDefault().interactiveExecutor,
+    private val selectionExecutorService: Executor = engineExecutorService,
 ) : BaseSearchEngine(), OfflineSearchEngine {
 
     private val initializationLock = Any()
@@ -45,6 +49,11 @@ internal class OfflineSearchEngineImpl(
     @Volatile
     private var isEngineReady: Boolean = true
 
+    private val reverseGeocodingCache = SpatialResultsCache<Unit, ReverseGeoResponse>(
+        maxSize = REVERSE_GEOCODING_CACHE_SIZE,
+        ttlMillis = REVERSE_GEOCODING_CACHE_TTL_MILLIS,
+    )
+
     init {
         BaseMapboxInitializer.init(BaseSearchSdkInitializerImpl::class.java)
 
@@ -129,7 +138,8 @@ internal class OfflineSearchEngineImpl(
     ): AsyncOperationTask {
         activityReporter.reportActivity("offline-search-engine-reverse-geocoding")
 
-        return makeRequest(OfflineSearchCallbackAdapter(callback)) { request ->
+        val requestKey = ReverseGeocodingRequestKey(options)
+        return makeRequest(requestKey, OfflineSearchCallbackAdapter(callback), executor) { request ->
             coreEngine.reverseGeocodingOffline(
                 options.mapToCore(),
                 OneStepRequestCallbackWrapper(
@@ -144,6 +154,52 @@ internal class OfflineSearchEngineImpl(
         }
     }
 
+    override fun reverseGeocodeBatch(
+        options: List<OfflineReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        executor: Executor,
+        callback: OfflineReverseGeoBatchCallback
+    ): AsyncOperationTask {
+        activityReporter.reportActivity("offline-search-engine-reverse-geocoding-batch")
+
+        val batch = ReverseGeocodingBatch(
+            points = options.map { it.center },
+            // Offline reverse geocoding options have no parameters other than the center
+            keys = List(options.size) { Unit },
+            dedupRadiusMeters = batchOptions.dedupRadiusMeters,
+            // Each offline reverse geocoding request cancels the previous one
+            maxConcurrentRequests = 1,
+            cache = reverseGeocodingCache,
+            request = { index, requestCallback ->
+                reverseGeocoding(options[index], BATCH_CALLBACK_EXECUTOR, object : OfflineSearchCallback {
+                    override fun onResults(results: List<OfflineSearchResult>, responseInfo: OfflineResponseInfo) {
+                        requestCallback.onResult(ReverseGeoResponse(results, responseInfo))
+                    }
+
+                    override fun onError(e: Exception) {
+                        requestCallback.onError(e)
+                    }
+                })
+            },
+            callbackExecutor = executor,
+            callback = object : ReverseGeocodingBatch.Callback<ReverseGeoResponse> {
+                override fun onResult(index: Int, result: ReverseGeoResponse) {
+                    callback.onResults(index, result.results, result.responseInfo)
+                }
+
+                override fun onComplete(results: List<ReverseGeoResponse>) {
+                    callback.onComplete(results.map { it.results })
+                }
+
+                override fun onError(e: Exception) {
+                    callback.onError(e)
+                }
+            },
+        )
+        batch.start()
+        return batch
+    }
+
     override fun searchAddressesNearby(
         street: String,
         proximity: Point,
@@ -287,7 +343,7 @@ internal class OfflineSearchEngineImpl(
                 OneStepRequestCallbackWrapper(
                     searchResultFactory = searchResultFactory,
                     callbackExecutor = executor,
-                    workerExecutor = engineExecutorService,
+                    workerExecutor = selectionExecutorService,
                     searchRequestTask = request,
                     searchRequestContext = requestContextProvider.provide(CoreApiType.SBS),
                     isOffline = true,
@@ -373,9 +429,16 @@ internal class OfflineSearchEngineImpl(
         }
     }
 
+    private data class ReverseGeocodingRequestKey(val options: OfflineReverseGeoOptions)
+
+    private class ReverseGeoResponse(val results: List<OfflineSearchResult>, val responseInfo: OfflineResponseInfo)
+
     private companion object {
-        val DEFAULT_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
-            Thread(runnable, "OfflineSearchEngine executor")
-        }
+
+        // Batch results are delivered by ReverseGeocodingBatch on the caller's executor
+        val BATCH_CALLBACK_EXECUTOR = Executor { it.run() }
+
+        const val REVERSE_GEOCODING_CACHE_SIZE = 256
+        val REVERSE_GEOCODING_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10)
     }
 }
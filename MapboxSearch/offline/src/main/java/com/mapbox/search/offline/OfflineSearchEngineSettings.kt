@@ -7,6 +7,7 @@ import com.mapbox.common.TileStoreOptions
 import com.mapbox.common.location.LocationProvider
 import com.mapbox.common.location.LocationServiceFactory
 import com.mapbox.search.base.location.defaultLocationProvider
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import java.net.URI
 
 /**
@@ -37,6 +38,12 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
      * [Manifest.permission.ACCESS_FINE_LOCATION] to work properly.
      */
     public val locationProvider: LocationProvider? = defaultLocationProvider(),
+
+    /**
+     * Provider of executors used for processing of responses.
+     * By default, executors are shared by all the Search SDK components, see [SearchExecutorProvider.getDefault].
+     */
+    public val executorProvider: SearchExecutorProvider = SearchExecutorProvider.getDefault(),
 ) {
 
     /**
@@ -56,6 +63,7 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
         if (locationProvider != other.locationProvider) return false
         if (tileStore != other.tileStore) return false
         if (tilesBaseUri != other.tilesBaseUri) return false
+        if (executorProvider != other.executorProvider) return false
 
         return true
     }
@@ -67,6 +75,7 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
         var result = locationProvider.hashCode()
         result = 31 * result + tileStore.hashCode()
         result = 31 * result + tilesBaseUri.hashCode()
+        result = 31 * result + executorProvider.hashCode()
         return result
     }
 
@@ -77,7 +86,8 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
         return "OfflineSearchEngineSettings(" +
                 "locationProvider=$locationProvider, " +
                 "tileStore=$tileStore, " +
-                "tilesBaseUri=$tilesBaseUri" +
+                "tilesBaseUri=$tilesBaseUri, " +
+                "executorProvider=$executorProvider" +
                 ")"
     }
 
@@ -89,11 +99,13 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
         private var locationProvider: LocationProvider ? = null
         private var tileStore: TileStore? = null
         private var tilesBaseUri: URI? = null
+        private var executorProvider: SearchExecutorProvider? = null
 
         internal constructor(settings: OfflineSearchEngineSettings) : this() {
             locationProvider = settings.locationProvider
             tileStore = settings.tileStore
             tilesBaseUri = settings.tilesBaseUri
+            executorProvider = settings.executorProvider
         }
 
         /**
@@ -121,6 +133,14 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
             this.locationProvider = locationProvider
         }
 
+        /**
+         * Provider of executors used for processing of responses.
+         * By default, executors are shared by all the Search SDK components, see [SearchExecutorProvider.getDefault].
+         */
+        public fun executorProvider(executorProvider: SearchExecutorProvider): Builder = apply {
+            this.executorProvider = executorProvider
+        }
+
         /**
          * Create [OfflineSearchEngineSettings] instance from builder data.
          */
@@ -128,6 +148,7 @@ public class OfflineSearchEngineSettings @JvmOverloads constructor(
             tileStore = tileStore ?: defaultTileStore(),
             tilesBaseUri = tilesBaseUri ?: DEFAULT_ENDPOINT_URI,
             locationProvider = locationProvider ?: defaultLocationProvider(),
+            executorProvider = executorProvider ?: SearchExecutorProvider.getDefault(),
         )
     }
 
@@ -0,0 +1,156 @@
+package com.mapbox.search.offline
+
+import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.runTest
+import kotlinx.coroutines.yield
+import org.junit.jupiter.api.TestFactory
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class OfflineSearchEngineFlowTest {
+
+    private val requestedQueries = mutableListOf<String>()
+    private val tasks = mutableListOf<AsyncOperationTask>()
+
+    private val searchEngine = mockk<OfflineSearchEngine> {
+        val callback = slot<OfflineSearchCallback>()
+        every { search(any(), any(), any(), capture(callback)) } answers {
+            val query = firstArg<String>()
+            requestedQueries.add(query)
+            when (query) {
+                PENDING_QUERY -> Unit
+                ERROR_QUERY -> callback.captured.onError(TEST_ERROR)
+                else -> callback.captured.onResults(resultsFor(query), mockk())
+            }
+            mockk<AsyncOperationTask>(relaxed = true).also { tasks.add(it) }
+        }
+    }
+
+    @TestFactory
+    fun `Check searchAsFlow`() = TestCase {
+        Given("OfflineSearchEngine") {
+            When("Identical consecutive queries emitted") {
+                val results = runBlocking {
+                    searchEngine.searchAsFlow(flowOf("cafe", "cafe", "bar", "cafe")).toList()
+                }
+
+                Then(
+                    "Results emitted for each distinct consecutive query",
+                    listOf(resultsFor("cafe"), resultsFor("bar"), resultsFor("cafe")),
+                    results
+                )
+                Then("Unchanged query requested once", listOf("cafe", "bar", "cafe"), requestedQueries.toList())
+            }
+
+            When("New query emitted while the previous request is in progress") {
+                requestedQueries.clear()
+                tasks.clear()
+
+                val results = runBlocking {
+                    searchEngine.searchAsFlow(flowOf(PENDING_QUERY, "bar")).toList()
+                }
+
+                Then("Only latest query results emitted", listOf(resultsFor("bar")), results)
+                Then("Both queries requested", listOf(PENDING_QUERY, "bar"), requestedQueries.toList())
+
+                Verify("Stale request cancelled") {
+                    tasks[0].cancel()
+                }
+            }
+
+            When("Collecting coroutine cancelled while the request is in progress") {
+                requestedQueries.clear()
+                tasks.clear()
+
+                runBlocking {
+                    val job = launch {
+                        searchEngine.searchAsFlow(flowOf(PENDING_QUERY)).toList()
+                    }
+                    while (tasks.isEmpty()) {
+                        yield()
+                    }
+                    job.cancelAndJoin()
+                }
+
+                Then("Query requested", listOf(PENDING_QUERY), requestedQueries.toList())
+                VerifyOnce("Request cancelled") {
+                    tasks[0].cancel()
+                }
+            }
+
+            When("Request fails") {
+                val error = runCatching {
+                    runBlocking {
+                        searchEngine.searchAsFlow(flowOf(ERROR_QUERY)).toList()
+                    }
+                }.exceptionOrNull()
+
+                Then("Flow completes with the request error", TEST_ERROR, error)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check searchAsFlow request debounce`() = TestCase {
+        Given("OfflineSearchEngine") {
+            When("Queries emitted with request debounce") {
+                var results = emptyList<List<OfflineSearchResult>>()
+                runTest {
+                    val queries = flow {
+                        emit("c")
+                        delay(DEBOUNCE_MILLIS / 2L)
+                        emit("ca")
+                        delay(DEBOUNCE_MILLIS * 2L)
+                        emit("caf")
+                        emit("cafe")
+                    }
+                    results = searchEngine.searchAsFlow(queries, requestDebounce = DEBOUNCE_MILLIS).toList()
+                }
+
+                Then(
+                    "Only queries unchanged for the debounce interval requested",
+                    listOf("ca", "cafe"),
+                    requestedQueries.toList()
+                )
+                Then("Results emitted for requested queries", listOf(resultsFor("ca"), resultsFor("cafe")), results)
+            }
+
+            When("Options passed") {
+                requestedQueries.clear()
+                val options = OfflineSearchOptions(limit = 5)
+
+                runBlocking {
+                    searchEngine.searchAsFlow(flowOf("cafe"), options).toList()
+                }
+
+                VerifyOnce("Request made with the options") {
+                    searchEngine.search("cafe", options, any(), any())
+                }
+            }
+        }
+    }
+
+    private companion object {
+        const val PENDING_QUERY = "pending"
+        const val ERROR_QUERY = "error"
+        const val DEBOUNCE_MILLIS = 100
+        val TEST_ERROR = Exception("test error")
+
+        val RESULTS = mutableMapOf<String, List<OfflineSearchResult>>()
+
+        fun resultsFor(query: String): List<OfflineSearchResult> = RESULTS.getOrPut(query) {
+            listOf(mockk())
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mapbox.search.offline
 
 import com.mapbox.common.TileStore
 import com.mapbox.common.location.LocationProvider
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.common.tests.CommonSdkTypeObjectCreators
 import com.mapbox.search.common.tests.CustomTypeObjectCreatorImpl
 import com.mapbox.search.common.tests.ReflectionObjectsFactory
@@ -73,12 +74,14 @@ internal class OfflineSearchEngineSettingsTest {
                     .locationProvider(TEST_MOCKED_LOCATION_ENGINE)
                     .tileStore(TEST_MOCKED_TILE_STORE)
                     .tilesBaseUri(TEST_DEFAULT_ENDPOINT_URI)
+                    .executorProvider(TEST_EXECUTOR_PROVIDER)
                     .build()
 
                 val expected = OfflineSearchEngineSettings(
                     tileStore = TEST_MOCKED_TILE_STORE,
                     tilesBaseUri = TEST_DEFAULT_ENDPOINT_URI,
                     locationProvider = TEST_MOCKED_LOCATION_ENGINE,
+                    executorProvider = TEST_EXECUTOR_PROVIDER,
                 )
 
                 Then("Settings should be equal", expected, actual)
@@ -105,6 +108,7 @@ internal class OfflineSearchEngineSettingsTest {
         val TEST_DEFAULT_ENDPOINT_URI: URI = URI.create("https://cloudfront-staging.tilestream.net")
         val TEST_MOCKED_LOCATION_ENGINE: LocationProvider = mockk(relaxed = true)
         val TEST_MOCKED_TILE_STORE: TileStore = mockk(relaxed = true)
+        val TEST_EXECUTOR_PROVIDER = SearchExecutorProvider.fromExecutor { it.run() }
 
         val LOCATION_ENGINE_OBJECT_CREATOR = CustomTypeObjectCreatorImpl(LocationProvider::class) { mode ->
             listOf(
@@ -112,8 +116,17 @@ internal class OfflineSearchEngineSettingsTest {
             )[mode.ordinal]
         }
 
+        val EXECUTOR_PROVIDER_OBJECT_CREATOR = CustomTypeObjectCreatorImpl(SearchExecutorProvider::class) { mode ->
+            listOf(
+                mockk<SearchExecutorProvider>(relaxed = true), mockk<SearchExecutorProvider>(relaxed = true),
+            )[mode.ordinal]
+        }
+
         private val REFLECTION_OBJECT_FACTORY = ReflectionObjectsFactory(
-            extraCreators = CommonSdkTypeObjectCreators.ALL_CREATORS + LOCATION_ENGINE_OBJECT_CREATOR
+            extraCreators = CommonSdkTypeObjectCreators.ALL_CREATORS + listOf(
+                LOCATION_ENGINE_OBJECT_CREATOR,
+                EXECUTOR_PROVIDER_OBJECT_CREATOR,
+            )
         )
     }
 }
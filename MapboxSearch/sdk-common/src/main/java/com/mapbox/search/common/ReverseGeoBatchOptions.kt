@@ -0,0 +1,73 @@
+package com.mapbox.search.common
+
+/**
+ * Options of batch reverse geocoding.
+ *
+ * Points of a batch that are closer than [dedupRadiusMeters] to each other and have the same request options
+ * are resolved with a single request. Points close to recently resolved points are served from
+ * the search engine cache without a request.
+ */
+public class ReverseGeoBatchOptions @JvmOverloads public constructor(
+
+    /**
+     * Distance in meters within which points are considered the same location.
+     * Zero value means that only identical points are de-duplicated.
+     * Maximum supported value is 1000 meters.
+     */
+    public val dedupRadiusMeters: Double = DEFAULT_DEDUP_RADIUS_METERS,
+
+    /**
+     * Maximum number of reverse geocoding requests running at the same time.
+     */
+    public val maxConcurrentRequests: Int = DEFAULT_MAX_CONCURRENT_REQUESTS,
+) {
+
+    init {
+        require(dedupRadiusMeters in 0.0..MAX_DEDUP_RADIUS_METERS) {
+            "'dedupRadiusMeters' should be in range [0, $MAX_DEDUP_RADIUS_METERS] (passed value: $dedupRadiusMeters)."
+        }
+        require(maxConcurrentRequests > 0) {
+            "'maxConcurrentRequests' should be greater than 0 (passed value: $maxConcurrentRequests)."
+        }
+    }
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as ReverseGeoBatchOptions
+
+        if (dedupRadiusMeters != other.dedupRadiusMeters) return false
+        if (maxConcurrentRequests != other.maxConcurrentRequests) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = dedupRadiusMeters.hashCode()
+        result = 31 * result + maxConcurrentRequests
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "ReverseGeoBatchOptions(" +
+                "dedupRadiusMeters=$dedupRadiusMeters, " +
+                "maxConcurrentRequests=$maxConcurrentRequests" +
+                ")"
+    }
+
+    private companion object {
+        const val DEFAULT_DEDUP_RADIUS_METERS = 10.0
+        const val DEFAULT_MAX_CONCURRENT_REQUESTS = 4
+        const val MAX_DEDUP_RADIUS_METERS = 1000.0
+    }
+}
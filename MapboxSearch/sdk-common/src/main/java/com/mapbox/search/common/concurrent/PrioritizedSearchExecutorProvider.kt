@@ -0,0 +1,94 @@
+package com.mapbox.search.common.concurrent
+
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.Executor
+import java.util.concurrent.PriorityBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * [SearchExecutorProvider] backed by a bounded pool, which queue is ordered by the lane priority
+ * and then by the submission order. Threads of the pool are stopped after [keepAliveMillis] of idling.
+ */
+internal class PrioritizedSearchExecutorProvider(
+    maxThreads: Int,
+    keepAliveMillis: Long = KEEP_ALIVE_MILLIS,
+) : SearchExecutorProvider {
+
+    private val sequence = AtomicLong()
+
+    private val pool = ThreadPoolExecutor(
+        maxThreads,
+        maxThreads,
+        keepAliveMillis,
+        TimeUnit.MILLISECONDS,
+        PriorityBlockingQueue(),
+        WorkerThreadFactory(),
+    ).apply {
+        allowCoreThreadTimeOut(true)
+    }
+
+    override val interactiveExecutor: Executor = LaneExecutor(PRIORITY_INTERACTIVE)
+    override val selectionExecutor: Executor = LaneExecutor(PRIORITY_SELECTION)
+    override val persistenceExecutor: Executor = LaneExecutor(PRIORITY_PERSISTENCE)
+    override val prefetchExecutor: Executor = LaneExecutor(PRIORITY_PREFETCH)
+
+    @VisibleForTesting
+    val poolSize: Int
+        get() = pool.poolSize
+
+    private inner class LaneExecutor(private val priority: Int) : Executor {
+        override fun execute(command: Runnable) {
+            pool.execute(PrioritizedTask(command, priority, sequence.getAndIncrement()))
+        }
+    }
+
+    private class PrioritizedTask(
+        private val command: Runnable,
+        private val priority: Int,
+        private val sequence: Long,
+    ) : Runnable, Comparable<PrioritizedTask> {
+
+        override fun run() {
+            command.run()
+        }
+
+        override fun compareTo(other: PrioritizedTask): Int {
+            return if (priority != other.priority) {
+                priority.compareTo(other.priority)
+            } else {
+                sequence.compareTo(other.sequence)
+            }
+        }
+    }
+
+    private class WorkerThreadFactory : ThreadFactory {
+
+        private val threadsCount = AtomicInteger()
+
+        override fun newThread(runnable: Runnable): Thread {
+            return Thread(runnable, "SearchSdk worker #${threadsCount.incrementAndGet()}")
+        }
+    }
+
+    companion object {
+
+        private const val PRIORITY_INTERACTIVE = 0
+        private const val PRIORITY_SELECTION = 1
+        private const val PRIORITY_PERSISTENCE = 2
+        private const val PRIORITY_PREFETCH = 3
+
+        private const val KEEP_ALIVE_MILLIS = 30_000L
+        private const val MIN_THREADS = 2
+        private const val MAX_THREADS = 4
+
+        val DEFAULT: SearchExecutorProvider by lazy {
+            PrioritizedSearchExecutorProvider(
+                maxThreads = Runtime.getRuntime().availableProcessors().coerceIn(MIN_THREADS, MAX_THREADS)
+            )
+        }
+    }
+}
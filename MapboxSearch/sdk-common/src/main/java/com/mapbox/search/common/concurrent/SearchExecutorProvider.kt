@@ -0,0 +1,63 @@
+package com.mapbox.search.common.concurrent
+
+import java.util.concurrent.Executor
+
+/**
+ * Provides executors the Search SDK uses for background work, such as processing of search responses
+ * or persisting of local records. Work is split into lanes, so that an implementation
+ * can prioritize the work the user is waiting for.
+ *
+ * The SDK doesn't rely on any of the executors being single-threaded, work that has to be run
+ * sequentially is serialized by the SDK itself. Executors shouldn't run submitted tasks on the calling thread.
+ *
+ * Custom executors and coroutine dispatchers (via `CoroutineDispatcher.asExecutor()`) can be provided
+ * by implementing this interface or with [fromExecutor] function.
+ */
+public interface SearchExecutorProvider {
+
+    /**
+     * Executor for the work the user is waiting for while typing, for example processing of search suggestions.
+     */
+    public val interactiveExecutor: Executor
+
+    /**
+     * Executor for the work the user is waiting for after a selection, for example processing of search results.
+     */
+    public val selectionExecutor: Executor
+
+    /**
+     * Executor for speculative work nobody is waiting for yet, for example prefetching of search results.
+     */
+    public val prefetchExecutor: Executor
+
+    /**
+     * Executor for reading and writing of local data, for example history and favorites records.
+     */
+    public val persistenceExecutor: Executor
+
+    /**
+     * Companion object.
+     */
+    public companion object {
+
+        /**
+         * Returns the provider shared by Search SDK components by default. Its executors are backed by a single
+         * pool of a few threads, tasks are taken from the queue in the lanes priority order:
+         * [interactiveExecutor], [selectionExecutor], [persistenceExecutor], [prefetchExecutor].
+         * Idle threads are stopped.
+         */
+        @JvmStatic
+        public fun getDefault(): SearchExecutorProvider = PrioritizedSearchExecutorProvider.DEFAULT
+
+        /**
+         * Creates a provider that runs work of all the lanes on [executor].
+         */
+        @JvmStatic
+        public fun fromExecutor(executor: Executor): SearchExecutorProvider = object : SearchExecutorProvider {
+            override val interactiveExecutor: Executor = executor
+            override val selectionExecutor: Executor = executor
+            override val prefetchExecutor: Executor = executor
+            override val persistenceExecutor: Executor = executor
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mapbox.search.common.concurrent
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+internal class PrioritizedSearchExecutorProviderTest {
+
+    @TestFactory
+    fun `Check lanes priority`() = TestCase {
+        Given("PrioritizedSearchExecutorProvider with a single busy thread") {
+            val provider = PrioritizedSearchExecutorProvider(maxThreads = 1)
+            val workerRelease = occupyWorker(provider)
+            val executed = Collections.synchronizedList(mutableListOf<String>())
+            val completed = CountDownLatch(4)
+
+            When("Tasks submitted to the lanes in the reverse priority order") {
+                provider.prefetchExecutor.execute(recordingTask(executed, "prefetch", completed))
+                provider.persistenceExecutor.execute(recordingTask(executed, "persistence", completed))
+                provider.selectionExecutor.execute(recordingTask(executed, "selection", completed))
+                provider.interactiveExecutor.execute(recordingTask(executed, "interactive", completed))
+
+                workerRelease.countDown()
+
+                Then("Tasks are completed", true, completed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                Then(
+                    "Tasks are executed in the lanes priority order",
+                    listOf("interactive", "selection", "persistence", "prefetch"),
+                    executed.toList()
+                )
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check tasks order within a lane`() = TestCase {
+        Given("PrioritizedSearchExecutorProvider with a single busy thread") {
+            val provider = PrioritizedSearchExecutorProvider(maxThreads = 1)
+            val workerRelease = occupyWorker(provider)
+            val executed = Collections.synchronizedList(mutableListOf<Int>())
+            val completed = CountDownLatch(5)
+
+            When("Several tasks submitted to the same lane") {
+                (1..5).forEach { task ->
+                    provider.persistenceExecutor.execute(recordingTask(executed, task, completed))
+                }
+
+                workerRelease.countDown()
+
+                Then("Tasks are completed", true, completed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                Then("Tasks are executed in the submission order", listOf(1, 2, 3, 4, 5), executed.toList())
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check idle threads timeout`() = TestCase {
+        Given("PrioritizedSearchExecutorProvider with short keep alive time") {
+            val provider = PrioritizedSearchExecutorProvider(maxThreads = 2, keepAliveMillis = KEEP_ALIVE_MILLIS)
+
+            When("Task is executed") {
+                val completed = CountDownLatch(1)
+                provider.interactiveExecutor.execute { completed.countDown() }
+
+                Then("Task is completed", true, completed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                Then("Idle thread is stopped", true, waitUntil { provider.poolSize == 0 })
+            }
+
+            When("Task is executed after idle threads are stopped") {
+                val threadName = arrayOfNulls<String>(1)
+                val completed = CountDownLatch(1)
+                provider.selectionExecutor.execute {
+                    threadName[0] = Thread.currentThread().name
+                    completed.countDown()
+                }
+
+                Then("Task is completed", true, completed.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                Then("Task is executed on a new thread", "SearchSdk worker #2", threadName[0])
+            }
+        }
+    }
+
+    private companion object {
+
+        const val KEEP_ALIVE_MILLIS = 10L
+        const val TIMEOUT_MILLIS = 5_000L
+
+        /**
+         * Occupies the only thread of the [provider] until the returned latch is counted down,
+         * so that the tasks submitted meanwhile are queued.
+         */
+        fun occupyWorker(provider: PrioritizedSearchExecutorProvider): CountDownLatch {
+            val started = CountDownLatch(1)
+            val release = CountDownLatch(1)
+            provider.interactiveExecutor.execute {
+                started.countDown()
+                release.await()
+            }
+            started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+            return release
+        }
+
+        fun <T> recordingTask(executed: MutableList<T>, value: T, completed: CountDownLatch) = Runnable {
+            executed.add(value)
+            completed.countDown()
+        }
+
+        fun waitUntil(condition: () -> Boolean): Boolean {
+            val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+            while (!condition()) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false
+                }
+                Thread.sleep(KEEP_ALIVE_MILLIS)
+            }
+            return true
+        }
+    }
+}
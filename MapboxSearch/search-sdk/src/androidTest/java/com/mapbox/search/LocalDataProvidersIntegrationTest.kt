@@ -168,5 +168,9 @@ internal class LocalDataProvidersIntegrationTest : BaseTest() {
         override fun save(relativeDir: String, fileName: String, data: ByteArray) {
             // do nothing
         }
+
+        override fun append(relativeDir: String, fileName: String, data: ByteArray) {
+            // do nothing
+        }
     }
 }
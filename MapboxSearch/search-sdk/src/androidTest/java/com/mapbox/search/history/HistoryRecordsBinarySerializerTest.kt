@@ -0,0 +1,133 @@
+package com.mapbox.search.history
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.BaseTest
+import com.mapbox.search.record.HistoryRecord
+import com.mapbox.search.record.HistoryRecordsBinarySerializer
+import com.mapbox.search.record.HistoryRecordsSerializer
+import com.mapbox.search.result.NewSearchResultType
+import com.mapbox.search.result.SearchAddress
+import com.mapbox.search.utils.serialization.RecordsFormat
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+
+internal class HistoryRecordsBinarySerializerTest : BaseTest() {
+
+    private lateinit var serializer: HistoryRecordsBinarySerializer
+    private lateinit var jsonSerializer: HistoryRecordsSerializer
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        serializer = HistoryRecordsBinarySerializer()
+        jsonSerializer = HistoryRecordsSerializer()
+    }
+
+    @Test
+    fun testSerializeEmptyData() {
+        val serialized = serializer.serialize(emptyList())
+        val deserialized = serializer.deserialize(serialized)
+        Assert.assertEquals(emptyList<HistoryRecord>(), deserialized)
+        Assert.assertEquals(RecordsFormat.BINARY, RecordsFormat.detect(serialized))
+    }
+
+    @Test
+    fun testDeserializeEmptyByteArray() {
+        val deserialized = serializer.deserialize(ByteArray(0))
+        Assert.assertEquals(emptyList<HistoryRecord>(), deserialized)
+    }
+
+    @Test
+    fun testDataIsTheSameAfterSerialization() {
+        val serialized = serializer.serialize(listOf(TEST_RECORD, TEST_EMPTY_RECORD))
+        val deserialized = serializer.deserialize(serialized)
+        Assert.assertEquals(listOf(TEST_RECORD, TEST_EMPTY_RECORD), deserialized)
+    }
+
+    @Test
+    fun testJsonDataIsTheSameAfterBinarySerialization() {
+        val records = jsonSerializer.deserialize(readBytesFromAssets("test_data_search_history.json"))
+
+        val serialized = serializer.serialize(records)
+        val deserialized = serializer.deserialize(serialized)
+        Assert.assertEquals(records, deserialized)
+        Assert.assertEquals(records, jsonSerializer.deserialize(jsonSerializer.serialize(deserialized)))
+    }
+
+    @Test
+    fun testBinaryDataIsSmallerThanJson() {
+        val records = (1..100).map { index ->
+            TEST_RECORD.copy(id = "test-id-$index", name = "Test name $index", timestamp = index.toLong())
+        }
+        Assert.assertTrue(serializer.serialize(records).size < jsonSerializer.serialize(records).size)
+    }
+
+    @Test
+    fun testRecentRecordsReportedBeforeOthersDecoded() {
+        val records = (1..10).map { index ->
+            TEST_RECORD.copy(id = "test-id-$index", name = "Test name $index", timestamp = index.toLong())
+        }
+
+        var recent: List<HistoryRecord>? = null
+        val deserialized = serializer.deserialize(serializer.serialize(records), 3) {
+            recent = it
+        }
+
+        Assert.assertEquals(records.takeLast(3).reversed(), recent)
+        Assert.assertEquals(records, deserialized)
+    }
+
+    @Test
+    fun testRecentRecordsReportedWhenDataHasLessRecords() {
+        var recent: List<HistoryRecord>? = null
+        val deserialized = serializer.deserialize(serializer.serialize(listOf(TEST_RECORD, TEST_EMPTY_RECORD)), 3) {
+            recent = it
+        }
+
+        Assert.assertEquals(listOf(TEST_EMPTY_RECORD, TEST_RECORD), recent)
+        Assert.assertEquals(listOf(TEST_RECORD, TEST_EMPTY_RECORD), deserialized)
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun testUnsupportedVersion() {
+        val serialized = serializer.serialize(listOf(TEST_RECORD))
+        serialized[4] = 100
+        serializer.deserialize(serialized)
+    }
+
+    private companion object {
+
+        val TEST_RECORD = HistoryRecord(
+            id = "test id",
+            name = "test name",
+            coordinate = Point.fromLngLat(.0, .1),
+            descriptionText = "Belarus, Minsk",
+            address = SearchAddress(
+                street = "Nezavisimosti",
+                place = "Minsk",
+                country = "Belarus",
+            ),
+            timestamp = 123L,
+            newType = NewSearchResultType.ADDRESS,
+            makiIcon = "test maki",
+            categories = listOf("test", "category"),
+            routablePoints = null,
+            metadata = null,
+        )
+
+        val TEST_EMPTY_RECORD = HistoryRecord(
+            id = "empty_correct_record_id",
+            name = "Empty correct record",
+            coordinate = Point.fromLngLat(10.0, 20.0),
+            descriptionText = null,
+            address = null,
+            timestamp = 123L,
+            newType = NewSearchResultType.POI,
+            makiIcon = null,
+            categories = null,
+            routablePoints = null,
+            metadata = null,
+        )
+    }
+}
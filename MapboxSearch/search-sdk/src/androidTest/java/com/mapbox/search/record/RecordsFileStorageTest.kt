@@ -4,10 +4,15 @@ import com.mapbox.bindgen.Value
 import com.mapbox.common.SettingsServiceFactory
 import com.mapbox.common.SettingsServiceStorageType
 import com.mapbox.search.BaseTest
+import com.mapbox.search.tests_support.createTestFavoriteRecord
+import com.mapbox.search.tests_support.createTestHistoryRecord
+import com.mapbox.search.utils.collections.PersistentOrderedMap
 import com.mapbox.search.utils.file.InternalFileSystem
 import com.mapbox.search.utils.loader.DataLoader
 import com.mapbox.search.utils.loader.InternalDataLoader
+import com.mapbox.search.utils.serialization.RecordsFormat
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Test
 import java.util.concurrent.CopyOnWriteArrayList
 
@@ -22,18 +27,21 @@ internal class RecordsFileStorageTest : BaseTest() {
         SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
             .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
 
-        val historyStorage = RecordsFileStorage.History(recordingDataLoader)
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
 
         historyStorage.load()
+        historyStorage.save(listOf(createTestHistoryRecord()))
         historyStorage.save(emptyList())
 
         assertEquals(
-            listOf("search_history.bin"),
-            recordingDataLoader.recordedLoads,
+            listOf("search_history.bin", "search_history.bin.journal"),
+            recordingDataLoader.recordedLoads.take(2),
         )
-        assertEquals(
-            listOf("search_history.bin"),
-            recordingDataLoader.recordedSaves,
+        assertTrue(recordingDataLoader.recordedWrites.isNotEmpty())
+        assertTrue(
+            recordingDataLoader.recordedWrites.all {
+                it in listOf("search_history.bin", "search_history.bin.journal")
+            }
         )
     }
 
@@ -42,18 +50,21 @@ internal class RecordsFileStorageTest : BaseTest() {
         SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
             .set(RECORDS_FILES_EXT_KEY, Value(CUSTOM_EXTENSION))
 
-        val historyStorage = RecordsFileStorage.History(recordingDataLoader)
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
 
         historyStorage.load()
+        historyStorage.save(listOf(createTestHistoryRecord()))
         historyStorage.save(emptyList())
 
         assertEquals(
-            listOf("search_history$CUSTOM_EXTENSION"),
-            recordingDataLoader.recordedLoads,
+            listOf("search_history$CUSTOM_EXTENSION", "search_history$CUSTOM_EXTENSION.journal"),
+            recordingDataLoader.recordedLoads.take(2),
         )
-        assertEquals(
-            listOf("search_history$CUSTOM_EXTENSION"),
-            recordingDataLoader.recordedSaves,
+        assertTrue(recordingDataLoader.recordedWrites.isNotEmpty())
+        assertTrue(
+            recordingDataLoader.recordedWrites.all {
+                it in listOf("search_history$CUSTOM_EXTENSION", "search_history$CUSTOM_EXTENSION.journal")
+            }
         )
     }
 
@@ -62,18 +73,21 @@ internal class RecordsFileStorageTest : BaseTest() {
         SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
             .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
 
-        val favoritesStorage = RecordsFileStorage.Favorite(recordingDataLoader)
+        val favoritesStorage = TestRecordsWriter(RecordsFileStorage.Favorite(recordingDataLoader))
 
         favoritesStorage.load()
+        favoritesStorage.save(listOf(createTestFavoriteRecord()))
         favoritesStorage.save(emptyList())
 
         assertEquals(
-            listOf("favorites.bin"),
-            recordingDataLoader.recordedLoads,
+            listOf("favorites.bin", "favorites.bin.journal"),
+            recordingDataLoader.recordedLoads.take(2),
         )
-        assertEquals(
-            listOf("favorites.bin"),
-            recordingDataLoader.recordedSaves,
+        assertTrue(recordingDataLoader.recordedWrites.isNotEmpty())
+        assertTrue(
+            recordingDataLoader.recordedWrites.all {
+                it in listOf("favorites.bin", "favorites.bin.journal")
+            }
         )
     }
 
@@ -82,27 +96,208 @@ internal class RecordsFileStorageTest : BaseTest() {
         SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
             .set(RECORDS_FILES_EXT_KEY, Value(CUSTOM_EXTENSION))
 
-        val favoritesStorage = RecordsFileStorage.Favorite(recordingDataLoader)
+        val favoritesStorage = TestRecordsWriter(RecordsFileStorage.Favorite(recordingDataLoader))
 
         favoritesStorage.load()
+        favoritesStorage.save(listOf(createTestFavoriteRecord()))
         favoritesStorage.save(emptyList())
 
         assertEquals(
-            listOf("favorites$CUSTOM_EXTENSION"),
-            recordingDataLoader.recordedLoads,
+            listOf("favorites$CUSTOM_EXTENSION", "favorites$CUSTOM_EXTENSION.journal"),
+            recordingDataLoader.recordedLoads.take(2),
+        )
+        assertTrue(recordingDataLoader.recordedWrites.isNotEmpty())
+        assertTrue(
+            recordingDataLoader.recordedWrites.all {
+                it in listOf("favorites$CUSTOM_EXTENSION", "favorites$CUSTOM_EXTENSION.journal")
+            }
+        )
+    }
+
+    @Test
+    fun testHistoryChangesRestoredFromJournal() {
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
+
+        val record1 = createTestHistoryRecord(id = "id-1")
+        val record2 = createTestHistoryRecord(id = "id-2")
+        val record3 = createTestHistoryRecord(id = "id-3")
+
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
+        historyStorage.load()
+        historyStorage.save(emptyList())
+        historyStorage.save(listOf(record1, record2))
+        historyStorage.save(listOf(record2, record3))
+
+        assertEquals(
+            listOf(record2, record3),
+            RecordsFileStorage.History(recordingDataLoader).load(),
         )
+
+        historyStorage.save(listOf(record3, record1))
+
         assertEquals(
-            listOf("favorites$CUSTOM_EXTENSION"),
-            recordingDataLoader.recordedSaves,
+            listOf(record3, record1),
+            RecordsFileStorage.History(recordingDataLoader).load(),
         )
     }
 
+    @Test
+    fun testJournalOfPreviousSnapshotIsIgnored() {
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
+        clearHistoryFiles()
+
+        val records = (1..JOURNALED_RECORDS_AMOUNT).map { createTestHistoryRecord(id = "id-$it") }
+        val newRecord = createTestHistoryRecord(id = "new-id")
+
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
+        historyStorage.load()
+        historyStorage.save(records)
+
+        val previousJournal = recordingDataLoader.load(DIR_NAME, HISTORY_JOURNAL_FILE)
+        assertTrue(previousJournal.isNotEmpty())
+
+        // Change of most of the records is written to the snapshot right away
+        historyStorage.save(listOf(newRecord))
+
+        // Simulates a crash between the snapshot rewrite and the journal truncation
+        recordingDataLoader.save(DIR_NAME, HISTORY_JOURNAL_FILE, previousJournal)
+
+        assertEquals(listOf(newRecord), RecordsFileStorage.History(recordingDataLoader).load())
+    }
+
+    @Test
+    fun testJournalWithDamagedHeaderIsIgnored() {
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
+        clearHistoryFiles()
+
+        val record = createTestHistoryRecord(id = "id-1")
+
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
+        historyStorage.load()
+        historyStorage.save(listOf(record))
+
+        recordingDataLoader.save(DIR_NAME, HISTORY_JOURNAL_FILE, ByteArray(RecordsJournal.HEADER_SIZE))
+
+        val restoredStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
+        assertEquals(emptyList<HistoryRecord>(), restoredStorage.load())
+
+        restoredStorage.save(listOf(record))
+        assertEquals(listOf(record), RecordsFileStorage.History(recordingDataLoader).load())
+    }
+
+    @Test
+    fun testRecordsWrittenInJsonFormatByDefault() {
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
+        clearHistoryFiles()
+
+        val historyStorage = TestRecordsWriter(RecordsFileStorage.History(recordingDataLoader))
+        historyStorage.load()
+        historyStorage.save(listOf(createTestHistoryRecord(id = "id-1"), createTestHistoryRecord(id = "id-2")))
+        historyStorage.save(listOf(createTestHistoryRecord(id = "id-3")))
+
+        assertEquals(RecordsFormat.JSON, RecordsFormat.detect(recordingDataLoader.load(DIR_NAME, HISTORY_FILE)))
+    }
+
+    @Test
+    fun testRecordsMigratedBetweenFormats() {
+        val records = listOf(createTestHistoryRecord(id = "id-1"), createTestHistoryRecord(id = "id-2"))
+        listOf(BINARY_EXTENSION, "$BINARY_EXTENSION.journal", ".bin", ".bin.journal").forEach {
+            recordingDataLoader.save(MIGRATION_TEST_DIR, "$MIGRATION_TEST_FILE$it", ByteArray(0))
+        }
+
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value(BINARY_EXTENSION))
+
+        val binaryStorage = TestRecordsWriter(createMigrationTestStorage())
+        binaryStorage.load()
+        binaryStorage.save(records)
+
+        assertEquals(
+            RecordsFormat.BINARY,
+            RecordsFormat.detect(recordingDataLoader.load(MIGRATION_TEST_DIR, "$MIGRATION_TEST_FILE$BINARY_EXTENSION")),
+        )
+
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value.nullValue())
+
+        val jsonStorage = TestRecordsWriter(createMigrationTestStorage())
+        assertEquals(records, jsonStorage.load())
+        assertEquals(
+            RecordsFormat.JSON,
+            RecordsFormat.detect(recordingDataLoader.load(MIGRATION_TEST_DIR, "$MIGRATION_TEST_FILE.bin")),
+        )
+
+        val changedRecords = listOf(records[1], createTestHistoryRecord(id = "id-3"))
+        jsonStorage.save(changedRecords)
+
+        SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+            .set(RECORDS_FILES_EXT_KEY, Value(BINARY_EXTENSION))
+
+        assertEquals(changedRecords, createMigrationTestStorage().load())
+        assertEquals(
+            RecordsFormat.BINARY,
+            RecordsFormat.detect(recordingDataLoader.load(MIGRATION_TEST_DIR, "$MIGRATION_TEST_FILE$BINARY_EXTENSION")),
+        )
+    }
+
+    private fun clearHistoryFiles() {
+        recordingDataLoader.save(DIR_NAME, HISTORY_FILE, ByteArray(0))
+        recordingDataLoader.save(DIR_NAME, HISTORY_JOURNAL_FILE, ByteArray(0))
+    }
+
+    private fun createMigrationTestStorage() = RecordsFileStorage(
+        dirName = MIGRATION_TEST_DIR,
+        fileName = MIGRATION_TEST_FILE,
+        jsonSerializer = HistoryRecordsSerializer(),
+        binarySerializer = HistoryRecordsBinarySerializer(),
+        dataLoader = recordingDataLoader,
+    )
+
+    /**
+     * Saves records the way LocalDataProviderImpl does, passing only the changes of the previously saved records.
+     */
+    private class TestRecordsWriter<R : IndexableRecord>(private val storage: RecordsStorage<R>) {
+
+        private var saved = PersistentOrderedMap.empty<String, R>()
+
+        fun load(): List<R> {
+            return storage.load().also { records ->
+                saved = PersistentOrderedMap.of(records.map { it.id to it })
+            }
+        }
+
+        fun save(records: List<R>) {
+            val ids = records.map { it.id }.toSet()
+            val changes = mutableListOf<RecordsStorage.Change<R>>()
+            var next = saved
+
+            saved.keys.filter { it !in ids }.forEach { id ->
+                next = next.remove(id)
+                changes.add(RecordsStorage.Change(id, null))
+            }
+
+            records.forEach { record ->
+                if (next[record.id] !== record) {
+                    next = next.put(record.id, record)
+                    changes.add(RecordsStorage.Change(record.id, record))
+                }
+            }
+
+            storage.save(next, changes)
+            saved = next
+        }
+    }
+
     private class RecordingDataLoader(
         private val delegate: DataLoader<ByteArray>,
     ) : DataLoader<ByteArray> {
 
         val recordedLoads = CopyOnWriteArrayList<String>()
-        val recordedSaves = CopyOnWriteArrayList<String>()
+        val recordedWrites = CopyOnWriteArrayList<String>()
 
         override fun load(relativeDir: String, fileName: String): ByteArray {
             recordedLoads.add(fileName)
@@ -110,13 +305,25 @@ internal class RecordsFileStorageTest : BaseTest() {
         }
 
         override fun save(relativeDir: String, fileName: String, data: ByteArray) {
-            recordedSaves.add(fileName)
+            recordedWrites.add(fileName)
             delegate.save(relativeDir, fileName, data)
         }
+
+        override fun append(relativeDir: String, fileName: String, data: ByteArray) {
+            recordedWrites.add(fileName)
+            delegate.append(relativeDir, fileName, data)
+        }
     }
 
     private companion object {
+        const val DIR_NAME = "mapbox_search_sdk"
+        const val JOURNALED_RECORDS_AMOUNT = 40
+        const val HISTORY_FILE = "search_history.bin"
+        const val HISTORY_JOURNAL_FILE = "search_history.bin.journal"
         const val RECORDS_FILES_EXT_KEY = "com.mapbox.search.internal.experimental.records_files_ext"
         const val CUSTOM_EXTENSION = ".json"
+        const val BINARY_EXTENSION = ".records"
+        const val MIGRATION_TEST_DIR = "mapbox_search_sdk_test"
+        const val MIGRATION_TEST_FILE = "migration_test"
     }
 }
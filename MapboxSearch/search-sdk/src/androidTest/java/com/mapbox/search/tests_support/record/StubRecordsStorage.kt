@@ -13,8 +13,8 @@ internal class StubRecordsStorage<R : IndexableRecord>(
         return records
     }
 
-    override fun save(records: List<R>) {
+    override fun save(records: Map<String, R>, changes: List<RecordsStorage.Change<R>>) {
         this.records.clear()
-        this.records.addAll(records)
+        this.records.addAll(records.values)
     }
 }
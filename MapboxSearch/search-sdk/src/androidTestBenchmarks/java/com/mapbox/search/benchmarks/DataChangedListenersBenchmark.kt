@@ -0,0 +1,89 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import com.mapbox.search.common.tests.TestExecutor
+import com.mapbox.search.common.tests.TestThreadExecutorService
+import com.mapbox.search.record.HistoryDataProviderImpl
+import com.mapbox.search.record.HistoryRecord
+import com.mapbox.search.record.LocalDataProvider
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures a single record change of the history with registered listeners and data provider engines.
+ */
+@RunWith(Parameterized::class)
+internal class DataChangedListenersBenchmark(private val listenersCount: Int) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var historyDataProvider: HistoryDataProviderImpl
+    private var notificationsCount = 0
+    private var nextTimestamp = RECORDS_COUNT.toLong()
+
+    @Before
+    fun setUp() {
+        historyDataProvider = HistoryDataProviderImpl(
+            recordsStorage = FakeRecordsStorage(List(RECORDS_COUNT) { createHistoryRecord(it) }),
+            backgroundTaskExecutorService = TestThreadExecutorService(),
+        )
+        historyDataProvider.registerIndexableDataProviderEngine(
+            FakeDataProviderEngine(), TestExecutor(), NoOpCompletionCallback
+        )
+    }
+
+    @Test
+    fun dataChangedListeners() {
+        repeat(listenersCount) {
+            historyDataProvider.addOnDataChangedListener(
+                TestExecutor(),
+                object : LocalDataProvider.OnDataChangedListener<HistoryRecord> {
+                    override fun onDataChanged(newData: List<HistoryRecord>) {
+                        notificationsCount++
+                    }
+                }
+            )
+        }
+        measureRecordUpdate()
+    }
+
+    @Test
+    fun dataChangeSetListeners() {
+        repeat(listenersCount) {
+            historyDataProvider.addOnDataChangeSetListener(
+                TestExecutor(),
+                object : LocalDataProvider.OnDataChangeSetListener<HistoryRecord> {
+                    override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>) {
+                        notificationsCount++
+                    }
+                }
+            )
+        }
+        measureRecordUpdate()
+    }
+
+    private fun measureRecordUpdate() {
+        benchmarkRule.measureRepeated {
+            val record = runWithTimingDisabled {
+                createHistoryRecord(index = 0, timestamp = nextTimestamp++)
+            }
+            val expectedNotifications = notificationsCount + listenersCount
+            historyDataProvider.upsert(record, TestExecutor(), NoOpCompletionCallback)
+            check(notificationsCount == expectedNotifications)
+        }
+    }
+
+    companion object {
+
+        private const val RECORDS_COUNT = 1_000
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}Listeners")
+        fun parameters(): List<Int> = listOf(1, 10, 50)
+    }
+}
@@ -0,0 +1,98 @@
+package com.mapbox.search.benchmarks
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.common.CompletionCallback
+import com.mapbox.search.record.HistoryRecord
+import com.mapbox.search.record.HistoryRecordsBinarySerializer
+import com.mapbox.search.record.HistoryRecordsSerializer
+import com.mapbox.search.record.IndexableDataProviderEngine
+import com.mapbox.search.record.IndexableRecord
+import com.mapbox.search.record.RecordsFileStorage
+import com.mapbox.search.record.RecordsStorage
+import com.mapbox.search.result.NewSearchResultType
+import com.mapbox.search.result.SearchAddress
+import com.mapbox.search.utils.loader.DataLoader
+
+/**
+ * Stand-in for the native user records layer, which is backed by [IndexableDataProviderEngine] on the SDK side.
+ */
+internal class FakeDataProviderEngine : IndexableDataProviderEngine {
+
+    var operationsCount = 0
+        private set
+
+    override fun upsert(record: IndexableRecord) {
+        operationsCount++
+    }
+
+    override fun upsertAll(records: Iterable<IndexableRecord>) {
+        operationsCount++
+    }
+
+    override fun remove(id: String) {
+        operationsCount++
+    }
+
+    override fun removeAll(ids: Iterable<String>) {
+        operationsCount++
+    }
+
+    override fun clear() {
+        operationsCount++
+    }
+}
+
+/**
+ * Records storage that doesn't touch the disk, so that only in-memory processing of records is measured.
+ */
+internal class FakeRecordsStorage(
+    private val initialRecords: List<HistoryRecord> = emptyList(),
+) : RecordsFileStorage<HistoryRecord>(
+    dirName = "benchmarks",
+    fileName = "history",
+    jsonSerializer = HistoryRecordsSerializer(),
+    binarySerializer = HistoryRecordsBinarySerializer(),
+    dataLoader = NoOpDataLoader,
+) {
+
+    override fun load(recentCount: Int, onRecentLoaded: (List<HistoryRecord>) -> Unit): List<HistoryRecord> {
+        onRecentLoaded(initialRecords.takeLast(recentCount).asReversed())
+        return initialRecords
+    }
+
+    override fun load(): List<HistoryRecord> = initialRecords
+
+    override fun save(records: Map<String, HistoryRecord>, changes: List<RecordsStorage.Change<HistoryRecord>>) {
+        // Records are not persisted
+    }
+}
+
+private object NoOpDataLoader : DataLoader<ByteArray> {
+    override fun load(relativeDir: String, fileName: String): ByteArray = ByteArray(0)
+    override fun save(relativeDir: String, fileName: String, data: ByteArray) = Unit
+    override fun append(relativeDir: String, fileName: String, data: ByteArray) = Unit
+}
+
+internal object NoOpCompletionCallback : CompletionCallback<Unit> {
+    override fun onComplete(result: Unit) = Unit
+    override fun onError(e: Exception) = throw e
+}
+
+internal fun createHistoryRecord(index: Int, timestamp: Long = index.toLong()) = HistoryRecord(
+    id = "history-record-$index",
+    name = "History record $index",
+    descriptionText = "Description of the history record $index",
+    address = SearchAddress(
+        houseNumber = "$index",
+        street = "Benchmark street",
+        place = "Benchmark city",
+        country = "Benchmark country",
+    ),
+    routablePoints = null,
+    categories = listOf("cafe", "restaurant"),
+    makiIcon = "restaurant",
+    coordinate = Point.fromLngLat(index % 180.0, index % 90.0),
+    metadata = null,
+    newType = NewSearchResultType.POI,
+    timestamp = timestamp,
+)
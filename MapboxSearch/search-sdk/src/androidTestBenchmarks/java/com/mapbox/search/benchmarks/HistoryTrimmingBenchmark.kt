@@ -0,0 +1,62 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.mapbox.search.common.tests.TestExecutor
+import com.mapbox.search.common.tests.TestThreadExecutorService
+import com.mapbox.search.record.HistoryDataProviderImpl
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures addition of new history records to the full history, which evicts the oldest records.
+ */
+@RunWith(AndroidJUnit4::class)
+internal class HistoryTrimmingBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var historyDataProvider: HistoryDataProviderImpl
+    private var nextRecordIndex = MAX_RECORDS
+
+    @Before
+    fun setUp() {
+        historyDataProvider = HistoryDataProviderImpl(
+            recordsStorage = FakeRecordsStorage(List(MAX_RECORDS) { createHistoryRecord(it) }),
+            backgroundTaskExecutorService = TestThreadExecutorService(),
+            maxRecordsAmount = MAX_RECORDS,
+        )
+        historyDataProvider.registerIndexableDataProviderEngine(
+            FakeDataProviderEngine(), TestExecutor(), NoOpCompletionCallback
+        )
+    }
+
+    @Test
+    fun addAndTrimSingleRecord() {
+        benchmarkRule.measureRepeated {
+            val record = runWithTimingDisabled {
+                createHistoryRecord(nextRecordIndex++)
+            }
+            historyDataProvider.upsert(record, TestExecutor(), NoOpCompletionCallback)
+        }
+    }
+
+    @Test
+    fun addAndTrimRecordsBatch() {
+        benchmarkRule.measureRepeated {
+            val records = runWithTimingDisabled {
+                List(BATCH_SIZE) { createHistoryRecord(nextRecordIndex++) }
+            }
+            historyDataProvider.upsertAll(records, TestExecutor(), NoOpCompletionCallback)
+        }
+    }
+
+    private companion object {
+        const val MAX_RECORDS = 1_000
+        const val BATCH_SIZE = 50
+    }
+}
@@ -0,0 +1,69 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import com.mapbox.search.utils.collections.PersistentOrderedMap
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Compares a single record change of [PersistentOrderedMap] with a copy of [LinkedHashMap],
+ * which was previously used by LocalDataProviderImpl to publish an immutable snapshot of records.
+ * Both sides only produce a new map with the change applied.
+ */
+@RunWith(Parameterized::class)
+internal class LocalRecordsMapBenchmark(private val recordsCount: Int) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val keys = List(recordsCount) { "record-$it" }
+    private var iteration = 0
+
+    @Test
+    fun linkedHashMapCopyPut() {
+        var map: Map<String, Int> = LinkedHashMap<String, Int>().apply {
+            keys.forEachIndexed { index, key -> put(key, index) }
+        }
+        benchmarkRule.measureRepeated {
+            map = LinkedHashMap(map).apply {
+                put(keys[iteration % recordsCount], iteration++)
+            }
+        }
+    }
+
+    @Test
+    fun persistentOrderedMapPut() {
+        var map = PersistentOrderedMap.of(keys.mapIndexed { index, key -> key to index })
+        benchmarkRule.measureRepeated {
+            map = map.put(keys[iteration % recordsCount], iteration++)
+        }
+    }
+
+    @Test
+    fun linkedHashMapGet() {
+        val map = LinkedHashMap<String, Int>().apply {
+            keys.forEachIndexed { index, key -> put(key, index) }
+        }
+        benchmarkRule.measureRepeated {
+            map[keys[iteration++ % recordsCount]]
+        }
+    }
+
+    @Test
+    fun persistentOrderedMapGet() {
+        val map = PersistentOrderedMap.of(keys.mapIndexed { index, key -> key to index })
+        benchmarkRule.measureRepeated {
+            map[keys[iteration++ % recordsCount]]
+        }
+    }
+
+    companion object {
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}Records")
+        fun parameters(): List<Int> = listOf(100, 1_000, 10_000)
+    }
+}
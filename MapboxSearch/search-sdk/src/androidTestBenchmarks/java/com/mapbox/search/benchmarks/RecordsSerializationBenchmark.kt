@@ -0,0 +1,56 @@
+package com.mapbox.search.benchmarks
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import com.mapbox.search.record.HistoryRecord
+import com.mapbox.search.record.HistoryRecordsBinarySerializer
+import com.mapbox.search.record.HistoryRecordsSerializer
+import com.mapbox.search.utils.serialization.RecordsCodec
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+@RunWith(Parameterized::class)
+internal class RecordsSerializationBenchmark(
+    private val format: String,
+    private val recordsCount: Int,
+) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val codec: RecordsCodec<HistoryRecord> = when (format) {
+        FORMAT_JSON -> HistoryRecordsSerializer()
+        else -> HistoryRecordsBinarySerializer()
+    }
+
+    private val records = List(recordsCount) { createHistoryRecord(it) }
+
+    @Test
+    fun serialize() {
+        benchmarkRule.measureRepeated {
+            codec.serialize(records)
+        }
+    }
+
+    @Test
+    fun deserialize() {
+        val data = codec.serialize(records)
+        benchmarkRule.measureRepeated {
+            codec.deserialize(data)
+        }
+    }
+
+    companion object {
+
+        private const val FORMAT_JSON = "json"
+        private const val FORMAT_BINARY = "binary"
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "{0}_{1}Records")
+        fun parameters(): List<Array<Any>> = listOf(FORMAT_JSON, FORMAT_BINARY).flatMap { format ->
+            listOf(1_000, 10_000).map { arrayOf<Any>(format, it) }
+        }
+    }
+}
@@ -12,8 +12,12 @@ import com.mapbox.search.record.DataProviderEngineRegistrationService
 import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableDataProviderEngineImpl
 import com.mapbox.search.record.IndexableRecord
+import com.mapbox.search.record.LocalDataProviderImpl
 import com.mapbox.search.record.mapToBase
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 
 internal class IndexableDataProvidersRegistryImpl(
     private val dataProviderEngineRegistrationService: DataProviderEngineRegistrationService
@@ -21,7 +25,11 @@ internal class IndexableDataProvidersRegistryImpl(
 
     private val registry = Registry()
 
-    @Synchronized
+    override fun resolveIfLoaded(dataProviderName: String, userRecordId: String): BaseIndexableRecord? {
+        val dataProvider = registry.dataProviderContext(dataProviderName)?.provider as? LocalDataProviderImpl<*>
+        return dataProvider?.getIfLoaded(userRecordId)?.mapToBase()
+    }
+
     override fun resolve(
         dataProviderName: String,
         userRecordId: String,
@@ -52,6 +60,102 @@ internal class IndexableDataProvidersRegistryImpl(
         })
     }
 
+    override fun resolveAll(
+        userRecordIds: Map<String, List<String>>,
+        executor: Executor,
+        callback: (Map<String, Result<Map<String, BaseIndexableRecord>>>) -> Unit
+    ): AsyncOperationTask {
+        if (userRecordIds.isEmpty()) {
+            executor.execute {
+                callback(emptyMap())
+            }
+            return AsyncOperationTaskImpl.COMPLETED
+        }
+
+        val results = ConcurrentHashMap<String, Result<Map<String, BaseIndexableRecord>>>()
+        val remaining = AtomicInteger(userRecordIds.size)
+        val task = AsyncOperationTaskImpl<Any>()
+
+        fun onResult(dataProviderName: String, result: Result<Map<String, BaseIndexableRecord>>) {
+            results[dataProviderName] = result
+            if (remaining.decrementAndGet() == 0) {
+                task.onComplete()
+                callback(results)
+            }
+        }
+
+        userRecordIds.forEach { (dataProviderName, ids) ->
+            val dataProvider = registry.dataProviderContext(dataProviderName)?.provider
+            if (dataProvider == null) {
+                executor.execute {
+                    onResult(
+                        dataProviderName,
+                        Result.failure(Exception("Unable to find data provider with name: $dataProviderName"))
+                    )
+                }
+                return@forEach
+            }
+
+            task += getAll(dataProvider, ids, executor, object : CompletionCallback<List<IndexableRecord>> {
+                override fun onComplete(result: List<IndexableRecord>) {
+                    onResult(dataProviderName, Result.success(result.associate { it.id to it.mapToBase() }))
+                }
+
+                override fun onError(e: Exception) {
+                    onResult(dataProviderName, Result.failure(e))
+                }
+            })
+        }
+        return task
+    }
+
+    /**
+     * Local data providers serve all the [ids] with a single read. Other data providers are asked
+     * for every record, so that they don't have to load all their records to provide a few of them.
+     */
+    private fun getAll(
+        dataProvider: IndexableDataProvider<*>,
+        ids: List<String>,
+        executor: Executor,
+        callback: CompletionCallback<List<IndexableRecord>>,
+    ): AsyncOperationTask {
+        if (dataProvider is LocalDataProviderImpl<*>) {
+            return dataProvider.getAll(ids, executor, callback)
+        }
+
+        if (ids.isEmpty()) {
+            executor.execute {
+                callback.onComplete(emptyList())
+            }
+            return AsyncOperationTaskImpl.COMPLETED
+        }
+
+        val records = arrayOfNulls<IndexableRecord>(ids.size)
+        val remaining = AtomicInteger(ids.size)
+        val isFailed = AtomicBoolean(false)
+        val task = AsyncOperationTaskImpl<Any>()
+
+        ids.forEachIndexed { index, id ->
+            task += dataProvider.get(id, executor, object : CompletionCallback<IndexableRecord?> {
+                override fun onComplete(result: IndexableRecord?) {
+                    records[index] = result
+                    if (remaining.decrementAndGet() == 0 && !isFailed.get()) {
+                        task.onComplete()
+                        callback.onComplete(records.filterNotNull())
+                    }
+                }
+
+                override fun onError(e: Exception) {
+                    if (isFailed.compareAndSet(false, true)) {
+                        task.onComplete()
+                        callback.onError(e)
+                    }
+                }
+            })
+        }
+        return task
+    }
+
     override fun <R : IndexableRecord> preregister(
         dataProvider: IndexableDataProvider<R>,
         executor: Executor,
@@ -216,7 +320,8 @@ internal class IndexableDataProvidersRegistryImpl(
         private val engineProviders: MutableMap<CoreSearchEngineInterface, MutableSet<String>> = mutableMapOf()
         private val registeredProviders: MutableMap<String, MutableSet<CoreSearchEngineInterface>> = mutableMapOf()
 
-        private val dataProvidersContextMap: MutableMap<String, DataProviderContext> = mutableMapOf()
+        // Accessed without synchronization by records resolution
+        private val dataProvidersContextMap: MutableMap<String, DataProviderContext> = ConcurrentHashMap()
 
         fun register(dataProvider: IndexableDataProvider<*>, searchEngine: CoreSearchEngineInterface) {
             engineProviders.addValue(searchEngine, dataProvider.dataProviderName)
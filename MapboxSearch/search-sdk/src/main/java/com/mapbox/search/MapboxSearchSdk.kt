@@ -72,6 +72,8 @@ internal object MapboxSearchSdk {
                 val provider = HistoryDataProviderImpl(
                     recordsStorage = RecordsFileStorage.History(dataLoader),
                     timeProvider = timeProvider,
+                    // Bursts of changes are persisted in a single write
+                    coalesceWrites = true,
                 )
 
                 indexableDataProvidersRegistry.preregister(
@@ -85,6 +87,8 @@ internal object MapboxSearchSdk {
             favoritesDataProviderInitializer = {
                 val provider = FavoritesDataProviderImpl(
                     recordsStorage = RecordsFileStorage.Favorite(dataLoader),
+                    // Bursts of changes are persisted in a single write
+                    coalesceWrites = true,
                 )
 
                 indexableDataProvidersRegistry.preregister(
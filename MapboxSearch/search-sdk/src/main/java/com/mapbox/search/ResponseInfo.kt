@@ -25,6 +25,10 @@ import kotlinx.parcelize.Parcelize
  * @property isReproducible true, if [coreSearchResponse] is not associated with provided [requestOptions],
  * meaning that [RequestOptions] will not contain all parameters, with which [CoreSearchResponse] may be reproduced.
  *
+ * @property isCached true, if the response has been served from the [SearchEngine] suggestions cache
+ * without a network request.
+ *
+ * @see SearchSuggestionsCacheSettings
  * @see SearchSuggestionsCallback
  * @see SearchSelectionCallback
  * @see SearchMultipleSelectionCallback
@@ -36,6 +40,7 @@ public class ResponseInfo internal constructor(
     internal val coreSearchResponse: BaseSearchResponse?,
     @get:JvmSynthetic
     internal val isReproducible: Boolean,
+    public val isCached: Boolean = false,
 ) : Parcelable {
 
     /**
@@ -56,6 +61,7 @@ public class ResponseInfo internal constructor(
         if (requestOptions != other.requestOptions) return false
         if (coreSearchResponse != other.coreSearchResponse) return false
         if (isReproducible != other.isReproducible) return false
+        if (isCached != other.isCached) return false
 
         return true
     }
@@ -67,6 +73,7 @@ public class ResponseInfo internal constructor(
         var result = requestOptions.hashCode()
         result = 31 * result + (coreSearchResponse?.hashCode() ?: 0)
         result = 31 * result + isReproducible.hashCode()
+        result = 31 * result + isCached.hashCode()
         return result
     }
 
@@ -78,7 +85,8 @@ public class ResponseInfo internal constructor(
                 "requestOptions=$requestOptions, " +
                 "responseUuid=$responseUuid, " +
                 "coreSearchResponse=$coreSearchResponse, " +
-                "isReproducible=$isReproducible" +
+                "isReproducible=$isReproducible, " +
+                "isCached=$isCached" +
                 ")"
     }
 }
@@ -91,3 +99,13 @@ internal fun BaseResponseInfo.mapToPlatform(): ResponseInfo {
         isReproducible = isReproducible,
     )
 }
+
+@JvmSynthetic
+internal fun ResponseInfo.copy(isCached: Boolean): ResponseInfo {
+    return ResponseInfo(
+        requestOptions = requestOptions,
+        coreSearchResponse = coreSearchResponse,
+        isReproducible = isReproducible,
+        isCached = isCached,
+    )
+}
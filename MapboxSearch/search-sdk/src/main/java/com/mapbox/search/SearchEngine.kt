@@ -6,6 +6,7 @@ import com.mapbox.search.base.StubCompletionCallback
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
 import com.mapbox.search.common.RestrictedMapboxSearchAPI
+import com.mapbox.search.common.ReverseGeoBatchOptions
 import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
 import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableRecord
@@ -76,6 +77,18 @@ public interface SearchEngine {
      */
     public val analyticsService: AnalyticsService
 
+    /**
+     * Statistics of the speculative prefetch of search results,
+     * or `null` if the prefetch is not enabled in [SearchEngineSettings.prefetchSettings].
+     */
+    public val prefetchStatistics: SearchPrefetchStatistics?
+
+    /**
+     * Statistics of the [SearchEngine.search] responses cache,
+     * or `null` if the cache is not enabled in [SearchEngineSettings.suggestionsCacheSettings].
+     */
+    public val suggestionsCacheStatistics: SearchSuggestionsCacheStatistics?
+
     /**
      * The first step of forward geocoding. Returns a list of [SearchSuggestion] without coordinates.
      *
@@ -460,6 +473,57 @@ public interface SearchEngine {
         callback = callback,
     )
 
+    /**
+     * Performs reverse geocoding of multiple locations.
+     *
+     * Locations closer than [ReverseGeoBatchOptions.dedupRadiusMeters] to each other and having otherwise
+     * equal options are resolved with a single request. Locations close to the locations resolved by the
+     * previous batches are served from the in-memory cache of this [SearchEngine] without a request.
+     * Other locations are requested with at most [ReverseGeoBatchOptions.maxConcurrentRequests] requests
+     * at the same time.
+     *
+     * Results are delivered in the order of [options], see [ReverseGeoBatchCallback].
+     *
+     * @param options Reverse geocoding options, one for each location to resolve.
+     * @param batchOptions Batch options.
+     * @param executor Executor used for events dispatching. By default events are dispatched on the main thread.
+     * @param callback Callback to retrieve results.
+     * @return [AsyncOperationTask] object representing pending completion of the batch.
+     */
+    public fun reverseGeocodeBatch(
+        options: List<ReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        executor: Executor,
+        callback: ReverseGeoBatchCallback,
+    ): AsyncOperationTask
+
+    /**
+     * Performs reverse geocoding of multiple locations.
+     *
+     * Locations closer than [ReverseGeoBatchOptions.dedupRadiusMeters] to each other and having otherwise
+     * equal options are resolved with a single request. Locations close to the locations resolved by the
+     * previous batches are served from the in-memory cache of this [SearchEngine] without a request.
+     * Other locations are requested with at most [ReverseGeoBatchOptions.maxConcurrentRequests] requests
+     * at the same time.
+     *
+     * Results are delivered in the order of [options], see [ReverseGeoBatchCallback].
+     *
+     * @param options Reverse geocoding options, one for each location to resolve.
+     * @param batchOptions Batch options.
+     * @param callback Callback to retrieve results, delivers results on the main thread.
+     * @return [AsyncOperationTask] object representing pending completion of the batch.
+     */
+    public fun reverseGeocodeBatch(
+        options: List<ReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        callback: ReverseGeoBatchCallback,
+    ): AsyncOperationTask = reverseGeocodeBatch(
+        options = options,
+        batchOptions = batchOptions,
+        executor = SearchSdkMainThreadWorker.mainExecutor,
+        callback = callback,
+    )
+
     /**
      * One-off search request to get a list of search results with coordinates and metadata.
      * In contrast to Interactive Search ([search] and [select] functions),
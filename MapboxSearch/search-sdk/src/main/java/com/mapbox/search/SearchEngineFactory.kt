@@ -80,7 +80,18 @@ internal class SearchEngineFactory {
             ServiceProvider.INTERNAL_INSTANCE.historyService(),
             MapboxSearchSdk.searchRequestContextProvider,
             MapboxSearchSdk.searchResultFactory,
-            indexableDataProvidersRegistry = MapboxSearchSdk.indexableDataProvidersRegistry
+            engineExecutorService = settings.executorProvider.interactiveExecutor,
+            selectionExecutorService = settings.executorProvider.selectionExecutor,
+            indexableDataProvidersRegistry = MapboxSearchSdk.indexableDataProvidersRegistry,
+            suggestionsCache = settings.suggestionsCacheSettings?.let { SearchSuggestionsCache(it) },
+            resultsPrefetcher = settings.prefetchSettings?.let {
+                SearchResultsPrefetcher(
+                    settings = it,
+                    coreEngine = coreEngine,
+                    searchResultFactory = MapboxSearchSdk.searchResultFactory,
+                    workerExecutor = settings.executorProvider.prefetchExecutor,
+                )
+            },
         )
     }
 
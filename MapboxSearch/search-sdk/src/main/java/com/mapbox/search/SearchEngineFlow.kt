@@ -0,0 +1,65 @@
+package com.mapbox.search
+
+import com.mapbox.search.result.SearchSuggestion
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.mapLatest
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.Executor
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Returns a [Flow] of search suggestions for the [queries]. A search request is made for each query
+ * that stays unchanged for [SearchOptions.requestDebounce] time interval, if specified.
+ * Consecutive identical queries are requested only once.
+ *
+ * When a new query is emitted while the request for the previous one is in progress, the previous request
+ * is cancelled and its suggestions are never emitted. The request in progress is also cancelled
+ * when the collecting coroutine is cancelled.
+ *
+ * The flow completes with an exception if any of the requests fails.
+ *
+ * @param queries Flow of search queries, for example, text typed by the user.
+ * @param options Search options applied to each of the requests.
+ * @return Flow of suggestions lists, one for each request made.
+ * @see SearchEngine.search
+ */
+@OptIn(FlowPreview::class, ExperimentalCoroutinesApi::class)
+public fun SearchEngine.searchAsFlow(
+    queries: Flow<String>,
+    options: SearchOptions = SearchOptions(),
+): Flow<List<SearchSuggestion>> {
+    val debounceMillis = options.requestDebounce?.toLong() ?: 0L
+    // Requests are debounced by the flow, there's no need to delay them once again.
+    val requestOptions = options.copy(requestDebounce = null)
+
+    val debounced = if (debounceMillis > 0) queries.debounce(debounceMillis) else queries
+    return debounced
+        .distinctUntilChanged()
+        .mapLatest { query -> searchSuspending(query, requestOptions) }
+}
+
+private suspend fun SearchEngine.searchSuspending(query: String, options: SearchOptions): List<SearchSuggestion> {
+    return suspendCancellableCoroutine { continuation ->
+        val task = search(query, options, DIRECT_EXECUTOR, object : SearchSuggestionsCallback {
+            override fun onSuggestions(suggestions: List<SearchSuggestion>, responseInfo: ResponseInfo) {
+                continuation.resume(suggestions)
+            }
+
+            override fun onError(e: Exception) {
+                continuation.resumeWithException(e)
+            }
+        })
+
+        continuation.invokeOnCancellation {
+            task.cancel()
+        }
+    }
+}
+
+// Continuation dispatches the result to the collector's context itself.
+private val DIRECT_EXECUTOR = Executor { it.run() }
@@ -4,6 +4,7 @@ package com.mapbox.search
 
 import com.mapbox.annotation.MapboxExperimental
 import com.mapbox.common.BaseMapboxInitializer
+import com.mapbox.geojson.Point
 import com.mapbox.search.adapter.BaseSearchCallbackAdapter
 import com.mapbox.search.adapter.BaseSearchMultipleSelectionCallbackAdapter
 import com.mapbox.search.adapter.BaseSearchSelectionCallbackAdapter
@@ -17,6 +18,8 @@ import com.mapbox.search.base.assertDebug
 import com.mapbox.search.base.core.CoreSearchEngineInterface
 import com.mapbox.search.base.engine.BaseSearchEngine
 import com.mapbox.search.base.engine.OneStepRequestCallbackWrapper
+import com.mapbox.search.base.engine.ReverseGeocodingBatch
+import com.mapbox.search.base.engine.SpatialResultsCache
 import com.mapbox.search.base.engine.TwoStepsBatchRequestCallbackWrapper
 import com.mapbox.search.base.engine.TwoStepsRequestCallbackWrapper
 import com.mapbox.search.base.logger.logd
@@ -35,16 +38,19 @@ import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
 import com.mapbox.search.common.RestrictedMapboxSearchAPI
+import com.mapbox.search.common.ReverseGeoBatchOptions
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.internal.bindgen.UserActivityReporterInterface
 import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableRecord
+import com.mapbox.search.record.LocalDataProvider
 import com.mapbox.search.result.SearchResult
 import com.mapbox.search.result.SearchSuggestion
 import com.mapbox.search.utils.search.RetrieveUtils.EMPTY_REQUEST_OPTIONS
 import com.mapbox.search.utils.search.RetrieveUtils.createSearchResultForRetrieve
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.Executor
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 internal class SearchEngineImpl(
     override val apiType: ApiType,
@@ -55,10 +61,26 @@ internal class SearchEngineImpl(
     private val historyService: SearchHistoryService,
     private val requestContextProvider: SearchRequestContextProvider,
     private val searchResultFactory: SearchResultFactory,
-    private val engineExecutorService: ExecutorService = DEFAULT_EXECUTOR,
+    private val engineExecutorService: Executor = SearchExecutorProvider.getDefault().interactiveExecutor,
+    private val selectionExecutorService: Executor = engineExecutorService,
     private val indexableDataProvidersRegistry: IndexableDataProvidersRegistry,
+    private val suggestionsCache: SearchSuggestionsCache? = null,
+    private val resultsPrefetcher: SearchResultsPrefetcher? = null,
 ) : BaseSearchEngine(), SearchEngine {
 
+    private val cacheInvalidationListeners = ConcurrentHashMap<String, LocalDataProvider.OnDataChangeSetListener<*>>()
+
+    private val reverseGeocodingCache = SpatialResultsCache<ReverseGeoOptions, ReverseGeoResponse>(
+        maxSize = REVERSE_GEOCODING_CACHE_SIZE,
+        ttlMillis = REVERSE_GEOCODING_CACHE_TTL_MILLIS,
+    )
+
+    override val prefetchStatistics: SearchPrefetchStatistics?
+        get() = resultsPrefetcher?.statistics
+
+    override val suggestionsCacheStatistics: SearchSuggestionsCacheStatistics?
+        get() = suggestionsCache?.statistics
+
     init {
         BaseMapboxInitializer.init(MapboxSearchSdkInitializerImpl::class.java)
     }
@@ -73,8 +95,53 @@ internal class SearchEngineImpl(
 
         logd("search($query, $options) called")
 
-        val baseCallback: BaseSearchSuggestionsCallback = BaseSearchSuggestionsCallbackAdapter(callback)
-        return makeRequest(baseCallback) { task ->
+        // Suggestions of the previous query are not relevant anymore
+        resultsPrefetcher?.cancel()
+
+        val prefetchingCallback = if (resultsPrefetcher != null) {
+            object : SearchSuggestionsCallback {
+                override fun onSuggestions(suggestions: List<SearchSuggestion>, responseInfo: ResponseInfo) {
+                    resultsPrefetcher.prefetch(suggestions.map { it.base })
+                    callback.onSuggestions(suggestions, responseInfo)
+                }
+
+                override fun onError(e: Exception) {
+                    callback.onError(e)
+                }
+            }
+        } else {
+            callback
+        }
+
+        val suggestionsCallback = if (suggestionsCache != null) {
+            val cacheKey = suggestionsCache.createKey(query, options)
+            val cached = suggestionsCache.get(cacheKey)
+            if (cached != null) {
+                logd("search($query) served from cache")
+                val task = AsyncOperationTaskImpl(prefetchingCallback)
+                task.markExecutedAndRunOnCallback(executor) {
+                    onSuggestions(cached.suggestions, cached.responseInfo)
+                }
+                return task
+            }
+
+            val generation = suggestionsCache.generation
+            object : SearchSuggestionsCallback {
+                override fun onSuggestions(suggestions: List<SearchSuggestion>, responseInfo: ResponseInfo) {
+                    suggestionsCache.put(cacheKey, generation, suggestions, responseInfo.copy(isCached = true))
+                    prefetchingCallback.onSuggestions(suggestions, responseInfo)
+                }
+
+                override fun onError(e: Exception) {
+                    prefetchingCallback.onError(e)
+                }
+            }
+        } else {
+            prefetchingCallback
+        }
+
+        val baseCallback: BaseSearchSuggestionsCallback = BaseSearchSuggestionsCallbackAdapter(suggestionsCallback)
+        return makeRequest(SearchRequestKey(query, options), baseCallback, executor) { task ->
             val requestContext = requestContextProvider.provide(apiType.mapToCore())
             val requestId = coreEngine.search(
                 query, emptyList(), options.mapToCore(),
@@ -218,7 +285,7 @@ internal class SearchEngineImpl(
                             suggestions = filtered.map { it.base },
                             searchResultFactory = searchResultFactory,
                             callbackExecutor = executor,
-                            workerExecutor = engineExecutorService,
+                            workerExecutor = selectionExecutorService,
                             searchRequestTask = task,
                             resultingFunction = resultingFunction,
                             searchRequestContext = requestContext,
@@ -294,6 +361,17 @@ internal class SearchEngineImpl(
                 completeSearchResultSelection(suggestion, SearchResult(baseSearchResult))
             }
             is BaseServerSearchSuggestion -> {
+                val prefetched = if (options.attributeSets == null && options.unsafeParameters == null) {
+                    resultsPrefetcher?.get(base)
+                } else {
+                    null
+                }
+
+                if (prefetched != null) {
+                    logd("select(${suggestion.id}) served from prefetched results")
+                    return completeSearchResultSelection(suggestion, SearchResult(prefetched))
+                }
+
                 val baseCallback: BaseSearchSuggestionsCallback = BaseSearchSelectionCallbackAdapter(callback)
                 makeRequest(baseCallback) { task ->
                     val requestContext = suggestion.requestOptions.requestContext
@@ -307,7 +385,7 @@ internal class SearchEngineImpl(
                             historyService = historyService,
                             searchResultFactory = searchResultFactory,
                             callbackExecutor = executor,
-                            workerExecutor = engineExecutorService,
+                            workerExecutor = selectionExecutorService,
                             searchRequestTask = task,
                             searchRequestContext = requestContext,
                             suggestion = suggestion.base,
@@ -339,7 +417,7 @@ internal class SearchEngineImpl(
         val searchResult = createSearchResultForRetrieve(this.apiType, mapboxId)
         val baseCallback = SearchResultCallbackAdapter(callback)
 
-        return makeRequest(baseCallback) { task ->
+        return makeRequest(RetrieveRequestKey(mapboxId, options), baseCallback, executor) { task ->
             val requestId = coreEngine.retrieve(
                 EMPTY_REQUEST_OPTIONS,
                 searchResult,
@@ -347,7 +425,7 @@ internal class SearchEngineImpl(
                 OneStepRequestCallbackWrapper(
                     searchResultFactory = searchResultFactory,
                     callbackExecutor = executor,
-                    workerExecutor = engineExecutorService,
+                    workerExecutor = selectionExecutorService,
                     searchRequestTask = task,
                     searchRequestContext = SearchRequestContext(
                         this.apiType.mapToCore()
@@ -450,6 +528,50 @@ internal class SearchEngineImpl(
         }
     }
 
+    override fun reverseGeocodeBatch(
+        options: List<ReverseGeoOptions>,
+        batchOptions: ReverseGeoBatchOptions,
+        executor: Executor,
+        callback: ReverseGeoBatchCallback
+    ): AsyncOperationTask {
+        activityReporter.reportActivity("search-engine-reverse-geocoding-batch")
+
+        val batch = ReverseGeocodingBatch(
+            points = options.map { it.center },
+            keys = options.map { it.copy(center = BATCH_KEY_CENTER) },
+            dedupRadiusMeters = batchOptions.dedupRadiusMeters,
+            maxConcurrentRequests = batchOptions.maxConcurrentRequests,
+            cache = reverseGeocodingCache,
+            request = { index, requestCallback ->
+                search(options[index], BATCH_CALLBACK_EXECUTOR, object : SearchCallback {
+                    override fun onResults(results: List<SearchResult>, responseInfo: ResponseInfo) {
+                        requestCallback.onResult(ReverseGeoResponse(results, responseInfo))
+                    }
+
+                    override fun onError(e: Exception) {
+                        requestCallback.onError(e)
+                    }
+                })
+            },
+            callbackExecutor = executor,
+            callback = object : ReverseGeocodingBatch.Callback<ReverseGeoResponse> {
+                override fun onResult(index: Int, result: ReverseGeoResponse) {
+                    callback.onResults(index, result.results, result.responseInfo)
+                }
+
+                override fun onComplete(results: List<ReverseGeoResponse>) {
+                    callback.onComplete(results.map { it.results })
+                }
+
+                override fun onError(e: Exception) {
+                    callback.onError(e)
+                }
+            },
+        )
+        batch.start()
+        return batch
+    }
+
     override fun forward(
         query: String,
         options: ForwardSearchOptions,
@@ -492,11 +614,35 @@ internal class SearchEngineImpl(
         executor: Executor,
         callback: CompletionCallback<Unit>
     ): AsyncOperationTask {
+        if (suggestionsCache == null) {
+            return indexableDataProvidersRegistry.register(
+                dataProvider = dataProvider,
+                searchEngine = coreEngine,
+                executor = executor,
+                callback = callback,
+            )
+        }
+
+        if (dataProvider is LocalDataProvider<R>) {
+            val listener = object : LocalDataProvider.OnDataChangeSetListener<R> {
+                override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<R>) {
+                    if (changeSet.added.isNotEmpty() || changeSet.updated.isNotEmpty() || changeSet.removed.isNotEmpty()) {
+                        suggestionsCache.invalidate()
+                    }
+                }
+            }
+            cacheInvalidationListeners.put(dataProvider.dataProviderName, listener)?.let {
+                @Suppress("UNCHECKED_CAST")
+                dataProvider.removeOnDataChangeSetListener(it as LocalDataProvider.OnDataChangeSetListener<R>)
+            }
+            dataProvider.addOnDataChangeSetListener(CACHE_INVALIDATION_EXECUTOR, listener)
+        }
+
         return indexableDataProvidersRegistry.register(
             dataProvider = dataProvider,
             searchEngine = coreEngine,
             executor = executor,
-            callback = callback,
+            callback = suggestionsCache.invalidatingCallback(callback),
         )
     }
 
@@ -505,17 +651,58 @@ internal class SearchEngineImpl(
         executor: Executor,
         callback: CompletionCallback<Unit>
     ): AsyncOperationTask {
+        if (suggestionsCache == null) {
+            return indexableDataProvidersRegistry.unregister(
+                dataProvider = dataProvider,
+                searchEngine = coreEngine,
+                executor = executor,
+                callback = callback,
+            )
+        }
+
+        val listener = cacheInvalidationListeners.remove(dataProvider.dataProviderName)
+        if (listener != null && dataProvider is LocalDataProvider<R>) {
+            @Suppress("UNCHECKED_CAST")
+            dataProvider.removeOnDataChangeSetListener(listener as LocalDataProvider.OnDataChangeSetListener<R>)
+        }
+
         return indexableDataProvidersRegistry.unregister(
             dataProvider = dataProvider,
             searchEngine = coreEngine,
             executor = executor,
-            callback = callback,
+            callback = suggestionsCache.invalidatingCallback(callback),
         )
     }
 
-    private companion object {
-        val DEFAULT_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
-            Thread(runnable, "SearchEngine executor")
+    private fun <T> SearchSuggestionsCache.invalidatingCallback(callback: CompletionCallback<T>): CompletionCallback<T> {
+        return object : CompletionCallback<T> {
+            override fun onComplete(result: T) {
+                invalidate()
+                callback.onComplete(result)
+            }
+
+            override fun onError(e: Exception) {
+                callback.onError(e)
+            }
         }
     }
+
+    private data class SearchRequestKey(val query: String, val options: SearchOptions)
+
+    private data class RetrieveRequestKey(val mapboxId: String, val options: RetrieveOptions)
+
+    private class ReverseGeoResponse(val results: List<SearchResult>, val responseInfo: ResponseInfo)
+
+    private companion object {
+        val CACHE_INVALIDATION_EXECUTOR = Executor { it.run() }
+
+        // Batch results are delivered by ReverseGeocodingBatch on the caller's executor
+        val BATCH_CALLBACK_EXECUTOR = Executor { it.run() }
+
+        // Options of batch requests are compared without their centers
+        val BATCH_KEY_CENTER: Point = Point.fromLngLat(0.0, 0.0)
+
+        const val REVERSE_GEOCODING_CACHE_SIZE = 256
+        val REVERSE_GEOCODING_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10)
+    }
 }
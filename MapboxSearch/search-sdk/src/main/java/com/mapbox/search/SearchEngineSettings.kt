@@ -4,6 +4,7 @@ import android.Manifest
 import com.mapbox.common.location.LocationProvider
 import com.mapbox.common.location.LocationServiceFactory
 import com.mapbox.search.base.location.defaultLocationProvider
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 
 /**
  * Settings used for [SearchEngine] configuration.
@@ -38,6 +39,24 @@ public class SearchEngineSettings @JvmOverloads constructor(
      * Base endpoint URL.
      */
     public val baseUrl: String? = null,
+
+    /**
+     * Settings of the in-memory cache of [SearchEngine.search] responses.
+     * By default, responses are not cached.
+     */
+    public val suggestionsCacheSettings: SearchSuggestionsCacheSettings? = null,
+
+    /**
+     * Settings of the speculative prefetch of search results for [SearchEngine.search] suggestions.
+     * By default, search results are not prefetched.
+     */
+    public val prefetchSettings: SearchPrefetchSettings? = null,
+
+    /**
+     * Provider of executors used for processing of responses.
+     * By default, executors are shared by all the Search SDK components, see [SearchExecutorProvider.getDefault].
+     */
+    public val executorProvider: SearchExecutorProvider = SearchExecutorProvider.getDefault(),
 ) {
 
     /**
@@ -50,12 +69,18 @@ public class SearchEngineSettings @JvmOverloads constructor(
         geocodingEndpointBaseUrl: String = this.geocodingEndpointBaseUrl,
         singleBoxSearchBaseUrl: String? = this.singleBoxSearchBaseUrl,
         baseUrl: String? = this.baseUrl,
+        suggestionsCacheSettings: SearchSuggestionsCacheSettings? = this.suggestionsCacheSettings,
+        prefetchSettings: SearchPrefetchSettings? = this.prefetchSettings,
+        executorProvider: SearchExecutorProvider = this.executorProvider,
     ): SearchEngineSettings = SearchEngineSettings(
         locationProvider = locationProvider,
         viewportProvider = viewportProvider,
         geocodingEndpointBaseUrl = geocodingEndpointBaseUrl,
         singleBoxSearchBaseUrl = singleBoxSearchBaseUrl,
         baseUrl = baseUrl,
+        suggestionsCacheSettings = suggestionsCacheSettings,
+        prefetchSettings = prefetchSettings,
+        executorProvider = executorProvider,
     )
 
     /**
@@ -77,6 +102,9 @@ public class SearchEngineSettings @JvmOverloads constructor(
         if (geocodingEndpointBaseUrl != other.geocodingEndpointBaseUrl) return false
         if (singleBoxSearchBaseUrl != other.singleBoxSearchBaseUrl) return false
         if (baseUrl != other.baseUrl) return false
+        if (suggestionsCacheSettings != other.suggestionsCacheSettings) return false
+        if (prefetchSettings != other.prefetchSettings) return false
+        if (executorProvider != other.executorProvider) return false
 
         return true
     }
@@ -90,6 +118,9 @@ public class SearchEngineSettings @JvmOverloads constructor(
         result = 31 * result + geocodingEndpointBaseUrl.hashCode()
         result = 31 * result + (singleBoxSearchBaseUrl?.hashCode() ?: 0)
         result = 31 * result + (baseUrl?.hashCode() ?: 0)
+        result = 31 * result + (suggestionsCacheSettings?.hashCode() ?: 0)
+        result = 31 * result + (prefetchSettings?.hashCode() ?: 0)
+        result = 31 * result + executorProvider.hashCode()
         return result
     }
 
@@ -102,7 +133,10 @@ public class SearchEngineSettings @JvmOverloads constructor(
                 "viewportProvider=$viewportProvider, " +
                 "geocodingEndpointBaseUrl='$geocodingEndpointBaseUrl', " +
                 "singleBoxSearchBaseUrl=$singleBoxSearchBaseUrl" +
-                "baseUrl=$baseUrl" +
+                "baseUrl=$baseUrl, " +
+                "suggestionsCacheSettings=$suggestionsCacheSettings, " +
+                "prefetchSettings=$prefetchSettings, " +
+                "executorProvider=$executorProvider" +
                 ")"
     }
 
@@ -116,6 +150,9 @@ public class SearchEngineSettings @JvmOverloads constructor(
         private var geocodingEndpointBaseUrl: String? = null
         private var singleBoxSearchBaseUrl: String? = null
         private var baseUrl: String? = null
+        private var suggestionsCacheSettings: SearchSuggestionsCacheSettings? = null
+        private var prefetchSettings: SearchPrefetchSettings? = null
+        private var executorProvider: SearchExecutorProvider? = null
 
         internal constructor(settings: SearchEngineSettings) : this() {
             locationProvider = settings.locationProvider
@@ -123,6 +160,9 @@ public class SearchEngineSettings @JvmOverloads constructor(
             geocodingEndpointBaseUrl = settings.geocodingEndpointBaseUrl
             singleBoxSearchBaseUrl = settings.singleBoxSearchBaseUrl
             baseUrl = settings.baseUrl
+            suggestionsCacheSettings = settings.suggestionsCacheSettings
+            prefetchSettings = settings.prefetchSettings
+            executorProvider = settings.executorProvider
         }
 
         /**
@@ -163,6 +203,30 @@ public class SearchEngineSettings @JvmOverloads constructor(
             this.baseUrl = baseUrl
         }
 
+        /**
+         * Settings of the in-memory cache of [SearchEngine.search] responses.
+         * By default, responses are not cached.
+         */
+        public fun suggestionsCacheSettings(suggestionsCacheSettings: SearchSuggestionsCacheSettings?): Builder = apply {
+            this.suggestionsCacheSettings = suggestionsCacheSettings
+        }
+
+        /**
+         * Settings of the speculative prefetch of search results for [SearchEngine.search] suggestions.
+         * By default, search results are not prefetched.
+         */
+        public fun prefetchSettings(prefetchSettings: SearchPrefetchSettings?): Builder = apply {
+            this.prefetchSettings = prefetchSettings
+        }
+
+        /**
+         * Provider of executors used for processing of responses.
+         * By default, executors are shared by all the Search SDK components, see [SearchExecutorProvider.getDefault].
+         */
+        public fun executorProvider(executorProvider: SearchExecutorProvider): Builder = apply {
+            this.executorProvider = executorProvider
+        }
+
         /**
          * Create [SearchEngineSettings] instance from builder data.
          */
@@ -172,6 +236,9 @@ public class SearchEngineSettings @JvmOverloads constructor(
             geocodingEndpointBaseUrl = geocodingEndpointBaseUrl ?: DEFAULT_ENDPOINT_GEOCODING,
             singleBoxSearchBaseUrl = singleBoxSearchBaseUrl,
             baseUrl = baseUrl,
+            suggestionsCacheSettings = suggestionsCacheSettings,
+            prefetchSettings = prefetchSettings,
+            executorProvider = executorProvider ?: SearchExecutorProvider.getDefault(),
         )
     }
 
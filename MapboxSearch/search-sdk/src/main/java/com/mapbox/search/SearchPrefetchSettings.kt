@@ -0,0 +1,99 @@
+package com.mapbox.search
+
+/**
+ * Settings of the speculative prefetch of search results for [SearchEngine.search] suggestions.
+ *
+ * When suggestions arrive, details of the top [maxSuggestions] suggestions of
+ * [com.mapbox.search.result.SearchSuggestionType.SearchResultSuggestion] type are requested in background,
+ * so that [SearchEngine.select] for a prefetched suggestion completes without a network request.
+ * Prefetch requests of the previous suggestions are cancelled when a new [SearchEngine.search] call is made.
+ *
+ * Only selections made with default [SelectOptions.attributeSets] and [SelectOptions.unsafeParameters]
+ * are served from prefetched results.
+ *
+ * Note that every prefetched suggestion costs a retrieve request, even if it's not selected afterwards.
+ *
+ * @see SearchEngineSettings.prefetchSettings
+ * @see SearchEngine.prefetchStatistics
+ */
+public class SearchPrefetchSettings @JvmOverloads public constructor(
+
+    /**
+     * Number of top-ranked suggestions to prefetch search results for.
+     */
+    public val maxSuggestions: Int = DEFAULT_MAX_SUGGESTIONS,
+
+    /**
+     * Maximum number of prefetch requests running at the same time.
+     */
+    public val maxConcurrentRequests: Int = DEFAULT_MAX_CONCURRENT_REQUESTS,
+
+    /**
+     * Maximum number of prefetch requests made within a minute. Suggestions exceeding the budget are not prefetched.
+     */
+    public val maxRequestsPerMinute: Int = DEFAULT_MAX_REQUESTS_PER_MINUTE,
+
+    /**
+     * Time in milliseconds a prefetched search result stays valid.
+     */
+    public val ttlMillis: Long = DEFAULT_TTL_MILLIS,
+) {
+
+    init {
+        require(maxSuggestions > 0) { "'maxSuggestions' should be greater than 0 (passed value: $maxSuggestions)." }
+        require(maxConcurrentRequests > 0) {
+            "'maxConcurrentRequests' should be greater than 0 (passed value: $maxConcurrentRequests)."
+        }
+        require(maxRequestsPerMinute > 0) {
+            "'maxRequestsPerMinute' should be greater than 0 (passed value: $maxRequestsPerMinute)."
+        }
+        require(ttlMillis > 0) { "'ttlMillis' should be greater than 0 (passed value: $ttlMillis)." }
+    }
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SearchPrefetchSettings
+
+        if (maxSuggestions != other.maxSuggestions) return false
+        if (maxConcurrentRequests != other.maxConcurrentRequests) return false
+        if (maxRequestsPerMinute != other.maxRequestsPerMinute) return false
+        if (ttlMillis != other.ttlMillis) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = maxSuggestions
+        result = 31 * result + maxConcurrentRequests
+        result = 31 * result + maxRequestsPerMinute
+        result = 31 * result + ttlMillis.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SearchPrefetchSettings(" +
+                "maxSuggestions=$maxSuggestions, " +
+                "maxConcurrentRequests=$maxConcurrentRequests, " +
+                "maxRequestsPerMinute=$maxRequestsPerMinute, " +
+                "ttlMillis=$ttlMillis" +
+                ")"
+    }
+
+    private companion object {
+        const val DEFAULT_MAX_SUGGESTIONS = 3
+        const val DEFAULT_MAX_CONCURRENT_REQUESTS = 2
+        const val DEFAULT_MAX_REQUESTS_PER_MINUTE = 30
+        const val DEFAULT_TTL_MILLIS = 60 * 1000L
+    }
+}
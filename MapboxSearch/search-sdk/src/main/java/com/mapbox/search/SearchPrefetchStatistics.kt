@@ -0,0 +1,69 @@
+package com.mapbox.search
+
+/**
+ * Snapshot of the speculative prefetch statistics of a [SearchEngine].
+ *
+ * @see SearchEngine.prefetchStatistics
+ */
+public class SearchPrefetchStatistics internal constructor(
+
+    /**
+     * Number of prefetch requests made.
+     */
+    public val requestCount: Long,
+
+    /**
+     * Number of [SearchEngine.select] calls served from prefetched search results.
+     */
+    public val hitCount: Long,
+
+    /**
+     * Number of [SearchEngine.select] calls for prefetchable suggestions that required a network request.
+     */
+    public val missCount: Long,
+) {
+
+    /**
+     * Share of [SearchEngine.select] calls for prefetchable suggestions served from prefetched search results,
+     * in range [0.0, 1.0]. `0.0` if no such calls were made.
+     */
+    public val hitRate: Double
+        get() = if (hitCount + missCount == 0L) 0.0 else hitCount.toDouble() / (hitCount + missCount)
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SearchPrefetchStatistics
+
+        if (requestCount != other.requestCount) return false
+        if (hitCount != other.hitCount) return false
+        if (missCount != other.missCount) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = requestCount.hashCode()
+        result = 31 * result + hitCount.hashCode()
+        result = 31 * result + missCount.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SearchPrefetchStatistics(" +
+                "requestCount=$requestCount, " +
+                "hitCount=$hitCount, " +
+                "missCount=$missCount" +
+                ")"
+    }
+}
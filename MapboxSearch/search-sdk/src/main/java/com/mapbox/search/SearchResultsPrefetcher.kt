@@ -0,0 +1,214 @@
+package com.mapbox.search
+
+import com.mapbox.search.base.BaseRequestOptions
+import com.mapbox.search.base.core.CoreSearchCallback
+import com.mapbox.search.base.core.CoreSearchEngineInterface
+import com.mapbox.search.base.core.CoreSearchResponse
+import com.mapbox.search.base.logger.logd
+import com.mapbox.search.base.result.BaseSearchResult
+import com.mapbox.search.base.result.BaseSearchSuggestion
+import com.mapbox.search.base.result.BaseSearchSuggestionType
+import com.mapbox.search.base.result.BaseServerSearchSuggestion
+import com.mapbox.search.base.result.SearchResultFactory
+import com.mapbox.search.base.result.mapToBase
+import com.mapbox.search.base.result.mapToCore
+import com.mapbox.search.base.utils.LocalTimeProvider
+import com.mapbox.search.base.utils.TimeProvider
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Retrieves search results of top-ranked suggestions in background and keeps them
+ * for [SearchPrefetchSettings.ttlMillis], so that selection of a prefetched suggestion doesn't need a network request.
+ *
+ * Prefetch requests are limited by [SearchPrefetchSettings.maxConcurrentRequests]
+ * and [SearchPrefetchSettings.maxRequestsPerMinute]. Suggestions waiting for a free request slot
+ * are dropped on the next [prefetch] or [cancel] call.
+ */
+internal class SearchResultsPrefetcher(
+    private val settings: SearchPrefetchSettings,
+    private val coreEngine: CoreSearchEngineInterface,
+    private val searchResultFactory: SearchResultFactory,
+    private val workerExecutor: Executor,
+    private val timeProvider: TimeProvider = LocalTimeProvider(),
+) {
+
+    private val results = object : LinkedHashMap<BaseServerSearchSuggestion, PrefetchedResult>(
+        INITIAL_CAPACITY, LOAD_FACTOR, true
+    ) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<BaseServerSearchSuggestion, PrefetchedResult>?
+        ): Boolean {
+            return size > settings.maxSuggestions * CACHED_RESPONSES
+        }
+    }
+
+    private val pending = ArrayDeque<BaseServerSearchSuggestion>()
+    private val inProgress = HashMap<BaseServerSearchSuggestion, Prefetch>()
+    private val requestTimestamps = ArrayDeque<Long>()
+
+    private val requests = AtomicLong()
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    val statistics: SearchPrefetchStatistics
+        get() = SearchPrefetchStatistics(
+            requestCount = requests.get(),
+            hitCount = hits.get(),
+            missCount = misses.get(),
+        )
+
+    /**
+     * Cancels prefetch of the previous suggestions and starts prefetch of the top-ranked [suggestions].
+     */
+    @Synchronized
+    fun prefetch(suggestions: List<BaseSearchSuggestion>) {
+        cancel()
+
+        suggestions.asSequence()
+            .filterIsInstance<BaseServerSearchSuggestion>()
+            .filter { it.isPrefetchable() }
+            .take(settings.maxSuggestions)
+            .filter { getValidResult(it) == null }
+            .toCollection(pending)
+
+        startPendingRequests()
+    }
+
+    /**
+     * Cancels prefetch requests in progress and drops suggestions waiting for prefetch.
+     * Already prefetched results are kept.
+     */
+    @Synchronized
+    fun cancel() {
+        pending.clear()
+        if (inProgress.isEmpty()) {
+            return
+        }
+
+        val cancelled = inProgress.values.toList()
+        inProgress.clear()
+        cancelled.forEach {
+            it.requestId?.let { requestId -> coreEngine.cancel(requestId) }
+        }
+    }
+
+    /**
+     * @return prefetched search result of the [suggestion] or `null` if there's no valid result for it.
+     */
+    @Synchronized
+    fun get(suggestion: BaseServerSearchSuggestion): BaseSearchResult? {
+        if (!suggestion.isPrefetchable()) {
+            return null
+        }
+
+        val result = getValidResult(suggestion)
+        if (result != null) {
+            hits.incrementAndGet()
+        } else {
+            misses.incrementAndGet()
+        }
+        return result
+    }
+
+    private fun getValidResult(suggestion: BaseServerSearchSuggestion): BaseSearchResult? {
+        val prefetched = results[suggestion] ?: return null
+        if (timeProvider.currentTimeMillis() - prefetched.timestamp >= settings.ttlMillis) {
+            results.remove(suggestion)
+            return null
+        }
+        return prefetched.result
+    }
+
+    private fun startPendingRequests() {
+        while (pending.isNotEmpty() && inProgress.size < settings.maxConcurrentRequests && hasRequestsBudget()) {
+            val suggestion = pending.removeFirst()
+            val prefetch = Prefetch(suggestion)
+
+            inProgress[suggestion] = prefetch
+            requestTimestamps.addLast(timeProvider.currentTimeMillis())
+            requests.incrementAndGet()
+
+            val requestId = coreEngine.retrieve(
+                suggestion.requestOptions.core,
+                suggestion.rawSearchResult.mapToCore(),
+                DEFAULT_SELECT_OPTIONS.mapToCore(),
+                PrefetchCallback(prefetch),
+            )
+
+            if (inProgress[suggestion] === prefetch) {
+                prefetch.requestId = requestId
+            }
+        }
+    }
+
+    private fun hasRequestsBudget(): Boolean {
+        val windowStart = timeProvider.currentTimeMillis() - REQUESTS_BUDGET_WINDOW_MILLIS
+        while (requestTimestamps.isNotEmpty() && requestTimestamps.first() <= windowStart) {
+            requestTimestamps.removeFirst()
+        }
+        return requestTimestamps.size < settings.maxRequestsPerMinute
+    }
+
+    private fun onPrefetched(prefetch: Prefetch, response: CoreSearchResponse) {
+        val result = parseResult(prefetch.suggestion, response)
+
+        synchronized(this) {
+            if (inProgress[prefetch.suggestion] !== prefetch) {
+                return
+            }
+
+            inProgress.remove(prefetch.suggestion)
+            if (result != null) {
+                results[prefetch.suggestion] = PrefetchedResult(result, timeProvider.currentTimeMillis())
+            } else {
+                logd("Unable to prefetch search result for ${prefetch.suggestion.id}")
+            }
+            startPendingRequests()
+        }
+    }
+
+    private fun parseResult(suggestion: BaseServerSearchSuggestion, response: CoreSearchResponse): BaseSearchResult? {
+        if (response.results.isError) {
+            return null
+        }
+
+        val rawResult = response.results.value?.singleOrNull()?.mapToBase() ?: return null
+        if (!searchResultFactory.isResolvedSearchResult(rawResult)) {
+            return null
+        }
+
+        val requestOptions = BaseRequestOptions(
+            core = response.request,
+            requestContext = suggestion.requestOptions.requestContext.copy(responseUuid = response.responseUUID),
+        )
+        return searchResultFactory.createSearchResult(rawResult, requestOptions)
+    }
+
+    private fun BaseServerSearchSuggestion.isPrefetchable(): Boolean {
+        return type is BaseSearchSuggestionType.SearchResultSuggestion
+    }
+
+    private inner class PrefetchCallback(private val prefetch: Prefetch) : CoreSearchCallback {
+        override fun run(response: CoreSearchResponse) {
+            workerExecutor.execute {
+                onPrefetched(prefetch, response)
+            }
+        }
+    }
+
+    private class Prefetch(val suggestion: BaseServerSearchSuggestion) {
+        var requestId: Long? = null
+    }
+
+    private class PrefetchedResult(val result: BaseSearchResult, val timestamp: Long)
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+        const val LOAD_FACTOR = 0.75f
+        const val CACHED_RESPONSES = 3
+        val REQUESTS_BUDGET_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1)
+        val DEFAULT_SELECT_OPTIONS = SelectOptions()
+    }
+}
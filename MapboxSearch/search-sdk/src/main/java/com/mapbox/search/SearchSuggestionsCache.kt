@@ -0,0 +1,117 @@
+package com.mapbox.search
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.base.utils.LocalTimeProvider
+import com.mapbox.search.base.utils.TimeProvider
+import com.mapbox.search.result.SearchSuggestion
+import java.util.Locale
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.math.cos
+import kotlin.math.floor
+
+/**
+ * LRU cache of [SearchEngine.search] responses bounded by [SearchSuggestionsCacheSettings.maxSize]
+ * and [SearchSuggestionsCacheSettings.ttlMillis].
+ *
+ * Every [invalidate] call starts a new generation of the cache, responses of requests started
+ * in previous generations are not cached, so that a response received after invalidation never gets to the cache.
+ */
+internal class SearchSuggestionsCache(
+    private val settings: SearchSuggestionsCacheSettings,
+    private val timeProvider: TimeProvider = LocalTimeProvider(),
+) {
+
+    private val entries = object : LinkedHashMap<Key, CachedResponse>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, CachedResponse>?): Boolean {
+            return size > settings.maxSize
+        }
+    }
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    /**
+     * Current generation of the cache. Should be captured before a request is made and passed to [put].
+     */
+    @get:Synchronized
+    var generation: Long = 0L
+        private set
+
+    val statistics: SearchSuggestionsCacheStatistics
+        get() = SearchSuggestionsCacheStatistics(
+            hitCount = hits.get(),
+            missCount = misses.get(),
+        )
+
+    fun createKey(query: String, options: SearchOptions): Key {
+        return Key(
+            query = normalizeQuery(query),
+            options = options.copy(
+                proximity = options.proximity?.let { quantize(it) },
+                origin = options.origin?.let { quantize(it) },
+                // Debounce affects only the moment the request is made, not the response
+                requestDebounce = null,
+            )
+        )
+    }
+
+    @Synchronized
+    fun get(key: Key): CachedResponse? {
+        val entry = entries[key]
+        return when {
+            entry == null -> {
+                misses.incrementAndGet()
+                null
+            }
+            timeProvider.currentTimeMillis() - entry.timestamp >= settings.ttlMillis -> {
+                entries.remove(key)
+                misses.incrementAndGet()
+                null
+            }
+            else -> {
+                hits.incrementAndGet()
+                entry
+            }
+        }
+    }
+
+    @Synchronized
+    fun put(key: Key, generation: Long, suggestions: List<SearchSuggestion>, responseInfo: ResponseInfo) {
+        if (generation != this.generation) {
+            return
+        }
+        entries[key] = CachedResponse(suggestions, responseInfo, timeProvider.currentTimeMillis())
+    }
+
+    @Synchronized
+    fun invalidate() {
+        entries.clear()
+        generation++
+    }
+
+    private fun normalizeQuery(query: String): String {
+        return query.trim().replace(WHITESPACES_REGEX, " ").lowercase(Locale.ROOT)
+    }
+
+    private fun quantize(point: Point): Point {
+        val latStep = settings.proximityPrecisionMeters / METERS_PER_DEGREE
+        val latitude = floor(point.latitude() / latStep) * latStep
+
+        val lonStep = latStep / cos(Math.toRadians(latitude)).coerceAtLeast(MIN_LONGITUDE_SCALE)
+        val longitude = floor(point.longitude() / lonStep) * lonStep
+
+        return Point.fromLngLat(longitude, latitude)
+    }
+
+    data class Key(val query: String, val options: SearchOptions)
+
+    class CachedResponse(val suggestions: List<SearchSuggestion>, val responseInfo: ResponseInfo, val timestamp: Long)
+
+    private companion object {
+        const val INITIAL_CAPACITY = 16
+        const val LOAD_FACTOR = 0.75f
+        const val METERS_PER_DEGREE = 111_320.0
+        const val MIN_LONGITUDE_SCALE = 0.01
+        val WHITESPACES_REGEX = "\\s+".toRegex()
+    }
+}
@@ -0,0 +1,86 @@
+package com.mapbox.search
+
+/**
+ * Settings of the in-memory cache of [SearchEngine.search] responses.
+ *
+ * Search requests with the same query and [SearchOptions] made within [ttlMillis] are served from the cache
+ * without a network request. Queries are compared case-insensitively with leading, trailing and repeated
+ * whitespaces ignored, [SearchOptions.proximity] and [SearchOptions.origin] are compared
+ * with [proximityPrecisionMeters] precision. Cached responses are dropped when any [com.mapbox.search.record.IndexableDataProvider]
+ * is registered in or unregistered from the [SearchEngine] or when a registered
+ * [com.mapbox.search.record.LocalDataProvider] changes.
+ *
+ * Responses served from the cache have [ResponseInfo.isCached] flag set.
+ *
+ * @see SearchEngineSettings.suggestionsCacheSettings
+ */
+public class SearchSuggestionsCacheSettings @JvmOverloads public constructor(
+
+    /**
+     * Maximum number of responses kept in the cache. When the limit is reached, the least recently used response is evicted.
+     */
+    public val maxSize: Int = DEFAULT_MAX_SIZE,
+
+    /**
+     * Time in milliseconds a cached response stays valid.
+     */
+    public val ttlMillis: Long = DEFAULT_TTL_MILLIS,
+
+    /**
+     * Size in meters of the grid cell [SearchOptions.proximity] and [SearchOptions.origin] points are snapped to
+     * when responses are looked up in the cache.
+     */
+    public val proximityPrecisionMeters: Double = DEFAULT_PROXIMITY_PRECISION_METERS,
+) {
+
+    init {
+        require(maxSize > 0) { "'maxSize' should be greater than 0 (passed value: $maxSize)." }
+        require(ttlMillis > 0) { "'ttlMillis' should be greater than 0 (passed value: $ttlMillis)." }
+        require(proximityPrecisionMeters > 0) {
+            "'proximityPrecisionMeters' should be greater than 0 (passed value: $proximityPrecisionMeters)."
+        }
+    }
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SearchSuggestionsCacheSettings
+
+        if (maxSize != other.maxSize) return false
+        if (ttlMillis != other.ttlMillis) return false
+        if (proximityPrecisionMeters != other.proximityPrecisionMeters) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = maxSize
+        result = 31 * result + ttlMillis.hashCode()
+        result = 31 * result + proximityPrecisionMeters.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SearchSuggestionsCacheSettings(" +
+                "maxSize=$maxSize, " +
+                "ttlMillis=$ttlMillis, " +
+                "proximityPrecisionMeters=$proximityPrecisionMeters" +
+                ")"
+    }
+
+    private companion object {
+        const val DEFAULT_MAX_SIZE = 50
+        const val DEFAULT_TTL_MILLIS = 5 * 60 * 1000L
+        const val DEFAULT_PROXIMITY_PRECISION_METERS = 100.0
+    }
+}
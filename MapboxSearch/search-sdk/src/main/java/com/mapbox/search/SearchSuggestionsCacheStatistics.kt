@@ -0,0 +1,61 @@
+package com.mapbox.search
+
+/**
+ * Snapshot of the suggestions cache statistics of a [SearchEngine].
+ *
+ * @see SearchEngine.suggestionsCacheStatistics
+ */
+public class SearchSuggestionsCacheStatistics internal constructor(
+
+    /**
+     * Number of [SearchEngine.search] calls served from the cache.
+     */
+    public val hitCount: Long,
+
+    /**
+     * Number of [SearchEngine.search] calls that required a request because no valid response was cached.
+     */
+    public val missCount: Long,
+) {
+
+    /**
+     * Share of [SearchEngine.search] calls served from the cache, in range [0.0, 1.0].
+     * `0.0` if no calls were made.
+     */
+    public val hitRate: Double
+        get() = if (hitCount + missCount == 0L) 0.0 else hitCount.toDouble() / (hitCount + missCount)
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SearchSuggestionsCacheStatistics
+
+        if (hitCount != other.hitCount) return false
+        if (missCount != other.missCount) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = hitCount.hashCode()
+        result = 31 * result + missCount.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SearchSuggestionsCacheStatistics(" +
+                "hitCount=$hitCount, " +
+                "missCount=$missCount" +
+                ")"
+    }
+}
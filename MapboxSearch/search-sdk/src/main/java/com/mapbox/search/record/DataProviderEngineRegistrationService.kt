@@ -1,14 +1,15 @@
 package com.mapbox.search.record
 
+import com.mapbox.search.base.concurrent.SerialExecutorService
 import com.mapbox.search.base.core.CoreSearchEngine
 import com.mapbox.search.base.core.CoreUserRecordsLayer
 import com.mapbox.search.base.failDebug
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import java.util.concurrent.Executor
 import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 internal interface DataProviderEngineRegistrationService {
 
@@ -147,9 +148,9 @@ internal class DataProviderEngineRegistrationServiceImpl(
 
     private companion object {
 
-        val DEFAULT_EXECUTOR: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
-            Thread(runnable, "Global DataProviderRegistry executor")
-        }
+        val DEFAULT_EXECUTOR: ExecutorService = SerialExecutorService(
+            SearchExecutorProvider.getDefault().persistenceExecutor
+        )
 
         fun createCoreLayer(name: String, priority: Int): CoreUserRecordsLayer {
             return CoreSearchEngine.createUserLayer(name, priority)
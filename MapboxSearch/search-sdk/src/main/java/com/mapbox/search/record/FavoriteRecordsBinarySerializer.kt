@@ -0,0 +1,40 @@
+package com.mapbox.search.record
+
+import com.mapbox.search.utils.serialization.BinaryRecordsReader
+import com.mapbox.search.utils.serialization.BinaryRecordsSerializer
+import com.mapbox.search.utils.serialization.BinaryRecordsWriter
+
+internal class FavoriteRecordsBinarySerializer : BinaryRecordsSerializer<FavoriteRecord>() {
+
+    override fun BinaryRecordsWriter.writeRecord(record: FavoriteRecord) {
+        with(record) {
+            writeString(id)
+            writeString(name)
+            writeInternedString(descriptionText)
+            writeAddress(address)
+            writeRoutablePoints(routablePoints)
+            writeCategories(categories)
+            writeInternedString(makiIcon)
+            writePoint(coordinate)
+            writeMetadata(metadata)
+            writeType(newType)
+            writeLong(timestamp)
+        }
+    }
+
+    override fun BinaryRecordsReader.readRecord(): FavoriteRecord {
+        return FavoriteRecord(
+            id = requireNotNull(readString()),
+            name = requireNotNull(readString()),
+            descriptionText = readString(),
+            address = readAddress(),
+            routablePoints = readRoutablePoints(),
+            categories = readCategories(),
+            makiIcon = readString(),
+            coordinate = readPoint(),
+            metadata = readMetadata(),
+            newType = readType(),
+            timestamp = readLong(),
+        )
+    }
+}
@@ -33,10 +33,12 @@ public interface FavoritesDataProvider : LocalDataProvider<FavoriteRecord> {
 
 internal class FavoritesDataProviderImpl(
     recordsStorage: RecordsFileStorage<FavoriteRecord>,
-    backgroundTaskExecutorService: ExecutorService = defaultExecutor(FavoritesDataProvider.PROVIDER_NAME),
+    backgroundTaskExecutorService: ExecutorService = defaultExecutor(),
+    coalesceWrites: Boolean = false,
 ) : LocalDataProviderImpl<FavoriteRecord>(
     dataProviderName = FavoritesDataProvider.PROVIDER_NAME,
     priority = FavoritesDataProvider.PROVIDER_PRIORITY,
     recordsStorage = recordsStorage,
     backgroundTaskExecutorService = backgroundTaskExecutorService,
+    coalesceWrites = coalesceWrites,
 ), FavoritesDataProvider
@@ -10,12 +10,12 @@ import com.mapbox.search.base.utils.TimeProvider
 import com.mapbox.search.base.utils.extension.mapToPlatform
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
+import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
 import com.mapbox.search.internal.mapToNewSearchResultType
 import com.mapbox.search.result.mapToPlatform
-import java.util.PriorityQueue
+import com.mapbox.search.utils.collections.PersistentOrderedMap
 import java.util.concurrent.Executor
 import java.util.concurrent.ExecutorService
-import kotlin.Comparator
 
 /**
  * [LocalDataProvider] typed to store [HistoryRecord] items.
@@ -28,6 +28,50 @@ import kotlin.Comparator
  */
 public interface HistoryDataProvider : LocalDataProvider<HistoryRecord> {
 
+    /**
+     * Retrieves up to [limit] history records with the latest timestamps, ordered from the newest to the oldest.
+     *
+     * Unlike [getAll], the records might be provided before the whole history is loaded from the disk,
+     * so this function is suitable for showing the history as soon as possible.
+     *
+     * @param limit Maximum number of records to retrieve.
+     * @param executor Executor used for events dispatching. By default events are dispatched on the main thread.
+     * @param callback Callback to handle result.
+     * @return an object representing pending completion of the task.
+     */
+    public fun getRecent(
+        limit: Int,
+        executor: Executor,
+        callback: CompletionCallback<List<HistoryRecord>>,
+    ): AsyncOperationTask = getAll(executor, object : CompletionCallback<List<HistoryRecord>> {
+        override fun onComplete(result: List<HistoryRecord>) {
+            callback.onComplete(result.sortedByDescending { it.timestamp }.take(limit))
+        }
+
+        override fun onError(e: Exception) {
+            callback.onError(e)
+        }
+    })
+
+    /**
+     * Retrieves up to [limit] history records with the latest timestamps, ordered from the newest to the oldest.
+     *
+     * Unlike [getAll], the records might be provided before the whole history is loaded from the disk,
+     * so this function is suitable for showing the history as soon as possible.
+     *
+     * @param limit Maximum number of records to retrieve.
+     * @param callback Callback to handle result, triggered on the main thread.
+     * @return an object representing pending completion of the task.
+     */
+    public fun getRecent(
+        limit: Int,
+        callback: CompletionCallback<List<HistoryRecord>>,
+    ): AsyncOperationTask = getRecent(
+        limit = limit,
+        executor = SearchSdkMainThreadWorker.mainExecutor,
+        callback = callback,
+    )
+
     /**
      * Companion object.
      */
@@ -48,69 +92,72 @@ public interface HistoryDataProvider : LocalDataProvider<HistoryRecord> {
 
 internal class HistoryDataProviderImpl(
     recordsStorage: RecordsFileStorage<HistoryRecord>,
-    backgroundTaskExecutorService: ExecutorService = defaultExecutor(HistoryDataProvider.PROVIDER_NAME),
+    backgroundTaskExecutorService: ExecutorService = defaultExecutor(),
     private val timeProvider: TimeProvider = LocalTimeProvider(),
     /**
      * This property was made as part of LocalDataProviderImpl class, because
      * during the test `addRecords()` function gets called before HistoryDataProviderImpl
      * finished initialization of its properties.
      */
-    maxRecordsAmount: Int = DEFAULT_MAX_HISTORY_RECORDS_AMOUNT
+    maxRecordsAmount: Int = DEFAULT_MAX_HISTORY_RECORDS_AMOUNT,
+    coalesceWrites: Boolean = false,
 ) : LocalDataProviderImpl<HistoryRecord>(
     dataProviderName = HistoryDataProvider.PROVIDER_NAME,
     priority = HistoryDataProvider.PROVIDER_PRIORITY,
     recordsStorage = recordsStorage,
     backgroundTaskExecutorService = backgroundTaskExecutorService,
     maxRecordsAmount = maxRecordsAmount,
+    recentRecordsAmount = RECENT_RECORDS_AMOUNT,
+    coalesceWrites = coalesceWrites,
 ), HistoryDataProvider, SearchHistoryService {
 
+    private val recordsIndex = HistoryRecordsIndex()
+
+    override fun getRecent(
+        limit: Int,
+        executor: Executor,
+        callback: CompletionCallback<List<HistoryRecord>>
+    ): AsyncOperationTask = getRecentRecords(limit, executor, callback)
+
+    override fun selectRecentRecords(records: Collection<HistoryRecord>, limit: Int): List<HistoryRecord> {
+        return records.sortedByDescending { it.timestamp }.take(limit)
+    }
+
+    override fun selectRecentRecords(records: PersistentOrderedMap<String, HistoryRecord>, limit: Int): List<HistoryRecord> {
+        return recordsIndex.selectMostRecent(records, limit)
+    }
+
+    override fun onRecordsChanged(
+        oldRecords: PersistentOrderedMap<String, HistoryRecord>,
+        changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>
+    ) {
+        recordsIndex.onRecordsChanged(oldRecords, changeSet)
+    }
+
     override fun MutableMap<String, HistoryRecord>.addAndTrimRecords(newRecords: List<HistoryRecord>): List<HistoryRecord> {
+        // During the initial read records are added to the empty data. The function might be called
+        // before HistoryDataProviderImpl finished initialization of its properties, so a separate index is used.
+        val currentRecords = (dataState as? DataState.Data)?.records
+        val index = if (currentRecords != null) recordsIndex else HistoryRecordsIndex()
+
         putAll(newRecords.map { it.id to it })
 
         if (size <= maxRecordsAmount) {
             return emptyList()
         }
 
-        // We sort items in timestamp descending order and also in descending "freshness" order
-        // (newly added items should have higher priority over older items).
-        val newRecordsMap = newRecords.asSequence()
-            .mapIndexed { index, record -> record to index }
-            .toMap()
-        val comparator = Comparator<HistoryRecord> { record1, record2 ->
-            val tsCompare = record2.timestamp.compareTo(record1.timestamp)
-            return@Comparator if (tsCompare == 0) {
-                val record1Priority = newRecordsMap[record1] ?: -1
-                val record2Priority = newRecordsMap[record2] ?: -1
-                record2Priority.compareTo(record1Priority)
-            } else {
-                tsCompare
-            }
-        }
-
-        // We iterate in reverse order to ensure that records,
-        // that were added to the `source` more recently,
-        // will be placed in min heap with higher priority.
-        val reversedRecords = values.reversed()
-
-        // Prepare heap of size `deleteCount`
-        val deleteCount = size - maxRecordsAmount
-        val minHeap = PriorityQueue(deleteCount, comparator)
-        minHeap.addAll(reversedRecords.take(deleteCount))
-
-        // Determine `deleteCount` elements with lowest priority ...
-        reversedRecords.asSequence().drop(deleteCount).forEach { nextRecord ->
-            if (comparator.compare(nextRecord, minHeap.element()) >= 0) {
-                minHeap.poll()
-                minHeap.add(nextRecord)
-            }
-        }
-
-        // ... and remove them
-        minHeap.forEach { recordToRemove ->
+        // Records with the lowest timestamps are removed, newly added records have higher priority
+        // over the existing records with the same timestamp.
+        val recordsToRemove = index.selectEvicted(
+            currentRecords ?: PersistentOrderedMap.empty(),
+            newRecords,
+            size - maxRecordsAmount,
+        )
+        recordsToRemove.forEach { recordToRemove ->
             remove(recordToRemove.id)
         }
 
-        return minHeap.toList()
+        return recordsToRemove
     }
 
     override fun addToHistoryIfNeeded(
@@ -119,7 +166,8 @@ internal class HistoryDataProviderImpl(
         callback: (Result<Boolean>) -> Unit
     ): AsyncOperationTask {
         return if (!searchResult.isHistory) {
-            upsert(
+            // Selection of the search result doesn't wait for the history record to be persisted
+            upsertWithoutAwaitingWrite(
                 HistoryRecord(
                     id = searchResult.id,
                     name = searchResult.name,
@@ -156,6 +204,9 @@ internal class HistoryDataProviderImpl(
 
         const val DEFAULT_MAX_HISTORY_RECORDS_AMOUNT: Int = 100
 
+        // Enough to fill the screen with history items
+        const val RECENT_RECORDS_AMOUNT: Int = 20
+
         val BaseSearchResult.isHistory: Boolean
             get() = (baseType as? BaseSearchResult.Type.IndexableRecordSearchResult)?.record?.isHistory == true
 
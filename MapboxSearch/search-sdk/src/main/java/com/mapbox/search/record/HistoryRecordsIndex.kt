@@ -0,0 +1,177 @@
+package com.mapbox.search.record
+
+import androidx.annotation.VisibleForTesting
+import java.util.PriorityQueue
+import java.util.TreeMap
+
+/**
+ * Index of history records ordered by timestamp, used to find records to be evicted and the most recent records
+ * without sorting all the history on every change.
+ *
+ * Records with equal timestamps are ordered by the time they have been indexed, i.e. newer records have higher priority.
+ *
+ * The index mirrors a single immutable version of the records. Changes are applied incrementally
+ * as long as they're made to that version, otherwise the index is rebuilt by the writer.
+ * Readers holding another version of the records don't touch the index.
+ */
+internal class HistoryRecordsIndex {
+
+    private val recordsByKey = TreeMap<Key, HistoryRecord>()
+    private val keysById = HashMap<String, Key>()
+    private var nextSeq = 0L
+
+    // Version of the records the index mirrors, compared by identity
+    private var indexedRecords: Map<String, HistoryRecord>? = null
+
+    /**
+     * Selects [count] records with the lowest priority among [records] with [newRecords] upserted.
+     * Upserted records have higher priority than the existing records with the same timestamp,
+     * later upserted records have higher priority than earlier ones.
+     */
+    @Synchronized
+    fun selectEvicted(
+        records: Map<String, HistoryRecord>,
+        newRecords: List<HistoryRecord>,
+        count: Int,
+    ): List<HistoryRecord> {
+        syncWith(records)
+
+        val upserted = HashMap<String, Int>()
+        newRecords.forEachIndexed { index, record ->
+            upserted[record.id] = index
+        }
+
+        val newCandidates = upserted.values
+            .sortedWith(compareBy({ newRecords[it].timestamp }, { it }))
+            .map { newRecords[it] }
+            .iterator()
+
+        val existingCandidates = recordsByKey.values
+            .asSequence()
+            .filter { !upserted.containsKey(it.id) }
+            .iterator()
+
+        var nextNew = newCandidates.nextOrNull()
+        var nextExisting = existingCandidates.nextOrNull()
+
+        val evicted = ArrayList<HistoryRecord>(count)
+        while (evicted.size < count) {
+            val existing = nextExisting
+            val new = nextNew
+            if (existing != null && (new == null || existing.timestamp <= new.timestamp)) {
+                evicted.add(existing)
+                nextExisting = existingCandidates.nextOrNull()
+            } else if (new != null) {
+                evicted.add(new)
+                nextNew = newCandidates.nextOrNull()
+            } else {
+                break
+            }
+        }
+        return evicted
+    }
+
+    /**
+     * Selects up to [limit] records with the latest timestamps, ordered from the newest to the oldest.
+     * Records the index doesn't mirror are selected without the index, and the index is left as is.
+     */
+    fun selectMostRecent(records: Map<String, HistoryRecord>, limit: Int): List<HistoryRecord> {
+        synchronized(this) {
+            if (indexedRecords === records) {
+                return recordsByKey.descendingMap().values.asSequence().take(limit).toList()
+            }
+        }
+        return selectMostRecentWithoutIndex(records, limit)
+    }
+
+    /**
+     * Applies [changeSet] made to [oldRecords]. The index is rebuilt if it doesn't mirror [oldRecords].
+     */
+    @Synchronized
+    fun onRecordsChanged(
+        oldRecords: Map<String, HistoryRecord>,
+        changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>,
+    ) {
+        if (indexedRecords !== oldRecords) {
+            syncWith(changeSet.records)
+            return
+        }
+
+        changeSet.removed.forEach { remove(it.id) }
+        changeSet.updated.forEach {
+            remove(it.id)
+            add(it)
+        }
+        changeSet.added.forEach { add(it) }
+
+        indexedRecords = changeSet.records
+    }
+
+    @VisibleForTesting
+    @Synchronized
+    fun isSyncedWith(records: Map<String, HistoryRecord>): Boolean = indexedRecords === records
+
+    private fun syncWith(records: Map<String, HistoryRecord>) {
+        if (indexedRecords === records) {
+            return
+        }
+
+        recordsByKey.clear()
+        keysById.clear()
+        records.values.forEach { add(it) }
+        indexedRecords = records
+    }
+
+    private fun add(record: HistoryRecord) {
+        val key = Key(record.timestamp, nextSeq++)
+        recordsByKey[key] = record
+        keysById[record.id] = key
+    }
+
+    private fun remove(id: String) {
+        keysById.remove(id)?.let {
+            recordsByKey.remove(it)
+        }
+    }
+
+    private fun <T> Iterator<T>.nextOrNull(): T? = if (hasNext()) next() else null
+
+    private companion object {
+
+        /**
+         * Keeps [limit] records with the latest timestamps in a heap, so that the cost is O(n log limit).
+         * Like in the index, later records have higher priority than earlier ones with the same timestamp.
+         */
+        fun selectMostRecentWithoutIndex(records: Map<String, HistoryRecord>, limit: Int): List<HistoryRecord> {
+            if (limit <= 0 || records.isEmpty()) {
+                return emptyList()
+            }
+
+            val heap = PriorityQueue<IndexedValue<HistoryRecord>>(
+                minOf(limit, records.size),
+                compareBy({ it.value.timestamp }, { it.index }),
+            )
+            records.values.forEachIndexed { index, record ->
+                heap.add(IndexedValue(index, record))
+                if (heap.size > limit) {
+                    heap.poll()
+                }
+            }
+
+            val selected = ArrayList<HistoryRecord>(heap.size)
+            while (heap.isNotEmpty()) {
+                selected.add(heap.poll().value)
+            }
+            selected.reverse()
+            return selected
+        }
+    }
+
+    private data class Key(val timestamp: Long, val seq: Long) : Comparable<Key> {
+
+        override fun compareTo(other: Key): Int {
+            val tsCompare = timestamp.compareTo(other.timestamp)
+            return if (tsCompare == 0) seq.compareTo(other.seq) else tsCompare
+        }
+    }
+}
@@ -3,19 +3,24 @@ package com.mapbox.search.record
 import android.annotation.SuppressLint
 import androidx.annotation.CheckResult
 import androidx.annotation.WorkerThread
+import com.mapbox.search.base.concurrent.SerialExecutorService
 import com.mapbox.search.base.logger.logd
 import com.mapbox.search.base.logger.loge
+import com.mapbox.search.base.perf.PerformanceSections
 import com.mapbox.search.base.perf.PerformanceTracker
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
-import java.util.Collections
+import com.mapbox.search.utils.collections.PersistentOrderedMap
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.Executor
 import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * [IndexableDataProvider] that represents stored locally by the SDK user data.
@@ -25,6 +30,16 @@ import java.util.concurrent.Executors
  */
 public interface LocalDataProvider<R : IndexableRecord> : IndexableDataProvider<R> {
 
+    /**
+     * Returns immutable snapshot of the data provider records, in the same order as they are provided by [getAll].
+     * Keys of the map are ids of the records.
+     *
+     * The snapshot is taken on the calling thread without waiting for the changes that are still in progress.
+     *
+     * @return records snapshot or `null` if the records haven't been loaded yet or loading failed.
+     */
+    public fun snapshot(): Map<String, R>?
+
     /**
      * Adds a listener to be notified of data provider changes.
      *
@@ -50,6 +65,31 @@ public interface LocalDataProvider<R : IndexableRecord> : IndexableDataProvider<
      */
     public fun removeOnDataChangedListener(listener: OnDataChangedListener<R>)
 
+    /**
+     * Adds a listener to be notified of data provider changes with the changed records only.
+     *
+     * @param executor Executor used for events dispatching. By default events are dispatched on the main thread.
+     * @param listener The listener to be notified of data change events.
+     */
+    public fun addOnDataChangeSetListener(executor: Executor, listener: OnDataChangeSetListener<R>)
+
+    /**
+     * Adds a listener to be notified of data provider changes with the changed records only.
+     *
+     * @param listener The listener to be notified of data change events. By default events are dispatched on the main thread.
+     */
+    public fun addOnDataChangeSetListener(listener: OnDataChangeSetListener<R>): Unit = addOnDataChangeSetListener(
+        executor = SearchSdkMainThreadWorker.mainExecutor,
+        listener = listener
+    )
+
+    /**
+     * Removes a previously added listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public fun removeOnDataChangeSetListener(listener: OnDataChangeSetListener<R>)
+
     /**
      * Adds a listener to be notified when [IndexableDataProviderEngine] registered in this data provider.
      * When a new listener is added, it will be invoked for each previously registered [IndexableDataProviderEngine].
@@ -115,6 +155,92 @@ public interface LocalDataProvider<R : IndexableRecord> : IndexableDataProvider<
          */
         public fun onDataChanged(newData: List<R>)
     }
+
+    /**
+     * Listener to be notified of data provider changes with the changed records only.
+     */
+    public interface OnDataChangeSetListener<R : IndexableRecord> {
+
+        /**
+         * Invoked when data provider items changed.
+         * @param changeSet records changed by a data provider operation.
+         */
+        public fun onDataChanged(changeSet: DataChangeSet<R>)
+    }
+
+    /**
+     * Records changed by a data provider operation.
+     * Change set is reported for every completed change operation, so it can be empty if the operation
+     * didn't change any record, for example when a record that doesn't exist is removed.
+     *
+     * @property version Version of the data provider records after the change.
+     * Version is increased every time the records are changed.
+     * @property added Records that have been added.
+     * @property updated Records that have been updated, new versions of the records are provided.
+     * @property removed Records that have been removed.
+     * @property records All the records of the data provider after the change, see [LocalDataProvider.snapshot].
+     */
+    public class DataChangeSet<R : IndexableRecord> internal constructor(
+        public val version: Long,
+        public val added: List<R>,
+        public val updated: List<R>,
+        public val removed: List<R>,
+        public val records: Map<String, R>,
+    ) {
+
+        internal val recordsList: List<R> by lazy {
+            records.values.toList()
+        }
+
+        /**
+         * True if no records have been changed.
+         */
+        public val isEmpty: Boolean
+            get() = added.isEmpty() && updated.isEmpty() && removed.isEmpty()
+
+        /**
+         * @suppress
+         */
+        override fun equals(other: Any?): Boolean {
+            if (this === other) return true
+            if (javaClass != other?.javaClass) return false
+
+            other as DataChangeSet<*>
+
+            if (version != other.version) return false
+            if (added != other.added) return false
+            if (updated != other.updated) return false
+            if (removed != other.removed) return false
+            if (records != other.records) return false
+
+            return true
+        }
+
+        /**
+         * @suppress
+         */
+        override fun hashCode(): Int {
+            var result = version.hashCode()
+            result = 31 * result + added.hashCode()
+            result = 31 * result + updated.hashCode()
+            result = 31 * result + removed.hashCode()
+            result = 31 * result + records.hashCode()
+            return result
+        }
+
+        /**
+         * @suppress
+         */
+        override fun toString(): String {
+            return "DataChangeSet(" +
+                    "version=$version, " +
+                    "added=$added, " +
+                    "updated=$updated, " +
+                    "removed=$removed, " +
+                    "recordsCount=${records.size}" +
+                    ")"
+        }
+    }
 }
 
 @Suppress("LargeClass")
@@ -123,22 +249,71 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
     override val priority: Int,
     private val recordsStorage: RecordsStorage<R>,
     private val dataProviderEngines: CopyOnWriteArrayList<IndexableDataProviderEngine> = CopyOnWriteArrayList(),
-    protected val backgroundTaskExecutorService: ExecutorService = defaultExecutor(dataProviderName),
+    protected val backgroundTaskExecutorService: ExecutorService = defaultExecutor(),
     protected val maxRecordsAmount: Int = Int.MAX_VALUE,
+    /**
+     * Number of the most recent records published by the storage before the initial read is completed.
+     * @see getRecentRecords
+     */
+    private val recentRecordsAmount: Int = 0,
+    /**
+     * If true, changes are persisted in a single write scheduled on [backgroundTaskExecutorService]
+     * after the changes that are already queued there. Changes are visible and indexed right away,
+     * but their callbacks are completed only once they're persisted.
+     * Otherwise, changes are persisted one by one.
+     */
+    private val coalesceWrites: Boolean = false,
+    /**
+     * Max number of changes persisted in a single write, changes are persisted before
+     * the scheduled write once this number is reached.
+     */
+    private val maxCoalescedWrites: Int = DEFAULT_MAX_COALESCED_WRITES,
 ) : IndexableDataProvider<R>, LocalDataProvider<R> {
 
-    private val dataChangeListeners: MutableMap<LocalDataProvider.OnDataChangedListener<R>, Executor> = ConcurrentHashMap()
+    private val dataChangeSetListeners: MutableMap<LocalDataProvider.OnDataChangeSetListener<R>, Executor> = ConcurrentHashMap()
+    private val dataChangedListenerAdapters: MutableMap<LocalDataProvider.OnDataChangedListener<R>, DataChangedListenerAdapter<R>> = ConcurrentHashMap()
 
     private val engineRegisterListeners: MutableMap<LocalDataProvider.OnDataProviderEngineRegisterListener, Executor> = ConcurrentHashMap()
     private val dataProviderEngineLock = Any()
 
-    // TODO this variable must be synchronized so that it can be used in a multi-threaded environment.
-    // In fact, now it's used only from one thread (because of Executors.newSingleThreadExecutor())
+    // Changed only on the backgroundTaskExecutorService thread.
+    // Records are immutable, so the current state can be read from any thread.
     @Volatile
     protected var dataState: DataState<R>? = null
 
     private val initializingLock = Object()
 
+    // Number of submitted changes which haven't been applied yet, reads wait for them to keep the order of operations
+    private val pendingMutations = AtomicInteger(0)
+
+    private val persistDataSectionName = "${PerformanceSections.LOCAL_DATA_WRITE}:$dataProviderName"
+
+    // Version of the records reported to the change set listeners, accessed only on the backgroundTaskExecutorService thread
+    private var dataVersion: Long = 0
+
+    // Write coalescing state, accessed only on the backgroundTaskExecutorService thread
+    private var persistedRecords: PersistentOrderedMap<String, R> = PersistentOrderedMap.empty()
+    private val pendingWrites = mutableListOf<PendingWrite<*>>()
+    private val pendingStorageChanges = mutableListOf<RecordsStorage.Change<R>>()
+    private var isFlushScheduled = false
+
+    private val coalescedChangesCount = AtomicLong(0)
+    private val writesCount = AtomicLong(0)
+
+    /**
+     * Number of the changes which have been collected to be persisted together and number of the writes
+     * they've been persisted with.
+     */
+    val writeCoalescingStats: WriteCoalescingStats
+        get() = WriteCoalescingStats(
+            coalescedChanges = coalescedChangesCount.get(),
+            writes = writesCount.get(),
+        )
+
+    // Most recent records available while initial read is in progress, guarded by initializingLock
+    private var recentRecords: List<R>? = null
+    private val pendingRecentRequests = mutableListOf<RecentRecordsRequest<R>>()
+
     init {
         PerformanceTracker.trackPerformanceSync("LocalDataProviderImpl#init") {
             require(maxRecordsAmount > 0) {
@@ -155,24 +330,34 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         backgroundTaskExecutorService.submit {
             PerformanceTracker.trackPerformanceSync("LocalDataProviderImpl#initialRead") {
                 try {
-                    val loaded = recordsStorage.load()
+                    val loaded = if (recentRecordsAmount > 0) {
+                        recordsStorage.load(recentRecordsAmount) { recent ->
+                            onRecentRecordsLoaded(recent)
+                        }
+                    } else {
+                        recordsStorage.load()
+                    }
+
+                    val builder = PersistentOrderedMap.empty<String, R>().builder()
+                    val trimmed = builder.addAndTrimRecords(loaded)
 
-                    val records: MutableMap<String, R> = Collections.synchronizedMap(LinkedHashMap())
-                    records.addAndTrimRecords(loaded)
+                    val records = builder.build()
+                    if (trimmed.isNotEmpty()) {
+                        persistTrimmedRecords(records, trimmed)
+                    }
 
                     dataState = DataState.Data(records)
+                    persistedRecords = records
 
-                    val recordsList = records.values.toList()
-                    dataProviderEngines.forEach { dataProviderEngine ->
-                        dataProviderEngine.upsertAll(recordsList)
-                    }
+                    upsertInitialRecords(records.keys.toList())
 
-                    logD("initialRead() completed. Loaded ${recordsList.size} records")
+                    logD("initialRead() completed. Loaded ${records.size} records")
                 } catch (e: Exception) {
                     logE("Error during initialRead(): ${e.message}")
                     dataState = DataState.Error(e)
                 } finally {
                     synchronized(initializingLock) {
+                        completePendingRecentRequests()
                         initializingLock.notifyAll()
                     }
                 }
@@ -180,6 +365,70 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         }
     }
 
+    private fun onRecentRecordsLoaded(recent: List<R>) {
+        logD("onRecentRecordsLoaded(): ${recent.size} recent records loaded")
+        synchronized(initializingLock) {
+            recentRecords = recent
+            val iterator = pendingRecentRequests.iterator()
+            while (iterator.hasNext()) {
+                val request = iterator.next()
+                if (recent.size >= request.limit) {
+                    iterator.remove()
+                    request.complete(recent)
+                }
+            }
+        }
+    }
+
+    private fun completePendingRecentRequests() {
+        val dataState = dataState ?: return
+        recentRecords = null
+        pendingRecentRequests.forEach { request ->
+            when (dataState) {
+                is DataState.Data -> request.complete(dataState.records.values.toList())
+                is DataState.Error -> postOnExecutorIfNeeded(request.task, request.executor) {
+                    request.callback.onError(dataState.error)
+                }
+            }
+        }
+        pendingRecentRequests.clear()
+    }
+
+    /**
+     * Upserts initially loaded records to the engines in chunks. Only the first chunk is upserted right away,
+     * the others are scheduled after the operations which are already waiting for the initial read,
+     * so that they don't wait until all the records are indexed.
+     */
+    private fun upsertInitialRecords(ids: List<String>) {
+        val engines = dataProviderEngines.toList()
+        if (engines.isEmpty()) {
+            return
+        }
+
+        ids.chunked(ENGINE_UPSERT_CHUNK_SIZE).forEachIndexed { index, chunk ->
+            if (index == 0) {
+                upsertInitialRecordsChunk(chunk, engines)
+            } else {
+                backgroundTaskExecutorService.submit {
+                    upsertInitialRecordsChunk(chunk, engines)
+                }
+            }
+        }
+    }
+
+    @WorkerThread
+    private fun upsertInitialRecordsChunk(ids: List<String>, engines: List<IndexableDataProviderEngine>) {
+        // Records might have been changed or removed since the initial read, so we take the actual state.
+        // Engines registered in the meantime already have all the records.
+        val data = (dataState as? DataState.Data)?.records ?: return
+        val records = ids.mapNotNull { data[it] }
+        engines.forEach { engine ->
+            if (dataProviderEngines.contains(engine)) {
+                engine.upsertAll(records)
+            }
+        }
+    }
+
     @WorkerThread
     private fun getLocalData(): DataState<R> {
         var data = dataState
@@ -198,21 +447,68 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
     }
 
     @WorkerThread
-    private fun persistData(records: List<R>) {
-        logD("persistData(recordsCount=${records.size}) called")
-        recordsStorage.save(records)
+    private fun persistData(records: PersistentOrderedMap<String, R>, changes: List<RecordsStorage.Change<R>>) {
+        logD("persistData(recordsCount=${records.size}, changesCount=${changes.size}) called")
+        PerformanceTracker.trackPerformanceSync(persistDataSectionName) {
+            recordsStorage.save(records, changes)
+        }
     }
 
+    /**
+     * Storage writes only the changes made after the initial read, so it has to know about the records trimmed
+     * on load. Otherwise, a trimmed record added again would be restored at its old position.
+     */
     @WorkerThread
-    private fun notifyListeners(records: List<R>) {
-        logD("notifyListeners(recordsCount=${records.size}, listenersCount=${dataChangeListeners.size})")
-        dataChangeListeners.entries.forEach { (listener, executor) ->
+    private fun persistTrimmedRecords(records: PersistentOrderedMap<String, R>, trimmed: List<R>) {
+        try {
+            persistData(records, trimmed.map { RecordsStorage.Change(it.id, null) })
+        } catch (e: Exception) {
+            // Records will be trimmed again on the next load
+            logE("Unable to persist ${trimmed.size} trimmed records: ${e.message}")
+        }
+    }
+
+    @WorkerThread
+    private fun notifyListeners(
+        oldRecords: PersistentOrderedMap<String, R>,
+        records: PersistentOrderedMap<String, R>,
+        change: RecordsChange<R>,
+    ) {
+        if (!change.isEmpty) {
+            dataVersion++
+        }
+
+        val changeSet = LocalDataProvider.DataChangeSet(
+            version = dataVersion,
+            added = change.added,
+            updated = change.updated,
+            removed = change.removed,
+            records = records,
+        )
+        onRecordsChanged(oldRecords, changeSet)
+
+        logD(
+            "notifyListeners(version=$dataVersion, added=${change.added.size}, updated=${change.updated.size}, " +
+              "removed=${change.removed.size}, listenersCount=${dataChangeSetListeners.size})"
+        )
+        dataChangeSetListeners.entries.forEach { (listener, executor) ->
             executor.execute {
-                listener.onDataChanged(records)
+                listener.onDataChanged(changeSet)
             }
         }
     }
 
+    /**
+     * Called on the background thread when [oldRecords] are changed, before the listeners are notified.
+     */
+    @WorkerThread
+    protected open fun onRecordsChanged(
+        oldRecords: PersistentOrderedMap<String, R>,
+        changeSet: LocalDataProvider.DataChangeSet<R>,
+    ) {
+        // Nothing to do by default
+    }
+
     /**
      * Special-purpose function to add [newRecords] and trim map's size to [maxRecordsAmount].
      * Created for an optimisation purpose.
@@ -237,6 +533,27 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         }
     }
 
+    private fun submitMutation(task: AsyncOperationTaskImpl<Any>, action: Runnable) {
+        val isPending = AtomicBoolean(true)
+        val onFinished = {
+            if (isPending.compareAndSet(true, false)) {
+                pendingMutations.decrementAndGet()
+            }
+        }
+
+        pendingMutations.incrementAndGet()
+        task.addOnCancelledCallback {
+            onFinished()
+        }
+        task += backgroundTaskExecutorService.submit {
+            try {
+                action.run()
+            } finally {
+                onFinished()
+            }
+        }
+    }
+
     override fun registerIndexableDataProviderEngine(
         dataProviderEngine: IndexableDataProviderEngine,
         executor: Executor,
@@ -307,76 +624,103 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
     override fun get(id: String, executor: Executor, callback: CompletionCallback<in R?>): AsyncOperationTask {
         logD("get(id=$id) called")
 
-        val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
-            when (val dataState = getLocalData()) {
-                is DataState.Data -> {
-                    val data = dataState.records
-                    val result = data[id]
-                    logD("get(id=$id): found=${result != null}")
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onComplete(result)
-                    }
-                }
-                is DataState.Error -> {
-                    logSkippedOperation("get(id=$id)", dataState)
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onError(dataState.error)
-                    }
-                }
+        return read("get(id=$id)", executor, callback) { records ->
+            records[id].also {
+                logD("get(id=$id): found=${it != null}")
             }
         }
-        return task
     }
 
     override fun getAll(executor: Executor, callback: CompletionCallback<List<R>>): AsyncOperationTask {
         logD("getAll() called")
 
-        val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
-            when (val dataState = getLocalData()) {
-                is DataState.Data -> {
-                    val data = dataState.records
-                    val result = data.values.toList()
-                    logD("getAll(): found ${result.size} records")
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onComplete(result)
-                    }
-                }
-                is DataState.Error -> {
-                    logSkippedOperation("getAll()", dataState)
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onError(dataState.error)
-                    }
-                }
+        return read("getAll()", executor, callback) { records ->
+            records.values.toList().also {
+                logD("getAll(): found ${it.size} records")
+            }
+        }
+    }
+
+    /**
+     * Retrieves records with specified [ids] in a single read. Records are provided in the order of [ids],
+     * ids with no records are skipped.
+     */
+    fun getAll(ids: List<String>, executor: Executor, callback: CompletionCallback<in List<R>>): AsyncOperationTask {
+        logD("getAll(idsCount=${ids.size}) called")
+
+        return read("getAll(idsCount=${ids.size})", executor, callback) { records ->
+            ids.mapNotNull { records[it] }.also {
+                logD("getAll(idsCount=${ids.size}): found ${it.size} records")
             }
         }
-        return task
     }
 
     override fun contains(id: String, executor: Executor, callback: CompletionCallback<Boolean>): AsyncOperationTask {
         logD("contains(id=$id) called")
 
+        return read("contains(id=$id)", executor, callback) { records ->
+            records.containsKey(id).also {
+                logD("contains(id=$id): result=$it")
+            }
+        }
+    }
+
+    override fun snapshot(): Map<String, R>? {
+        return (dataState as? DataState.Data)?.records
+    }
+
+    /**
+     * Returns record with the given [id] from the current records [snapshot], without waiting
+     * for the records to be loaded and for the changes that are still in progress.
+     */
+    fun getIfLoaded(id: String): R? {
+        return snapshot()?.get(id)
+    }
+
+    /**
+     * Records are immutable, so once the initial read is completed they're read right on the calling thread.
+     * Otherwise, the operation waits for the initial read or submitted changes on the [backgroundTaskExecutorService].
+     */
+    private fun <T> read(
+        operation: String,
+        executor: Executor,
+        callback: CompletionCallback<in T>,
+        action: (PersistentOrderedMap<String, R>) -> T,
+    ): AsyncOperationTask {
         val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
-            when (val dataState = getLocalData()) {
-                is DataState.Data -> {
-                    val data = dataState.records
-                    val result = data.contains(id)
-                    logD("contains(id=$id): result=$result")
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onComplete(result)
-                    }
+        val loadedState = dataState
+        if (loadedState != null && pendingMutations.get() == 0) {
+            completeRead(loadedState, task, operation, executor, callback, action)
+        } else {
+            task += backgroundTaskExecutorService.submit {
+                completeRead(getLocalData(), task, operation, executor, callback, action)
+            }
+        }
+        return task
+    }
+
+    private fun <T> completeRead(
+        dataState: DataState<R>,
+        task: AsyncOperationTaskImpl<Any>,
+        operation: String,
+        executor: Executor,
+        callback: CompletionCallback<in T>,
+        action: (PersistentOrderedMap<String, R>) -> T,
+    ) {
+        when (dataState) {
+            is DataState.Data -> {
+                val result = action(dataState.records)
+                postOnExecutorIfNeeded(task, executor) {
+                    callback.onComplete(result)
                 }
-                is DataState.Error -> {
-                    logSkippedOperation("contains(id=$id)", dataState)
-                    postOnExecutorIfNeeded(task, executor) {
-                        callback.onError(dataState.error)
-                    }
+            }
+            is DataState.Error -> {
+                logSkippedOperation(operation, dataState)
+                postOnExecutorIfNeeded(task, executor) {
+                    callback.onError(dataState.error)
                 }
             }
         }
-        return task
     }
 
     override fun upsert(record: R, executor: Executor, callback: CompletionCallback<Unit>): AsyncOperationTask {
@@ -387,22 +731,38 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         records: List<R>,
         executor: Executor,
         callback: CompletionCallback<Unit>
+    ): AsyncOperationTask {
+        return upsertAll(records, executor, callback, awaitsWrite = true)
+    }
+
+    /**
+     * Same as [upsert], but with write coalescing [callback] is completed once the record is visible,
+     * without waiting for the write. The record is removed back if the write fails.
+     */
+    fun upsertWithoutAwaitingWrite(
+        record: R,
+        executor: Executor,
+        callback: CompletionCallback<Unit>
+    ): AsyncOperationTask {
+        return upsertAll(listOf(record), executor, callback, awaitsWrite = false)
+    }
+
+    private fun upsertAll(
+        records: List<R>,
+        executor: Executor,
+        callback: CompletionCallback<Unit>,
+        awaitsWrite: Boolean,
     ): AsyncOperationTask {
         logD("upsertAll(recordsCount=${records.size}) called")
 
         val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
+        submitMutation(task) {
             when (val dataState = getLocalData()) {
                 is DataState.Data -> {
                     try {
-                        val data = dataState.recordsCopy()
+                        val data = dataState.records.builder()
                         val removeList = data.addAndTrimRecords(records).map { it.id }
 
-                        val recordsList = data.values.toList()
-                        persistData(recordsList)
-
-                        this.dataState = DataState.Data(data)
-
                         if (removeList.isNotEmpty()) {
                             logD(
                                 "upsertAll(): trimmed ${removeList.size} records due to " +
@@ -410,16 +770,17 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
                             )
                         }
 
-                        dataProviderEngines.forEach { dataProviderEngine ->
-                            dataProviderEngine.upsertAll(records)
-                            dataProviderEngine.removeAll(removeList)
-                        }
-
-                        postOnExecutorIfNeeded(task, executor) {
-                            callback.onComplete(Unit)
+                        val newRecords = data.build()
+                        commitChange(
+                            records = newRecords,
+                            change = upsertChange(dataState.records, newRecords, records, removeList),
+                            pendingWrite = PendingWrite(task, executor, callback, Unit, awaitsWrite),
+                        ) {
+                            dataProviderEngines.forEach { dataProviderEngine ->
+                                dataProviderEngine.upsertAll(records)
+                                dataProviderEngine.removeAll(removeList)
+                            }
                         }
-
-                        notifyListeners(recordsList)
                     } catch (e: Exception) {
                         logE("upsertAll() failed: ${e.message}")
 
@@ -443,30 +804,23 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         logD("remove(id=$id) called")
 
         val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
+        submitMutation(task) {
             when (val dataState = getLocalData()) {
                 is DataState.Data -> {
                     try {
-                        val data = dataState.recordsCopy()
-                        val removed = data.remove(id)
-                        val isRemoved = removed != null
+                        val data = dataState.records.remove(id)
+                        val isRemoved = data !== dataState.records
                         logD("remove(id=$id): isRemoved=$isRemoved")
 
-                        val recordsList = data.values.toList()
-                        if (isRemoved) {
-                            persistData(recordsList)
-                            this.dataState = DataState.Data(data)
-                        }
-
-                        dataProviderEngines.forEach { dataProviderEngine ->
-                            dataProviderEngine.remove(id)
-                        }
-
-                        postOnExecutorIfNeeded(task, executor) {
-                            callback.onComplete(isRemoved)
+                        commitChange(
+                            records = data,
+                            change = RecordsChange(removed = listOfNotNull(dataState.records[id])),
+                            pendingWrite = PendingWrite(task, executor, callback, isRemoved),
+                        ) {
+                            dataProviderEngines.forEach { dataProviderEngine ->
+                                dataProviderEngine.remove(id)
+                            }
                         }
-
-                        notifyListeners(recordsList)
                     } catch (e: Exception) {
                         logE("remove(id=$id) failed: ${e.message}")
 
@@ -490,29 +844,25 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         logD("clear() called")
 
         val task = AsyncOperationTaskImpl<Any>()
-        task += backgroundTaskExecutorService.submit {
+        submitMutation(task) {
             when (val dataState = getLocalData()) {
                 is DataState.Data -> {
                     try {
-                        val data = dataState.recordsCopy()
-                        val changed = data.isNotEmpty()
-                        data.clear()
-
-                        val recordsList = data.values.toList()
-                        if (changed) {
-                            persistData(recordsList)
-                            this.dataState = DataState.Data(data)
-                        }
-
-                        dataProviderEngines.forEach { dataProviderEngine ->
-                            dataProviderEngine.clear()
+                        val data = if (dataState.records.isNotEmpty()) {
+                            PersistentOrderedMap.empty()
+                        } else {
+                            dataState.records
                         }
 
-                        postOnExecutorIfNeeded(task, executor) {
-                            callback.onComplete(Unit)
+                        commitChange(
+                            records = data,
+                            change = RecordsChange(removed = dataState.records.values.toList()),
+                            pendingWrite = PendingWrite(task, executor, callback, Unit),
+                        ) {
+                            dataProviderEngines.forEach { dataProviderEngine ->
+                                dataProviderEngine.clear()
+                            }
                         }
-
-                        notifyListeners(recordsList)
                     } catch (e: Exception) {
                         logE("clear() failed: ${e.message}")
 
@@ -532,14 +882,241 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
         return task
     }
 
+    /**
+     * Makes [records] the current data and updates the engines with [updateEngines].
+     *
+     * Without write coalescing, the records are persisted first and the current data isn't changed if persisting fails.
+     * Otherwise, the change is visible and indexed right away, and [pendingWrite] is completed
+     * once the records that include the change are persisted by [flushPendingWrites],
+     * unless it doesn't await the write.
+     */
+    @WorkerThread
+    private fun commitChange(
+        records: PersistentOrderedMap<String, R>,
+        change: RecordsChange<R>,
+        pendingWrite: PendingWrite<*>,
+        updateEngines: () -> Unit,
+    ) {
+        val oldRecords = (dataState as? DataState.Data)?.records ?: PersistentOrderedMap.empty()
+        val isChanged = records !== oldRecords
+
+        if (!coalesceWrites) {
+            if (isChanged) {
+                persistData(records, change.storageChanges())
+                dataState = DataState.Data(records)
+                persistedRecords = records
+            }
+
+            updateEngines()
+            pendingWrite.complete()
+            notifyListeners(oldRecords, records, change)
+            return
+        }
+
+        if (isChanged) {
+            dataState = DataState.Data(records)
+        }
+
+        updateEngines()
+        notifyListeners(oldRecords, records, change)
+
+        // Unchanged data doesn't need to be written, unless callbacks of the previous changes are still pending
+        if (!isChanged && pendingWrites.isEmpty()) {
+            pendingWrite.complete()
+            return
+        }
+
+        if (!pendingWrite.awaitsWrite) {
+            pendingWrite.complete()
+        }
+
+        pendingWrites.add(pendingWrite)
+        pendingStorageChanges.addAll(change.storageChanges())
+        coalescedChangesCount.incrementAndGet()
+
+        if (pendingWrites.size >= maxCoalescedWrites) {
+            flushPendingWrites()
+        } else if (!isFlushScheduled) {
+            // Changes submitted before the flush are applied first and persisted along with this one
+            isFlushScheduled = true
+            backgroundTaskExecutorService.submit {
+                isFlushScheduled = false
+                flushPendingWrites()
+            }
+        }
+    }
+
+    /**
+     * Persists current records in a single write and completes all the pending writes.
+     * If persisting fails, the data is rolled back to the last persisted records.
+     */
+    @WorkerThread
+    private fun flushPendingWrites() {
+        if (pendingWrites.isEmpty()) {
+            return
+        }
+
+        val writes = pendingWrites.toList()
+        pendingWrites.clear()
+
+        val changes = pendingStorageChanges.toList()
+        pendingStorageChanges.clear()
+
+        val records = (dataState as? DataState.Data)?.records ?: return
+        try {
+            persistData(records, changes)
+            persistedRecords = records
+            writesCount.incrementAndGet()
+
+            logD("flushPendingWrites(): persisted ${writes.size} coalesced changes")
+            writes.filter { it.awaitsWrite }.forEach { it.complete() }
+        } catch (e: Exception) {
+            logE("flushPendingWrites() failed: ${e.message}")
+
+            rollBack(records, persistedRecords)
+            writes.filter { it.awaitsWrite }.forEach { it.fail(e) }
+        }
+    }
+
+    @WorkerThread
+    private fun rollBack(current: PersistentOrderedMap<String, R>, persisted: PersistentOrderedMap<String, R>) {
+        val removedRecords = current.values.filter { !persisted.containsKey(it.id) }
+        val restoredRecords = persisted.values.filter { current[it.id] !== it }
+
+        dataState = DataState.Data(persisted)
+
+        dataProviderEngines.forEach { dataProviderEngine ->
+            dataProviderEngine.removeAll(removedRecords.map { it.id })
+            dataProviderEngine.upsertAll(restoredRecords)
+        }
+
+        val change = RecordsChange(
+            added = restoredRecords.filter { !current.containsKey(it.id) },
+            updated = restoredRecords.filter { current.containsKey(it.id) },
+            removed = removedRecords,
+        )
+        notifyListeners(current, persisted, change)
+    }
+
+    /**
+     * Upserted records which are not in the [newRecords] have been trimmed right away, so they're not reported.
+     */
+    private fun upsertChange(
+        oldRecords: PersistentOrderedMap<String, R>,
+        newRecords: PersistentOrderedMap<String, R>,
+        upserted: List<R>,
+        trimmedIds: List<String>,
+    ): RecordsChange<R> {
+        val added = mutableListOf<R>()
+        val updated = mutableListOf<R>()
+        upserted.associateBy { it.id }.values.forEach { record ->
+            if (newRecords[record.id] === record) {
+                if (oldRecords.containsKey(record.id)) {
+                    updated.add(record)
+                } else {
+                    added.add(record)
+                }
+            }
+        }
+        return RecordsChange(
+            added = added,
+            updated = updated,
+            removed = trimmedIds.mapNotNull { oldRecords[it] },
+        )
+    }
+
+    private fun <T> PendingWrite<T>.complete() {
+        postOnExecutorIfNeeded(task, executor) {
+            callback.onComplete(result)
+        }
+    }
+
+    private fun PendingWrite<*>.fail(e: Exception) {
+        postOnExecutorIfNeeded(task, executor) {
+            callback.onError(e)
+        }
+    }
+
+    /**
+     * Selects up to [limit] most recent records from [records], ordered from the newest to the oldest.
+     * By default, records are considered recent in the order they have been added.
+     */
+    protected open fun selectRecentRecords(records: Collection<R>, limit: Int): List<R> {
+        return records.toList().takeLast(limit).asReversed()
+    }
+
+    /**
+     * Selects up to [limit] most recent records from the loaded [records], ordered from the newest to the oldest.
+     */
+    protected open fun selectRecentRecords(records: PersistentOrderedMap<String, R>, limit: Int): List<R> {
+        return selectRecentRecords(records.values, limit)
+    }
+
+    /**
+     * Retrieves up to [limit] most recent records. While the initial read is in progress,
+     * the request is completed as soon as enough recent records are published by the storage.
+     */
+    protected fun getRecentRecords(
+        limit: Int,
+        executor: Executor,
+        callback: CompletionCallback<List<R>>
+    ): AsyncOperationTask {
+        logD("getRecentRecords(limit=$limit) called")
+
+        if (dataState == null) {
+            synchronized(initializingLock) {
+                if (dataState == null) {
+                    val task = AsyncOperationTaskImpl<Any>()
+                    val request = RecentRecordsRequest(limit, executor, callback, task)
+                    val recent = recentRecords
+                    if (recent != null && recent.size >= limit) {
+                        request.complete(recent)
+                    } else {
+                        pendingRecentRequests.add(request)
+                    }
+                    return task
+                }
+            }
+        }
+
+        return read("getRecentRecords(limit=$limit)", executor, callback) { records ->
+            selectRecentRecords(records, limit).also {
+                logD("getRecentRecords(limit=$limit): found ${it.size} records")
+            }
+        }
+    }
+
+    private fun RecentRecordsRequest<R>.complete(records: Collection<R>) {
+        val result = selectRecentRecords(records, limit)
+        logD("getRecentRecords(limit=$limit): found ${result.size} records")
+        postOnExecutorIfNeeded(task, executor) {
+            callback.onComplete(result)
+        }
+    }
+
     override fun addOnDataChangedListener(executor: Executor, listener: LocalDataProvider.OnDataChangedListener<R>) {
         logD("addOnDataChangedListener() called")
-        dataChangeListeners[listener] = executor
+        val adapter = dataChangedListenerAdapters.getOrPut(listener) {
+            DataChangedListenerAdapter(listener)
+        }
+        dataChangeSetListeners[adapter] = executor
     }
 
     override fun removeOnDataChangedListener(listener: LocalDataProvider.OnDataChangedListener<R>) {
         logD("removeOnDataChangedListener() called")
-        dataChangeListeners.remove(listener)
+        dataChangedListenerAdapters.remove(listener)?.let {
+            dataChangeSetListeners.remove(it)
+        }
+    }
+
+    override fun addOnDataChangeSetListener(executor: Executor, listener: LocalDataProvider.OnDataChangeSetListener<R>) {
+        logD("addOnDataChangeSetListener() called")
+        dataChangeSetListeners[listener] = executor
+    }
+
+    override fun removeOnDataChangeSetListener(listener: LocalDataProvider.OnDataChangeSetListener<R>) {
+        logD("removeOnDataChangeSetListener() called")
+        dataChangeSetListeners.remove(listener)
     }
 
     override fun addOnDataProviderEngineRegisterListener(
@@ -567,13 +1144,73 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
     }
 
     protected sealed class DataState<R> {
-        data class Data<R>(val records: MutableMap<String, R>) : DataState<R>() {
-            fun recordsCopy(): MutableMap<String, R> = Collections.synchronizedMap(LinkedHashMap(records))
-        }
+
+        /**
+         * @param records immutable records, so that they can be read from any thread
+         * while a new version of the records is being prepared.
+         */
+        data class Data<R>(val records: PersistentOrderedMap<String, R>) : DataState<R>()
 
         data class Error<R>(val error: Exception) : DataState<R>()
     }
 
+    /**
+     * @param coalescedChanges number of the changes that have been collected to be persisted together.
+     * @param writes number of the writes the coalesced changes have been persisted with.
+     */
+    data class WriteCoalescingStats(
+        val coalescedChanges: Long,
+        val writes: Long,
+    )
+
+    private class RecordsChange<R : IndexableRecord>(
+        val added: List<R> = emptyList(),
+        val updated: List<R> = emptyList(),
+        val removed: List<R> = emptyList(),
+    ) {
+        val isEmpty: Boolean
+            get() = added.isEmpty() && updated.isEmpty() && removed.isEmpty()
+
+        /**
+         * Upserts go before removals, like in [addAndTrimRecords]. Updated records keep their positions,
+         * so only the relative order of the added records matters.
+         */
+        fun storageChanges(): List<RecordsStorage.Change<R>> {
+            val changes = ArrayList<RecordsStorage.Change<R>>(added.size + updated.size + removed.size)
+            updated.forEach { changes.add(RecordsStorage.Change(it.id, it)) }
+            added.forEach { changes.add(RecordsStorage.Change(it.id, it)) }
+            removed.forEach { changes.add(RecordsStorage.Change(it.id, null)) }
+            return changes
+        }
+    }
+
+    /**
+     * Delivers full records list to the listeners added with [addOnDataChangedListener].
+     */
+    private class DataChangedListenerAdapter<R : IndexableRecord>(
+        private val listener: LocalDataProvider.OnDataChangedListener<R>,
+    ) : LocalDataProvider.OnDataChangeSetListener<R> {
+
+        override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<R>) {
+            listener.onDataChanged(changeSet.recordsList)
+        }
+    }
+
+    private class PendingWrite<T>(
+        val task: AsyncOperationTaskImpl<Any>,
+        val executor: Executor,
+        val callback: CompletionCallback<in T>,
+        val result: T,
+        val awaitsWrite: Boolean = true,
+    )
+
+    private class RecentRecordsRequest<R>(
+        val limit: Int,
+        val executor: Executor,
+        val callback: CompletionCallback<List<R>>,
+        val task: AsyncOperationTaskImpl<Any>,
+    )
+
     private fun logD(message: String) {
         logd(message = "$dataProviderName. $message", tag = LOG_TAG)
     }
@@ -590,10 +1227,12 @@ internal abstract class LocalDataProviderImpl<R : IndexableRecord>(
 
         private const val LOG_TAG = "LocalDataProvider"
 
-        fun defaultExecutor(providerName: String): ExecutorService {
-            return Executors.newSingleThreadExecutor { runnable ->
-                Thread(runnable, "LocalDataProvider executor for $providerName")
-            }
+        private const val ENGINE_UPSERT_CHUNK_SIZE = 256
+
+        private const val DEFAULT_MAX_COALESCED_WRITES = 32
+
+        fun defaultExecutor(): ExecutorService {
+            return SerialExecutorService(SearchExecutorProvider.getDefault().persistenceExecutor)
         }
     }
 }
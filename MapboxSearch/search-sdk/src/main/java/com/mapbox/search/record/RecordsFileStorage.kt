@@ -3,33 +3,389 @@ package com.mapbox.search.record
 import androidx.annotation.WorkerThread
 import com.mapbox.common.SettingsServiceFactory
 import com.mapbox.common.SettingsServiceStorageType
+import com.mapbox.search.base.concurrent.SerialExecutorService
+import com.mapbox.search.base.logger.logd
+import com.mapbox.search.base.logger.loge
+import com.mapbox.search.base.logger.logw
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.utils.loader.DataLoader
-import com.mapbox.search.utils.serialization.RecordsSerializer
+import com.mapbox.search.utils.serialization.RecordsCodec
+import com.mapbox.search.utils.serialization.RecordsFormat
+import java.util.concurrent.Executor
 
+/**
+ * Records storage which keeps records in a snapshot file and appends per-record changes to a journal file.
+ *
+ * Every [save] call appends only the changed records to the journal. Once the journal grows past
+ * [compactionPolicy] thresholds, journal is merged into the snapshot on the [compactionExecutor].
+ *
+ * Journal header references the checksum of the snapshot it's based on, so a journal left behind
+ * by an interrupted compaction is ignored on load instead of being replayed on top of the newer snapshot.
+ *
+ * Records are written in the [RecordsFormat] selected by the records files extension setting,
+ * and read in the format they were written. JSON is used by default, binary format is opt-in.
+ * Data in another format, including the file of the other format when the selected file doesn't exist yet,
+ * is rewritten in the selected format on the first load, so that switching the format back and forth keeps records.
+ * The file of the other format is truncated once its records are rewritten.
+ */
 @WorkerThread
 internal open class RecordsFileStorage<R : IndexableRecord>(
     private val dirName: String,
-    fileName: String,
-    private val serializer: RecordsSerializer<R, *, *>,
-    private val dataLoader: DataLoader<ByteArray>
+    private val fileName: String,
+    private val jsonSerializer: RecordsCodec<R>,
+    private val binarySerializer: RecordsCodec<R>,
+    private val dataLoader: DataLoader<ByteArray>,
+    private val compactionPolicy: CompactionPolicy = CompactionPolicy(),
+    private val compactionExecutor: Executor = defaultCompactionExecutor,
 ) : RecordsStorage<R> {
 
+    private val fileExtension: String by lazy {
+        getFileExtension()
+    }
+
+    private val format: RecordsFormat by lazy {
+        RecordsFormat.fromFileExtension(fileExtension)
+    }
+
     private val fullFileName: String by lazy {
-        getFullFileName(fileName)
+        "$fileName$fileExtension"
+    }
+
+    private val journalFileName: String by lazy {
+        getJournalFileName(fullFileName)
+    }
+
+    /**
+     * File written in the other format, records are imported from it when the selected file doesn't exist yet.
+     */
+    private val migrationFileName: String? by lazy {
+        if (fileExtension == format.fileExtension) {
+            val otherFormat = RecordsFormat.values().first { it != format }
+            "$fileName${otherFormat.fileExtension}"
+        } else {
+            null
+        }
+    }
+
+    private val serializer: RecordsCodec<R> by lazy {
+        serializer(format)
+    }
+
+    private val lock = Any()
+
+    // Last persisted state, used to write the snapshot. Maps passed to save() are immutable, so no copy is made
+    private var persisted: Map<String, R> = emptyMap()
+
+    private var journalSize: Int = 0
+    private var journalEntries: Int = 0
+
+    // Checksum of the snapshot file content, referenced by the journal header
+    private var snapshotChecksum: Int = RecordsJournal.snapshotChecksum(ByteArray(0))
+
+    // Incremented every time the snapshot is rewritten, used to discard outdated compactions
+    private var snapshotGeneration: Int = 0
+    private var isCompactionScheduled: Boolean = false
+
+    // Set when the journal can't be safely appended, next save rewrites the snapshot
+    private var isJournalBroken: Boolean = false
+
+    override fun load(): List<R> = load(recentCount = 0) {
+        // recent records aren't needed
+    }
+
+    override fun load(recentCount: Int, onRecentLoaded: (List<R>) -> Unit): List<R> = synchronized(lock) {
+        var snapshotData = dataLoader.load(dirName, fullFileName)
+        var journalData = dataLoader.load(dirName, journalFileName)
+        var isMigrationNeeded = snapshotData.isNotEmpty() && RecordsFormat.detect(snapshotData) != format
+
+        var migrationSourceFileName: String? = null
+        val migrationFileName = migrationFileName
+        if (snapshotData.isEmpty() && journalData.isEmpty() && migrationFileName != null) {
+            snapshotData = dataLoader.load(dirName, migrationFileName)
+            journalData = dataLoader.load(dirName, getJournalFileName(migrationFileName))
+            isMigrationNeeded = snapshotData.isNotEmpty() || journalData.isNotEmpty()
+            if (isMigrationNeeded) {
+                migrationSourceFileName = migrationFileName
+            }
+        }
+
+        val checksum = RecordsJournal.snapshotChecksum(snapshotData)
+
+        // Journal is read after the snapshot, so that errors of the snapshot are reported first
+        val journalBytes = journalData
+        val journal by lazy(LazyThreadSafetyMode.NONE) {
+            readJournal(journalBytes, checksum)
+        }
+
+        val snapshotRecords = serializer(RecordsFormat.detect(snapshotData))
+            .deserialize(snapshotData, recentCount) { snapshotRecent ->
+                if (recentCount > 0) {
+                    onRecentLoaded(recentRecords(snapshotRecent, journal.changes, recentCount))
+                }
+            }
+
+        val records = LinkedHashMap<String, R>()
+        snapshotRecords.forEach {
+            records[it.id] = it
+        }
+
+        journal.changes.forEach { change ->
+            if (change.record != null) {
+                records[change.id] = change.record
+            } else {
+                records.remove(change.id)
+            }
+        }
+
+        persisted = records
+        snapshotChecksum = checksum
+        journalSize = journal.validLength
+        journalEntries = journal.entriesCount
+
+        if (journal.isOutdated) {
+            logw("Records journal $journalFileName is based on an outdated snapshot, journal is ignored")
+            isJournalBroken = true
+        } else if (journal.isTruncated) {
+            logw("Records journal $journalFileName is damaged, ${journal.entriesCount} entries restored")
+            isJournalBroken = true
+        }
+
+        if (isMigrationNeeded) {
+            migrate(records, migrationSourceFileName)
+        }
+
+        logd("Loaded ${records.size} records, replayed ${journal.entriesCount} journal entries")
+        records.values.toList()
+    }
+
+    private fun readJournal(data: ByteArray, snapshotChecksum: Int): Journal<R> {
+        val result = RecordsJournal.read(data)
+        if (result.snapshotChecksum != null && result.snapshotChecksum != snapshotChecksum) {
+            // Snapshot has been rewritten, but the journal hasn't been truncated, all the entries are in the snapshot
+            return Journal(emptyList(), entriesCount = 0, validLength = 0, isTruncated = false, isOutdated = true)
+        }
+
+        val changes = result.entries.flatMap { entry ->
+            when (entry) {
+                is RecordsJournal.Entry.Upsert -> deserialize(entry.payload).map { RecordsStorage.Change(it.id, it) }
+                is RecordsJournal.Entry.Remove -> listOf(RecordsStorage.Change<R>(entry.id, null))
+            }
+        }
+        return Journal(changes, result.entries.size, result.validLength, result.isTruncated, isOutdated = false)
+    }
+
+    /**
+     * Journal entries are newer than any snapshot record, so the recent records are taken
+     * from the end of the journal first and then from the [snapshotRecent] records.
+     */
+    private fun recentRecords(
+        snapshotRecent: List<R>,
+        journalChanges: List<RecordsStorage.Change<R>>,
+        count: Int,
+    ): List<R> {
+        // Null value means that the record has been removed
+        val recent = LinkedHashMap<String, R?>()
+        journalChanges.asReversed().forEach { change ->
+            if (!recent.containsKey(change.id)) {
+                recent[change.id] = change.record
+            }
+        }
+        snapshotRecent.forEach {
+            if (!recent.containsKey(it.id)) {
+                recent[it.id] = it
+            }
+        }
+        return recent.values.asSequence().filterNotNull().take(count).toList()
+    }
+
+    /**
+     * Rewrites [records] in the selected format. Once they are written, the [sourceFileName] file
+     * of the other format and its journal are truncated, so that the outdated records
+     * aren't loaded again when the format is switched back.
+     */
+    @Suppress("TooGenericExceptionCaught")
+    private fun migrate(records: Map<String, R>, sourceFileName: String?) {
+        // Journal belongs to another file, so it's considered broken until the snapshot is rewritten
+        isJournalBroken = true
+        try {
+            writeSnapshot(records)
+            if (sourceFileName != null) {
+                dataLoader.save(dirName, sourceFileName, ByteArray(0))
+                dataLoader.save(dirName, getJournalFileName(sourceFileName), ByteArray(0))
+            }
+            logd("Records migrated to $fullFileName in $format format")
+        } catch (e: Exception) {
+            loge("Unable to migrate records to $fullFileName: ${e.message}")
+        }
     }
 
-    override fun load(): List<R> {
-        return serializer.deserialize(dataLoader.load(dirName, fullFileName))
+    private fun serializer(format: RecordsFormat): RecordsCodec<R> {
+        return when (format) {
+            RecordsFormat.JSON -> jsonSerializer
+            RecordsFormat.BINARY -> binarySerializer
+        }
     }
 
-    override fun save(records: List<R>) {
-        dataLoader.save(dirName, fullFileName, serializer.serialize(records))
+    private fun deserialize(data: ByteArray): List<R> {
+        return serializer(RecordsFormat.detect(data)).deserialize(data)
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    override fun save(records: Map<String, R>, changes: List<RecordsStorage.Change<R>>) {
+        synchronized(lock) {
+            if (isJournalBroken || compactionPolicy.shouldCompactInstead(changes.size, records.size)) {
+                writeSnapshot(records)
+                return
+            }
+
+            if (changes.isEmpty()) {
+                persisted = records
+                return
+            }
+
+            val writer = RecordsJournal.Writer(snapshotChecksum = if (journalSize == 0) snapshotChecksum else null)
+            changes.forEach { change ->
+                if (change.record != null) {
+                    writer.upsert(serializer.serialize(listOf(change.record)))
+                } else {
+                    writer.remove(change.id)
+                }
+            }
+
+            val bytes = writer.toByteArray()
+            try {
+                dataLoader.append(dirName, journalFileName, bytes)
+            } catch (e: Exception) {
+                // Part of the data might have been written, so we can't append anymore
+                isJournalBroken = true
+                throw e
+            }
+
+            persisted = records
+            journalSize += bytes.size
+            journalEntries += writer.entriesCount
+
+            if (!isCompactionScheduled && compactionPolicy.shouldCompact(journalSize, journalEntries, records.size)) {
+                isCompactionScheduled = true
+                val generation = snapshotGeneration
+                compactionExecutor.execute {
+                    compact(generation)
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the snapshot and truncates the journal. Crash between these two writes leaves the journal
+     * that references the previous snapshot, such journal is ignored on load.
+     */
+    private fun writeSnapshot(
+        records: Map<String, R>,
+        data: ByteArray = serializer.serialize(records.values.toList()),
+    ) {
+        dataLoader.save(dirName, fullFileName, data)
+        persisted = records
+        snapshotChecksum = RecordsJournal.snapshotChecksum(data)
+        snapshotGeneration++
+
+        if (journalSize != 0 || isJournalBroken) {
+            dataLoader.save(dirName, journalFileName, ByteArray(0))
+            journalSize = 0
+            journalEntries = 0
+            isJournalBroken = false
+        }
+    }
+
+    @Suppress("TooGenericExceptionCaught")
+    private fun compact(generation: Int) {
+        val snapshot: Map<String, R>
+        val compactedJournalSize: Int
+        synchronized(lock) {
+            if (generation != snapshotGeneration) {
+                isCompactionScheduled = false
+                return
+            }
+            snapshot = persisted
+            compactedJournalSize = journalSize
+        }
+
+        try {
+            // Serialization is the most expensive part, so it's done without blocking the writers
+            val data = serializer.serialize(snapshot.values.toList())
+
+            synchronized(lock) {
+                if (generation != snapshotGeneration || isJournalBroken) {
+                    return
+                }
+
+                val compactedJournalEntries = journalEntries
+                if (journalSize == compactedJournalSize) {
+                    writeSnapshot(snapshot, data)
+                } else {
+                    // Entries have been appended while the snapshot was being serialized. Keeping them
+                    // in the journal would require a header of the new snapshot, and the journal rewrite
+                    // can't be atomic with the snapshot rewrite, so the snapshot is serialized again instead.
+                    writeSnapshot(persisted)
+                }
+
+                logd("Compacted $compactedJournalEntries journal entries of $journalFileName")
+            }
+        } catch (e: Exception) {
+            loge("Unable to compact $journalFileName: ${e.message}")
+        } finally {
+            synchronized(lock) {
+                isCompactionScheduled = false
+            }
+        }
+    }
+
+    private class Journal<R>(
+        val changes: List<RecordsStorage.Change<R>>,
+        val entriesCount: Int,
+        val validLength: Int,
+        val isTruncated: Boolean,
+        val isOutdated: Boolean,
+    )
+
+    /**
+     * @param maxJournalSizeBytes journal size after which it's merged into the snapshot.
+     * @param maxJournalEntriesRatio max ratio of journal entries to the number of stored records.
+     * @param minJournalEntries number of journal entries that never triggers compaction, so that
+     * small collections don't get compacted on every change.
+     */
+    internal data class CompactionPolicy(
+        val maxJournalSizeBytes: Int = DEFAULT_MAX_JOURNAL_SIZE_BYTES,
+        val maxJournalEntriesRatio: Float = DEFAULT_MAX_JOURNAL_ENTRIES_RATIO,
+        val minJournalEntries: Int = DEFAULT_MIN_JOURNAL_ENTRIES,
+    ) {
+
+        fun shouldCompact(journalSize: Int, journalEntries: Int, recordsCount: Int): Boolean {
+            return journalSize > maxJournalSizeBytes || isTooManyEntries(journalEntries, recordsCount)
+        }
+
+        /**
+         * When a single change touches most of the records it's cheaper to rewrite the snapshot right away.
+         */
+        fun shouldCompactInstead(changesCount: Int, recordsCount: Int): Boolean {
+            return isTooManyEntries(changesCount, recordsCount)
+        }
+
+        private fun isTooManyEntries(entries: Int, recordsCount: Int): Boolean {
+            return entries > minJournalEntries && entries > recordsCount * maxJournalEntriesRatio
+        }
+
+        private companion object {
+            const val DEFAULT_MAX_JOURNAL_SIZE_BYTES = 256 * 1024
+            const val DEFAULT_MAX_JOURNAL_ENTRIES_RATIO = 1f
+            const val DEFAULT_MIN_JOURNAL_ENTRIES = 32
+        }
     }
 
     class Favorite(dataLoader: DataLoader<ByteArray>) : RecordsFileStorage<FavoriteRecord>(
         DIR_NAME,
         FAVORITES_FILE_NAME,
         FavoriteRecordsSerializer(),
+        FavoriteRecordsBinarySerializer(),
         dataLoader,
     )
 
@@ -37,6 +393,7 @@ internal open class RecordsFileStorage<R : IndexableRecord>(
         DIR_NAME,
         HISTORY_FILE_NAME,
         HistoryRecordsSerializer(),
+        HistoryRecordsBinarySerializer(),
         dataLoader,
     )
 
@@ -47,19 +404,46 @@ internal open class RecordsFileStorage<R : IndexableRecord>(
         const val HISTORY_FILE_NAME = "search_history"
 
         const val DEFAULT_FILE_EXTENSION = ".bin"
+        const val JOURNAL_FILE_SUFFIX = ".journal"
+
+        // Compactions run one at a time so that they don't compete with each other for the disk
+        val defaultCompactionExecutor: Executor by lazy {
+            SerialExecutorService(SearchExecutorProvider.getDefault().persistenceExecutor)
+        }
+
+        fun getJournalFileName(fileName: String): String = "$fileName$JOURNAL_FILE_SUFFIX"
 
-        private fun getFullFileName(baseName: String): String {
-            val ext = SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
+        private fun getFileExtension(): String {
+            return SettingsServiceFactory.getInstance(SettingsServiceStorageType.PERSISTENT)
                 .get("com.mapbox.search.internal.experimental.records_files_ext")
                 ?.value
                 ?.contents as? String ?: DEFAULT_FILE_EXTENSION
-
-            return "$baseName$ext"
         }
     }
 }
 
 internal interface RecordsStorage<R : IndexableRecord> {
     fun load(): List<R>
-    fun save(records: List<R>)
+
+    /**
+     * Loads records like [load] and reports up to [recentCount] most recently written records,
+     * ordered from the newest to the oldest, to [onRecentLoaded] as soon as they are available.
+     */
+    fun load(recentCount: Int, onRecentLoaded: (List<R>) -> Unit): List<R> {
+        val records = load()
+        onRecentLoaded(records.takeLast(recentCount).asReversed())
+        return records
+    }
+
+    /**
+     * Persists [records], which are the previously loaded or saved records with [changes] applied in order.
+     * The storage may write only the [changes], so [records] must reflect them exactly: an upserted record
+     * keeps its position if it already exists, a new one is added to the end.
+     */
+    fun save(records: Map<String, R>, changes: List<Change<R>>)
+
+    /**
+     * Change of a single record, [record] is null for a removed record.
+     */
+    class Change<R>(val id: String, val record: R?)
 }
@@ -0,0 +1,167 @@
+package com.mapbox.search.record
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.EOFException
+import java.util.zip.CRC32
+
+/**
+ * Append-only log of per-record changes, stored next to the records snapshot file.
+ *
+ * The journal starts with a header ([MAGIC], [VERSION] and checksum of the snapshot the journal is based on)
+ * followed by entries framed as `[operation][payload length][payload][crc32]`. Framing lets us detect
+ * a torn write at the end of the journal (e.g. the process was killed during append) and drop it on load.
+ * Snapshot checksum lets us detect a journal which hasn't been truncated after the snapshot was rewritten.
+ */
+internal object RecordsJournal {
+
+    const val HEADER_SIZE: Int = 12
+
+    private const val MAGIC = 0x4D424A52 // "MBJR"
+    private const val VERSION = 1
+
+    private const val OPERATION_UPSERT: Byte = 1
+    private const val OPERATION_REMOVE: Byte = 2
+
+    // operation + payload length + crc32
+    private const val ENTRY_OVERHEAD = 1 + 4 + 4
+
+    sealed class Entry {
+
+        /**
+         * @param payload record encoded by the storage serializer.
+         */
+        class Upsert(val payload: ByteArray) : Entry()
+
+        class Remove(val id: String) : Entry()
+    }
+
+    /**
+     * @param entries entries that have been successfully read.
+     * @param validLength number of bytes occupied by the header and [entries].
+     * @param isTruncated true if the journal contains trailing bytes that can't be read.
+     * @param snapshotChecksum checksum of the snapshot the journal is based on, null if the journal has no header.
+     */
+    class ReadResult(
+        val entries: List<Entry>,
+        val validLength: Int,
+        val isTruncated: Boolean,
+        val snapshotChecksum: Int?,
+    )
+
+    /**
+     * @param snapshotChecksum checksum of the snapshot the journal is based on, see [snapshotChecksum].
+     * Header is written when it's not null, i.e. when the writer starts a new journal.
+     */
+    class Writer(snapshotChecksum: Int?) {
+
+        private val buffer = ByteArrayOutputStream()
+        private val output = DataOutputStream(buffer)
+
+        var entriesCount: Int = 0
+            private set
+
+        init {
+            if (snapshotChecksum != null) {
+                output.writeInt(MAGIC)
+                output.writeInt(VERSION)
+                output.writeInt(snapshotChecksum)
+            }
+        }
+
+        fun upsert(payload: ByteArray) {
+            writeEntry(OPERATION_UPSERT, payload)
+        }
+
+        fun remove(id: String) {
+            writeEntry(OPERATION_REMOVE, id.toByteArray(Charsets.UTF_8))
+        }
+
+        fun toByteArray(): ByteArray {
+            output.flush()
+            return buffer.toByteArray()
+        }
+
+        private fun writeEntry(operation: Byte, payload: ByteArray) {
+            output.writeByte(operation.toInt())
+            output.writeInt(payload.size)
+            output.write(payload)
+            output.writeInt(checksum(operation, payload))
+            entriesCount++
+        }
+    }
+
+    fun snapshotChecksum(snapshot: ByteArray): Int {
+        return with(CRC32()) {
+            update(snapshot)
+            value.toInt()
+        }
+    }
+
+    /**
+     * Reads entries of the journal. Journal with an unknown or damaged header is reported
+     * as truncated to its very beginning.
+     */
+    fun read(data: ByteArray): ReadResult {
+        if (data.isEmpty()) {
+            return ReadResult(emptyList(), validLength = 0, isTruncated = false, snapshotChecksum = null)
+        }
+
+        val input = DataInputStream(ByteArrayInputStream(data))
+        val snapshotChecksum = try {
+            val magic = input.readInt()
+            val version = input.readInt()
+            if (magic != MAGIC || version != VERSION) {
+                return ReadResult(emptyList(), validLength = 0, isTruncated = true, snapshotChecksum = null)
+            }
+            input.readInt()
+        } catch (e: EOFException) {
+            return ReadResult(emptyList(), validLength = 0, isTruncated = true, snapshotChecksum = null)
+        }
+
+        val entries = mutableListOf<Entry>()
+        var validLength = HEADER_SIZE
+        while (validLength < data.size) {
+            val entry = readEntry(input) ?: break
+            entries.add(entry.first)
+            validLength += entry.second
+        }
+        return ReadResult(entries, validLength, isTruncated = validLength < data.size, snapshotChecksum)
+    }
+
+    private fun readEntry(input: DataInputStream): Pair<Entry, Int>? {
+        return try {
+            val operation = input.readByte()
+            val length = input.readInt()
+            if (length < 0 || length > input.available()) {
+                return null
+            }
+
+            val payload = ByteArray(length)
+            input.readFully(payload)
+
+            if (input.readInt() != checksum(operation, payload)) {
+                return null
+            }
+
+            val entry = when (operation) {
+                OPERATION_UPSERT -> Entry.Upsert(payload)
+                OPERATION_REMOVE -> Entry.Remove(String(payload, Charsets.UTF_8))
+                else -> return null
+            }
+            entry to (ENTRY_OVERHEAD + length)
+        } catch (e: EOFException) {
+            null
+        }
+    }
+
+    private fun checksum(operation: Byte, payload: ByteArray): Int {
+        return with(CRC32()) {
+            update(operation.toInt())
+            update(payload)
+            value.toInt()
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.mapbox.search.utils.collections
+
+/**
+ * Immutable map which keeps insertion order and shares structure with the maps it was derived from,
+ * so that a single change costs O(log32(n)) instead of a copy of the whole map.
+ *
+ * Keys are indexed by a hash array mapped trie (HAMT) that maps a key to its slot in the insertion order index.
+ * The insertion order index is a 32-way trie of entries indexed by slot. Updating a value keeps its slot,
+ * removing an entry leaves an empty slot which is skipped on iteration. Once empty slots outnumber the entries,
+ * the map is rebuilt so that iteration stays proportional to the map size.
+ *
+ * Instances are safe to be shared between threads without synchronization.
+ */
+internal class PersistentOrderedMap<K, V> private constructor(
+    private val keysIndex: Any?,
+    private val order: OrderIndex,
+    private val slotsCount: Int,
+    override val size: Int,
+) : AbstractMap<K, V>() {
+
+    override val entries: Set<Map.Entry<K, V>>
+        get() = object : AbstractSet<Map.Entry<K, V>>() {
+            override val size: Int
+                get() = this@PersistentOrderedMap.size
+
+            override fun iterator(): Iterator<Map.Entry<K, V>> = entriesIterator()
+        }
+
+    override fun get(key: K): V? {
+        val slot = findSlot(key) ?: return null
+        return entryAt(slot).value
+    }
+
+    override fun containsKey(key: K): Boolean = findSlot(key) != null
+
+    override fun isEmpty(): Boolean = size == 0
+
+    fun put(key: K, value: V): PersistentOrderedMap<K, V> {
+        val slot = findSlot(key)
+        return if (slot != null) {
+            if (entryAt(slot).value === value) {
+                this
+            } else {
+                PersistentOrderedMap(keysIndex, order.set(slot, Entry(key, value)), slotsCount, size)
+            }
+        } else {
+            val hash = key.hashCode()
+            PersistentOrderedMap(
+                keysIndex = Hamt.put(keysIndex, hash, key, slotsCount, shift = 0),
+                order = order.set(slotsCount, Entry(key, value)),
+                slotsCount = slotsCount + 1,
+                size = size + 1,
+            )
+        }
+    }
+
+    fun putAll(entries: Iterable<Pair<K, V>>): PersistentOrderedMap<K, V> {
+        var result = this
+        entries.forEach { (key, value) ->
+            result = result.put(key, value)
+        }
+        return result
+    }
+
+    fun remove(key: K): PersistentOrderedMap<K, V> {
+        val slot = findSlot(key) ?: return this
+        if (size == 1) {
+            return empty()
+        }
+
+        val result = PersistentOrderedMap<K, V>(
+            keysIndex = Hamt.remove(keysIndex, key.hashCode(), key, shift = 0),
+            order = order.set(slot, null),
+            slotsCount = slotsCount,
+            size = size - 1,
+        )
+        return if (result.slotsCount > MIN_SLOTS_TO_REBUILD && result.slotsCount > result.size * 2) {
+            result.rebuild()
+        } else {
+            result
+        }
+    }
+
+    fun builder(): Builder<K, V> = Builder(this)
+
+    private fun findSlot(key: K): Int? = Hamt.find(keysIndex, key.hashCode(), key, shift = 0)
+
+    @Suppress("UNCHECKED_CAST")
+    private fun entryAt(slot: Int): Entry<K, V> = order.get(slot) as Entry<K, V>
+
+    private fun rebuild(): PersistentOrderedMap<K, V> {
+        var result = empty<K, V>()
+        entriesIterator().forEach { (key, value) ->
+            result = result.put(key, value)
+        }
+        return result
+    }
+
+    private fun entriesIterator(): Iterator<Map.Entry<K, V>> = object : Iterator<Map.Entry<K, V>> {
+
+        private var leaf: Array<Any?>? = null
+        private var nextSlot = 0
+        private var nextEntry: Entry<K, V>? = advance()
+
+        override fun hasNext(): Boolean = nextEntry != null
+
+        override fun next(): Map.Entry<K, V> {
+            val result = nextEntry ?: throw NoSuchElementException()
+            nextEntry = advance()
+            return result
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        private fun advance(): Entry<K, V>? {
+            while (nextSlot < slotsCount) {
+                val slot = nextSlot++
+                val index = slot and OrderIndex.MASK
+                if (index == 0 || leaf == null) {
+                    leaf = order.leafFor(slot)
+                }
+                val entry = leaf?.get(index)
+                if (entry != null) {
+                    return entry as Entry<K, V>
+                }
+            }
+            return null
+        }
+    }
+
+    private class Entry<K, V>(override val key: K, override val value: V) : Map.Entry<K, V> {
+
+        override fun equals(other: Any?): Boolean {
+            return other is Map.Entry<*, *> && other.key == key && other.value == value
+        }
+
+        override fun hashCode(): Int = key.hashCode() xor value.hashCode()
+
+        override fun toString(): String = "$key=$value"
+    }
+
+    /**
+     * Mutable view used to apply a sequence of changes to a [PersistentOrderedMap].
+     * Every change creates a new version of the map, the source map is never modified.
+     */
+    internal class Builder<K, V>(private var map: PersistentOrderedMap<K, V>) : AbstractMutableMap<K, V>() {
+
+        override val size: Int
+            get() = map.size
+
+        override val entries: MutableSet<MutableMap.MutableEntry<K, V>>
+            get() = object : AbstractMutableSet<MutableMap.MutableEntry<K, V>>() {
+                override val size: Int
+                    get() = map.size
+
+                override fun add(element: MutableMap.MutableEntry<K, V>): Boolean {
+                    throw UnsupportedOperationException("Use put() instead")
+                }
+
+                override fun iterator(): MutableIterator<MutableMap.MutableEntry<K, V>> {
+                    val iterator = map.entriesIterator()
+                    return object : MutableIterator<MutableMap.MutableEntry<K, V>> {
+
+                        private var current: K? = null
+
+                        override fun hasNext(): Boolean = iterator.hasNext()
+
+                        override fun next(): MutableMap.MutableEntry<K, V> {
+                            val entry = iterator.next()
+                            current = entry.key
+                            return BuilderEntry(entry.key, entry.value)
+                        }
+
+                        override fun remove() {
+                            @Suppress("UNCHECKED_CAST")
+                            this@Builder.remove(current as K)
+                        }
+                    }
+                }
+            }
+
+        override fun get(key: K): V? = map[key]
+
+        override fun containsKey(key: K): Boolean = map.containsKey(key)
+
+        override fun put(key: K, value: V): V? {
+            val previous = map[key]
+            map = map.put(key, value)
+            return previous
+        }
+
+        override fun remove(key: K): V? {
+            val previous = map[key]
+            map = map.remove(key)
+            return previous
+        }
+
+        override fun clear() {
+            map = empty()
+        }
+
+        fun build(): PersistentOrderedMap<K, V> = map
+
+        private inner class BuilderEntry(override val key: K, private var entryValue: V) : MutableMap.MutableEntry<K, V> {
+
+            override val value: V
+                get() = entryValue
+
+            override fun setValue(newValue: V): V {
+                val previous = entryValue
+                put(key, newValue)
+                entryValue = newValue
+                return previous
+            }
+        }
+    }
+
+    companion object {
+
+        private const val MIN_SLOTS_TO_REBUILD = 32
+
+        private val EMPTY = PersistentOrderedMap<Any?, Any?>(null, OrderIndex.EMPTY, 0, 0)
+
+        @Suppress("UNCHECKED_CAST")
+        fun <K, V> empty(): PersistentOrderedMap<K, V> = EMPTY as PersistentOrderedMap<K, V>
+
+        fun <K, V> of(entries: Iterable<Pair<K, V>>): PersistentOrderedMap<K, V> = empty<K, V>().putAll(entries)
+    }
+}
+
+/**
+ * Persistent 32-way trie indexed by slot. Leaves hold map entries, missing nodes are treated as empty.
+ */
+private class OrderIndex(private val root: Array<Any?>, private val shift: Int) {
+
+    private val capacity: Int
+        get() = 1 shl (shift + BITS)
+
+    fun get(slot: Int): Any? = leafFor(slot)?.get(slot and MASK)
+
+    @Suppress("UNCHECKED_CAST")
+    fun leafFor(slot: Int): Array<Any?>? {
+        if (slot >= capacity) {
+            return null
+        }
+
+        var node: Array<Any?> = root
+        var level = shift
+        while (level > 0) {
+            node = node[(slot ushr level) and MASK] as? Array<Any?> ?: return null
+            level -= BITS
+        }
+        return node
+    }
+
+    fun set(slot: Int, value: Any?): OrderIndex {
+        var newRoot = root
+        var newShift = shift
+        while (slot >= 1 shl (newShift + BITS)) {
+            newRoot = arrayOfNulls<Any?>(WIDTH).also { it[0] = newRoot }
+            newShift += BITS
+        }
+        return OrderIndex(set(newRoot, newShift, slot, value), newShift)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun set(node: Array<Any?>, level: Int, slot: Int, value: Any?): Array<Any?> {
+        val copy = node.copyOf()
+        val index = (slot ushr level) and MASK
+        if (level == 0) {
+            copy[index] = value
+        } else {
+            val child = node[index] as? Array<Any?> ?: arrayOfNulls(WIDTH)
+            copy[index] = set(child, level - BITS, slot, value)
+        }
+        return copy
+    }
+
+    companion object {
+        const val BITS = 5
+        const val WIDTH = 1 shl BITS
+        const val MASK = WIDTH - 1
+
+        val EMPTY = OrderIndex(arrayOfNulls(WIDTH), 0)
+    }
+}
+
+/**
+ * Hash array mapped trie which maps keys to slots. A node is either a [Hamt.Leaf],
+ * a [Hamt.BitmapNode] or a [Hamt.CollisionNode] for keys with equal hash codes.
+ */
+private object Hamt {
+
+    private const val BITS = 5
+    private const val MASK = (1 shl BITS) - 1
+    private const val MAX_SHIFT = 30
+
+    class Leaf(val hash: Int, val key: Any?, val slot: Int)
+
+    class BitmapNode(val bitmap: Int, val children: Array<Any>)
+
+    class CollisionNode(val hash: Int, val leaves: Array<Leaf>)
+
+    fun find(node: Any?, hash: Int, key: Any?, shift: Int): Int? {
+        var current = node
+        var level = shift
+        while (true) {
+            when (current) {
+                null -> return null
+                is Leaf -> return if (current.hash == hash && current.key == key) current.slot else null
+                is CollisionNode -> {
+                    return if (current.hash == hash) current.leaves.firstOrNull { it.key == key }?.slot else null
+                }
+                is BitmapNode -> {
+                    val bit = bit(hash, level)
+                    if (current.bitmap and bit == 0) {
+                        return null
+                    }
+                    current = current.children[index(current.bitmap, bit)]
+                    level += BITS
+                }
+                else -> error("Unknown node: $current")
+            }
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    fun put(node: Any?, hash: Int, key: Any?, slot: Int, shift: Int): Any {
+        return when (node) {
+            null -> Leaf(hash, key, slot)
+            is Leaf -> {
+                if (node.hash == hash && node.key == key) {
+                    Leaf(hash, key, slot)
+                } else {
+                    merge(node, node.hash, Leaf(hash, key, slot), hash, shift)
+                }
+            }
+            is CollisionNode -> {
+                if (node.hash == hash) {
+                    val index = node.leaves.indexOfFirst { it.key == key }
+                    val leaves = if (index >= 0) {
+                        node.leaves.copyOf().also { it[index] = Leaf(hash, key, slot) }
+                    } else {
+                        node.leaves + Leaf(hash, key, slot)
+                    }
+                    CollisionNode(hash, leaves)
+                } else {
+                    merge(node, node.hash, Leaf(hash, key, slot), hash, shift)
+                }
+            }
+            is BitmapNode -> {
+                val bit = bit(hash, shift)
+                val index = index(node.bitmap, bit)
+                if (node.bitmap and bit == 0) {
+                    val children = arrayOfNulls<Any>(node.children.size + 1)
+                    System.arraycopy(node.children, 0, children, 0, index)
+                    children[index] = Leaf(hash, key, slot)
+                    System.arraycopy(node.children, index, children, index + 1, node.children.size - index)
+                    BitmapNode(node.bitmap or bit, children as Array<Any>)
+                } else {
+                    val children = node.children.copyOf()
+                    children[index] = put(node.children[index], hash, key, slot, shift + BITS)
+                    BitmapNode(node.bitmap, children)
+                }
+            }
+            else -> error("Unknown node: $node")
+        }
+    }
+
+    /**
+     * @return updated node, a single leaf if the node contains only one leaf after removal, or null if it's empty.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun remove(node: Any?, hash: Int, key: Any?, shift: Int): Any? {
+        return when (node) {
+            null -> null
+            is Leaf -> if (node.hash == hash && node.key == key) null else node
+            is CollisionNode -> {
+                if (node.hash != hash) {
+                    return node
+                }
+                val leaves = node.leaves.filter { it.key != key }
+                when (leaves.size) {
+                    node.leaves.size -> node
+                    1 -> leaves.first()
+                    else -> CollisionNode(hash, leaves.toTypedArray())
+                }
+            }
+            is BitmapNode -> {
+                val bit = bit(hash, shift)
+                if (node.bitmap and bit == 0) {
+                    return node
+                }
+
+                val index = index(node.bitmap, bit)
+                val child = node.children[index]
+                val newChild = remove(child, hash, key, shift + BITS)
+                when {
+                    newChild === child -> node
+                    newChild != null -> {
+                        if (node.children.size == 1 && newChild !is BitmapNode) {
+                            newChild
+                        } else {
+                            BitmapNode(node.bitmap, node.children.copyOf().also { it[index] = newChild })
+                        }
+                    }
+                    node.children.size == 1 -> null
+                    node.children.size == 2 && node.children[1 - index] !is BitmapNode -> node.children[1 - index]
+                    else -> {
+                        val children = arrayOfNulls<Any>(node.children.size - 1)
+                        System.arraycopy(node.children, 0, children, 0, index)
+                        System.arraycopy(node.children, index + 1, children, index, node.children.size - index - 1)
+                        BitmapNode(node.bitmap and bit.inv(), children as Array<Any>)
+                    }
+                }
+            }
+            else -> error("Unknown node: $node")
+        }
+    }
+
+    private fun merge(node1: Any, hash1: Int, node2: Leaf, hash2: Int, shift: Int): Any {
+        if (hash1 == hash2) {
+            val leaves = if (node1 is CollisionNode) node1.leaves + node2 else arrayOf(node1 as Leaf, node2)
+            return CollisionNode(hash1, leaves)
+        }
+
+        val bit1 = bit(hash1, shift)
+        val bit2 = bit(hash2, shift)
+        return if (bit1 == bit2) {
+            BitmapNode(bit1, arrayOf(merge(node1, hash1, node2, hash2, shift + BITS)))
+        } else if (Integer.compareUnsigned(bit1, bit2) < 0) {
+            BitmapNode(bit1 or bit2, arrayOf(node1, node2))
+        } else {
+            BitmapNode(bit1 or bit2, arrayOf(node2, node1))
+        }
+    }
+
+    private fun bit(hash: Int, shift: Int): Int {
+        check(shift <= MAX_SHIFT) { "Hash trie is too deep" }
+        return 1 shl ((hash ushr shift) and MASK)
+    }
+
+    private fun index(bitmap: Int, bit: Int): Int = Integer.bitCount(bitmap and (bit - 1))
+}
@@ -8,4 +8,6 @@ internal interface DataLoader<T> {
     fun load(relativeDir: String, fileName: String): T
 
     fun save(relativeDir: String, fileName: String, data: T)
+
+    fun append(relativeDir: String, fileName: String, data: T)
 }
@@ -47,4 +47,17 @@ internal class InternalDataLoader(
             throw t
         }
     }
+
+    override fun append(relativeDir: String, fileName: String, data: ByteArray) {
+        logd("Appending to file $relativeDir/$fileName")
+
+        val dir = fileHelper.getAppRelativeDir(context, relativeDir)
+        val file = fileHelper.createFile(dir, fileName)
+
+        FileOutputStream(file, true).use { fos ->
+            fos.write(data)
+            fos.flush()
+            fos.fd.sync()
+        }
+    }
 }
@@ -0,0 +1,374 @@
+package com.mapbox.search.utils.serialization
+
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.mapbox.geojson.Point
+import com.mapbox.search.SearchResultMetadata
+import com.mapbox.search.common.RoutablePoint
+import com.mapbox.search.common.SearchAddressCountry
+import com.mapbox.search.common.SearchAddressRegion
+import com.mapbox.search.result.SearchAddress
+import java.nio.ByteBuffer
+
+/**
+ * Compact binary alternative to the JSON based [RecordsSerializer].
+ *
+ * Records are written field by field right from the record objects, without intermediate DAO objects.
+ * Values which are likely to repeat across records (address components, categories, types, icons)
+ * are interned: the first occurrence is written inline, the following ones are references to it.
+ * Metadata has a deep and frequently changing structure, so it's stored as nested JSON of [SearchResultMetadataDAO].
+ *
+ * Records are stored from the newest to the oldest, so that the most recent records can be
+ * used before the whole file is decoded.
+ */
+internal abstract class BinaryRecordsSerializer<DATA> : RecordsCodec<DATA> {
+
+    private val gson: Gson = with(GsonBuilder()) {
+        registerTypeAdapter(Point::class.java, PointTypeAdapter().nullSafe())
+        create()
+    }
+
+    protected abstract fun BinaryRecordsWriter.writeRecord(record: DATA)
+    protected abstract fun BinaryRecordsReader.readRecord(): DATA
+
+    override fun serialize(records: List<DATA>): ByteArray {
+        val writer = BinaryRecordsWriter(HEADER_SIZE + records.size * ESTIMATED_RECORD_SIZE)
+        writer.writeInt(MAGIC)
+        writer.writeByte(CURRENT_VERSION_DATA)
+        writer.writeVarInt(records.size)
+        records.asReversed().forEach { writer.writeRecord(it) }
+        return writer.toByteArray()
+    }
+
+    override fun deserialize(data: ByteArray): List<DATA> = decode(data, recentCount = 0, onRecentDecoded = null)
+
+    override fun deserialize(
+        data: ByteArray,
+        recentCount: Int,
+        onRecentDecoded: (List<DATA>) -> Unit
+    ): List<DATA> = decode(data, recentCount, onRecentDecoded)
+
+    private fun decode(data: ByteArray, recentCount: Int, onRecentDecoded: ((List<DATA>) -> Unit)?): List<DATA> {
+        if (data.isEmpty()) {
+            onRecentDecoded?.invoke(emptyList())
+            return emptyList()
+        }
+
+        val reader = BinaryRecordsReader(data)
+        check(reader.readInt() == MAGIC) { "Unknown records data format" }
+
+        val version = reader.readByte()
+        if (version != CURRENT_VERSION_DATA) {
+            throw IllegalStateException("Unsupported data version $version")
+        }
+
+        val count = reader.readVarInt()
+        val records = ArrayList<DATA>(count)
+        var isRecentReported = onRecentDecoded == null
+        repeat(count) {
+            if (!isRecentReported && records.size == recentCount) {
+                onRecentDecoded?.invoke(records.toList())
+                isRecentReported = true
+            }
+            records.add(reader.readRecord())
+        }
+
+        records.reverse()
+
+        if (!isRecentReported) {
+            onRecentDecoded?.invoke(records.takeLast(recentCount).asReversed())
+        }
+        return records
+    }
+
+    protected fun BinaryRecordsWriter.writePoint(point: Point) {
+        writeDouble(point.longitude())
+        writeDouble(point.latitude())
+    }
+
+    protected fun BinaryRecordsReader.readPoint(): Point {
+        return Point.fromLngLat(readDouble(), readDouble())
+    }
+
+    protected fun BinaryRecordsWriter.writeType(type: String) {
+        writeInternedString(SearchResultTypeDAO.create(type).name)
+    }
+
+    protected fun BinaryRecordsReader.readType(): String {
+        return SearchResultTypeDAO.valueOf(requireNotNull(readString())).createData()
+    }
+
+    protected fun BinaryRecordsWriter.writeCategories(categories: List<String>?) {
+        writeNullableCount(categories?.size)
+        categories?.forEach { writeInternedString(it) }
+    }
+
+    protected fun BinaryRecordsReader.readCategories(): List<String>? {
+        val count = readNullableCount() ?: return null
+        return List(count) { requireNotNull(readString()) }
+    }
+
+    protected fun BinaryRecordsWriter.writeRoutablePoints(routablePoints: List<RoutablePoint>?) {
+        writeNullableCount(routablePoints?.size)
+        routablePoints?.forEach {
+            writePoint(it.point)
+            writeInternedString(it.name)
+        }
+    }
+
+    protected fun BinaryRecordsReader.readRoutablePoints(): List<RoutablePoint>? {
+        val count = readNullableCount() ?: return null
+        return List(count) {
+            RoutablePoint(point = readPoint(), name = requireNotNull(readString()))
+        }
+    }
+
+    protected fun BinaryRecordsWriter.writeAddress(address: SearchAddress?) {
+        writeBoolean(address != null)
+        address ?: return
+
+        with(address) {
+            writeInternedString(houseNumber)
+            writeInternedString(street)
+            writeInternedString(neighborhood)
+            writeInternedString(locality)
+            writeInternedString(postcode)
+            writeInternedString(place)
+            writeInternedString(district)
+            writeInternedString(region)
+            writeInternedString(country)
+
+            writeBoolean(regionInfo != null)
+            regionInfo?.let {
+                writeInternedString(it.name)
+                writeInternedString(it.code)
+                writeInternedString(it.codeFull)
+            }
+
+            writeBoolean(countryInfo != null)
+            countryInfo?.let {
+                writeInternedString(it.name)
+                writeInternedString(it.isoCodeAlpha2)
+                writeInternedString(it.isoCodeAlpha3)
+            }
+        }
+    }
+
+    protected fun BinaryRecordsReader.readAddress(): SearchAddress? {
+        if (!readBoolean()) {
+            return null
+        }
+
+        return SearchAddress(
+            houseNumber = readString(),
+            street = readString(),
+            neighborhood = readString(),
+            locality = readString(),
+            postcode = readString(),
+            place = readString(),
+            district = readString(),
+            region = readString(),
+            country = readString(),
+            regionInfo = if (readBoolean()) {
+                SearchAddressRegion(
+                    name = requireNotNull(readString()),
+                    code = readString(),
+                    codeFull = readString(),
+                )
+            } else {
+                null
+            },
+            countryInfo = if (readBoolean()) {
+                SearchAddressCountry(
+                    name = requireNotNull(readString()),
+                    isoCodeAlpha2 = readString(),
+                    isoCodeAlpha3 = readString(),
+                )
+            } else {
+                null
+            },
+        )
+    }
+
+    protected fun BinaryRecordsWriter.writeMetadata(metadata: SearchResultMetadata?) {
+        writeString(SearchResultMetadataDAO.create(metadata)?.let { gson.toJson(it) })
+    }
+
+    protected fun BinaryRecordsReader.readMetadata(): SearchResultMetadata? {
+        val json = readString() ?: return null
+        return gson.fromJson(json, SearchResultMetadataDAO::class.java)?.createData()
+    }
+
+    private fun BinaryRecordsWriter.writeNullableCount(count: Int?) {
+        writeVarInt(if (count == null) 0 else count + 1)
+    }
+
+    private fun BinaryRecordsReader.readNullableCount(): Int? {
+        val value = readVarInt()
+        return if (value == 0) null else value - 1
+    }
+
+    companion object {
+
+        private const val MAGIC = 0x4D425242 // "MBRB"
+        private const val CURRENT_VERSION_DATA = 1
+
+        private const val HEADER_SIZE = 4 + 1 + 5
+        private const val ESTIMATED_RECORD_SIZE = 128
+
+        fun isBinaryData(data: ByteArray): Boolean {
+            return data.size >= Int.SIZE_BYTES && ByteBuffer.wrap(data).int == MAGIC
+        }
+    }
+}
+
+/**
+ * Writes primitives and strings to a growing [ByteBuffer].
+ *
+ * Strings are prefixed with a tag: `0` for null, `1` for an inline string, `2` for an inline string
+ * that is added to the interned strings table and `3 + index` for a reference to the table.
+ */
+internal class BinaryRecordsWriter(initialCapacity: Int) {
+
+    private var buffer: ByteBuffer = ByteBuffer.allocate(initialCapacity.coerceAtLeast(MIN_CAPACITY))
+    private val internedStrings = HashMap<String, Int>()
+
+    fun writeByte(value: Int) {
+        ensureCapacity(1)
+        buffer.put(value.toByte())
+    }
+
+    fun writeBoolean(value: Boolean) {
+        writeByte(if (value) 1 else 0)
+    }
+
+    fun writeInt(value: Int) {
+        ensureCapacity(Int.SIZE_BYTES)
+        buffer.putInt(value)
+    }
+
+    fun writeLong(value: Long) {
+        ensureCapacity(Long.SIZE_BYTES)
+        buffer.putLong(value)
+    }
+
+    fun writeDouble(value: Double) {
+        ensureCapacity(Double.SIZE_BYTES)
+        buffer.putDouble(value)
+    }
+
+    fun writeVarInt(value: Int) {
+        ensureCapacity(MAX_VAR_INT_SIZE)
+        var remaining = value
+        while (remaining and VAR_INT_VALUE_MASK.inv() != 0) {
+            buffer.put(((remaining and VAR_INT_VALUE_MASK) or VAR_INT_CONTINUATION_BIT).toByte())
+            remaining = remaining ushr VAR_INT_SHIFT
+        }
+        buffer.put(remaining.toByte())
+    }
+
+    fun writeString(value: String?) {
+        if (value == null) {
+            writeVarInt(TAG_NULL)
+        } else {
+            writeVarInt(TAG_INLINE)
+            writeStringBytes(value)
+        }
+    }
+
+    fun writeInternedString(value: String?) {
+        if (value == null) {
+            writeVarInt(TAG_NULL)
+            return
+        }
+
+        val index = internedStrings[value]
+        if (index != null) {
+            writeVarInt(TAG_FIRST_REFERENCE + index)
+        } else {
+            internedStrings[value] = internedStrings.size
+            writeVarInt(TAG_INTERNED)
+            writeStringBytes(value)
+        }
+    }
+
+    fun toByteArray(): ByteArray = buffer.array().copyOf(buffer.position())
+
+    private fun writeStringBytes(value: String) {
+        val bytes = value.toByteArray(Charsets.UTF_8)
+        writeVarInt(bytes.size)
+        ensureCapacity(bytes.size)
+        buffer.put(bytes)
+    }
+
+    private fun ensureCapacity(bytes: Int) {
+        if (buffer.remaining() < bytes) {
+            val newCapacity = maxOf(buffer.capacity() * 2, buffer.position() + bytes)
+            val newBuffer = ByteBuffer.allocate(newCapacity)
+            newBuffer.put(buffer.array(), 0, buffer.position())
+            buffer = newBuffer
+        }
+    }
+
+    internal companion object {
+        const val TAG_NULL = 0
+        const val TAG_INLINE = 1
+        const val TAG_INTERNED = 2
+        const val TAG_FIRST_REFERENCE = 3
+
+        const val VAR_INT_VALUE_MASK = 0x7F
+        const val VAR_INT_CONTINUATION_BIT = 0x80
+        const val VAR_INT_SHIFT = 7
+
+        private const val MAX_VAR_INT_SIZE = 5
+        private const val MIN_CAPACITY = 64
+    }
+}
+
+/**
+ * Reads data written by [BinaryRecordsWriter].
+ */
+internal class BinaryRecordsReader(private val data: ByteArray) {
+
+    private val buffer: ByteBuffer = ByteBuffer.wrap(data)
+    private val internedStrings = ArrayList<String>()
+
+    fun readByte(): Int = buffer.get().toInt()
+
+    fun readBoolean(): Boolean = readByte() != 0
+
+    fun readInt(): Int = buffer.int
+
+    fun readLong(): Long = buffer.long
+
+    fun readDouble(): Double = buffer.double
+
+    fun readVarInt(): Int {
+        var result = 0
+        var shift = 0
+        while (true) {
+            val byte = buffer.get().toInt()
+            result = result or ((byte and BinaryRecordsWriter.VAR_INT_VALUE_MASK) shl shift)
+            if (byte and BinaryRecordsWriter.VAR_INT_CONTINUATION_BIT == 0) {
+                return result
+            }
+            shift += BinaryRecordsWriter.VAR_INT_SHIFT
+        }
+    }
+
+    fun readString(): String? {
+        return when (val tag = readVarInt()) {
+            BinaryRecordsWriter.TAG_NULL -> null
+            BinaryRecordsWriter.TAG_INLINE -> readStringBytes()
+            BinaryRecordsWriter.TAG_INTERNED -> readStringBytes().also { internedStrings.add(it) }
+            else -> internedStrings[tag - BinaryRecordsWriter.TAG_FIRST_REFERENCE]
+        }
+    }
+
+    private fun readStringBytes(): String {
+        val length = readVarInt()
+        val value = String(data, buffer.position(), length, Charsets.UTF_8)
+        buffer.position(buffer.position() + length)
+        return value
+    }
+}
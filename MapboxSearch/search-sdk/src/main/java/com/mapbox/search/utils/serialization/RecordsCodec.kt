@@ -0,0 +1,24 @@
+package com.mapbox.search.utils.serialization
+
+/**
+ * Converts records to a persistable representation and back.
+ */
+internal interface RecordsCodec<DATA> {
+
+    fun serialize(records: List<DATA>): ByteArray
+
+    fun deserialize(data: ByteArray): List<DATA>
+
+    /**
+     * Deserializes records like [deserialize] and reports up to [recentCount] most recently added records,
+     * ordered from the newest to the oldest, to [onRecentDecoded]. Formats that store the newest records first
+     * report them before the rest of the data is decoded, others report them once all the records are decoded.
+     *
+     * [onRecentDecoded] is invoked exactly once, unless deserialization fails.
+     */
+    fun deserialize(data: ByteArray, recentCount: Int, onRecentDecoded: (List<DATA>) -> Unit): List<DATA> {
+        val records = deserialize(data)
+        onRecentDecoded(records.takeLast(recentCount).asReversed())
+        return records
+    }
+}
@@ -0,0 +1,29 @@
+package com.mapbox.search.utils.serialization
+
+/**
+ * Format of the persisted records files.
+ */
+internal enum class RecordsFormat(val fileExtension: String) {
+
+    JSON(".bin"),
+    BINARY(".records");
+
+    companion object {
+
+        /**
+         * [BINARY] format is opt-in and is selected with the `.records` extension, any other extension,
+         * including the default `.bin` one, keeps the [JSON] format readable by previous SDK versions.
+         */
+        fun fromFileExtension(fileExtension: String): RecordsFormat {
+            return if (fileExtension == BINARY.fileExtension) BINARY else JSON
+        }
+
+        /**
+         * Detects format of the previously written [data], regardless of the file it was read from.
+         * Files written in the JSON format have the `.bin` extension by default.
+         */
+        fun detect(data: ByteArray): RecordsFormat {
+            return if (BinaryRecordsSerializer.isBinaryData(data)) BINARY else JSON
+        }
+    }
+}
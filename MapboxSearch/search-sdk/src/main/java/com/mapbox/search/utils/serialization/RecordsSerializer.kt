@@ -5,7 +5,8 @@ import com.google.gson.GsonBuilder
 import com.mapbox.geojson.Point
 import com.mapbox.search.base.logger.logw
 
-internal abstract class RecordsSerializer<DATA, DAO : DataAccessObject<DATA>, RECORDS : RecordsSerializer.RecordsData<DAO>> {
+internal abstract class RecordsSerializer<DATA, DAO : DataAccessObject<DATA>, RECORDS : RecordsSerializer.RecordsData<DAO>> :
+    RecordsCodec<DATA> {
 
     protected open val gson: Gson = with(GsonBuilder()) {
         registerTypeAdapter(Point::class.java, PointTypeAdapter().nullSafe())
@@ -17,12 +18,14 @@ internal abstract class RecordsSerializer<DATA, DAO : DataAccessObject<DATA>, RE
     protected abstract fun createRecord(records: List<DATA>): RECORDS
     protected abstract fun restoreRecord(json: String): RECORDS
 
-    fun serialize(records: List<DATA>): ByteArray {
+    override fun serialize(records: List<DATA>): ByteArray {
         val data = createRecord(records)
         return gson.toJson(data).toByteArray(Charsets.UTF_8)
     }
 
-    fun deserialize(data: ByteArray, skipIncorrectEntries: Boolean = true): List<DATA> {
+    override fun deserialize(data: ByteArray): List<DATA> = deserialize(data, skipIncorrectEntries = true)
+
+    fun deserialize(data: ByteArray, skipIncorrectEntries: Boolean): List<DATA> {
         val json = String(data, Charsets.UTF_8)
         val recordsData = restoreRecord(json)
         if (recordsData.version != actualDataVersion) {
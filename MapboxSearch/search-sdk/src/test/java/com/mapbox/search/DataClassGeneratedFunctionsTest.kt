@@ -44,6 +44,9 @@ internal class DataClassGeneratedFunctionsTest {
             SearchOptions::class,
             NavigationProfile::class,
             SearchNavigationOptions::class,
+            SearchSuggestionsCacheSettings::class,
+            SearchSuggestionsCacheStatistics::class,
+            SearchPrefetchSettings::class,
             RouteOptions::class,
             RouteOptions.Deviation.SarType::class,
             RouteOptions.Deviation.Time::class,
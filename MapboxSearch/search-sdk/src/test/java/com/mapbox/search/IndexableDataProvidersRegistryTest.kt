@@ -3,6 +3,8 @@ package com.mapbox.search
 import com.mapbox.search.base.core.CoreSearchEngineInterface
 import com.mapbox.search.base.logger.reinitializeLogImpl
 import com.mapbox.search.base.logger.resetLogImpl
+import com.mapbox.search.base.record.BaseIndexableRecord
+import com.mapbox.search.base.record.IndexableRecordResolver
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
@@ -13,7 +15,11 @@ import com.mapbox.search.record.DataProviderEngineRegistrationService
 import com.mapbox.search.record.HistoryRecord
 import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableDataProviderEngineImpl
+import com.mapbox.search.record.LocalDataProviderImpl
+import com.mapbox.search.record.mapToBase
+import com.mapbox.search.tests_support.createTestHistoryRecord
 import com.mapbox.search.tests_support.record.TestDataProvider
+import com.mapbox.search.tests_support.record.upsertAllBlocking
 import com.mapbox.test.dsl.TestCase
 import io.mockk.every
 import io.mockk.mockk
@@ -456,6 +462,106 @@ internal class IndexableDataProvidersRegistryTest {
         }
     }
 
+    @TestFactory
+    fun `Check user records resolution`() = TestCase {
+        Given("IndexableDataProvidersRegistry with preregistered data provider") {
+            mockDataProviderRegistration()
+            registry.preregister(dataProvider1, TestExecutor(), mockk(relaxed = true))
+
+            val record1 = createTestHistoryRecord(id = "test-id-1")
+            val record2 = createTestHistoryRecord(id = "test-id-2")
+            dataProvider1.upsertAllBlocking(listOf(record1, record2), TestExecutor())
+
+            val resolver = registry as IndexableRecordResolver
+
+            When("Records of registered and unknown data providers resolved") {
+                val results = mutableListOf<Map<String, Result<Map<String, BaseIndexableRecord>>>>()
+
+                val task = resolver.resolveAll(
+                    mapOf(
+                        dataProvider1.dataProviderName to listOf("test-id-2", "unknown-id", "test-id-1"),
+                        "Unknown data provider" to listOf("test-id-1"),
+                    ),
+                    TestExecutor(),
+                ) {
+                    results.add(it)
+                }
+
+                Then("Task completes", true, task.isDone)
+                Then("Results provided once", 1, results.size)
+                Then(
+                    "Found records provided",
+                    mapOf("test-id-2" to record2.mapToBase(), "test-id-1" to record1.mapToBase()),
+                    results.first()[dataProvider1.dataProviderName]?.getOrNull()
+                )
+                Then(
+                    "Unknown data provider error provided",
+                    true,
+                    results.first()["Unknown data provider"]?.isFailure
+                )
+                VerifyOnce("Records requested in a single operation") {
+                    (dataProvider1 as LocalDataProviderImpl<HistoryRecord>).getAll(
+                        listOf("test-id-2", "unknown-id", "test-id-1"),
+                        any(),
+                        any()
+                    )
+                }
+                VerifyNo("Records are not requested one by one") {
+                    dataProvider1.get(any(), any(), any())
+                }
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check custom data provider records resolution`() = TestCase {
+        Given("IndexableDataProvidersRegistry with preregistered custom data provider") {
+            val record1 = createTestHistoryRecord(id = "test-id-1")
+            val record2 = createTestHistoryRecord(id = "test-id-2")
+            val records = listOf(record1, record2).associateBy { it.id }
+
+            val customDataProvider = mockk<IndexableDataProvider<HistoryRecord>>()
+            every { customDataProvider.dataProviderName } returns "Custom data provider"
+            val idSlot = slot<String>()
+            val callbackSlot = slot<CompletionCallback<in HistoryRecord?>>()
+            every { customDataProvider.get(capture(idSlot), any(), capture(callbackSlot)) } answers {
+                callbackSlot.captured.onComplete(records[idSlot.captured])
+                AsyncOperationTaskImpl.COMPLETED
+            }
+
+            mockDataProviderRegistration(dataProvider = customDataProvider)
+            registry.preregister(customDataProvider, TestExecutor(), mockk(relaxed = true))
+
+            val resolver = registry as IndexableRecordResolver
+
+            When("Records of the custom data provider resolved") {
+                val results = mutableListOf<Map<String, Result<Map<String, BaseIndexableRecord>>>>()
+
+                val task = resolver.resolveAll(
+                    mapOf(customDataProvider.dataProviderName to listOf("test-id-2", "unknown-id", "test-id-1")),
+                    TestExecutor(),
+                ) {
+                    results.add(it)
+                }
+
+                Then("Task completes", true, task.isDone)
+                Then(
+                    "Found records provided",
+                    mapOf("test-id-2" to record2.mapToBase(), "test-id-1" to record1.mapToBase()),
+                    results.single()[customDataProvider.dataProviderName]?.getOrNull()
+                )
+                VerifyOnce("Records requested one by one") {
+                    customDataProvider.get("test-id-2", any(), any())
+                    customDataProvider.get("unknown-id", any(), any())
+                    customDataProvider.get("test-id-1", any(), any())
+                }
+                VerifyNo("All records are not requested") {
+                    customDataProvider.getAll(any(), any())
+                }
+            }
+        }
+    }
+
     companion object {
 
         @BeforeAll
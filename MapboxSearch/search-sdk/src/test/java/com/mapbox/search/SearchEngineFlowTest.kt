@@ -0,0 +1,103 @@
+package com.mapbox.search
+
+import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.result.SearchSuggestion
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.TestFactory
+
+internal class SearchEngineFlowTest {
+
+    private val requestedQueries = mutableListOf<String>()
+    private val tasks = mutableListOf<AsyncOperationTask>()
+
+    private val searchEngine = mockk<SearchEngine> {
+        val callback = slot<SearchSuggestionsCallback>()
+        every { search(any(), any(), any(), capture(callback)) } answers {
+            val query = firstArg<String>()
+            requestedQueries.add(query)
+            when (query) {
+                PENDING_QUERY -> Unit
+                ERROR_QUERY -> callback.captured.onError(TEST_ERROR)
+                else -> callback.captured.onSuggestions(suggestionsFor(query), mockk())
+            }
+            mockk<AsyncOperationTask>(relaxed = true).also { tasks.add(it) }
+        }
+    }
+
+    @TestFactory
+    fun `Check searchAsFlow`() = TestCase {
+        Given("SearchEngine") {
+            When("Identical consecutive queries emitted") {
+                val suggestions = runBlocking {
+                    searchEngine.searchAsFlow(flowOf("cafe", "cafe", "bar", "cafe")).toList()
+                }
+
+                Then(
+                    "Suggestions emitted for each distinct consecutive query",
+                    listOf(suggestionsFor("cafe"), suggestionsFor("bar"), suggestionsFor("cafe")),
+                    suggestions
+                )
+                Then("Unchanged query requested once", listOf("cafe", "bar", "cafe"), requestedQueries.toList())
+            }
+
+            When("New query emitted while the previous request is in progress") {
+                requestedQueries.clear()
+                tasks.clear()
+
+                val suggestions = runBlocking {
+                    searchEngine.searchAsFlow(flowOf(PENDING_QUERY, "bar")).toList()
+                }
+
+                Then("Only latest query suggestions emitted", listOf(suggestionsFor("bar")), suggestions)
+                Then("Both queries requested", listOf(PENDING_QUERY, "bar"), requestedQueries.toList())
+
+                Verify("Stale request cancelled") {
+                    tasks[0].cancel()
+                }
+            }
+
+            When("Request fails") {
+                val error = runCatching {
+                    runBlocking {
+                        searchEngine.searchAsFlow(flowOf(ERROR_QUERY)).toList()
+                    }
+                }.exceptionOrNull()
+
+                Then("Flow completes with the request error", TEST_ERROR, error)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check searchAsFlow options`() = TestCase {
+        Given("SearchEngine") {
+            When("Options with request debounce passed") {
+                runBlocking {
+                    searchEngine.searchAsFlow(flowOf("cafe"), SearchOptions(limit = 5, requestDebounce = 10)).toList()
+                }
+
+                Verify("Request made without debounce") {
+                    searchEngine.search("cafe", SearchOptions(limit = 5), any(), any())
+                }
+            }
+        }
+    }
+
+    private companion object {
+        const val PENDING_QUERY = "pending"
+        const val ERROR_QUERY = "error"
+        val TEST_ERROR = Exception("test error")
+
+        val SUGGESTIONS = mutableMapOf<String, List<SearchSuggestion>>()
+
+        fun suggestionsFor(query: String): List<SearchSuggestion> = SUGGESTIONS.getOrPut(query) {
+            listOf(mockk())
+        }
+    }
+}
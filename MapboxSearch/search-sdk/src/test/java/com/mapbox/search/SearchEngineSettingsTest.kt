@@ -1,6 +1,7 @@
 package com.mapbox.search
 
 import com.mapbox.common.location.LocationProvider
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.common.tests.CopyVerifier
 import com.mapbox.search.common.tests.ReflectionObjectsFactory
 import com.mapbox.search.common.tests.ToStringVerifier
@@ -82,6 +83,9 @@ internal class SearchEngineSettingsTest {
                     .viewportProvider(TEST_MOCKED_VIEWPORT_PROVIDER)
                     .geocodingEndpointBaseUrl(TEST_V5_ENDPOINT)
                     .singleBoxSearchBaseUrl(TEST_SBS_ENDPOINT)
+                    .suggestionsCacheSettings(TEST_SUGGESTIONS_CACHE_SETTINGS)
+                    .prefetchSettings(TEST_PREFETCH_SETTINGS)
+                    .executorProvider(TEST_EXECUTOR_PROVIDER)
                     .build()
 
                 val expected = SearchEngineSettings(
@@ -89,6 +93,9 @@ internal class SearchEngineSettingsTest {
                     viewportProvider = TEST_MOCKED_VIEWPORT_PROVIDER,
                     geocodingEndpointBaseUrl = TEST_V5_ENDPOINT,
                     singleBoxSearchBaseUrl = TEST_SBS_ENDPOINT,
+                    suggestionsCacheSettings = TEST_SUGGESTIONS_CACHE_SETTINGS,
+                    prefetchSettings = TEST_PREFETCH_SETTINGS,
+                    executorProvider = TEST_EXECUTOR_PROVIDER,
                 )
 
                 Then("Settings should be equal", expected, actual)
@@ -105,6 +112,9 @@ internal class SearchEngineSettingsTest {
                     viewportProvider = TEST_MOCKED_VIEWPORT_PROVIDER,
                     geocodingEndpointBaseUrl = TEST_V5_ENDPOINT,
                     singleBoxSearchBaseUrl = TEST_SBS_ENDPOINT,
+                    suggestionsCacheSettings = TEST_SUGGESTIONS_CACHE_SETTINGS,
+                    prefetchSettings = TEST_PREFETCH_SETTINGS,
+                    executorProvider = TEST_EXECUTOR_PROVIDER,
                 )
 
                 Then("Settings should be equal", settings, settings.toBuilder().build())
@@ -115,6 +125,9 @@ internal class SearchEngineSettingsTest {
     private companion object {
         const val TEST_V5_ENDPOINT = "https://test-v5.mapbox.com"
         const val TEST_SBS_ENDPOINT = "https://test-sbs.mapbox.com"
+        val TEST_SUGGESTIONS_CACHE_SETTINGS = SearchSuggestionsCacheSettings(maxSize = 10, ttlMillis = 1000L)
+        val TEST_PREFETCH_SETTINGS = SearchPrefetchSettings(maxSuggestions = 5, maxConcurrentRequests = 1)
+        val TEST_EXECUTOR_PROVIDER = SearchExecutorProvider.fromExecutor { it.run() }
         val TEST_MOCKED_LOCATION_ENGINE: LocationProvider = mockk(relaxed = true)
         val TEST_MOCKED_VIEWPORT_PROVIDER: ViewportProvider = mockk(relaxed = true)
     }
@@ -87,6 +87,7 @@ internal class SearchEngineTest {
         historyService = mockk(relaxed = true)
 
         indexableRecordResolver = mockk()
+        every { indexableRecordResolver.resolveIfLoaded(any(), any()) } returns null
 
         val slotResolverCallback = slot<(Result<BaseIndexableRecord>) -> Unit>()
         every { indexableRecordResolver.resolve(any(), any(), any(), capture(slotResolverCallback)) } answers {
@@ -232,6 +233,81 @@ internal class SearchEngineTest {
         }
     }
 
+    @TestFactory
+    fun `Check search call served from suggestions cache`() = TestCase {
+        Given("SearchEngine with suggestions cache") {
+            val slotSearchCallback = slot<CoreSearchCallback>()
+
+            every { coreEngine.search(any(), any(), any(), capture(slotSearchCallback)) } answers {
+                slotSearchCallback.captured.run(TEST_SUCCESSFUL_CORE_RESPONSE)
+                TEST_REQUEST_ID
+            }
+
+            val cachingSearchEngine = SearchEngineImpl(
+                apiType = ApiType.SBS,
+                settings = mockk(),
+                analyticsService = mockk(relaxed = true),
+                coreEngine = coreEngine,
+                activityReporter = activityReporter,
+                historyService = historyService,
+                requestContextProvider = requestContextProvider,
+                searchResultFactory = searchResultFactory,
+                engineExecutorService = TestThreadExecutorService(),
+                indexableDataProvidersRegistry = indexableDataProvidersRegistry,
+                suggestionsCache = SearchSuggestionsCache(SearchSuggestionsCacheSettings()),
+            )
+
+            cachingSearchEngine.search(TEST_QUERY, TEST_SEARCH_OPTIONS, executor, mockk(relaxed = true))
+
+            When("Search called for the cached query") {
+                val callback = mockk<SearchSuggestionsCallback>(relaxed = true)
+
+                val task = cachingSearchEngine.search(TEST_QUERY, TEST_SEARCH_OPTIONS, executor, callback)
+
+                Then("Task is executed", true, task.isDone)
+
+                VerifyOnce("Cached suggestions passed to callback") {
+                    callback.onSuggestions(
+                        listOf(TEST_GEOCODING_SEARCH_SUGGESTION.mapToPlatform()),
+                        match { it.isCached }
+                    )
+                }
+
+                VerifyOnce("CoreSearchEngine.search() called only for the first query") {
+                    coreEngine.search(any(), any(), any(), any())
+                }
+            }
+
+            When("Search for the cached query cancelled before the response delivered") {
+                val pendingCallbacks = mutableListOf<Runnable>()
+                val callback = mockk<SearchSuggestionsCallback>(relaxed = true)
+
+                val task = cachingSearchEngine.search(
+                    TEST_QUERY,
+                    TEST_SEARCH_OPTIONS,
+                    { pendingCallbacks.add(it) },
+                    callback
+                )
+                task.cancel()
+                pendingCallbacks.forEach { it.run() }
+
+                Then("Task is cancelled", true, task.isCancelled)
+
+                VerifyNo("Suggestions are not passed to callback") {
+                    callback.onSuggestions(any(), any())
+                }
+            }
+
+            When("Cache statistics accessed") {
+                Then(
+                    "Statistics are reported",
+                    SearchSuggestionsCacheStatistics(hitCount = 2, missCount = 1),
+                    cachingSearchEngine.suggestionsCacheStatistics
+                )
+            }
+        }
+    }
+
     @TestFactory
     fun `Check initial internal error search call`() = TestCase {
         Given("SearchEngine with failing SearchResultFactory") {
@@ -0,0 +1,170 @@
+package com.mapbox.search
+
+import com.mapbox.search.base.core.CoreResultType
+import com.mapbox.search.base.core.CoreSearchCallback
+import com.mapbox.search.base.core.CoreSearchEngineInterface
+import com.mapbox.search.base.result.BaseSearchResult
+import com.mapbox.search.base.result.BaseServerSearchSuggestion
+import com.mapbox.search.base.result.SearchResultFactory
+import com.mapbox.search.common.tests.createTestCoreSearchResponseCancelled
+import com.mapbox.search.common.tests.createTestCoreSearchResponseSuccess
+import com.mapbox.search.common.tests.createTestCoreSearchResult
+import com.mapbox.search.tests_support.createTestBaseRawSearchResult
+import com.mapbox.search.tests_support.createTestBaseRequestOptions
+import com.mapbox.search.tests_support.createTestBaseSuggestAction
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class SearchResultsPrefetcherTest {
+
+    private var currentTime = 0L
+    private val callbacks = mutableListOf<CoreSearchCallback>()
+
+    private val coreEngine = mockk<CoreSearchEngineInterface>(relaxed = true) {
+        every { retrieve(any(), any(), any(), capture(callbacks)) } answers { callbacks.size.toLong() }
+    }
+
+    private val searchResultFactory = mockk<SearchResultFactory> {
+        every { isResolvedSearchResult(any()) } returns true
+        every { createSearchResult(any(), any()) } returns TEST_SEARCH_RESULT
+    }
+
+    private fun createPrefetcher(settings: SearchPrefetchSettings) = SearchResultsPrefetcher(
+        settings = settings,
+        coreEngine = coreEngine,
+        searchResultFactory = searchResultFactory,
+        workerExecutor = Executor { it.run() },
+        timeProvider = { currentTime },
+    )
+
+    @TestFactory
+    fun `Check top-ranked suggestions prefetch`() = TestCase {
+        Given("SearchResultsPrefetcher with 3 suggestions and 2 concurrent requests limit") {
+            val prefetcher = createPrefetcher(SearchPrefetchSettings(maxSuggestions = 3, maxConcurrentRequests = 2))
+            val suggestions = listOf(
+                createSuggestion("1"),
+                createSuggestion("query", CoreResultType.QUERY),
+                createSuggestion("2"),
+                createSuggestion("3"),
+                createSuggestion("4"),
+            )
+
+            When("Suggestions prefetched") {
+                prefetcher.prefetch(suggestions)
+
+                Then("Only concurrent requests limit of requests made", 2, callbacks.size)
+
+                callbacks[0].run(createTestCoreSearchResponseSuccess(results = listOf(createTestCoreSearchResult())))
+
+                Then("Next suggestion prefetched when request slot is free", 3, callbacks.size)
+
+                callbacks[1].run(createTestCoreSearchResponseSuccess(results = listOf(createTestCoreSearchResult())))
+                callbacks[2].run(createTestCoreSearchResponseSuccess(results = listOf(createTestCoreSearchResult())))
+
+                Then("Suggestions beyond top-ranked are not prefetched", 3, callbacks.size)
+            }
+
+            When("Prefetched results requested") {
+                Then("Prefetched result returned", TEST_SEARCH_RESULT, prefetcher.get(suggestions[0]))
+                Then("Prefetched result returned", TEST_SEARCH_RESULT, prefetcher.get(suggestions[3]))
+                Then("No result returned for not prefetched suggestion", null, prefetcher.get(suggestions[4]))
+                Then("No result returned for not prefetchable suggestion", null, prefetcher.get(suggestions[1]))
+            }
+
+            When("TTL expired") {
+                currentTime += SearchPrefetchSettings().ttlMillis
+
+                Then("No result returned", null, prefetcher.get(suggestions[0]))
+            }
+
+            When("Statistics accessed") {
+                val statistics = prefetcher.statistics
+
+                Then("Request count should be as expected", 3L, statistics.requestCount)
+                Then("Hit count should be as expected", 2L, statistics.hitCount)
+                Then("Miss count should be as expected", 2L, statistics.missCount)
+                Then("Hit rate should be as expected", 0.5, statistics.hitRate)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check prefetch cancellation`() = TestCase {
+        Given("SearchResultsPrefetcher") {
+            val prefetcher = createPrefetcher(SearchPrefetchSettings(maxSuggestions = 3, maxConcurrentRequests = 1))
+            val suggestions = listOf(createSuggestion("1"), createSuggestion("2"))
+
+            When("Prefetch cancelled") {
+                prefetcher.prefetch(suggestions)
+                prefetcher.cancel()
+
+                Verify("Request in progress cancelled") {
+                    coreEngine.cancel(1L)
+                }
+
+                callbacks[0].run(createTestCoreSearchResponseCancelled())
+                callbacks[0].run(createTestCoreSearchResponseSuccess(results = listOf(createTestCoreSearchResult())))
+
+                Then("Pending suggestions are not prefetched", 1, callbacks.size)
+                Then("Response of cancelled request is not kept", null, prefetcher.get(suggestions[0]))
+            }
+
+            When("New suggestions prefetched while request in progress") {
+                prefetcher.prefetch(suggestions)
+                prefetcher.prefetch(listOf(createSuggestion("3")))
+
+                Verify("Request of previous suggestions cancelled") {
+                    coreEngine.cancel(2L)
+                }
+
+                Then("New suggestion prefetched", 3, callbacks.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check prefetch requests budget`() = TestCase {
+        Given("SearchResultsPrefetcher with 2 requests per minute budget") {
+            val prefetcher = createPrefetcher(
+                SearchPrefetchSettings(maxSuggestions = 3, maxConcurrentRequests = 3, maxRequestsPerMinute = 2)
+            )
+            val suggestions = listOf(createSuggestion("1"), createSuggestion("2"), createSuggestion("3"))
+
+            When("Suggestions prefetched") {
+                prefetcher.prefetch(suggestions)
+
+                Then("Requests made within budget", 2, callbacks.size)
+            }
+
+            When("Suggestions prefetched after a minute") {
+                currentTime += 60_000L
+                prefetcher.prefetch(listOf(suggestions[2]))
+
+                Then("Budget restored", 3, callbacks.size)
+            }
+
+            When("Already prefetched suggestions prefetched again") {
+                callbacks[2].run(createTestCoreSearchResponseSuccess(results = listOf(createTestCoreSearchResult())))
+                prefetcher.prefetch(listOf(suggestions[2]))
+
+                Then("No request made", 3, callbacks.size)
+            }
+        }
+    }
+
+    private fun createSuggestion(id: String, type: CoreResultType = CoreResultType.POI) = BaseServerSearchSuggestion(
+        rawSearchResult = createTestBaseRawSearchResult(
+            id = id,
+            types = listOf(type),
+            action = createTestBaseSuggestAction(),
+        ),
+        requestOptions = createTestBaseRequestOptions(),
+    )
+
+    private companion object {
+        val TEST_SEARCH_RESULT = mockk<BaseSearchResult>()
+    }
+}
@@ -0,0 +1,119 @@
+package com.mapbox.search
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.result.SearchSuggestion
+import com.mapbox.test.dsl.TestCase
+import io.mockk.mockk
+import org.junit.jupiter.api.TestFactory
+
+internal class SearchSuggestionsCacheTest {
+
+    private var currentTime = 0L
+    private val cache = SearchSuggestionsCache(
+        settings = SearchSuggestionsCacheSettings(maxSize = 2, ttlMillis = TEST_TTL_MILLIS),
+        timeProvider = { currentTime },
+    )
+
+    @TestFactory
+    fun `Check cache keys`() = TestCase {
+        Given("SearchSuggestionsCache") {
+            When("Keys created for queries that differ in case and whitespaces") {
+                val key1 = cache.createKey("  Coffee   Shop ", SearchOptions())
+                val key2 = cache.createKey("coffee shop", SearchOptions())
+
+                Then("Keys should be equal", key1, key2)
+            }
+
+            When("Keys created for options with close proximity points") {
+                val key1 = cache.createKey("cafe", SearchOptions(proximity = Point.fromLngLat(2.350001, 48.850001)))
+                val key2 = cache.createKey("cafe", SearchOptions(proximity = Point.fromLngLat(2.350002, 48.850002)))
+
+                Then("Keys should be equal", key1, key2)
+            }
+
+            When("Keys created for options with distant proximity points") {
+                val key1 = cache.createKey("cafe", SearchOptions(proximity = Point.fromLngLat(2.35, 48.85)))
+                val key2 = cache.createKey("cafe", SearchOptions(proximity = Point.fromLngLat(2.36, 48.86)))
+
+                Then("Keys should not be equal", false, key1 == key2)
+            }
+
+            When("Keys created for options that differ in request debounce only") {
+                val key1 = cache.createKey("cafe", SearchOptions(requestDebounce = 100))
+                val key2 = cache.createKey("cafe", SearchOptions(requestDebounce = 500))
+
+                Then("Keys should be equal", key1, key2)
+            }
+
+            When("Keys created for options that differ in limit") {
+                val key1 = cache.createKey("cafe", SearchOptions(limit = 5))
+                val key2 = cache.createKey("cafe", SearchOptions(limit = 10))
+
+                Then("Keys should not be equal", false, key1 == key2)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check cached responses lifecycle`() = TestCase {
+        Given("SearchSuggestionsCache with max size 2") {
+            val key1 = cache.createKey("query-1", SearchOptions())
+            val key2 = cache.createKey("query-2", SearchOptions())
+            val key3 = cache.createKey("query-3", SearchOptions())
+
+            When("Response is not cached") {
+                Then("No cached response returned", null, cache.get(key1))
+            }
+
+            When("Response is cached") {
+                cache.put(key1, cache.generation, TEST_SUGGESTIONS, TEST_RESPONSE_INFO)
+                val cached = cache.get(key1)
+
+                Then("Cached suggestions returned", TEST_SUGGESTIONS, cached?.suggestions)
+                Then("Cached response info returned", TEST_RESPONSE_INFO, cached?.responseInfo)
+            }
+
+            When("Max size exceeded") {
+                cache.put(key2, cache.generation, TEST_SUGGESTIONS, TEST_RESPONSE_INFO)
+                // Makes key1 the most recently used
+                cache.get(key1)
+                cache.put(key3, cache.generation, TEST_SUGGESTIONS, TEST_RESPONSE_INFO)
+
+                Then("Least recently used response evicted", null, cache.get(key2))
+                Then("Recently used response kept", true, cache.get(key1) != null)
+            }
+
+            When("TTL expired") {
+                currentTime += TEST_TTL_MILLIS
+
+                Then("No cached response returned", null, cache.get(key3))
+            }
+
+            When("Cache invalidated") {
+                cache.put(key1, cache.generation, TEST_SUGGESTIONS, TEST_RESPONSE_INFO)
+                val generation = cache.generation
+                cache.invalidate()
+
+                Then("No cached response returned", null, cache.get(key1))
+
+                cache.put(key2, generation, TEST_SUGGESTIONS, TEST_RESPONSE_INFO)
+
+                Then("Response of the request made before invalidation is not cached", null, cache.get(key2))
+            }
+
+            When("Statistics accessed") {
+                Then(
+                    "Statistics should be as expected",
+                    SearchSuggestionsCacheStatistics(hitCount = 3L, missCount = 5L),
+                    cache.statistics
+                )
+            }
+        }
+    }
+
+    private companion object {
+        const val TEST_TTL_MILLIS = 1000L
+        val TEST_SUGGESTIONS = listOf<SearchSuggestion>(mockk(), mockk())
+        val TEST_RESPONSE_INFO = ResponseInfo(mockk(), null, isReproducible = false, isCached = true)
+    }
+}
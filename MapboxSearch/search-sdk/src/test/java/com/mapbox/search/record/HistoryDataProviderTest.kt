@@ -26,6 +26,7 @@ import com.mapbox.search.tests_support.createTestServerSearchResult
 import com.mapbox.search.tests_support.record.addToHistoryIfNeededBlocking
 import com.mapbox.search.tests_support.record.getAllBlocking
 import com.mapbox.search.tests_support.record.getBlocking
+import com.mapbox.search.tests_support.record.getRecentBlocking
 import com.mapbox.search.tests_support.record.getSizeBlocking
 import com.mapbox.search.tests_support.record.registerIndexableDataProviderEngineBlocking
 import com.mapbox.search.tests_support.record.upsertAllBlocking
@@ -40,8 +41,10 @@ import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executor
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 @Suppress("LargeClass")
 internal class HistoryDataProviderTest {
@@ -60,7 +63,7 @@ internal class HistoryDataProviderTest {
         testDataProviderEngine = TestDataProviderEngine()
 
         recordsStorage = mockk(relaxed = true)
-        every { recordsStorage.load() } returns emptyList()
+        every { recordsStorage.load(any(), any()) } returns emptyList()
 
         executorService = spyk(TestThreadExecutorService())
 
@@ -94,7 +97,7 @@ internal class HistoryDataProviderTest {
     fun `Check load initial data at provider creation`() = TestCase {
         Given("HistoryDataProviderImpl with mocked dependencies") {
             recordsStorage = mockk()
-            every { recordsStorage.load() } returns listOf(TEST_HISTORY_RECORD_1, TEST_HISTORY_RECORD_2)
+            every { recordsStorage.load(any(), any()) } returns listOf(TEST_HISTORY_RECORD_1, TEST_HISTORY_RECORD_2)
 
             When("HistoryDataProviderImpl created") {
                 historyDataProvider = HistoryDataProviderImpl(
@@ -105,11 +108,11 @@ internal class HistoryDataProviderTest {
                 historyDataProvider.registerIndexableDataProviderEngineBlocking(testDataProviderEngine, executor)
 
                 Verify("Data loaded from storage", exactly = 1) {
-                    recordsStorage.load()
+                    recordsStorage.load(any(), any())
                 }
 
                 Verify("Initial data didn't save to storage", exactly = 0) {
-                    recordsStorage.save(any())
+                    recordsStorage.save(any(), any())
                 }
 
                 Then("Layer should have initial data") {
@@ -140,7 +143,7 @@ internal class HistoryDataProviderTest {
                     timestamp = index * 100L
                 )
             }.shuffled()
-            every { recordsStorage.load() } returns testRecords
+            every { recordsStorage.load(any(), any()) } returns testRecords
 
             val maxRecordsAmount = 30
             When("HistoryDataProviderImpl with max records amount = $maxRecordsAmount created") {
@@ -171,6 +174,56 @@ internal class HistoryDataProviderTest {
         }
     }
 
+    @TestFactory
+    fun `Check recent records retrieval`() = TestCase {
+        Given("HistoryDataProviderImpl with mocked dependencies") {
+            val testRecords = (1..10).map { index ->
+                createTestHistoryRecord(id = "test-history-record-$index", timestamp = index * 100L)
+            }.shuffled()
+            every { recordsStorage.load(any(), any()) } returns testRecords
+
+            When("Recent records requested after initial read") {
+                historyDataProvider = HistoryDataProviderImpl(recordsStorage, executorService, timeProvider)
+
+                val recentRecords = historyDataProvider.getRecentBlocking(3, executor)
+
+                Then("Records with the latest timestamps returned") {
+                    assertEqualsJsonify(
+                        testRecords.sortedByDescending { it.timestamp }.take(3),
+                        recentRecords
+                    )
+                }
+            }
+        }
+
+        Given("HistoryDataProviderImpl with storage which is still loading records") {
+            val recentRecords = listOf(
+                createTestHistoryRecord(id = "test-history-record-3", timestamp = 300L),
+                createTestHistoryRecord(id = "test-history-record-2", timestamp = 200L),
+            )
+            val loadingLatch = CountDownLatch(1)
+            every { recordsStorage.load(any(), any()) } answers {
+                secondArg<(List<HistoryRecord>) -> Unit>().invoke(recentRecords)
+                loadingLatch.await()
+                recentRecords + createTestHistoryRecord(id = "test-history-record-1", timestamp = 100L)
+            }
+
+            When("Recent records requested before initial read is completed") {
+                val loadingExecutorService = Executors.newSingleThreadExecutor()
+                historyDataProvider = HistoryDataProviderImpl(recordsStorage, loadingExecutorService, timeProvider)
+
+                val recent = historyDataProvider.getRecentBlocking(2, executor)
+                loadingLatch.countDown()
+
+                Then("Records published by storage returned", recentRecords, recent)
+
+                Then("All records available after initial read", 3, historyDataProvider.getAllBlocking(executor).size)
+
+                loadingExecutorService.shutdown()
+            }
+        }
+    }
+
     @TestFactory
     fun `Check history search result not added`() = TestCase {
         Given("HistoryDataProviderImpl with mocked dependencies") {
@@ -186,7 +239,7 @@ internal class HistoryDataProviderTest {
                 Then("No new records added", 0, testDataProviderEngine.records.size)
 
                 Verify("No data saved", exactly = 0) {
-                    recordsStorage.save(any())
+                    recordsStorage.save(any(), any())
                 }
             }
         }
@@ -201,7 +254,7 @@ internal class HistoryDataProviderTest {
                 createTestHistoryRecord(id = "test-id-2", timestamp = 400L),
                 createTestHistoryRecord(id = "test-id-3", timestamp = 500L),
             )
-            every { recordsStorage.load() } returns testRecords
+            every { recordsStorage.load(any(), any()) } returns testRecords
             historyDataProvider = HistoryDataProviderImpl(recordsStorage, executorService, timeProvider, maxRecordsAmount)
             val testEngine = TestDataProviderEngine<HistoryRecord>()
             historyDataProvider.registerIndexableDataProviderEngineBlocking(testEngine, executor)
@@ -284,7 +337,7 @@ internal class HistoryDataProviderTest {
                     timestamp = index * 100L // [100, 200, 300, 400, | 500]
                 )
             }
-            every { recordsStorage.load() } returns testRecords
+            every { recordsStorage.load(any(), any()) } returns testRecords
             historyDataProvider = HistoryDataProviderImpl(recordsStorage, executorService, timeProvider, maxRecordsAmount)
             val testEngine = TestDataProviderEngine<HistoryRecord>()
             historyDataProvider.registerIndexableDataProviderEngineBlocking(testEngine, executor)
@@ -340,7 +393,7 @@ internal class HistoryDataProviderTest {
                     timestamp = index
                 )
             }.shuffled()
-            every { recordsStorage.load() } returns testRecords
+            every { recordsStorage.load(any(), any()) } returns testRecords
             historyDataProvider = HistoryDataProviderImpl(recordsStorage, executorService, timeProvider, maxRecordsAmount)
             val testEngine = TestDataProviderEngine<HistoryRecord>()
             historyDataProvider.registerIndexableDataProviderEngineBlocking(testEngine, executor)
@@ -0,0 +1,157 @@
+package com.mapbox.search.record
+
+import com.mapbox.search.tests_support.createTestHistoryRecord
+import com.mapbox.search.utils.collections.PersistentOrderedMap
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+internal class HistoryRecordsIndexTest {
+
+    @Test
+    fun testRecordsWithLowestTimestampsEvicted() {
+        val records = recordsOf(
+            createTestHistoryRecord(id = "id-1", timestamp = 300L),
+            createTestHistoryRecord(id = "id-2", timestamp = 100L),
+            createTestHistoryRecord(id = "id-3", timestamp = 200L),
+        )
+        val newRecords = listOf(
+            createTestHistoryRecord(id = "id-4", timestamp = 150L),
+            createTestHistoryRecord(id = "id-5", timestamp = 400L),
+        )
+
+        val evicted = HistoryRecordsIndex().selectEvicted(records, newRecords, count = 3)
+
+        assertEquals(listOf("id-2", "id-4", "id-3"), evicted.map { it.id })
+    }
+
+    @Test
+    fun testNewRecordsHaveHigherPriorityOnEqualTimestamps() {
+        val records = recordsOf(
+            createTestHistoryRecord(id = "id-1", timestamp = 100L),
+            createTestHistoryRecord(id = "id-2", timestamp = 100L),
+        )
+        val newRecords = listOf(
+            createTestHistoryRecord(id = "id-3", timestamp = 100L),
+            createTestHistoryRecord(id = "id-4", timestamp = 100L),
+        )
+
+        val evicted = HistoryRecordsIndex().selectEvicted(records, newRecords, count = 3)
+
+        assertEquals(listOf("id-1", "id-2", "id-3"), evicted.map { it.id })
+    }
+
+    @Test
+    fun testUpsertedRecordsReplaceExistingOnes() {
+        val records = recordsOf(
+            createTestHistoryRecord(id = "id-1", timestamp = 100L),
+            createTestHistoryRecord(id = "id-2", timestamp = 200L),
+        )
+        val newRecords = listOf(
+            createTestHistoryRecord(id = "id-1", timestamp = 300L),
+            createTestHistoryRecord(id = "id-3", timestamp = 250L),
+        )
+
+        val evicted = HistoryRecordsIndex().selectEvicted(records, newRecords, count = 1)
+
+        assertEquals(listOf("id-2"), evicted.map { it.id })
+    }
+
+    @Test
+    fun testMostRecentRecords() {
+        val records = recordsOf(
+            createTestHistoryRecord(id = "id-1", timestamp = 300L),
+            createTestHistoryRecord(id = "id-2", timestamp = 100L),
+            createTestHistoryRecord(id = "id-3", timestamp = 200L),
+        )
+
+        val index = HistoryRecordsIndex()
+
+        assertEquals(listOf("id-1", "id-3"), index.selectMostRecent(records, limit = 2).map { it.id })
+        assertEquals(listOf("id-1", "id-3", "id-2"), index.selectMostRecent(records, limit = 10).map { it.id })
+    }
+
+    @Test
+    fun testChangesApplied() {
+        val record1 = createTestHistoryRecord(id = "id-1", timestamp = 100L)
+        val record2 = createTestHistoryRecord(id = "id-2", timestamp = 200L)
+        val record3 = createTestHistoryRecord(id = "id-3", timestamp = 300L)
+        val updatedRecord1 = record1.copy(timestamp = 400L)
+
+        val records = recordsOf(record1, record2, record3)
+        val index = HistoryRecordsIndex()
+        index.selectMostRecent(records, limit = 1)
+
+        val newRecords = records.put(updatedRecord1.id, updatedRecord1).remove(record2.id)
+        index.onRecordsChanged(
+            records,
+            LocalDataProvider.DataChangeSet(
+                version = 1,
+                added = emptyList(),
+                updated = listOf(updatedRecord1),
+                removed = listOf(record2),
+                records = newRecords,
+            )
+        )
+
+        assertEquals(listOf(updatedRecord1, record3), index.selectMostRecent(newRecords, limit = 10))
+    }
+
+    @Test
+    fun testIndexRebuiltForUnknownRecords() {
+        val record1 = createTestHistoryRecord(id = "id-1", timestamp = 100L)
+        val record2 = createTestHistoryRecord(id = "id-2", timestamp = 200L)
+
+        val index = HistoryRecordsIndex()
+        index.selectMostRecent(recordsOf(record1), limit = 1)
+
+        // Change made to records the index doesn't mirror
+        val newRecords = recordsOf(record1, record2)
+        index.onRecordsChanged(
+            PersistentOrderedMap.empty(),
+            LocalDataProvider.DataChangeSet(
+                version = 1,
+                added = listOf(record1, record2),
+                updated = emptyList(),
+                removed = emptyList(),
+                records = newRecords,
+            )
+        )
+
+        assertEquals(listOf(record2, record1), index.selectMostRecent(newRecords, limit = 10))
+        assertEquals(listOf(record1), index.selectMostRecent(recordsOf(record1), limit = 10))
+    }
+
+    @Test
+    fun testReadOfAnotherVersionDoesNotTouchIndex() {
+        val record1 = createTestHistoryRecord(id = "id-1", timestamp = 100L)
+        val record2 = createTestHistoryRecord(id = "id-2", timestamp = 200L)
+        val record3 = createTestHistoryRecord(id = "id-3", timestamp = 200L)
+
+        val records = recordsOf(record1)
+        val newRecords = recordsOf(record1, record2, record3)
+        val index = HistoryRecordsIndex()
+        index.onRecordsChanged(
+            records,
+            LocalDataProvider.DataChangeSet(
+                version = 1,
+                added = listOf(record2, record3),
+                updated = emptyList(),
+                removed = emptyList(),
+                records = newRecords,
+            )
+        )
+        assertTrue(index.isSyncedWith(newRecords))
+
+        // Reader holds the previous version of the records
+        assertEquals(listOf(record1), index.selectMostRecent(records, limit = 10))
+        assertTrue(index.isSyncedWith(newRecords))
+
+        assertEquals(listOf(record3, record2), index.selectMostRecent(newRecords, limit = 2))
+        assertEquals(listOf(record3, record2), index.selectMostRecent(recordsOf(record1, record2, record3), limit = 2))
+    }
+
+    private fun recordsOf(vararg records: HistoryRecord): PersistentOrderedMap<String, HistoryRecord> {
+        return PersistentOrderedMap.of(records.map { it.id to it })
+    }
+}
@@ -1,9 +1,11 @@
 @file:Suppress("NoMockkVerifyImport")
 package com.mapbox.search.record
 
+import com.mapbox.search.base.concurrent.SerialExecutorService
 import com.mapbox.search.base.logger.reinitializeLogImpl
 import com.mapbox.search.base.logger.resetLogImpl
 import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.common.CompletionCallback
 import com.mapbox.search.common.tests.TestExecutor
 import com.mapbox.search.common.tests.TestThreadExecutorService
 import com.mapbox.search.tests_support.BlockingCompletionCallback
@@ -134,7 +136,10 @@ internal class LocalDataProviderTest {
 
                     dataProvider.addOnDataChangedListener(listener)
 
-                    Verify("Work completed on a background thread", exactly = 2) {
+                    // Submit should be called for initial read and for the function itself,
+                    // unless the function only reads data, which is done on the calling thread
+                    val expectedSubmitCalls = if (functionName in READ_FUNCTIONS) 1 else 2
+                    Verify("Work completed on a background thread", exactly = expectedSubmitCalls) {
                         executorService.submit(any())
                     }
 
@@ -143,7 +148,7 @@ internal class LocalDataProviderTest {
                     }
 
                     VerifyNo("Initial data didn't save to storage") {
-                        recordsStorage.save(any())
+                        recordsStorage.save(any(), any())
                     }
 
                     VerifyOnce("Callbacks called inside executor") {
@@ -217,7 +222,7 @@ internal class LocalDataProviderTest {
                 every { recordsStorage.load() } returns previouslySavedRecords
 
                 val storageError = IOException("Can't save data")
-                every { recordsStorage.save(any()) } throws storageError
+                every { recordsStorage.save(any(), any()) } throws storageError
 
                 val listener = mockk<LocalDataProvider.OnDataChangedListener<HistoryRecord>>(relaxed = true)
 
@@ -229,9 +234,9 @@ internal class LocalDataProviderTest {
 
                     dataProvider.addOnDataChangedListener(listener)
 
-                    // Submit should be called 3 times:
-                    // initial read + function itself + get all data to check test result
-                    Verify("Work completed on a background thread", exactly = 3) {
+                    // Submit should be called 2 times: initial read + function itself.
+                    // Data to check test result is read on the calling thread.
+                    Verify("Work completed on a background thread", exactly = 2) {
                         executorService.submit(any())
                     }
 
@@ -266,7 +271,7 @@ internal class LocalDataProviderTest {
                     Then("Task is not cancelled", false, task.isCancelled)
 
                     VerifyOnce("Storage.save()") {
-                        recordsStorage.save(any())
+                        recordsStorage.save(any(), any())
                     }
 
                     Then(
@@ -279,13 +284,343 @@ internal class LocalDataProviderTest {
         }
     }
 
+    @TestFactory
+    fun `Check records snapshot`() = TestCase {
+        Given("TestDataProvider with mocked dependencies") {
+            val savedRecords = (1..3).map { id -> createTestHistoryRecord("saved record id-$id") }
+            every { recordsStorage.load() } returns savedRecords
+
+            When("Initial read is not completed yet") {
+                val dataProvider = TestDataProvider(recordsStorage, mockk(relaxed = true))
+
+                Then("Snapshot is not available", null, dataProvider.snapshot())
+                Then("Record is not available", null, dataProvider.getIfLoaded(savedRecords.first().id))
+            }
+
+            When("Initial read is completed") {
+                val dataProvider = TestDataProvider(recordsStorage, executorService)
+
+                Then("Snapshot contains loaded records", savedRecords, dataProvider.snapshot()?.values?.toList())
+                Then("Record is available", savedRecords.first(), dataProvider.getIfLoaded(savedRecords.first().id))
+                Then("Unknown record is not available", null, dataProvider.getIfLoaded("unknown id"))
+            }
+
+            When("Records changed after snapshot is taken") {
+                val dataProvider = TestDataProvider(recordsStorage, executorService)
+                val snapshot = dataProvider.snapshot()
+
+                val newRecord = createTestHistoryRecord("new record id")
+                dataProvider.upsert(newRecord, executor, BlockingCompletionCallback())
+
+                Then("Previous snapshot is not changed", savedRecords, snapshot?.values?.toList())
+                Then(
+                    "New snapshot contains new record",
+                    savedRecords + newRecord,
+                    dataProvider.snapshot()?.values?.toList()
+                )
+                Then("New record is available", newRecord, dataProvider.getIfLoaded(newRecord.id))
+            }
+
+            When("Initial read failed") {
+                every { recordsStorage.load() } throws IOException("Can't load data")
+                val dataProvider = TestDataProvider(recordsStorage, executorService)
+
+                Then("Snapshot is not available", null, dataProvider.snapshot())
+                Then("Record is not available", null, dataProvider.getIfLoaded(savedRecords.first().id))
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check write coalescing`() = TestCase {
+        val savedRecords = (1..3).map { id -> createTestHistoryRecord("saved record id-$id") }
+        val newRecords = (1..3).map { id -> createTestHistoryRecord("new record id-$id") }
+
+        Given("TestDataProvider with write coalescing") {
+            val storage = mockk<RecordsStorage<HistoryRecord>>(relaxed = true)
+            every { storage.load() } returns savedRecords
+
+            val backgroundExecutor = QueuedExecutor()
+            val engine = TestDataProviderEngine<HistoryRecord>()
+            val dataProvider = TestDataProvider(
+                storage,
+                backgroundExecutor.executorService,
+                listOf(engine),
+                coalesceWrites = true,
+                maxCoalescedWrites = 3,
+            )
+            backgroundExecutor.runAll()
+
+            When("Changes are submitted together") {
+                val upsertCallback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                val removeCallback = mockk<CompletionCallback<Boolean>>(relaxed = true)
+                val upsertTask = dataProvider.upsert(newRecords[0], executor, upsertCallback)
+                val removeTask = dataProvider.remove(savedRecords[0].id, executor, removeCallback)
+
+                backgroundExecutor.runNext()
+                backgroundExecutor.runNext()
+
+                val expectedRecords = savedRecords.drop(1) + newRecords[0]
+
+                Then("Changes are visible right away", expectedRecords, dataProvider.snapshot()?.values?.toList())
+                Then("Changes are indexed right away", expectedRecords, engine.records)
+                Then("Tasks are not completed before write", false, upsertTask.isDone || removeTask.isDone)
+
+                backgroundExecutor.runAll()
+
+                Then("Tasks are completed after write", true, upsertTask.isDone && removeTask.isDone)
+
+                VerifyOnce("Records are persisted in a single write") {
+                    storage.save(any(), any())
+                    storage.save(
+                        match { it.values.toList() == expectedRecords },
+                        match { changes ->
+                            changes.map { it.id to it.record } ==
+                                listOf(newRecords[0].id to newRecords[0], savedRecords[0].id to null)
+                        },
+                    )
+                }
+
+                VerifyOnce("Callbacks are called") {
+                    upsertCallback.onComplete(Unit)
+                    removeCallback.onComplete(true)
+                }
+
+                Then(
+                    "Stats are reported",
+                    LocalDataProviderImpl.WriteCoalescingStats(coalescedChanges = 2, writes = 1),
+                    dataProvider.writeCoalescingStats
+                )
+            }
+        }
+
+        Given("TestDataProvider with write coalescing and max number of coalesced changes") {
+            val storage = mockk<RecordsStorage<HistoryRecord>>(relaxed = true)
+            every { storage.load() } returns savedRecords
+
+            val backgroundExecutor = QueuedExecutor()
+            val dataProvider = TestDataProvider(
+                storage,
+                backgroundExecutor.executorService,
+                coalesceWrites = true,
+                maxCoalescedWrites = newRecords.size,
+            )
+            backgroundExecutor.runAll()
+
+            When("Max number of changes is reached") {
+                val callback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                newRecords.forEach {
+                    dataProvider.upsert(it, executor, callback)
+                }
+
+                repeat(newRecords.size) {
+                    backgroundExecutor.runNext()
+                }
+
+                VerifyOnce("Records are persisted without waiting for the scheduled write") {
+                    storage.save(any(), any())
+                    storage.save(
+                        match { it.values.toList() == savedRecords + newRecords },
+                        match { changes -> changes.map { it.record } == newRecords },
+                    )
+                }
+
+                Verify("Callbacks are called", exactly = newRecords.size) {
+                    callback.onComplete(Unit)
+                }
+            }
+        }
+
+        Given("TestDataProvider with write coalescing and crashing data saving") {
+            val storage = mockk<RecordsStorage<HistoryRecord>>(relaxed = true)
+            every { storage.load() } returns savedRecords
+
+            val storageError = IOException("Can't save data")
+            every { storage.save(any(), any()) } throws storageError
+
+            val backgroundExecutor = QueuedExecutor()
+            val engine = TestDataProviderEngine<HistoryRecord>()
+            val dataProvider = TestDataProvider(
+                storage,
+                backgroundExecutor.executorService,
+                listOf(engine),
+                coalesceWrites = true,
+            )
+            backgroundExecutor.runAll()
+
+            When("Coalesced write fails") {
+                val upsertCallback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                val clearCallback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                dataProvider.upsert(newRecords[0], executor, upsertCallback)
+                dataProvider.clear(executor, clearCallback)
+
+                backgroundExecutor.runAll()
+
+                VerifyOnce("Errors are passed to callbacks") {
+                    upsertCallback.onError(storageError)
+                    clearCallback.onError(storageError)
+                }
+
+                Then("Records are rolled back", savedRecords, dataProvider.snapshot()?.values?.toList())
+                Then("Engine records are rolled back", savedRecords, engine.records)
+            }
+        }
+
+        Given("TestDataProvider with write coalescing and change that doesn't await write") {
+            val storage = mockk<RecordsStorage<HistoryRecord>>(relaxed = true)
+            every { storage.load() } returns savedRecords
+
+            val backgroundExecutor = QueuedExecutor()
+            val dataProvider = TestDataProvider(
+                storage,
+                backgroundExecutor.executorService,
+                coalesceWrites = true,
+            )
+            backgroundExecutor.runAll()
+
+            When("Record is upserted") {
+                val callback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                val task = dataProvider.upsertWithoutAwaitingWrite(newRecords[0], executor, callback)
+
+                backgroundExecutor.runNext()
+
+                Then("Task is completed before write", true, task.isDone)
+
+                VerifyOnce("Callback is called before write") {
+                    callback.onComplete(Unit)
+                }
+
+                VerifyNo("Records are not persisted yet") {
+                    storage.save(any(), any())
+                }
+
+                backgroundExecutor.runAll()
+
+                VerifyOnce("Records are persisted after the callback") {
+                    storage.save(match { it.values.toList() == savedRecords + newRecords[0] }, any())
+                }
+            }
+
+            When("Write of the record fails") {
+                val storageError = IOException("Can't save data")
+                every { storage.save(any(), any()) } throws storageError
+
+                val callback = mockk<CompletionCallback<Unit>>(relaxed = true)
+                dataProvider.upsertWithoutAwaitingWrite(newRecords[1], executor, callback)
+
+                backgroundExecutor.runAll()
+
+                VerifyOnce("Callback is called only once") {
+                    callback.onComplete(Unit)
+                }
+
+                VerifyNo("Error is not passed to callback") {
+                    callback.onError(any())
+                }
+
+                Then("Record is rolled back", null, dataProvider.getIfLoaded(newRecords[1].id))
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check data change set listeners`() = TestCase {
+        Given("TestDataProvider with change listeners") {
+            val savedRecords = (1..3).map { id -> createTestHistoryRecord("saved record id-$id") }
+            every { recordsStorage.load() } returns savedRecords
+
+            val dataProvider = TestDataProvider(recordsStorage, executorService, maxRecordsAmount = 3)
+
+            val changeSets = mutableListOf<LocalDataProvider.DataChangeSet<HistoryRecord>>()
+            dataProvider.addOnDataChangeSetListener(executor, object : LocalDataProvider.OnDataChangeSetListener<HistoryRecord> {
+                override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>) {
+                    changeSets.add(changeSet)
+                }
+            })
+
+            val fullData = mutableListOf<List<HistoryRecord>>()
+            dataProvider.addOnDataChangedListener(executor, object : LocalDataProvider.OnDataChangedListener<HistoryRecord> {
+                override fun onDataChanged(newData: List<HistoryRecord>) {
+                    fullData.add(newData)
+                }
+            })
+
+            When("Records are changed") {
+                val newRecord = createTestHistoryRecord("new record id")
+                val updatedRecord = savedRecords[2].copy(name = "Updated name")
+
+                dataProvider.upsert(newRecord, executor, BlockingCompletionCallback())
+                dataProvider.upsert(updatedRecord, executor, BlockingCompletionCallback())
+                dataProvider.remove(savedRecords[1].id, executor, BlockingCompletionCallback())
+                dataProvider.remove("unknown id", executor, BlockingCompletionCallback())
+                dataProvider.clear(executor, BlockingCompletionCallback())
+
+                Then(
+                    "Change sets are reported",
+                    listOf(
+                        listOf(1L, listOf(newRecord), emptyList(), listOf(savedRecords[0])),
+                        listOf(2L, emptyList(), listOf(updatedRecord), emptyList()),
+                        listOf(3L, emptyList(), emptyList(), listOf(savedRecords[1])),
+                        listOf(3L, emptyList(), emptyList(), emptyList()),
+                        listOf(4L, emptyList(), emptyList(), listOf(updatedRecord, newRecord)),
+                    ),
+                    changeSets.map { listOf(it.version, it.added, it.updated, it.removed) }
+                )
+
+                Then(
+                    "Change sets provide records after the change",
+                    fullData,
+                    changeSets.map { it.records.values.toList() }
+                )
+
+                Then(
+                    "Previous listener receives all the records",
+                    listOf(
+                        listOf(savedRecords[1], savedRecords[2], newRecord),
+                        listOf(savedRecords[1], updatedRecord, newRecord),
+                        listOf(updatedRecord, newRecord),
+                        listOf(updatedRecord, newRecord),
+                        emptyList(),
+                    ),
+                    fullData
+                )
+            }
+        }
+    }
+
     // TODO add other LocalDataProvider functions
 
+    /**
+     * Runs tasks of the [executorService] on demand, one at a time in the submission order.
+     */
+    private class QueuedExecutor : Executor {
+
+        private val tasks = ArrayDeque<Runnable>()
+
+        val executorService = SerialExecutorService(this)
+
+        override fun execute(command: Runnable) {
+            tasks.addLast(command)
+        }
+
+        fun runNext() {
+            tasks.removeFirst().run()
+        }
+
+        fun runAll() {
+            while (tasks.isNotEmpty()) {
+                runNext()
+            }
+        }
+    }
+
     private class TestDataProvider(
         recordsStorage: RecordsStorage<HistoryRecord>,
         backgroundTaskExecutorService: ExecutorService,
         dataProviderEngines: List<IndexableDataProviderEngine> = emptyList(),
         maxRecordsAmount: Int = Int.MAX_VALUE,
+        coalesceWrites: Boolean = false,
+        maxCoalescedWrites: Int = Int.MAX_VALUE,
     ) : LocalDataProviderImpl<HistoryRecord>(
         dataProviderName = "Test data provider",
         priority = 1000,
@@ -293,6 +628,8 @@ internal class LocalDataProviderTest {
         backgroundTaskExecutorService = backgroundTaskExecutorService,
         dataProviderEngines = CopyOnWriteArrayList(dataProviderEngines),
         maxRecordsAmount = maxRecordsAmount,
+        coalesceWrites = coalesceWrites,
+        maxCoalescedWrites = maxCoalescedWrites,
     ) {
 
         override fun MutableMap<String, HistoryRecord>.addAndTrimRecords(newRecords: List<HistoryRecord>): List<HistoryRecord> {
@@ -312,6 +649,8 @@ internal class LocalDataProviderTest {
 
     companion object {
 
+        private val READ_FUNCTIONS = setOf("getAll()", "get()", "contains()")
+
         @BeforeAll
         @JvmStatic
         fun setUpAll() {
@@ -0,0 +1,128 @@
+package com.mapbox.search.record
+
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+internal class RecordsJournalTest {
+
+    @Test
+    fun testEmptyJournal() {
+        val result = RecordsJournal.read(ByteArray(0))
+
+        assertTrue(result.entries.isEmpty())
+        assertEquals(0, result.validLength)
+        assertFalse(result.isTruncated)
+        assertNull(result.snapshotChecksum)
+    }
+
+    @Test
+    fun testEntriesRoundTrip() {
+        val writer = RecordsJournal.Writer(snapshotChecksum = TEST_SNAPSHOT_CHECKSUM)
+        writer.upsert(TEST_PAYLOAD)
+        writer.remove(TEST_ID)
+
+        val data = writer.toByteArray()
+        val result = RecordsJournal.read(data)
+
+        assertEquals(2, writer.entriesCount)
+        assertEquals(data.size, result.validLength)
+        assertFalse(result.isTruncated)
+        assertEquals(TEST_SNAPSHOT_CHECKSUM, result.snapshotChecksum)
+
+        assertEquals(2, result.entries.size)
+        assertArrayEquals(TEST_PAYLOAD, (result.entries[0] as RecordsJournal.Entry.Upsert).payload)
+        assertEquals(TEST_ID, (result.entries[1] as RecordsJournal.Entry.Remove).id)
+    }
+
+    @Test
+    fun testAppendedEntries() {
+        val first = RecordsJournal.Writer(snapshotChecksum = TEST_SNAPSHOT_CHECKSUM).apply {
+            upsert(TEST_PAYLOAD)
+        }.toByteArray()
+
+        val second = RecordsJournal.Writer(snapshotChecksum = null).apply {
+            remove(TEST_ID)
+        }.toByteArray()
+
+        val result = RecordsJournal.read(first + second)
+        assertEquals(2, result.entries.size)
+        assertFalse(result.isTruncated)
+    }
+
+    @Test
+    fun testTornTailIsDropped() {
+        val first = RecordsJournal.Writer(snapshotChecksum = TEST_SNAPSHOT_CHECKSUM).apply {
+            upsert(TEST_PAYLOAD)
+        }.toByteArray()
+
+        val second = RecordsJournal.Writer(snapshotChecksum = null).apply {
+            remove(TEST_ID)
+        }.toByteArray()
+
+        val result = RecordsJournal.read(first + second.copyOf(second.size - 1))
+        assertEquals(1, result.entries.size)
+        assertEquals(first.size, result.validLength)
+        assertTrue(result.isTruncated)
+    }
+
+    @Test
+    fun testCorruptedEntryIsDropped() {
+        val data = RecordsJournal.Writer(snapshotChecksum = TEST_SNAPSHOT_CHECKSUM).apply {
+            upsert(TEST_PAYLOAD)
+        }.toByteArray()
+
+        data[RecordsJournal.HEADER_SIZE + 5] = (data[RecordsJournal.HEADER_SIZE + 5] + 1).toByte()
+
+        val result = RecordsJournal.read(data)
+        assertTrue(result.entries.isEmpty())
+        assertEquals(RecordsJournal.HEADER_SIZE, result.validLength)
+        assertTrue(result.isTruncated)
+    }
+
+    @Test
+    fun testUnknownFormat() {
+        val result = RecordsJournal.read(TEST_PAYLOAD + TEST_PAYLOAD)
+
+        assertTrue(result.entries.isEmpty())
+        assertEquals(0, result.validLength)
+        assertTrue(result.isTruncated)
+        assertNull(result.snapshotChecksum)
+    }
+
+    @Test
+    fun testDamagedHeader() {
+        val data = RecordsJournal.Writer(snapshotChecksum = TEST_SNAPSHOT_CHECKSUM).apply {
+            upsert(TEST_PAYLOAD)
+        }.toByteArray()
+
+        data[0] = (data[0] + 1).toByte()
+
+        val result = RecordsJournal.read(data)
+        assertTrue(result.entries.isEmpty())
+        assertEquals(0, result.validLength)
+        assertTrue(result.isTruncated)
+    }
+
+    @Test
+    fun testSnapshotChecksum() {
+        assertEquals(
+            RecordsJournal.snapshotChecksum(TEST_PAYLOAD),
+            RecordsJournal.snapshotChecksum(TEST_PAYLOAD.copyOf()),
+        )
+        assertNotEquals(
+            RecordsJournal.snapshotChecksum(TEST_PAYLOAD),
+            RecordsJournal.snapshotChecksum(TEST_PAYLOAD + TEST_PAYLOAD),
+        )
+    }
+
+    private companion object {
+        const val TEST_ID = "test-id"
+        const val TEST_SNAPSHOT_CHECKSUM = 42
+        val TEST_PAYLOAD = "{\"version\":0,\"records\":[]}".toByteArray()
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context
 import com.mapbox.common.TileStore
 import com.mapbox.common.location.LocationProvider
 import com.mapbox.search.ViewportProvider
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
 import com.mapbox.search.common.tests.CustomTypeObjectCreator
 import com.mapbox.search.common.tests.CustomTypeObjectCreatorImpl
 import io.mockk.mockk
@@ -34,10 +35,17 @@ internal object MockedTypesObjectCreators {
         )[mode.ordinal]
     }
 
+    val SEARCH_EXECUTOR_PROVIDER_OBJECT_CREATOR = CustomTypeObjectCreatorImpl(SearchExecutorProvider::class) { mode ->
+        listOf(
+            mockk<SearchExecutorProvider>(relaxed = true), mockk<SearchExecutorProvider>(relaxed = true),
+        )[mode.ordinal]
+    }
+
     val ALL_CREATORS = listOf<CustomTypeObjectCreator>(
         CONTEXT_OBJECT_CREATOR,
         LOCATION_ENGINE_OBJECT_CREATOR,
         VIEW_PORT_PROVIDER_OBJECT_CREATOR,
         TILE_STORE_OBJECT_CREATOR,
+        SEARCH_EXECUTOR_PROVIDER_OBJECT_CREATOR,
     )
 }
@@ -2,6 +2,8 @@ package com.mapbox.search.tests_support.record
 
 import com.mapbox.search.base.record.SearchHistoryService
 import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
+import com.mapbox.search.record.HistoryDataProvider
+import com.mapbox.search.record.HistoryRecord
 import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableDataProviderEngine
 import com.mapbox.search.record.IndexableRecord
@@ -89,6 +91,15 @@ internal fun <T : IndexableRecord> IndexableDataProvider<T>.clearBlocking(
     callback.getResultBlocking()
 }
 
+internal fun HistoryDataProvider.getRecentBlocking(
+    limit: Int,
+    executor: Executor = SearchSdkMainThreadWorker.mainExecutor
+): List<HistoryRecord> {
+    val callback = BlockingCompletionCallback<List<HistoryRecord>>()
+    getRecent(limit, executor, callback)
+    return (callback.getResultBlocking() as BlockingCompletionCallback.CompletionCallbackResult.Result).result
+}
+
 internal fun <T : IndexableRecord> IndexableDataProvider<T>.getSizeBlocking(
     executor: Executor = SearchSdkMainThreadWorker.mainExecutor
 ): Int = getAllBlocking(executor).size
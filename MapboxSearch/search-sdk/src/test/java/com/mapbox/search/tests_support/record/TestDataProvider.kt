@@ -65,6 +65,10 @@ internal class TestDataProvider<R : IndexableRecord> : LocalDataProviderImpl<R>
         return trySubmitOverrideOperation(executor, callback) ?: super.getAll(executor, callback)
     }
 
+    override fun getAll(ids: List<String>, executor: Executor, callback: CompletionCallback<in List<R>>): AsyncOperationTask {
+        return trySubmitOverrideOperation(executor, callback) ?: super.getAll(ids, executor, callback)
+    }
+
     override fun contains(id: String, executor: Executor, callback: CompletionCallback<Boolean>): AsyncOperationTask {
         return trySubmitOverrideOperation(executor, callback) ?: super.contains(id, executor, callback)
     }
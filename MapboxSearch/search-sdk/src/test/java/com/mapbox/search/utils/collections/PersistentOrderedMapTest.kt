@@ -0,0 +1,150 @@
+package com.mapbox.search.utils.collections
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+
+internal class PersistentOrderedMapTest {
+
+    @Test
+    fun testEmptyMap() {
+        val map = PersistentOrderedMap.empty<String, Int>()
+
+        assertEquals(0, map.size)
+        assertTrue(map.isEmpty())
+        assertNull(map["test"])
+        assertFalse(map.containsKey("test"))
+        assertEquals(emptyList<Int>(), map.values.toList())
+    }
+
+    @Test
+    fun testInsertionOrderIsKept() {
+        val keys = (1..100).map { "key-$it" }.shuffled(Random(SEED))
+        val map = PersistentOrderedMap.of(keys.map { it to it.length })
+
+        assertEquals(keys, map.keys.toList())
+        assertEquals(keys.size, map.size)
+        keys.forEach {
+            assertEquals(it.length, map[it])
+        }
+    }
+
+    @Test
+    fun testUpdateKeepsPosition() {
+        val map = PersistentOrderedMap.of(listOf("a" to 1, "b" to 2, "c" to 3))
+        val updated = map.put("b", 20)
+
+        assertEquals(listOf("a" to 1, "b" to 20, "c" to 3), updated.toList())
+        assertEquals(listOf("a" to 1, "b" to 2, "c" to 3), map.toList())
+    }
+
+    @Test
+    fun testRemove() {
+        val map = PersistentOrderedMap.of(listOf("a" to 1, "b" to 2, "c" to 3))
+        val removed = map.remove("b")
+
+        assertEquals(listOf("a" to 1, "c" to 3), removed.toList())
+        assertFalse(removed.containsKey("b"))
+        assertSame(map, map.remove("unknown"))
+        assertEquals(3, map.size)
+    }
+
+    @Test
+    fun testRemovedKeyIsAddedToTheEnd() {
+        val map = PersistentOrderedMap.of(listOf("a" to 1, "b" to 2, "c" to 3))
+            .remove("a")
+            .put("a", 10)
+
+        assertEquals(listOf("b" to 2, "c" to 3, "a" to 10), map.toList())
+    }
+
+    @Test
+    fun testKeysWithEqualHashCodes() {
+        val keys = (1..10).map { CollidingKey(it) }
+        var map = PersistentOrderedMap.of(keys.map { it to it.id })
+
+        assertEquals(keys, map.keys.toList())
+        keys.forEach {
+            assertEquals(it.id, map[it])
+        }
+
+        map = map.remove(keys[3]).remove(keys[7])
+        assertEquals(keys - keys[3] - keys[7], map.keys.toList())
+        assertNull(map[keys[3]])
+        assertEquals(keys[4].id, map[keys[4]])
+    }
+
+    @Test
+    fun testEqualsToRegularMap() {
+        val map = PersistentOrderedMap.of(listOf("a" to 1, "b" to 2))
+
+        assertEquals(mapOf("a" to 1, "b" to 2), map)
+        assertEquals(mapOf("a" to 1, "b" to 2).hashCode(), map.hashCode())
+    }
+
+    @Test
+    fun testBuilder() {
+        val map = PersistentOrderedMap.of(listOf("a" to 1, "b" to 2, "c" to 3))
+
+        val builder = map.builder()
+        builder["d"] = 4
+        builder.remove("a")
+        builder.entries.removeAll { it.value == 3 }
+
+        assertEquals(listOf("b" to 2, "d" to 4), builder.build().toList())
+        assertEquals(listOf("a" to 1, "b" to 2, "c" to 3), map.toList())
+    }
+
+    @Test
+    fun testRandomChangesMatchLinkedHashMap() {
+        val random = Random(SEED)
+        val expected = LinkedHashMap<String, Int>()
+        var map = PersistentOrderedMap.empty<String, Int>()
+        val versions = mutableListOf<Pair<PersistentOrderedMap<String, Int>, List<Pair<String, Int>>>>()
+
+        repeat(20_000) { step ->
+            val key = "key-${random.nextInt(2_000)}"
+            if (random.nextInt(3) == 0) {
+                expected.remove(key)
+                map = map.remove(key)
+            } else {
+                expected[key] = step
+                map = map.put(key, step)
+            }
+
+            if (step % 1_000 == 0) {
+                versions.add(map to expected.toList())
+            }
+        }
+
+        assertEquals(expected.toList(), map.toList())
+        assertEquals(expected.size, map.size)
+        (0 until 2_000).forEach {
+            val key = "key-$it"
+            assertEquals(expected[key], map[key])
+            assertEquals(expected.containsKey(key), map.containsKey(key))
+        }
+
+        // Previous versions aren't affected by the changes
+        versions.forEach { (version, content) ->
+            assertEquals(content, version.toList())
+        }
+    }
+
+    private class CollidingKey(val id: Int) {
+
+        override fun equals(other: Any?): Boolean = other is CollidingKey && other.id == id
+
+        override fun hashCode(): Int = 42
+
+        override fun toString(): String = "CollidingKey($id)"
+    }
+
+    private companion object {
+        const val SEED = 1234
+    }
+}
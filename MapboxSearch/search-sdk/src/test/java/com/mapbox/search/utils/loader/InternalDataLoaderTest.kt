@@ -176,6 +176,37 @@ internal class InternalDataLoaderTest {
         assertSame(error, thrown)
     }
 
+    @Test
+    fun testAppendToEmptyFile() {
+        dataLoader.append(RELATIVE_DIR, FILE_NAME, TEST_ARRAY)
+
+        val byteArray = fileSystem.getBytesFromFile(RELATIVE_DIR, fileName = FILE_NAME)
+        assertArrayEquals(TEST_ARRAY, byteArray)
+
+        verify {
+            fileSystem.getAppRelativeDir(context, RELATIVE_DIR)
+            fileSystem.createFile(any(), FILE_NAME)
+        }
+
+        verify(exactly = 0) {
+            atomicFile.startWrite()
+        }
+    }
+
+    @Test
+    fun testAppendToExistingFile() {
+        fileSystem.writeBytesToFile(
+            fileName = FILE_NAME,
+            byteArray = TEST_ARRAY.reversedArray(),
+            folderNames = arrayOf(RELATIVE_DIR)
+        )
+
+        dataLoader.append(RELATIVE_DIR, FILE_NAME, TEST_ARRAY)
+
+        val byteArray = fileSystem.getBytesFromFile(RELATIVE_DIR, fileName = FILE_NAME)
+        assertArrayEquals(TEST_ARRAY.reversedArray() + TEST_ARRAY, byteArray)
+    }
+
     companion object {
 
         private const val RELATIVE_DIR = "dir"
@@ -0,0 +1,108 @@
+package com.mapbox.search.ui.benchmarks
+
+import android.view.View
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.annotation.UiThreadTest
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.mapbox.search.ui.R
+import com.mapbox.search.ui.utils.wrapWithSearchTheme
+import com.mapbox.search.ui.view.DistanceUnitType
+import com.mapbox.search.ui.view.SearchResultAdapterItem
+import com.mapbox.search.ui.view.adapter.SearchViewResultsAdapter
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.Executor
+
+/**
+ * Measures time and allocations of scrolling through 1,000 search results, which looks up stable ids
+ * of the rows entering the screen.
+ */
+@RunWith(AndroidJUnit4::class)
+internal class SearchResultsScrollBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var recyclerView: RecyclerView
+    private lateinit var adapter: SearchViewResultsAdapter
+
+    @Before
+    fun setUp() {
+        val context = wrapWithSearchTheme(InstrumentationRegistry.getInstrumentation().targetContext)
+
+        adapter = SearchViewResultsAdapter(
+            unitType = DistanceUnitType.METRIC,
+            diffExecutor = DIRECT_EXECUTOR,
+            mainExecutor = DIRECT_EXECUTOR,
+            textExecutor = DIRECT_EXECUTOR,
+        )
+        adapter.items = createItems()
+
+        recyclerView = RecyclerView(context).apply {
+            layoutManager = LinearLayoutManager(context)
+            itemAnimator = null
+            adapter = this@SearchResultsScrollBenchmark.adapter
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    fun scroll() {
+        layout()
+
+        benchmarkRule.measureRepeated {
+            if (!recyclerView.canScrollVertically(1)) {
+                runWithTimingDisabled {
+                    recyclerView.scrollToPosition(0)
+                    layout()
+                }
+            }
+            recyclerView.scrollBy(0, SCROLL_STEP_PX)
+        }
+    }
+
+    @Test
+    fun itemIds() {
+        benchmarkRule.measureRepeated {
+            for (position in 0 until ITEMS_COUNT) {
+                adapter.getItemId(position)
+            }
+        }
+    }
+
+    private fun layout() {
+        recyclerView.measure(
+            View.MeasureSpec.makeMeasureSpec(WIDTH_PX, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY),
+        )
+        recyclerView.layout(0, 0, WIDTH_PX, HEIGHT_PX)
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 1_000
+
+        const val WIDTH_PX = 1080
+        const val HEIGHT_PX = 1920
+        const val SCROLL_STEP_PX = 100
+
+        val DIRECT_EXECUTOR = Executor { it.run() }
+
+        fun createItems(): List<SearchResultAdapterItem> {
+            return (0 until ITEMS_COUNT).map { index ->
+                SearchResultAdapterItem.Result(
+                    title = "Result $index",
+                    subtitle = "Street $index, City",
+                    distanceMeters = index * 100.0,
+                    drawable = R.drawable.mapbox_search_sdk_ic_mdi_search,
+                )
+            }
+        }
+    }
+}
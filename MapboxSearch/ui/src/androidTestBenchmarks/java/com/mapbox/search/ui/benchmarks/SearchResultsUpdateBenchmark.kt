@@ -0,0 +1,122 @@
+package com.mapbox.search.ui.benchmarks
+
+import android.view.View
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.annotation.UiThreadTest
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.mapbox.search.ui.R
+import com.mapbox.search.ui.utils.wrapWithSearchTheme
+import com.mapbox.search.ui.view.DistanceUnitType
+import com.mapbox.search.ui.view.SearchResultAdapterItem
+import com.mapbox.search.ui.view.adapter.SearchViewResultsAdapter
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.Executor
+
+/**
+ * Measures the UI thread work of the search results list update, when a few rows of a 50 rows list change
+ * between responses. Diffs are calculated on the calling thread here, in the SDK they are calculated
+ * in background, so [diffUpdate] is an upper bound of the UI thread work.
+ */
+@RunWith(AndroidJUnit4::class)
+internal class SearchResultsUpdateBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var recyclerView: RecyclerView
+    private lateinit var adapter: SearchViewResultsAdapter
+
+    private val items = listOf(createItems(distanceOffset = 0.0), createItems(distanceOffset = 1.0))
+    private var iteration = 0
+
+    @Before
+    fun setUp() {
+        val context = wrapWithSearchTheme(InstrumentationRegistry.getInstrumentation().targetContext)
+
+        adapter = SearchViewResultsAdapter(
+            unitType = DistanceUnitType.METRIC,
+            diffExecutor = DIRECT_EXECUTOR,
+            mainExecutor = DIRECT_EXECUTOR,
+            textExecutor = DIRECT_EXECUTOR,
+        )
+
+        recyclerView = RecyclerView(context).apply {
+            layoutManager = LinearLayoutManager(context)
+            itemAnimator = null
+            adapter = this@SearchResultsUpdateBenchmark.adapter
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    fun fullRebind() {
+        adapter.items = nextItems()
+        layout()
+
+        benchmarkRule.measureRepeated {
+            runWithTimingDisabled {
+                adapter.items = nextItems()
+            }
+            adapter.notifyDataSetChanged()
+            layout()
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    fun diffUpdate() {
+        adapter.items = nextItems()
+        layout()
+
+        benchmarkRule.measureRepeated {
+            adapter.items = nextItems()
+            layout()
+        }
+    }
+
+    private fun nextItems() = items[iteration++ % items.size]
+
+    private fun layout() {
+        recyclerView.measure(
+            View.MeasureSpec.makeMeasureSpec(WIDTH_PX, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT_PX, View.MeasureSpec.EXACTLY),
+        )
+        recyclerView.layout(0, 0, WIDTH_PX, HEIGHT_PX)
+    }
+
+    private companion object {
+
+        const val ITEMS_COUNT = 50
+        const val CHANGED_ITEMS_STEP = 10
+
+        // Large enough for all the rows to be laid out
+        const val WIDTH_PX = 1080
+        const val HEIGHT_PX = 20_000
+
+        val DIRECT_EXECUTOR = Executor { it.run() }
+
+        fun createItems(distanceOffset: Double): List<SearchResultAdapterItem> {
+            return (0 until ITEMS_COUNT).map { index ->
+                val distance = if (index % CHANGED_ITEMS_STEP == 0) {
+                    index * 100.0 + distanceOffset
+                } else {
+                    index * 100.0
+                }
+
+                SearchResultAdapterItem.Result(
+                    title = "Result $index",
+                    subtitle = "Street $index, City",
+                    distanceMeters = distance,
+                    drawable = R.drawable.mapbox_search_sdk_ic_mdi_search,
+                )
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mapbox.search.ui.adapter.engines
+
+import com.mapbox.search.base.logger.logd
+import com.mapbox.search.base.utils.LocalTimeProvider
+import com.mapbox.search.base.utils.TimeProvider
+import com.mapbox.search.common.concurrent.MainThreadWorker
+import java.util.Locale
+
+/**
+ * Decides when search requests for the queries typed by the user are sent. Should be used on the main thread.
+ *
+ * At most one request is in flight and at most one query is pending: a query typed while a request is in flight
+ * or within the debounce window replaces the pending query, replaced queries are never sent.
+ * The debounce window is tuned from the observed typing cadence and is limited by the observed response latency.
+ * A query that extends a query that has just been answered with no results isn't sent at all.
+ */
+internal class AdaptiveSearchScheduler(
+    private val mainThreadWorker: MainThreadWorker,
+    private val timeProvider: TimeProvider = LocalTimeProvider(),
+) {
+
+    private var inFlight: Request? = null
+    private var pending: Request? = null
+
+    private var lastSubmitTime = NO_TIME
+    private var typingIntervalMillis = NO_ESTIMATE
+    private var latencyMillis = NO_ESTIMATE
+
+    private var zeroResultsRequest: Request? = null
+    private var zeroResultsTime = NO_TIME
+
+    private var requestCount = 0L
+    private var debouncedCount = 0L
+    private var skippedCount = 0L
+
+    private val sendPendingRunnable = Runnable {
+        sendPendingIfReady(timeProvider.currentTimeMillis())
+    }
+
+    val statistics: SearchRequestStatistics
+        get() = SearchRequestStatistics(
+            requestCount = requestCount,
+            debouncedCount = debouncedCount,
+            skippedCount = skippedCount,
+        )
+
+    val debounceWindowMillis: Long
+        get() {
+            if (typingIntervalMillis == NO_ESTIMATE) {
+                return 0
+            }
+
+            // Requests sent more often than responses are received are wasted
+            val maxWindow = if (latencyMillis == NO_ESTIMATE) {
+                MAX_DEBOUNCE_WINDOW_MILLIS
+            } else {
+                minOf(latencyMillis.toLong(), MAX_DEBOUNCE_WINDOW_MILLIS)
+            }
+            return (typingIntervalMillis * TYPING_INTERVAL_MULTIPLIER).toLong().coerceIn(0, maxWindow)
+        }
+
+    /**
+     * Schedules the request for the [query].
+     *
+     * @param options options of the request, queries are considered related only if they have the same options.
+     * @param debounce whether the request should be debounced, e.g. `false` if it's debounced by the search engine.
+     * @param send sends the request, response should be reported with [onResponse].
+     * @return `false` if the request is skipped, because the [query] extends the query which has just been
+     * answered with no results.
+     */
+    fun submit(query: String, options: Any, debounce: Boolean, send: () -> Unit): Boolean {
+        val now = timeProvider.currentTimeMillis()
+        if (lastSubmitTime != NO_TIME) {
+            val interval = now - lastSubmitTime
+            // Longer intervals are pauses in typing rather than typing cadence
+            if (interval <= MAX_TYPING_INTERVAL_MILLIS) {
+                typingIntervalMillis = average(typingIntervalMillis, interval.toDouble())
+            }
+        }
+        lastSubmitTime = now
+
+        if (dropPending() != null) {
+            debouncedCount++
+        }
+
+        val request = Request(query, options, debounce, send, submitTime = now)
+        if (extendsZeroResultsRequest(request, now)) {
+            skippedCount++
+            logd("Request for \"$query\" is skipped, previous query has no results")
+            return false
+        }
+
+        pending = request
+        sendPendingIfReady(now)
+        return true
+    }
+
+    /**
+     * Reports the response for the request in flight.
+     *
+     * @param resultsCount number of the received results, or `null` if the request failed.
+     * @return `true` if there's a pending request for a newer query, so that the response is already stale.
+     */
+    fun onResponse(resultsCount: Int?): Boolean {
+        val request = inFlight ?: return pending != null
+        inFlight = null
+
+        val now = timeProvider.currentTimeMillis()
+        latencyMillis = average(latencyMillis, (now - request.sendTime).toDouble())
+
+        if (resultsCount == 0) {
+            zeroResultsRequest = request
+            zeroResultsTime = now
+
+            val pendingRequest = pending
+            if (pendingRequest != null && extendsZeroResultsRequest(pendingRequest, now)) {
+                dropPending()
+                skippedCount++
+                logd("Request for \"${pendingRequest.query}\" is skipped, previous query has no results")
+            }
+        }
+
+        sendPendingIfReady(now)
+        return pending != null || inFlight != null
+    }
+
+    /**
+     * Forgets the request in flight and the pending request, e.g. when the request in flight is cancelled.
+     *
+     * @return `true` if there was a request in flight or a pending request.
+     */
+    fun cancel(): Boolean {
+        val hadRequests = dropPending() != null || inFlight != null
+        inFlight = null
+        zeroResultsRequest = null
+        return hadRequests
+    }
+
+    private fun dropPending(): Request? {
+        val request = pending
+        pending = null
+        mainThreadWorker.cancel(sendPendingRunnable)
+        return request
+    }
+
+    private fun sendPendingIfReady(now: Long) {
+        val request = pending ?: return
+        if (inFlight != null) {
+            // Pending request is sent once the response for the request in flight is received
+            return
+        }
+
+        val delay = if (request.debounce) {
+            request.submitTime + debounceWindowMillis - now
+        } else {
+            0
+        }
+
+        if (delay > 0) {
+            mainThreadWorker.cancel(sendPendingRunnable)
+            mainThreadWorker.postDelayed(delay, runnable = sendPendingRunnable)
+            return
+        }
+
+        pending = null
+        request.sendTime = now
+        inFlight = request
+        requestCount++
+        request.send()
+    }
+
+    private fun extendsZeroResultsRequest(request: Request, now: Long): Boolean {
+        val zeroResults = zeroResultsRequest ?: return false
+        if (now - zeroResultsTime > ZERO_RESULTS_VALIDITY_MILLIS || request.options != zeroResults.options) {
+            return false
+        }
+
+        val query = request.query.trim().lowercase(Locale.getDefault())
+        val zeroResultsQuery = zeroResults.query.trim().lowercase(Locale.getDefault())
+        return zeroResultsQuery.isNotEmpty() && query.length > zeroResultsQuery.length &&
+                query.startsWith(zeroResultsQuery)
+    }
+
+    private class Request(
+        val query: String,
+        val options: Any,
+        val debounce: Boolean,
+        val send: () -> Unit,
+        val submitTime: Long,
+    ) {
+        var sendTime: Long = NO_TIME
+    }
+
+    private companion object {
+
+        const val NO_TIME = -1L
+        const val NO_ESTIMATE = -1.0
+
+        const val TYPING_INTERVAL_MULTIPLIER = 1.5
+        const val MAX_TYPING_INTERVAL_MILLIS = 1_000L
+        const val MAX_DEBOUNCE_WINDOW_MILLIS = 500L
+        const val ZERO_RESULTS_VALIDITY_MILLIS = 5_000L
+
+        const val AVERAGE_WEIGHT = 0.3
+
+        // Exponential moving average, so that the estimates follow the recent typing cadence and latency
+        fun average(average: Double, value: Double): Double {
+            return if (average == NO_ESTIMATE) {
+                value
+            } else {
+                average + AVERAGE_WEIGHT * (value - average)
+            }
+        }
+    }
+}
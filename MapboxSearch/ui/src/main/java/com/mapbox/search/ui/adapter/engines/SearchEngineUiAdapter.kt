@@ -94,6 +94,7 @@ public class SearchEngineUiAdapter(
 
     private val searchListeners = CopyOnWriteArrayList<SearchListener>()
 
+    // Whether search results are displayed, updated when the created items are delivered to the view
     private var searchResultsShown = false
     private var searchQuery: String = ""
     private var latestSearchOptions: SearchOptions = GlobalViewPreferences.DEFAULT_SEARCH_OPTIONS
@@ -102,6 +103,8 @@ public class SearchEngineUiAdapter(
     private var networkReachabilityListenerId: Long = -1
 
     private var currentSearchRequestTask: AsyncOperationTask? = null
+    private val requestScheduler = AdaptiveSearchScheduler(mainThreadWorker)
+    private var isSearchRequestInterrupted = false
 
     private val historyRecordsInteractor = HistoryRecordsInteractor()
     private var historyRecordsListener: HistoryRecordsInteractor.HistoryListener? = null
@@ -110,6 +113,14 @@ public class SearchEngineUiAdapter(
     private val itemsCreator: SearchResultsItemsCreator
     private var asyncItemsCreatorTask: AsyncOperationTask? = null
 
+    private val suggestionsRefiner = SuggestionsPrefixRefiner()
+    private var latestSuggestions: List<SearchSuggestion> = emptyList()
+    private var latestSuggestionsResponseInfo: ResponseInfo? = null
+
+    // Latest responses with no results, listeners are notified with them when a query extending them is skipped
+    private var emptySuggestionsResponseInfo: ResponseInfo? = null
+    private var emptyOfflineResponseInfo: OfflineResponseInfo? = null
+
     /**
      * Search mode of this view, if mode is [SearchMode.ONLINE] [SearchEngine] will be used, [OfflineSearchEngine] otherwise.
      */
@@ -119,6 +130,13 @@ public class SearchEngineUiAdapter(
             isOnlineSearch = value.isOnlineSearch(reachabilityInterface)
         }
 
+    /**
+     * Statistics of the search requests made by this adapter, including the number of queries
+     * for which no request was sent, see [search].
+     */
+    public val requestStatistics: SearchRequestStatistics
+        get() = requestScheduler.statistics
+
     private var isOnlineSearch: Boolean = searchMode.isOnlineSearch(reachabilityInterface)
         set(value) {
             if (value == field) {
@@ -127,6 +145,7 @@ public class SearchEngineUiAdapter(
             field = value
 
             logd("isOnlineSearch changed: $value")
+            cancelCurrentNetworkRequest()
             retrySearchRequest()
         }
 
@@ -136,9 +155,21 @@ public class SearchEngineUiAdapter(
             suggestions: List<SearchSuggestion>,
             responseInfo: ResponseInfo
         ) {
+            val isStale = requestScheduler.onResponse(suggestions.size)
+            if (suggestions.isEmpty()) {
+                emptySuggestionsResponseInfo = responseInfo
+            }
+
             if (searchQuery.isNotEmpty()) {
-                showSuggestions(suggestions, responseInfo)
-                searchListeners.forEach { it.onSuggestionsShown(suggestions, responseInfo) }
+                if (isStale) {
+                    // Request for the latest query is pending, these suggestions are only used for refinement
+                    latestSuggestions = suggestions
+                    latestSuggestionsResponseInfo = responseInfo
+                    showProvisionalSuggestions(searchQuery)
+                } else {
+                    showSuggestions(suggestions, responseInfo)
+                    searchListeners.forEach { it.onSuggestionsShown(suggestions, responseInfo) }
+                }
             }
         }
 
@@ -168,7 +199,8 @@ public class SearchEngineUiAdapter(
         }
 
         override fun onError(e: Exception) {
-            if (searchQuery.isNotEmpty()) {
+            val isStale = requestScheduler.onResponse(resultsCount = null)
+            if (searchQuery.isNotEmpty() && !isStale) {
                 showError(UiError.createFromException(e))
                 searchListeners.forEach { it.onError(e) }
             }
@@ -181,7 +213,12 @@ public class SearchEngineUiAdapter(
             results: List<OfflineSearchResult>,
             responseInfo: OfflineResponseInfo
         ) {
-            if (searchQuery.isNotEmpty()) {
+            val isStale = requestScheduler.onResponse(results.size)
+            if (results.isEmpty()) {
+                emptyOfflineResponseInfo = responseInfo
+            }
+
+            if (searchQuery.isNotEmpty() && !isStale) {
                 showResults(results, responseInfo)
                 searchListeners.forEach { it.onOfflineSearchResultsShown(results, responseInfo) }
             }
@@ -194,7 +231,8 @@ public class SearchEngineUiAdapter(
         }
 
         override fun onError(e: Exception) {
-            if (searchQuery.isNotEmpty()) {
+            val isStale = requestScheduler.onResponse(resultsCount = null)
+            if (searchQuery.isNotEmpty() && !isStale) {
                 showError(UiError.createFromException(e))
                 searchListeners.forEach { it.onError(e) }
             }
@@ -213,7 +251,8 @@ public class SearchEngineUiAdapter(
 
         itemsCreator = SearchResultsItemsCreator(
             context = view.context,
-            locationProvider = locationEngine
+            locationProvider = locationEngine,
+            mainExecutor = mainThreadWorker.mainExecutor,
         )
 
         view.addActionListener(object : SearchResultsView.ActionListener {
@@ -296,6 +335,15 @@ public class SearchEngineUiAdapter(
     /**
      * Performs forward geocoding.
      * Should be called on the main thread.
+     *
+     * If [query] extends the query of the currently shown suggestions, the suggestions matching [query]
+     * are shown right away and replaced when the response for [query] is received.
+     *
+     * At most one request is in flight at a time, queries typed in the meantime are debounced and only the latest
+     * of them is sent. The debounce window is tuned from the typing cadence and the response latency, it isn't
+     * applied if [SearchOptions.requestDebounce] is set. No request is sent for a query which extends the query
+     * just answered with no results, [SearchListener]s are notified with that empty response instead.
+     *
      * @param query text to search.
      * @param options options for search request.
      *
@@ -313,27 +361,59 @@ public class SearchEngineUiAdapter(
         latestSearchOptions = options
 
         if (query.isEmpty()) {
+            cancelCurrentNetworkRequest()
             loadHistory()
         } else {
+            cancelHistoryLoading()
+
+            val isScheduled = requestScheduler.submit(
+                query = query,
+                options = options to isOnlineSearch,
+                debounce = options.requestDebounce == null,
+            ) {
+                sendSearchRequest(query, options)
+            }
+
+            if (!isScheduled) {
+                // Query extends the query which has just been answered with no results, which are still shown
+                notifyEmptyResultsShown()
+                return
+            }
+
             if (!searchResultsShown) {
                 showLoading()
             }
-            cancelHistoryLoading()
-            cancelCurrentNetworkRequest()
 
-            currentSearchRequestTask = when (isOnlineSearch) {
-                true -> {
-                    activityReporter.reportActivity("search-engine-forward-geocoding-suggestions-ui")
-                    searchEngine.search(query, options, searchCallback)
-                }
-                false -> {
-                    activityReporter.reportActivity("offline-search-engine-forward-geocoding-ui")
-                    offlineSearchEngine.search(
-                        query,
-                        options.mapToOfflineOptions(),
-                        offlineSearchCallback
-                    )
-                }
+            if (isOnlineSearch) {
+                showProvisionalSuggestions(query)
+            }
+        }
+    }
+
+    private fun notifyEmptyResultsShown() {
+        if (isOnlineSearch) {
+            val responseInfo = emptySuggestionsResponseInfo ?: return
+            searchListeners.forEach { it.onSuggestionsShown(emptyList(), responseInfo) }
+        } else {
+            val responseInfo = emptyOfflineResponseInfo ?: return
+            searchListeners.forEach { it.onOfflineSearchResultsShown(emptyList(), responseInfo) }
+        }
+    }
+
+    private fun sendSearchRequest(query: String, options: SearchOptions) {
+        currentSearchRequestTask?.cancel()
+        currentSearchRequestTask = when (isOnlineSearch) {
+            true -> {
+                activityReporter.reportActivity("search-engine-forward-geocoding-suggestions-ui")
+                searchEngine.search(query, options, searchCallback)
+            }
+            false -> {
+                activityReporter.reportActivity("offline-search-engine-forward-geocoding-ui")
+                offlineSearchEngine.search(
+                    query,
+                    options.mapToOfflineOptions(),
+                    offlineSearchCallback
+                )
             }
         }
     }
@@ -415,8 +495,27 @@ public class SearchEngineUiAdapter(
     private fun showSuggestions(suggestions: List<SearchSuggestion>, responseInfo: ResponseInfo) {
         cancelHistoryLoading()
         asyncItemsCreatorTask?.cancel()
-        view.setAdapterItems(itemsCreator.createForSearchSuggestions(suggestions, responseInfo))
-        searchResultsShown = suggestions.isNotEmpty()
+        asyncItemsCreatorTask = itemsCreator.createForSearchSuggestions(suggestions, responseInfo) {
+            view.setAdapterItems(it)
+            searchResultsShown = suggestions.isNotEmpty()
+        }
+
+        latestSuggestions = suggestions
+        latestSuggestionsResponseInfo = responseInfo
+    }
+
+    private fun showProvisionalSuggestions(query: String) {
+        val responseInfo = latestSuggestionsResponseInfo ?: return
+
+        val refined = suggestionsRefiner.refine(latestSuggestions, responseInfo.requestOptions.query, query)
+        if (!refined.isNullOrEmpty()) {
+            logd("Showing ${refined.size} provisional suggestions for \"$query\"")
+            asyncItemsCreatorTask?.cancel()
+            asyncItemsCreatorTask = itemsCreator.createForSearchSuggestions(refined, responseInfo) {
+                view.setAdapterItems(it)
+                searchResultsShown = true
+            }
+        }
     }
 
     private fun showResults(results: List<SearchResult>, responseInfo: ResponseInfo) {
@@ -451,6 +550,7 @@ public class SearchEngineUiAdapter(
     }
 
     private fun showHistoryItems(items: List<SearchResultAdapterItem>) {
+        asyncItemsCreatorTask?.cancel()
         view.setAdapterItems(items)
         cancelCurrentNetworkRequest()
         searchResultsShown = false
@@ -461,7 +561,8 @@ public class SearchEngineUiAdapter(
             isOnlineSearch = searchMode.isOnlineSearch(reachabilityInterface)
         }
 
-        if (currentSearchRequestTask?.isCancelled == true) {
+        if (currentSearchRequestTask?.isCancelled == true || isSearchRequestInterrupted) {
+            isSearchRequestInterrupted = false
             retrySearchRequest()
         }
     }
@@ -470,6 +571,7 @@ public class SearchEngineUiAdapter(
         cancelHistoryLoading()
 
         currentSearchRequestTask?.cancel()
+        isSearchRequestInterrupted = requestScheduler.cancel()
 
         reachabilityInterface.removeListener(networkReachabilityListenerId)
     }
@@ -482,6 +584,7 @@ public class SearchEngineUiAdapter(
 
     private fun cancelCurrentNetworkRequest() {
         currentSearchRequestTask?.cancel()
+        requestScheduler.cancel()
     }
 
     private fun cancelHistoryLoading() {
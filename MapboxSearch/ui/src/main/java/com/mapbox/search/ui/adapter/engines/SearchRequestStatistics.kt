@@ -0,0 +1,69 @@
+package com.mapbox.search.ui.adapter.engines
+
+/**
+ * Snapshot of the search requests statistics of a [SearchEngineUiAdapter].
+ *
+ * @see SearchEngineUiAdapter.requestStatistics
+ */
+public class SearchRequestStatistics internal constructor(
+
+    /**
+     * Number of search requests sent.
+     */
+    public val requestCount: Long,
+
+    /**
+     * Number of queries which were not sent, because a newer query was typed before the request was sent.
+     */
+    public val debouncedCount: Long,
+
+    /**
+     * Number of queries which were not sent, because they extend a query which has just been answered
+     * with no results.
+     */
+    public val skippedCount: Long,
+) {
+
+    /**
+     * Number of queries for which no request was sent, sum of [debouncedCount] and [skippedCount].
+     */
+    public val savedCount: Long
+        get() = debouncedCount + skippedCount
+
+    /**
+     * @suppress
+     */
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (javaClass != other?.javaClass) return false
+
+        other as SearchRequestStatistics
+
+        if (requestCount != other.requestCount) return false
+        if (debouncedCount != other.debouncedCount) return false
+        if (skippedCount != other.skippedCount) return false
+
+        return true
+    }
+
+    /**
+     * @suppress
+     */
+    override fun hashCode(): Int {
+        var result = requestCount.hashCode()
+        result = 31 * result + debouncedCount.hashCode()
+        result = 31 * result + skippedCount.hashCode()
+        return result
+    }
+
+    /**
+     * @suppress
+     */
+    override fun toString(): String {
+        return "SearchRequestStatistics(" +
+                "requestCount=$requestCount, " +
+                "debouncedCount=$debouncedCount, " +
+                "skippedCount=$skippedCount" +
+                ")"
+    }
+}
@@ -1,13 +1,16 @@
 package com.mapbox.search.ui.adapter.engines
 
 import android.content.Context
-import com.mapbox.common.Cancelable
+import androidx.annotation.ColorInt
+import com.mapbox.common.location.Location
 import com.mapbox.common.location.LocationProvider
 import com.mapbox.search.ResponseInfo
 import com.mapbox.search.base.task.AsyncOperationTaskImpl
 import com.mapbox.search.base.utils.extension.distanceTo
 import com.mapbox.search.base.utils.extension.toPoint
 import com.mapbox.search.common.AsyncOperationTask
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
+import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
 import com.mapbox.search.offline.OfflineResponseInfo
 import com.mapbox.search.offline.OfflineSearchResult
 import com.mapbox.search.record.HistoryRecord
@@ -18,13 +21,29 @@ import com.mapbox.search.ui.R
 import com.mapbox.search.ui.utils.extenstion.resolveAttrOrThrow
 import com.mapbox.search.ui.view.SearchResultAdapterItem
 import com.mapbox.search.ui.view.UiError
+import java.util.concurrent.Executor
 
+private typealias ItemsCallback = (List<SearchResultAdapterItem>) -> Unit
+
+/**
+ * Creates adapter items for [com.mapbox.search.ui.view.SearchResultsView]. Items for suggestions and results
+ * are created on [backgroundExecutor] and delivered to a callback on [mainExecutor], unless the returned task
+ * is cancelled. Theme attributes are resolved once, when the creator is created.
+ */
 internal class SearchResultsItemsCreator(
-    private val context: Context,
+    context: Context,
     private val searchEntityPresentation: SearchEntityPresentation = SearchEntityPresentation(context),
     private val locationProvider: LocationProvider?,
+    private val backgroundExecutor: Executor = SearchExecutorProvider.getDefault().interactiveExecutor,
+    private val mainExecutor: Executor = SearchSdkMainThreadWorker.mainExecutor,
 ) {
 
+    @ColorInt
+    private val primaryAccentColor = context.resolveAttrOrThrow(R.attr.mapboxSearchSdkPrimaryAccentColor)
+
+    @ColorInt
+    private val iconTintColor = context.resolveAttrOrThrow(R.attr.mapboxSearchSdkIconTintColor)
+
     fun createForHistory(historyItems: List<Pair<HistoryRecord, Boolean>>): List<SearchResultAdapterItem> {
         return if (historyItems.isEmpty()) {
             listOf(SearchResultAdapterItem.EmptyHistory)
@@ -41,56 +60,62 @@ internal class SearchResultsItemsCreator(
 
     fun createForSearchSuggestions(
         suggestions: List<SearchSuggestion>,
-        responseInfo: ResponseInfo
-    ): List<SearchResultAdapterItem> {
+        responseInfo: ResponseInfo,
+        callback: ItemsCallback,
+    ): AsyncOperationTask {
         if (suggestions.isEmpty()) {
-            return createForEmptySearchResults(responseInfo)
+            callback(createForEmptySearchResults(responseInfo))
+            return AsyncOperationTask.COMPLETED
         }
-        val suggestionItems = suggestions.map { suggestion ->
-            SearchResultAdapterItem.Result(
-                title = searchEntityPresentation.getTitle(suggestion),
-                subtitle = searchEntityPresentation.getDescription(suggestion),
-                distanceMeters = suggestion.distanceMeters,
-                drawable = searchEntityPresentation.getDrawable(suggestion),
-                drawableColor = when (suggestion.type) {
-                    is SearchSuggestionType.Category,
-                    is SearchSuggestionType.Brand -> R.attr.mapboxSearchSdkPrimaryAccentColor
-                    else -> R.attr.mapboxSearchSdkIconTintColor
-                }.let { context.resolveAttrOrThrow(it) },
-                isPopulateQueryVisible = true,
-                payload = suggestion to responseInfo
-            )
+
+        val task = AsyncOperationTaskImpl(callback)
+        createInBackground(task) {
+            val suggestionItems = suggestions.map { suggestion ->
+                SearchResultAdapterItem.Result(
+                    title = searchEntityPresentation.getTitle(suggestion),
+                    subtitle = searchEntityPresentation.getDescription(suggestion),
+                    distanceMeters = suggestion.distanceMeters,
+                    drawable = searchEntityPresentation.getDrawable(suggestion),
+                    drawableColor = when (suggestion.type) {
+                        is SearchSuggestionType.Category,
+                        is SearchSuggestionType.Brand -> primaryAccentColor
+                        else -> iconTintColor
+                    },
+                    isPopulateQueryVisible = true,
+                    payload = suggestion to responseInfo
+                )
+            }
+            suggestionItems + SearchResultAdapterItem.MissingResultFeedback(responseInfo)
         }
-        return suggestionItems + SearchResultAdapterItem.MissingResultFeedback(responseInfo)
+        return task
     }
 
     fun createForSearchResults(
         results: List<SearchResult>,
         responseInfo: ResponseInfo,
-        callback: (List<SearchResultAdapterItem>) -> Unit,
+        callback: ItemsCallback,
     ): AsyncOperationTask {
         if (results.isEmpty()) {
             callback(createForEmptySearchResults(responseInfo))
             return AsyncOperationTask.COMPLETED
         }
-        var cancelable: Cancelable? = null
-        val task = AsyncOperationTaskImpl<Any>()
-        task.addOnCancelledCallback {
-            cancelable?.cancel()
-        }
-        cancelable = locationProvider?.getLastLocation { location ->
-            val resultItems = results.map { result ->
-                val distance = result.distanceMeters ?: location?.toPoint()?.distanceTo(result.coordinate)
 
-                SearchResultAdapterItem.Result(
-                    title = result.name,
-                    subtitle = searchEntityPresentation.getDescription(result),
-                    distanceMeters = distance,
-                    drawable = searchEntityPresentation.getDrawableForSearchResult(result),
-                    payload = result to responseInfo
-                )
+        val task = AsyncOperationTaskImpl(callback)
+        withLastLocation(task) { location ->
+            createInBackground(task) {
+                val resultItems = results.map { result ->
+                    val distance = result.distanceMeters ?: location?.toPoint()?.distanceTo(result.coordinate)
+
+                    SearchResultAdapterItem.Result(
+                        title = result.name,
+                        subtitle = searchEntityPresentation.getDescription(result),
+                        distanceMeters = distance,
+                        drawable = searchEntityPresentation.getDrawableForSearchResult(result),
+                        payload = result to responseInfo
+                    )
+                }
+                resultItems + SearchResultAdapterItem.MissingResultFeedback(responseInfo)
             }
-            callback(resultItems + SearchResultAdapterItem.MissingResultFeedback(responseInfo))
         }
         return task
     }
@@ -98,7 +123,7 @@ internal class SearchResultsItemsCreator(
     fun createForOfflineSearchResults(
         results: List<OfflineSearchResult>,
         responseInfo: OfflineResponseInfo,
-        callback: (List<SearchResultAdapterItem>) -> Unit,
+        callback: ItemsCallback,
     ): AsyncOperationTask {
         if (results.isEmpty()) {
             callback(
@@ -108,27 +133,49 @@ internal class SearchResultsItemsCreator(
             )
             return AsyncOperationTask.COMPLETED
         }
-        var cancelable: Cancelable? = null
-        val task = AsyncOperationTaskImpl<Any>()
-        task.addOnCancelledCallback {
-            cancelable?.cancel()
-        }
-        cancelable = locationProvider?.getLastLocation { location ->
-            val resultItems = results.map { searchResult ->
-                val distance = searchResult.distanceMeters ?: location?.toPoint()?.distanceTo(searchResult.coordinate)
-                SearchResultAdapterItem.Result(
-                    title = searchEntityPresentation.getTitle(searchResult, responseInfo.requestOptions.query),
-                    subtitle = searchEntityPresentation.getDescription(searchResult),
-                    distanceMeters = distance,
-                    drawable = R.drawable.mapbox_search_sdk_ic_search_result_address,
-                    payload = searchResult to responseInfo
-                )
+
+        val task = AsyncOperationTaskImpl(callback)
+        withLastLocation(task) { location ->
+            createInBackground(task) {
+                results.map { searchResult ->
+                    val distance = searchResult.distanceMeters
+                        ?: location?.toPoint()?.distanceTo(searchResult.coordinate)
+
+                    SearchResultAdapterItem.Result(
+                        title = searchEntityPresentation.getTitle(searchResult, responseInfo.requestOptions.query),
+                        subtitle = searchEntityPresentation.getDescription(searchResult),
+                        distanceMeters = distance,
+                        drawable = R.drawable.mapbox_search_sdk_ic_search_result_address,
+                        payload = searchResult to responseInfo
+                    )
+                }
             }
-            callback(resultItems)
         }
         return task
     }
 
+    private fun withLastLocation(task: AsyncOperationTaskImpl<ItemsCallback>, action: (Location?) -> Unit) {
+        if (locationProvider == null) {
+            action(null)
+        } else {
+            task += locationProvider.getLastLocation { location -> action(location) }
+        }
+    }
+
+    private fun createInBackground(
+        task: AsyncOperationTaskImpl<ItemsCallback>,
+        createItems: () -> List<SearchResultAdapterItem>,
+    ) {
+        backgroundExecutor.execute {
+            task.runIfNotCancelled {
+                val items = createItems()
+                task.markExecutedAndRunOnCallback(mainExecutor) {
+                    invoke(items)
+                }
+            }
+        }
+    }
+
     private fun createForEmptySearchResults(responseInfo: ResponseInfo): List<SearchResultAdapterItem> = listOf(
         SearchResultAdapterItem.EmptySearchResults,
         SearchResultAdapterItem.MissingResultFeedback(responseInfo),
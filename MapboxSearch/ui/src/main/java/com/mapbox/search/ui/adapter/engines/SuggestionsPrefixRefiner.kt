@@ -0,0 +1,57 @@
+package com.mapbox.search.ui.adapter.engines
+
+import com.mapbox.search.common.HighlightsCalculator
+import com.mapbox.search.result.SearchSuggestion
+import java.util.Locale
+
+/**
+ * Locally filters and re-ranks suggestions received for a query against the extended query,
+ * so that provisional suggestions can be shown while the request for the extended query is in progress.
+ */
+internal class SuggestionsPrefixRefiner(
+    private val highlightsCalculator: HighlightsCalculator = HighlightsCalculator.INSTANCE
+) {
+
+    /**
+     * @return suggestions matching [query] ordered by the match quality, or `null`
+     * if [query] doesn't extend [previousQuery] and [suggestions] can't be refined.
+     */
+    fun refine(suggestions: List<SearchSuggestion>, previousQuery: String, query: String): List<SearchSuggestion>? {
+        val normalizedPrevious = previousQuery.trim().lowercase(Locale.getDefault())
+        val normalizedQuery = query.trim().lowercase(Locale.getDefault())
+
+        if (normalizedPrevious.isEmpty() || normalizedQuery.length <= normalizedPrevious.length ||
+            !normalizedQuery.startsWith(normalizedPrevious)
+        ) {
+            return null
+        }
+
+        return suggestions
+            .mapIndexedNotNull { index, suggestion ->
+                val matchedLength = highlightsCalculator.highlights(suggestion.name, query)
+                    .sumOf { (start, end) -> end - start }
+
+                if (matchedLength > 0) {
+                    val isPrefixMatch = suggestion.name.lowercase(Locale.getDefault()).startsWith(normalizedQuery)
+                    Match(suggestion, index, matchedLength, isPrefixMatch)
+                } else {
+                    null
+                }
+            }
+            .sortedWith(MATCHES_COMPARATOR)
+            .map { it.suggestion }
+    }
+
+    private class Match(
+        val suggestion: SearchSuggestion,
+        val index: Int,
+        val matchedLength: Int,
+        val isPrefixMatch: Boolean,
+    )
+
+    private companion object {
+        val MATCHES_COMPARATOR: Comparator<Match> = compareByDescending<Match> { it.isPrefixMatch }
+            .thenByDescending { it.matchedLength }
+            .thenBy { it.index }
+    }
+}
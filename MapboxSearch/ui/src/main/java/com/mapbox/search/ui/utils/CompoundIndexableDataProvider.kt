@@ -2,14 +2,23 @@ package com.mapbox.search.ui.utils
 
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
-import com.mapbox.search.record.IndexableDataProvider
 import com.mapbox.search.record.IndexableRecord
+import com.mapbox.search.record.LocalDataProvider
 
 internal class CompoundIndexableDataProvider<T1 : IndexableRecord, T2 : IndexableRecord>(
-    private val provider1: IndexableDataProvider<T1>,
-    private val provider2: IndexableDataProvider<T2>
+    private val provider1: LocalDataProvider<T1>,
+    private val provider2: LocalDataProvider<T2>
 ) {
 
+    /**
+     * Returns records of both providers if they are already loaded, see [LocalDataProvider.snapshot].
+     */
+    fun snapshot(): Pair<List<T1>, List<T2>>? {
+        val records1 = provider1.snapshot() ?: return null
+        val records2 = provider2.snapshot() ?: return null
+        return records1.values.toList() to records2.values.toList()
+    }
+
     fun getAll(callback: CompletionCallback<Pair<List<T1>, List<T2>>>): AsyncOperationTask {
         var resultSent = false
         var res1: List<T1>? = null
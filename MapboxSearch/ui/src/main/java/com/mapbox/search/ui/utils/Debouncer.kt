@@ -12,6 +12,8 @@ import kotlinx.coroutines.launch
  * using [Dispatchers.Main].
  */
 public class Debouncer(private val delayMillis: Long) {
+
+    private val scope = CoroutineScope(Dispatchers.Main)
     private var job: Job? = null
 
     /**
@@ -20,7 +22,7 @@ public class Debouncer(private val delayMillis: Long) {
      */
     public fun debounce(action: () -> Unit) {
         job?.cancel()
-        job = CoroutineScope(Dispatchers.Main).launch {
+        job = scope.launch {
             delay(delayMillis)
 
             if (isActive) {
@@ -5,6 +5,7 @@ import com.mapbox.search.ServiceProvider
 import com.mapbox.search.common.AsyncOperationTask
 import com.mapbox.search.common.CompletionCallback
 import com.mapbox.search.record.FavoriteRecord
+import com.mapbox.search.record.FavoritesDataProvider
 import com.mapbox.search.record.HistoryDataProvider
 import com.mapbox.search.record.HistoryRecord
 import com.mapbox.search.record.LocalDataProvider
@@ -13,14 +14,16 @@ import java.util.concurrent.ConcurrentHashMap
 @UiThread
 internal class HistoryRecordsInteractor(
     private val historyDataProvider: HistoryDataProvider = ServiceProvider.INSTANCE.historyDataProvider(),
+    private val favoritesDataProvider: FavoritesDataProvider = ServiceProvider.INSTANCE.favoritesDataProvider(),
     private val historyFavoritesDataProvider: CompoundIndexableDataProvider<HistoryRecord, FavoriteRecord> = CompoundIndexableDataProvider(
-        ServiceProvider.INSTANCE.historyDataProvider(),
-        ServiceProvider.INSTANCE.favoritesDataProvider()
+        historyDataProvider,
+        favoritesDataProvider
     )
 ) {
 
     private val retrieveTasks = ConcurrentHashMap<HistoryListener, AsyncOperationTask>()
-    private val changeListeners = ConcurrentHashMap<HistoryListener, LocalDataProvider.OnDataChangedListener<HistoryRecord>>()
+    private val recentRetrieveTasks = ConcurrentHashMap<HistoryListener, AsyncOperationTask>()
+    private val changeListeners = ConcurrentHashMap<HistoryListener, ChangeListeners>()
 
     private val locallyRemovedHistoryRecords = mutableSetOf<HistoryRecord>()
 
@@ -46,73 +49,161 @@ internal class HistoryRecordsInteractor(
 
     /**
      * Adds a listener to be notified of history data changes.
-     * Unlike [LocalDataProvider.addOnDataChangedListener], emits initial data to listener.
+     * Unlike [LocalDataProvider.addOnDataChangeSetListener], emits initial data to listener.
+     *
+     * If history and favorites are already loaded, initial data is emitted right away.
+     * Otherwise, the most recent history records might be emitted before the whole history and favorites are loaded.
+     * Such records aren't matched with favorites until the full data is emitted.
      */
     fun subscribeToChanges(listener: HistoryListener) {
         if (isSubscribed(listener)) {
             return
         }
 
+        val loadedRecords = historyFavoritesDataProvider.snapshot()
+        if (loadedRecords != null) {
+            onInitialRecords(listener, loadedRecords)
+            return
+        }
+
         val callback = object : CompletionCallback<Pair<List<HistoryRecord>, List<FavoriteRecord>>> {
             override fun onComplete(result: Pair<List<HistoryRecord>, List<FavoriteRecord>>) {
-                listener.onHistoryItems(createHistoryItems(result.first, result.second))
+                recentRetrieveTasks.remove(listener)?.cancel()
+                onInitialRecords(listener, result)
+            }
 
-                val dataChangeListener = object : LocalDataProvider.OnDataChangedListener<HistoryRecord> {
-                    override fun onDataChanged(newData: List<HistoryRecord>) {
-                        retrieveTasks[listener]?.cancel()
+            override fun onError(e: Exception) {
+                listener.onError(e)
+                unsubscribe(listener)
+            }
+        }
+        retrieveTasks[listener] = historyFavoritesDataProvider.getAll(callback)
 
-                        val innerCallback =
-                            object : CompletionCallback<Pair<List<HistoryRecord>, List<FavoriteRecord>>> {
-                                override fun onComplete(result: Pair<List<HistoryRecord>, List<FavoriteRecord>>) {
-                                    listener.onHistoryItems(createHistoryItems(result.first, result.second))
-                                }
+        recentRetrieveTasks[listener] = historyDataProvider.getRecent(
+            RECENT_RECORDS_AMOUNT,
+            object : CompletionCallback<List<HistoryRecord>> {
+                override fun onComplete(result: List<HistoryRecord>) {
+                    if (recentRetrieveTasks.remove(listener) != null) {
+                        listener.onHistoryItems(HistoryItems(result, emptyList()).toList(locallyRemovedHistoryRecords))
+                    }
+                }
 
-                                override fun onError(e: Exception) {
-                                    listener.onError(e)
-                                    unsubscribe(listener)
-                                }
-                            }
+                override fun onError(e: Exception) {
+                    // Error is reported by the full data request
+                    recentRetrieveTasks.remove(listener)
+                }
+            }
+        )
+    }
 
-                        retrieveTasks[listener] = historyFavoritesDataProvider.getAll(innerCallback)
-                    }
+    /**
+     * Emits [records] and keeps the emitted items up to date by applying the history change sets to them.
+     */
+    private fun onInitialRecords(
+        listener: HistoryListener,
+        records: Pair<List<HistoryRecord>, List<FavoriteRecord>>,
+    ) {
+        val items = HistoryItems(records.first, records.second)
+        listener.onHistoryItems(items.toList(locallyRemovedHistoryRecords))
+
+        val historyChangeListener = object : LocalDataProvider.OnDataChangeSetListener<HistoryRecord> {
+            override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>) {
+                if (changeSet.isEmpty) {
+                    return
                 }
 
-                changeListeners[listener] = dataChangeListener
-                historyDataProvider.addOnDataChangedListener(dataChangeListener)
+                items.applyHistoryChange(changeSet)
+                listener.onHistoryItems(items.toList(locallyRemovedHistoryRecords))
             }
+        }
 
-            override fun onError(e: Exception) {
-                listener.onError(e)
-                unsubscribe(listener)
+        val favoritesChangeListener = object : LocalDataProvider.OnDataChangeSetListener<FavoriteRecord> {
+            override fun onDataChanged(changeSet: LocalDataProvider.DataChangeSet<FavoriteRecord>) {
+                if (!changeSet.isEmpty && items.updateFavorites(changeSet.records.values)) {
+                    listener.onHistoryItems(items.toList(locallyRemovedHistoryRecords))
+                }
             }
         }
-        retrieveTasks[listener] = historyFavoritesDataProvider.getAll(callback)
+
+        changeListeners[listener] = ChangeListeners(historyChangeListener, favoritesChangeListener)
+        historyDataProvider.addOnDataChangeSetListener(historyChangeListener)
+        favoritesDataProvider.addOnDataChangeSetListener(favoritesChangeListener)
     }
 
     fun unsubscribe(listener: HistoryListener) {
+        recentRetrieveTasks.remove(listener)?.cancel()
+
         retrieveTasks[listener]?.let {
             it.cancel()
             retrieveTasks.remove(listener)
         }
 
         changeListeners[listener]?.let {
-            historyDataProvider.removeOnDataChangedListener(it)
+            historyDataProvider.removeOnDataChangeSetListener(it.history)
+            favoritesDataProvider.removeOnDataChangeSetListener(it.favorites)
             changeListeners.remove(listener)
         }
     }
 
-    private fun isSubscribed(listener: HistoryListener) = retrieveTasks.containsKey(listener)
-
-    private fun createHistoryItems(
-        history: List<HistoryRecord>,
-        favorites: List<FavoriteRecord>
-    ): List<Pair<HistoryRecord, Boolean>> {
-        val favoritesMap = favorites.associateBy { it.address to it.coordinate }
-        return history
-            .filter { !locallyRemovedHistoryRecords.contains(it) }
-            .map {
-                Pair(it, favoritesMap.containsKey(it.address to it.coordinate))
+    private fun isSubscribed(listener: HistoryListener) =
+        retrieveTasks.containsKey(listener) || changeListeners.containsKey(listener)
+
+    private class ChangeListeners(
+        val history: LocalDataProvider.OnDataChangeSetListener<HistoryRecord>,
+        val favorites: LocalDataProvider.OnDataChangeSetListener<FavoriteRecord>,
+    )
+
+    /**
+     * History records in the order of the [HistoryDataProvider], each matched with a flag
+     * which indicates whether the record is also a favorite.
+     */
+    private class HistoryItems(history: List<HistoryRecord>, favorites: Collection<FavoriteRecord>) {
+
+        private val items = LinkedHashMap<String, Pair<HistoryRecord, Boolean>>()
+        private var favoriteKeys = favoriteKeys(favorites)
+
+        init {
+            history.forEach { items[it.id] = createItem(it) }
+        }
+
+        fun applyHistoryChange(changeSet: LocalDataProvider.DataChangeSet<HistoryRecord>) {
+            changeSet.removed.forEach { items.remove(it.id) }
+            // Updated records keep their positions and added records go to the end, like in the data provider
+            changeSet.updated.forEach { items[it.id] = createItem(it) }
+            changeSet.added.forEach { items[it.id] = createItem(it) }
+        }
+
+        /**
+         * Returns true if any of the items has changed its favorite flag.
+         */
+        fun updateFavorites(favorites: Collection<FavoriteRecord>): Boolean {
+            favoriteKeys = favoriteKeys(favorites)
+
+            var isChanged = false
+            items.entries.forEach { entry ->
+                val item = createItem(entry.value.first)
+                if (item.second != entry.value.second) {
+                    entry.setValue(item)
+                    isChanged = true
+                }
             }
+            return isChanged
+        }
+
+        fun toList(excludedRecords: Set<HistoryRecord>): List<Pair<HistoryRecord, Boolean>> {
+            return items.values.filter { !excludedRecords.contains(it.first) }
+        }
+
+        private fun createItem(record: HistoryRecord): Pair<HistoryRecord, Boolean> {
+            return Pair(record, favoriteKeys.contains(record.address to record.coordinate))
+        }
+
+        private fun favoriteKeys(favorites: Collection<FavoriteRecord>) =
+            favorites.mapTo(HashSet()) { it.address to it.coordinate }
+    }
+
+    private companion object {
+        const val RECENT_RECORDS_AMOUNT = 20
     }
 
     /**
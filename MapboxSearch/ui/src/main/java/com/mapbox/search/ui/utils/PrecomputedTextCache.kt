@@ -0,0 +1,148 @@
+package com.mapbox.search.ui.utils
+
+import android.text.Spanned
+import android.text.style.ForegroundColorSpan
+import android.widget.TextView
+import androidx.annotation.MainThread
+import androidx.core.text.PrecomputedTextCompat
+import androidx.core.widget.TextViewCompat
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.FutureTask
+
+/**
+ * Measures texts of [TextView]s on [executor] with [PrecomputedTextCompat] and keeps [maxSize] recently
+ * used measured texts, so that showing the same texts again doesn't measure them on the main thread.
+ *
+ * Texts are keyed by their content, spans and text metrics params of a [TextView]. Measured text doesn't
+ * depend on the [TextView] width, lines are broken on the main thread when the [TextView] is laid out.
+ */
+@MainThread
+internal class PrecomputedTextCache(
+    private val executor: Executor,
+    private val maxSize: Int = DEFAULT_MAX_SIZE,
+) {
+
+    private val entries = object : LinkedHashMap<Key, FutureTask<PrecomputedTextCompat>>(
+        INITIAL_CAPACITY, LOAD_FACTOR, true
+    ) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<Key, FutureTask<PrecomputedTextCompat>>?
+        ): Boolean {
+            return size > maxSize
+        }
+    }
+
+    // Latest params of the text views, so that texts can be measured before they are bound to views
+    private val paramsByViewId = HashMap<Int, PrecomputedTextCompat.Params>()
+
+    // Texts of the latest prefetch which haven't been bound to views yet
+    private var pendingPrefetches: MutableMap<Key, FutureTask<PrecomputedTextCompat>> = HashMap()
+
+    /**
+     * Sets [text] to the [textView]. Measured text is used if it's ready,
+     * otherwise [text] is set as is and measured in background for the next time.
+     */
+    fun setText(textView: TextView, text: CharSequence) {
+        val params = TextViewCompat.getTextMetricsParams(textView)
+        if (textView.id != TextView.NO_ID) {
+            paramsByViewId[textView.id] = params
+        }
+
+        val precomputedText = getIfReady(text, params)
+        if (precomputedText != null) {
+            TextViewCompat.setPrecomputedText(textView, precomputedText)
+        } else {
+            textView.text = text
+        }
+    }
+
+    /**
+     * Starts measuring of [texts], each for the view with the given id, if any text has been set to such view before.
+     * Previously prefetched texts that aren't in [texts] and haven't been measured yet are not measured anymore.
+     */
+    fun prefetch(texts: List<Pair<Int, CharSequence>>) {
+        val prefetchedTexts = HashMap<Key, FutureTask<PrecomputedTextCompat>>(texts.size)
+        texts.forEach { (textViewId, text) ->
+            val params = paramsByViewId[textViewId] ?: return@forEach
+            val key = createKey(text, params)
+            prefetchedTexts[key] = getOrSchedule(key, text, params)
+        }
+
+        pendingPrefetches.forEach { (key, future) ->
+            if (key !in prefetchedTexts && !future.isDone) {
+                // Cancelled measurement is skipped when the executor gets to it
+                future.cancel(false)
+                entries.remove(key)
+            }
+        }
+        pendingPrefetches = prefetchedTexts
+    }
+
+    private fun getIfReady(text: CharSequence, params: PrecomputedTextCompat.Params): PrecomputedTextCompat? {
+        val key = createKey(text, params)
+        val future = getOrSchedule(key, text, params)
+        // Text is needed for a view, so its measurement is not cancelled with the prefetched texts
+        pendingPrefetches.remove(key)
+        if (!future.isDone) {
+            return null
+        }
+
+        return try {
+            future.get()
+        } catch (e: ExecutionException) {
+            null
+        }
+    }
+
+    private fun getOrSchedule(
+        key: Key,
+        text: CharSequence,
+        params: PrecomputedTextCompat.Params,
+    ): FutureTask<PrecomputedTextCompat> {
+        return entries.getOrPut(key) {
+            FutureTask { PrecomputedTextCompat.create(text, params) }.also(executor::execute)
+        }
+    }
+
+    private fun createKey(text: CharSequence, params: PrecomputedTextCompat.Params): Key {
+        return Key(text.toString(), spans(text), params)
+    }
+
+    private data class Key(
+        val text: String,
+        val spans: List<Span>,
+        val params: PrecomputedTextCompat.Params,
+    )
+
+    /**
+     * Span of a text, compared by its range and [style].
+     */
+    private data class Span(
+        val start: Int,
+        val end: Int,
+        val style: Any,
+    )
+
+    private companion object {
+
+        const val DEFAULT_MAX_SIZE = 256
+        const val INITIAL_CAPACITY = 16
+        const val LOAD_FACTOR = 0.75f
+
+        // Highlights are the only spans the SDK sets, they're compared by color, other spans are compared by type
+        fun spans(text: CharSequence): List<Span> {
+            if (text !is Spanned) {
+                return emptyList()
+            }
+
+            return text.getSpans(0, text.length, Any::class.java).map { span ->
+                Span(
+                    start = text.getSpanStart(span),
+                    end = text.getSpanEnd(span),
+                    style = if (span is ForegroundColorSpan) span.foregroundColor else span.javaClass,
+                )
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mapbox.search.ui.utils
+
+/**
+ * Maps keys to unique [Long] ids, for example for [androidx.recyclerview.widget.RecyclerView.Adapter.getItemId].
+ * Only [maxSize] recently used keys are remembered, a key evicted from the mapper gets a new id.
+ * Ids are never reused, so different keys never share an id.
+ */
+internal class StableIdMapper<K>(private val maxSize: Int = DEFAULT_MAX_SIZE) {
+
+    private val ids = object : LinkedHashMap<K, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, Long>?): Boolean {
+            return size > maxSize
+        }
+    }
+
+    private var nextId = 0L
+
+    init {
+        require(maxSize > 0) {
+            "maxSize must be greater than 0"
+        }
+    }
+
+    val size: Int
+        get() = ids.size
+
+    fun getId(key: K): Long {
+        return ids.getOrPut(key) {
+            nextId++
+        }
+    }
+
+    private companion object {
+        const val DEFAULT_MAX_SIZE = 2048
+        const val INITIAL_CAPACITY = 16
+        const val LOAD_FACTOR = 0.75f
+    }
+}
@@ -0,0 +1,76 @@
+package com.mapbox.search.ui.utils.adapter
+
+import androidx.annotation.MainThread
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
+import java.util.concurrent.Executor
+
+/**
+ * Calculates the difference between submitted lists on [backgroundExecutor] and dispatches only changed items
+ * to [updateCallback] on [mainExecutor]. Diffs that are ready after a newer list is submitted are dropped.
+ */
+internal class AsyncItemsDiffer<I>(
+    private val updateCallback: ListUpdateCallback,
+    private val itemCallback: DiffUtil.ItemCallback<I>,
+    private val backgroundExecutor: Executor,
+    private val mainExecutor: Executor,
+) {
+
+    /**
+     * Items dispatched to [updateCallback].
+     */
+    var currentItems: List<I> = emptyList()
+        private set
+
+    // Accessed on the main thread only
+    private var generation = 0
+
+    @MainThread
+    fun submitItems(newItems: List<I>) {
+        val submitGeneration = ++generation
+
+        val oldItems = currentItems
+        if (newItems === oldItems) {
+            return
+        }
+
+        if (oldItems.isEmpty() || newItems.isEmpty()) {
+            currentItems = newItems
+            if (oldItems.isNotEmpty()) {
+                updateCallback.onRemoved(0, oldItems.size)
+            } else if (newItems.isNotEmpty()) {
+                updateCallback.onInserted(0, newItems.size)
+            }
+            return
+        }
+
+        backgroundExecutor.execute {
+            val diff = DiffUtil.calculateDiff(ItemsDiffCallback(oldItems, newItems, itemCallback))
+            mainExecutor.execute {
+                if (submitGeneration == generation) {
+                    currentItems = newItems
+                    diff.dispatchUpdatesTo(updateCallback)
+                }
+            }
+        }
+    }
+
+    private class ItemsDiffCallback<I>(
+        private val oldItems: List<I>,
+        private val newItems: List<I>,
+        private val itemCallback: DiffUtil.ItemCallback<I>,
+    ) : DiffUtil.Callback() {
+
+        override fun getOldListSize() = oldItems.size
+
+        override fun getNewListSize() = newItems.size
+
+        override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+            return itemCallback.areItemsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+        }
+
+        override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+            return itemCallback.areContentsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+        }
+    }
+}
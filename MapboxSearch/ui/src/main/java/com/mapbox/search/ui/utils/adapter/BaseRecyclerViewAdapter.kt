@@ -6,7 +6,7 @@ import androidx.recyclerview.widget.RecyclerView
 internal abstract class BaseRecyclerViewAdapter<I, VH : RecyclerView.ViewHolder> : RecyclerView.Adapter<VH>() {
 
     @get:Keep
-    var items: List<I> = emptyList()
+    open var items: List<I> = emptyList()
         set(value) {
             field = value
             notifyDataSetChanged()
@@ -0,0 +1,88 @@
+package com.mapbox.search.ui.view.adapter
+
+import androidx.recyclerview.widget.DiffUtil
+import com.mapbox.search.offline.OfflineSearchResult
+import com.mapbox.search.result.SearchResult
+import com.mapbox.search.result.SearchSuggestion
+import com.mapbox.search.ui.view.SearchResultAdapterItem
+
+/**
+ * Items are considered the same if they have the same [stableKey], e.g. the same suggestion or history record id,
+ * so that a row is rebound instead of being removed and inserted again when its content changes.
+ */
+internal object SearchResultAdapterItemDiffCallback : DiffUtil.ItemCallback<SearchResultAdapterItem>() {
+
+    override fun areItemsTheSame(oldItem: SearchResultAdapterItem, newItem: SearchResultAdapterItem): Boolean {
+        return stableKey(oldItem) == stableKey(newItem)
+    }
+
+    override fun areContentsTheSame(oldItem: SearchResultAdapterItem, newItem: SearchResultAdapterItem): Boolean {
+        return oldItem == newItem
+    }
+
+    /**
+     * @return compact key of the [item]: its type and id, or a hash of the title and subtitle for items without id.
+     */
+    fun stableKey(item: SearchResultAdapterItem): StableKey {
+        return when (item) {
+            is SearchResultAdapterItem.History -> StableKey(TYPE_HISTORY, item.record.id)
+            is SearchResultAdapterItem.Result -> {
+                val payloadId = payloadId(item.payload)
+                if (payloadId != null) {
+                    StableKey(TYPE_RESULT, payloadId)
+                } else {
+                    val hash = 31 * item.title.toString().hashCode() + item.subtitle.toString().hashCode()
+                    StableKey(TYPE_RESULT, id = null, hash = hash)
+                }
+            }
+            is SearchResultAdapterItem.MissingResultFeedback -> StableKey(TYPE_MISSING_RESULT_FEEDBACK)
+            is SearchResultAdapterItem.Error -> StableKey(TYPE_ERROR)
+            is SearchResultAdapterItem.Loading -> StableKey(TYPE_LOADING)
+            is SearchResultAdapterItem.RecentSearchesHeader -> StableKey(TYPE_RECENT_SEARCHES_HEADER)
+            is SearchResultAdapterItem.EmptyHistory -> StableKey(TYPE_EMPTY_HISTORY)
+            is SearchResultAdapterItem.EmptySearchResults -> StableKey(TYPE_EMPTY_SEARCH_RESULTS)
+            else -> StableKey(TYPE_UNKNOWN, hash = item.hashCode())
+        }
+    }
+
+    /**
+     * @return [stableKey]s of the [items] that are unique within the list:
+     * repeated keys, e.g. of items without id whose hashes collide, are distinguished by their occurrence index.
+     */
+    fun stableKeys(items: List<SearchResultAdapterItem>): List<StableKey> {
+        val occurrences = HashMap<StableKey, Int>(items.size)
+        return items.map { item ->
+            val key = stableKey(item)
+            val occurrence = occurrences[key] ?: 0
+            occurrences[key] = occurrence + 1
+            if (occurrence == 0) key else key.copy(occurrence = occurrence)
+        }
+    }
+
+    private fun payloadId(payload: Any?): String? {
+        return when (payload) {
+            is Pair<*, *> -> payloadId(payload.first)
+            is SearchSuggestion -> payload.id
+            is SearchResult -> payload.id
+            is OfflineSearchResult -> payload.id
+            else -> null
+        }
+    }
+
+    data class StableKey(
+        val type: Int,
+        val id: String? = null,
+        val hash: Int = 0,
+        val occurrence: Int = 0,
+    )
+
+    private const val TYPE_UNKNOWN = 0
+    private const val TYPE_HISTORY = 1
+    private const val TYPE_RESULT = 2
+    private const val TYPE_MISSING_RESULT_FEEDBACK = 3
+    private const val TYPE_ERROR = 4
+    private const val TYPE_LOADING = 5
+    private const val TYPE_RECENT_SEARCHES_HEADER = 6
+    private const val TYPE_EMPTY_HISTORY = 7
+    private const val TYPE_EMPTY_SEARCH_RESULTS = 8
+}
@@ -7,6 +7,7 @@ import androidx.constraintlayout.widget.ConstraintLayout
 import androidx.constraintlayout.widget.ConstraintSet
 import androidx.core.view.isVisible
 import com.mapbox.search.ui.R
+import com.mapbox.search.ui.utils.PrecomputedTextCache
 import com.mapbox.search.ui.utils.adapter.BaseViewHolder
 import com.mapbox.search.ui.utils.extenstion.getDrawableCompat
 import com.mapbox.search.ui.utils.extenstion.resolveAttrOrThrow
@@ -19,7 +20,8 @@ import com.mapbox.search.ui.view.SearchResultAdapterItem
 internal class SearchResultViewHolder(
     parent: ViewGroup,
     private val unitType: DistanceUnitType,
-    private val listener: SearchViewResultsAdapter.Listener
+    private val listener: SearchViewResultsAdapter.Listener,
+    private val textCache: PrecomputedTextCache,
 ) : BaseViewHolder<SearchResultAdapterItem.Result>(
     parent, R.layout.mapbox_search_sdk_result_item_layout
 ) {
@@ -34,8 +36,16 @@ internal class SearchResultViewHolder(
     private val distanceFormatter = DistanceFormatter(context)
 
     override fun bind(item: SearchResultAdapterItem.Result) {
-        nameView.text = item.title
-        addressView.setTextAndHideIfBlank(item.subtitle?.toString())
+        textCache.setText(nameView, item.title)
+
+        val subtitle = item.subtitle?.toString()
+        if (subtitle.isNullOrBlank()) {
+            addressView.text = subtitle
+            addressView.isVisible = false
+        } else {
+            textCache.setText(addressView, subtitle)
+            addressView.isVisible = true
+        }
         distanceView.setTextAndHideIfBlank(item.distanceMeters?.let {
             distanceFormatter.format(it, unitType)
         })
@@ -1,17 +1,53 @@
 package com.mapbox.search.ui.view.adapter
 
 import android.view.ViewGroup
+import androidx.annotation.Keep
+import androidx.recyclerview.widget.AdapterListUpdateCallback
 import androidx.recyclerview.widget.RecyclerView.ViewHolder
-import com.mapbox.search.ui.utils.StringToLongIdMapper
+import com.mapbox.search.common.concurrent.SearchExecutorProvider
+import com.mapbox.search.common.concurrent.SearchSdkMainThreadWorker
+import com.mapbox.search.ui.R
+import com.mapbox.search.ui.utils.PrecomputedTextCache
+import com.mapbox.search.ui.utils.StableIdMapper
+import com.mapbox.search.ui.utils.adapter.AsyncItemsDiffer
 import com.mapbox.search.ui.utils.adapter.BaseRecyclerViewAdapter
 import com.mapbox.search.ui.view.DistanceUnitType
 import com.mapbox.search.ui.view.SearchResultAdapterItem
+import java.util.concurrent.Executor
 
 internal class SearchViewResultsAdapter(
     private val unitType: DistanceUnitType,
+    diffExecutor: Executor = SearchExecutorProvider.getDefault().interactiveExecutor,
+    mainExecutor: Executor = SearchSdkMainThreadWorker.mainExecutor,
+    textExecutor: Executor = SearchExecutorProvider.getDefault().prefetchExecutor,
 ) : BaseRecyclerViewAdapter<SearchResultAdapterItem, ViewHolder>() {
 
-    private val stringToLongMapper = StringToLongIdMapper()
+    private val idMapper = StableIdMapper<SearchResultAdapterItemDiffCallback.StableKey>()
+
+    // Ids of the displayed items, so that layout and scrolling don't create keys for every lookup
+    private var itemIdsSource: List<SearchResultAdapterItem>? = null
+    private var itemIds = LongArray(0)
+
+    private val textCache = PrecomputedTextCache(textExecutor)
+
+    private val differ = AsyncItemsDiffer(
+        updateCallback = AdapterListUpdateCallback(this),
+        itemCallback = SearchResultAdapterItemDiffCallback,
+        backgroundExecutor = diffExecutor,
+        mainExecutor = mainExecutor,
+    )
+
+    /**
+     * Currently displayed items. New items are diffed against them in background
+     * and only changed rows are dispatched to the [androidx.recyclerview.widget.RecyclerView].
+     */
+    @get:Keep
+    override var items: List<SearchResultAdapterItem>
+        get() = differ.currentItems
+        set(value) {
+            prefetchTexts(value)
+            differ.submitItems(value)
+        }
 
     var listener: Listener? = null
 
@@ -43,7 +79,33 @@ internal class SearchViewResultsAdapter(
     }
 
     override fun getItemId(position: Int): Long {
-        return stringToLongMapper.getId(items[position].toString())
+        val currentItems = items
+        if (currentItems !== itemIdsSource) {
+            itemIdsSource = currentItems
+            val keys = SearchResultAdapterItemDiffCallback.stableKeys(currentItems)
+            itemIds = LongArray(keys.size) { index ->
+                idMapper.getId(keys[index])
+            }
+        }
+        return itemIds[position]
+    }
+
+    // Texts are measured in background while the items are diffed, so that they are ready when rows are bound.
+    // Only the first items are prefetched, the rest are measured when they are scrolled to.
+    // Texts of the replaced items that haven't been measured yet are not measured anymore.
+    private fun prefetchTexts(items: List<SearchResultAdapterItem>) {
+        val texts = ArrayList<Pair<Int, CharSequence>>()
+        items.asSequence().take(MAX_PREFETCHED_ITEMS).forEach { item ->
+            if (item is SearchResultAdapterItem.Result) {
+                texts.add(R.id.search_result_name to item.title)
+
+                val subtitle = item.subtitle?.toString()
+                if (!subtitle.isNullOrBlank()) {
+                    texts.add(R.id.search_result_address to subtitle)
+                }
+            }
+        }
+        textCache.prefetch(texts)
     }
 
     override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ViewHolder {
@@ -54,7 +116,7 @@ internal class SearchViewResultsAdapter(
             VIEW_TYPE_RESENT_SEARCHES_HEADER -> RecentSearchesHeaderViewHolder(parent)
             VIEW_TYPE_HISTORY -> SearchHistoryViewHolder(parent, innerListener)
             VIEW_TYPE_EMPTY_SEARCH_RESULTS -> EmptySearchResultsViewHolder(parent)
-            VIEW_TYPE_SEARCH_RESULT -> SearchResultViewHolder(parent, unitType, innerListener)
+            VIEW_TYPE_SEARCH_RESULT -> SearchResultViewHolder(parent, unitType, innerListener, textCache)
             VIEW_TYPE_MISSING_RESULT -> MissingResultFeedbackViewHolder(parent, innerListener)
             else -> throw IllegalStateException("Unknown view type: $viewType")
         }
@@ -124,6 +186,8 @@ internal class SearchViewResultsAdapter(
 
     private companion object {
 
+        const val MAX_PREFETCHED_ITEMS = 50
+
         var NEXT_VIEW_TYPE_ID = 0
 
         val VIEW_TYPE_LOADING = NEXT_VIEW_TYPE_ID++
@@ -0,0 +1,140 @@
+package com.mapbox.search.ui.adapter.engines
+
+import com.mapbox.search.base.utils.TimeProvider
+import com.mapbox.search.common.concurrent.MainThreadWorker
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+internal class AdaptiveSearchSchedulerTest {
+
+    private val mainThreadWorker = TestDelayedMainThreadWorker()
+    private val scheduler = AdaptiveSearchScheduler(mainThreadWorker, mainThreadWorker)
+    private val sentQueries = mutableListOf<String>()
+
+    private fun submit(query: String, debounce: Boolean = true): Boolean {
+        return scheduler.submit(query, OPTIONS, debounce) {
+            sentQueries += query
+        }
+    }
+
+    @TestFactory
+    fun `Check requests gating and debouncing`() = TestCase {
+        Given("AdaptiveSearchScheduler") {
+            When("First query submitted") {
+                submit("s")
+
+                Then("Request sent right away", listOf("s"), sentQueries)
+            }
+
+            When("Queries submitted while request is in flight") {
+                mainThreadWorker.advanceBy(100)
+                submit("st")
+                mainThreadWorker.advanceBy(100)
+                submit("sta")
+
+                Then("No requests sent", listOf("s"), sentQueries)
+                Then("Replaced query is debounced", 1L, scheduler.statistics.debouncedCount)
+            }
+
+            When("Response for the request in flight received") {
+                mainThreadWorker.advanceBy(100)
+                val isStale = scheduler.onResponse(5)
+
+                Then("Response is stale", true, isStale)
+                Then("Debounce window is tuned from typing cadence", 150L, scheduler.debounceWindowMillis)
+                Then("Pending request isn't sent before debounce window elapses", listOf("s"), sentQueries)
+
+                mainThreadWorker.advanceBy(50)
+
+                Then("Pending request sent once debounce window elapses", listOf("s", "sta"), sentQueries)
+            }
+
+            When("Response with no results received and the query is extended") {
+                scheduler.onResponse(0)
+                mainThreadWorker.advanceBy(100)
+                val isScheduled = submit("star")
+                mainThreadWorker.advanceBy(1000)
+
+                Then("Request isn't scheduled", false, isScheduled)
+                Then("Request isn't sent", listOf("s", "sta"), sentQueries)
+                Then("Query is skipped", 1L, scheduler.statistics.skippedCount)
+            }
+
+            When("Query not extending the query with no results submitted without debouncing") {
+                val isScheduled = submit("stop", debounce = false)
+
+                Then("Request is scheduled", true, isScheduled)
+                Then("Request sent right away", listOf("s", "sta", "stop"), sentQueries)
+            }
+
+            When("Scheduler cancelled") {
+                val hadRequests = scheduler.cancel()
+                submit("stops", debounce = false)
+
+                Then("Request in flight was cancelled", true, hadRequests)
+                Then("Next request sent right away", listOf("s", "sta", "stop", "stops"), sentQueries)
+                Then(
+                    "Statistics counted",
+                    SearchRequestStatistics(requestCount = 4, debouncedCount = 1, skippedCount = 1),
+                    scheduler.statistics
+                )
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check pending request with extended query after response with no results`() = TestCase {
+        Given("AdaptiveSearchScheduler with request in flight and pending request") {
+            submit("sta")
+            mainThreadWorker.advanceBy(100)
+            submit("star")
+
+            When("Response with no results received") {
+                val isStale = scheduler.onResponse(0)
+                mainThreadWorker.advanceBy(1000)
+
+                Then("Response isn't stale", false, isStale)
+                Then("Pending request isn't sent", listOf("sta"), sentQueries)
+                Then("Pending query is skipped", 1L, scheduler.statistics.skippedCount)
+                Then("Pending query isn't debounced", 0L, scheduler.statistics.debouncedCount)
+            }
+        }
+    }
+
+    private class TestDelayedMainThreadWorker : MainThreadWorker, TimeProvider {
+
+        private var now = 0L
+        private val tasks = mutableListOf<Pair<Long, Runnable>>()
+
+        override val isMainThread: Boolean = true
+
+        override val mainExecutor: Executor = Executor { it.run() }
+
+        override fun post(runnable: Runnable) {
+            runnable.run()
+        }
+
+        override fun postDelayed(delay: Long, unit: TimeUnit, runnable: Runnable) {
+            tasks += (now + unit.toMillis(delay)) to runnable
+        }
+
+        override fun cancel(runnable: Runnable) {
+            tasks.removeAll { it.second === runnable }
+        }
+
+        override fun currentTimeMillis(): Long = now
+
+        fun advanceBy(millis: Long) {
+            now += millis
+            val dueTasks = tasks.filter { it.first <= now }
+            tasks.removeAll(dueTasks)
+            dueTasks.forEach { it.second.run() }
+        }
+    }
+
+    private companion object {
+        const val OPTIONS = "options"
+    }
+}
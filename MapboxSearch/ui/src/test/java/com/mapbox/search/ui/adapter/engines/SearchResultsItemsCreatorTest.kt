@@ -0,0 +1,184 @@
+package com.mapbox.search.ui.adapter.engines
+
+import android.content.Context
+import com.mapbox.common.Cancelable
+import com.mapbox.common.location.GetLocationCallback
+import com.mapbox.common.location.Location
+import com.mapbox.common.location.LocationProvider
+import com.mapbox.geojson.Point
+import com.mapbox.search.ResponseInfo
+import com.mapbox.search.base.utils.extension.distanceTo
+import com.mapbox.search.result.SearchResult
+import com.mapbox.search.result.SearchSuggestion
+import com.mapbox.search.ui.utils.extenstion.resolveAttrOrThrow
+import com.mapbox.search.ui.view.SearchResultAdapterItem
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.slot
+import io.mockk.unmockkStatic
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class SearchResultsItemsCreatorTest {
+
+    @TestFactory
+    fun `Check items creation for suggestions`() = TestCase {
+        Given("SearchResultsItemsCreator with direct executors") {
+            val itemsCreator = createItemsCreator(locationProvider = null)
+
+            When("Items for suggestions requested") {
+                val delivered = mutableListOf<List<SearchResultAdapterItem>>()
+                val task = itemsCreator.createForSearchSuggestions(listOf(createSuggestion()), RESPONSE_INFO) {
+                    delivered.add(it)
+                }
+
+                Then("Items are delivered once", 1, delivered.size)
+                Then("Suggestion item is created", true, delivered.first().first() is SearchResultAdapterItem.Result)
+                Then(
+                    "Missing result feedback item is the last one",
+                    SearchResultAdapterItem.MissingResultFeedback(RESPONSE_INFO),
+                    delivered.first().last()
+                )
+                Then("Task is done", true, task.isDone)
+
+                task.cancel()
+                Then("Task cancelled after delivery stays done", false, task.isCancelled)
+                Then("Items are not delivered again", 1, delivered.size)
+            }
+
+            When("Items for empty suggestions requested") {
+                val delivered = mutableListOf<List<SearchResultAdapterItem>>()
+                itemsCreator.createForSearchSuggestions(emptyList(), RESPONSE_INFO) {
+                    delivered.add(it)
+                }
+
+                Then(
+                    "Empty search results items are delivered",
+                    listOf(
+                        listOf(
+                            SearchResultAdapterItem.EmptySearchResults,
+                            SearchResultAdapterItem.MissingResultFeedback(RESPONSE_INFO),
+                        )
+                    ),
+                    delivered
+                )
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check items creation for results without location provider`() = TestCase {
+        Given("SearchResultsItemsCreator without location provider") {
+            val itemsCreator = createItemsCreator(locationProvider = null)
+
+            When("Items for results without distance requested") {
+                val delivered = mutableListOf<List<SearchResultAdapterItem>>()
+                itemsCreator.createForSearchResults(listOf(createSearchResult()), RESPONSE_INFO) {
+                    delivered.add(it)
+                }
+
+                val item = delivered.single().first() as SearchResultAdapterItem.Result
+                Then("Item is created", RESULT_NAME, item.title)
+                Then("Item has no distance", null, item.distanceMeters)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check items creation for results with location provider`() = TestCase {
+        Given("SearchResultsItemsCreator with location provider") {
+            val locationCallback = slot<GetLocationCallback>()
+            val locationCancelable = mockk<Cancelable>(relaxed = true)
+            val locationProvider = mockk<LocationProvider>()
+            every { locationProvider.getLastLocation(capture(locationCallback)) } returns locationCancelable
+
+            val itemsCreator = createItemsCreator(locationProvider)
+
+            When("Items for results requested and location is received") {
+                val delivered = mutableListOf<List<SearchResultAdapterItem>>()
+                val task = itemsCreator.createForSearchResults(listOf(createSearchResult()), RESPONSE_INFO) {
+                    delivered.add(it)
+                }
+
+                Then("Items are not delivered before location is received", 0, delivered.size)
+
+                locationCallback.captured.run(createLocation(USER_LOCATION))
+
+                val item = delivered.single().first() as SearchResultAdapterItem.Result
+                Then(
+                    "Distance to the user location is calculated",
+                    USER_LOCATION.distanceTo(RESULT_COORDINATE),
+                    item.distanceMeters
+                )
+                Then("Task is done", true, task.isDone)
+            }
+
+            When("Task is cancelled before location is received") {
+                val delivered = mutableListOf<List<SearchResultAdapterItem>>()
+                val task = itemsCreator.createForSearchResults(listOf(createSearchResult()), RESPONSE_INFO) {
+                    delivered.add(it)
+                }
+
+                task.cancel()
+                locationCallback.captured.run(createLocation(USER_LOCATION))
+
+                Then("Items are not delivered", 0, delivered.size)
+                Then("Task is cancelled", true, task.isCancelled)
+                VerifyOnce("Location request is cancelled") {
+                    locationCancelable.cancel()
+                }
+            }
+        }
+    }
+
+    private companion object {
+
+        const val CONTEXT_KT_CLASS_NAME = "com.mapbox.search.ui.utils.extenstion.ContextKt"
+        const val RESULT_NAME = "Result name"
+
+        val RESULT_COORDINATE: Point = Point.fromLngLat(10.0, 20.0)
+        val USER_LOCATION: Point = Point.fromLngLat(10.1, 20.1)
+
+        val RESPONSE_INFO = mockk<ResponseInfo>()
+
+        val DIRECT_EXECUTOR = Executor { it.run() }
+
+        fun createItemsCreator(locationProvider: LocationProvider?) = SearchResultsItemsCreator(
+            context = mockk<Context>(),
+            searchEntityPresentation = mockk(relaxed = true),
+            locationProvider = locationProvider,
+            backgroundExecutor = DIRECT_EXECUTOR,
+            mainExecutor = DIRECT_EXECUTOR,
+        )
+
+        fun createSuggestion(): SearchSuggestion = mockk(relaxed = true)
+
+        fun createSearchResult(): SearchResult = mockk(relaxed = true) {
+            every { name } returns RESULT_NAME
+            every { coordinate } returns RESULT_COORDINATE
+            every { distanceMeters } returns null
+        }
+
+        fun createLocation(point: Point): Location = mockk {
+            every { latitude } returns point.latitude()
+            every { longitude } returns point.longitude()
+        }
+
+        @BeforeAll
+        @JvmStatic
+        fun setUpAll() {
+            mockkStatic(CONTEXT_KT_CLASS_NAME)
+            every { any<Context>().resolveAttrOrThrow(any()) } returns 0
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDownAll() {
+            unmockkStatic(CONTEXT_KT_CLASS_NAME)
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mapbox.search.ui.adapter.engines
+
+import com.mapbox.search.common.HighlightsCalculator
+import com.mapbox.search.result.SearchSuggestion
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.TestFactory
+
+internal class SuggestionsPrefixRefinerTest {
+
+    // Highlights the longest common prefix of the name and the query
+    private val highlightsCalculator = object : HighlightsCalculator {
+        override fun highlights(name: String, query: String): List<Pair<Int, Int>> {
+            val length = name.lowercase().commonPrefixWith(query.lowercase()).length
+            return if (length == query.length) listOf(0 to length) else emptyList()
+        }
+    }
+
+    private val refiner = SuggestionsPrefixRefiner(highlightsCalculator)
+
+    @TestFactory
+    fun `Check suggestions refinement`() = TestCase {
+        Given("SuggestionsPrefixRefiner") {
+            val starMarket = createSuggestion("Star Market")
+            val starbucks = createSuggestion("Starbucks")
+            val starbase = createSuggestion("Starbase")
+            val suggestions = listOf(starMarket, starbucks, starbase)
+
+            When("Query extends previous query") {
+                val refined = refiner.refine(suggestions, "star", "starb")
+
+                Then("Matching suggestions returned in the original order", listOf(starbucks, starbase), refined)
+            }
+
+            When("Query extends previous query in different case and with trailing whitespace") {
+                val refined = refiner.refine(suggestions, "Star ", "STARBU")
+
+                Then("Matching suggestions returned", listOf(starbucks), refined)
+            }
+
+            When("No suggestions match query") {
+                val refined = refiner.refine(suggestions, "star", "starz")
+
+                Then("Empty list returned", emptyList<SearchSuggestion>(), refined)
+            }
+
+            When("Query doesn't extend previous query") {
+                Then("Null returned for different query", null, refiner.refine(suggestions, "star", "moon"))
+                Then("Null returned for shorter query", null, refiner.refine(suggestions, "starb", "star"))
+                Then("Null returned for the same query", null, refiner.refine(suggestions, "star", "star"))
+                Then("Null returned for empty previous query", null, refiner.refine(suggestions, "", "star"))
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check suggestions ranking`() = TestCase {
+        Given("SuggestionsPrefixRefiner with highlights in the middle of names") {
+            val coffeeStar = createSuggestion("Coffee Starb")
+            val starbucks = createSuggestion("Starbucks")
+            val suggestions = listOf(coffeeStar, starbucks)
+
+            val calculator = mockk<HighlightsCalculator>()
+            every { calculator.highlights("Coffee Starb", any()) } returns listOf(0 to 1, 7 to 12)
+            every { calculator.highlights("Starbucks", any()) } returns listOf(0 to 5)
+
+            When("Suggestions refined") {
+                val refined = SuggestionsPrefixRefiner(calculator).refine(suggestions, "star", "starb")
+
+                Then("Suggestions which names start with query go first", listOf(starbucks, coffeeStar), refined)
+            }
+        }
+    }
+
+    private fun createSuggestion(name: String): SearchSuggestion {
+        return mockk {
+            every { this@mockk.name } returns name
+        }
+    }
+}
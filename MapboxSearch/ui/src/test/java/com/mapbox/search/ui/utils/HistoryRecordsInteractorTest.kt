@@ -0,0 +1,141 @@
+package com.mapbox.search.ui.utils
+
+import com.mapbox.geojson.Point
+import com.mapbox.search.record.FavoriteRecord
+import com.mapbox.search.record.FavoritesDataProvider
+import com.mapbox.search.record.HistoryDataProvider
+import com.mapbox.search.record.HistoryRecord
+import com.mapbox.search.record.IndexableRecord
+import com.mapbox.search.record.LocalDataProvider
+import com.mapbox.search.result.NewSearchResultType
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import org.junit.jupiter.api.TestFactory
+
+internal class HistoryRecordsInteractorTest {
+
+    @TestFactory
+    fun `Check history changes`() = TestCase {
+        Given("HistoryRecordsInteractor with loaded history and favorites") {
+            val history = (1..3).map { createHistoryRecord(it) }
+            val favorite = createFavoriteRecord(history[1])
+
+            val historyDataProvider = mockk<HistoryDataProvider>(relaxed = true)
+            every { historyDataProvider.snapshot() } returns history.associateBy { it.id }
+            val historyListener = slot<LocalDataProvider.OnDataChangeSetListener<HistoryRecord>>()
+            every { historyDataProvider.addOnDataChangeSetListener(any(), capture(historyListener)) } returns Unit
+
+            val favoritesDataProvider = mockk<FavoritesDataProvider>(relaxed = true)
+            every { favoritesDataProvider.snapshot() } returns mapOf(favorite.id to favorite)
+            val favoritesListener = slot<LocalDataProvider.OnDataChangeSetListener<FavoriteRecord>>()
+            every { favoritesDataProvider.addOnDataChangeSetListener(any(), capture(favoritesListener)) } returns Unit
+
+            val interactor = HistoryRecordsInteractor(historyDataProvider, favoritesDataProvider)
+
+            val emittedItems = mutableListOf<List<Pair<HistoryRecord, Boolean>>>()
+            interactor.subscribeToChanges(object : HistoryRecordsInteractor.HistoryListener {
+                override fun onHistoryItems(items: List<Pair<HistoryRecord, Boolean>>) {
+                    emittedItems.add(items)
+                }
+
+                override fun onError(e: Exception) {
+                    throw e
+                }
+            })
+
+            When("Subscribed to changes") {
+                Then(
+                    "Initial items are emitted",
+                    listOf(history[0] to false, history[1] to true, history[2] to false),
+                    emittedItems.last()
+                )
+            }
+
+            When("History records are changed") {
+                val added = createHistoryRecord(4)
+                val updated = history[1].copy(name = "Updated name")
+
+                every { historyDataProvider.snapshot() } throws IllegalStateException("Snapshot is not expected")
+
+                historyListener.captured.onDataChanged(
+                    createChangeSet(added = listOf(added), updated = listOf(updated), removed = listOf(history[0]))
+                )
+
+                Then(
+                    "Change set is applied to the emitted items",
+                    listOf(updated to true, history[2] to false, added to false),
+                    emittedItems.last()
+                )
+            }
+
+            When("Empty history change set is reported") {
+                val emittedCount = emittedItems.size
+                historyListener.captured.onDataChanged(createChangeSet())
+
+                Then("Items are not emitted", emittedCount, emittedItems.size)
+            }
+
+            When("Favorites are changed") {
+                val newFavorite = createFavoriteRecord(history[2])
+                favoritesListener.captured.onDataChanged(
+                    createChangeSet(
+                        added = listOf(newFavorite),
+                        removed = listOf(favorite),
+                        records = mapOf(newFavorite.id to newFavorite),
+                    )
+                )
+
+                Then(
+                    "Favorite flags are updated",
+                    listOf(false, true, false),
+                    emittedItems.last().map { it.second }
+                )
+            }
+        }
+    }
+
+    private companion object {
+
+        fun createHistoryRecord(index: Int) = HistoryRecord(
+            id = "history-record-$index",
+            name = "History record $index",
+            coordinate = Point.fromLngLat(index.toDouble(), index.toDouble()),
+            descriptionText = null,
+            address = null,
+            timestamp = index.toLong(),
+            newType = NewSearchResultType.POI,
+            routablePoints = null,
+            metadata = null,
+            makiIcon = null,
+            categories = null,
+        )
+
+        fun createFavoriteRecord(historyRecord: HistoryRecord) = FavoriteRecord(
+            id = "favorite-${historyRecord.id}",
+            name = historyRecord.name,
+            coordinate = historyRecord.coordinate,
+            descriptionText = null,
+            address = historyRecord.address,
+            newType = NewSearchResultType.POI,
+            makiIcon = null,
+            categories = null,
+            routablePoints = null,
+            metadata = null,
+        )
+
+        fun <R : IndexableRecord> createChangeSet(
+            added: List<R> = emptyList(),
+            updated: List<R> = emptyList(),
+            removed: List<R> = emptyList(),
+            records: Map<String, R> = emptyMap(),
+        ): LocalDataProvider.DataChangeSet<R> = mockk {
+            every { this@mockk.added } returns added
+            every { this@mockk.updated } returns updated
+            every { this@mockk.removed } returns removed
+            every { this@mockk.records } returns records
+            every { isEmpty } returns (added.isEmpty() && updated.isEmpty() && removed.isEmpty())
+        }
+    }
+}
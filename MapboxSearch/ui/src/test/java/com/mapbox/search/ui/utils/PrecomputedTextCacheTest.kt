@@ -0,0 +1,230 @@
+package com.mapbox.search.ui.utils
+
+import android.text.Spanned
+import android.text.style.ForegroundColorSpan
+import android.widget.TextView
+import androidx.core.text.PrecomputedTextCompat
+import androidx.core.widget.TextViewCompat
+import com.mapbox.test.dsl.TestCase
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import io.mockk.unmockkStatic
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class PrecomputedTextCacheTest {
+
+    @TestFactory
+    fun `Check texts keys`() = TestCase {
+        Given("PrecomputedTextCache with queued executor") {
+            val executor = QueuedExecutor()
+            val cache = PrecomputedTextCache(executor)
+
+            val nameView = createTextView(NAME_VIEW_ID, NAME_PARAMS)
+            val addressView = createTextView(ADDRESS_VIEW_ID, ADDRESS_PARAMS)
+
+            When("Text is set for the first time") {
+                cache.setText(nameView, "Text")
+
+                Then("Text measurement is scheduled", 1, executor.size)
+                Verify("Text is set as is") {
+                    nameView.text = "Text"
+                }
+            }
+
+            When("Same text is set after it's measured") {
+                executor.runAll()
+                cache.setText(nameView, "Text")
+
+                Then("Text is not measured again", 0, executor.size)
+                VerifyOnce("Measured text is set") {
+                    TextViewCompat.setPrecomputedText(nameView, precomputedText("Text", NAME_PARAMS))
+                }
+            }
+
+            When("Same text is set to the view with different params") {
+                cache.setText(addressView, "Text")
+
+                Then("Text is measured for the params", 1, executor.size)
+            }
+
+            When("Different text is set") {
+                executor.runAll()
+                cache.setText(nameView, "Another text")
+
+                Then("Text is measured", 1, executor.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check texts spans keys`() = TestCase {
+        Given("PrecomputedTextCache with queued executor") {
+            val executor = QueuedExecutor()
+            val cache = PrecomputedTextCache(executor)
+            val textView = createTextView(NAME_VIEW_ID, NAME_PARAMS)
+
+            When("Highlighted text is set after it's measured") {
+                cache.setText(textView, createHighlightedText("Text", start = 0, end = 1, color = HIGHLIGHT_COLOR))
+                executor.runAll()
+                cache.setText(textView, createHighlightedText("Text", start = 0, end = 1, color = HIGHLIGHT_COLOR))
+
+                Then("Text with the same highlight is not measured again", 0, executor.size)
+            }
+
+            When("Same text with different highlight is set") {
+                cache.setText(textView, createHighlightedText("Text", start = 0, end = 2, color = HIGHLIGHT_COLOR))
+
+                Then("Text is measured", 1, executor.size)
+            }
+
+            When("Same text with highlight whose range and color give the same hash is set") {
+                executor.runAll()
+                // 31 * (31 * 0 + 1) + HIGHLIGHT_COLOR == 31 * (31 * 0 + 0) + (HIGHLIGHT_COLOR + 31)
+                cache.setText(textView, createHighlightedText("Text", start = 0, end = 0, color = HIGHLIGHT_COLOR + 31))
+
+                Then("Text is measured", 1, executor.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check recently used texts are kept`() = TestCase {
+        Given("PrecomputedTextCache with max size 2") {
+            val executor = QueuedExecutor()
+            val cache = PrecomputedTextCache(executor, maxSize = 2)
+            val textView = createTextView(NAME_VIEW_ID, NAME_PARAMS)
+
+            When("More texts than max size are set") {
+                cache.setText(textView, "First")
+                cache.setText(textView, "Second")
+                // "First" is the most recently used text, "Second" is evicted
+                cache.setText(textView, "First")
+                cache.setText(textView, "Third")
+                executor.runAll()
+
+                cache.setText(textView, "First")
+                Then("Recently used text is kept", 0, executor.size)
+
+                cache.setText(textView, "Second")
+                Then("Evicted text is measured again", 1, executor.size)
+            }
+        }
+    }
+
+    @TestFactory
+    fun `Check texts prefetching`() = TestCase {
+        Given("PrecomputedTextCache with queued executor") {
+            val executor = QueuedExecutor()
+            val cache = PrecomputedTextCache(executor)
+            val textView = createTextView(NAME_VIEW_ID, NAME_PARAMS)
+
+            When("Texts are prefetched before any text is set to the view") {
+                cache.prefetch(listOf(NAME_VIEW_ID to "Prefetched first"))
+
+                Then("Texts are not measured", 0, executor.size)
+            }
+
+            When("Texts are prefetched after a text is set to the view") {
+                cache.setText(textView, "Bound")
+                executor.runAll()
+
+                cache.prefetch(listOf(NAME_VIEW_ID to "Prefetched first", NAME_VIEW_ID to "Prefetched second"))
+
+                Then("Texts measurements are scheduled", 2, executor.size)
+            }
+
+            When("Different texts are prefetched before previous are measured") {
+                cache.setText(textView, "Prefetched second")
+                cache.prefetch(listOf(NAME_VIEW_ID to "Prefetched third"))
+                executor.runAll()
+
+                VerifyNo("Replaced text is not measured") {
+                    PrecomputedTextCompat.create("Prefetched first", NAME_PARAMS)
+                }
+                VerifyOnce("Text bound to the view is measured") {
+                    PrecomputedTextCompat.create("Prefetched second", NAME_PARAMS)
+                }
+                VerifyOnce("New text is measured") {
+                    PrecomputedTextCompat.create("Prefetched third", NAME_PARAMS)
+                }
+
+                cache.setText(textView, "Prefetched first")
+                Then("Replaced text is measured when it's bound", 1, executor.size)
+            }
+        }
+    }
+
+    private class QueuedExecutor : Executor {
+
+        private val queue = ArrayDeque<Runnable>()
+
+        val size: Int
+            get() = queue.size
+
+        override fun execute(command: Runnable) {
+            queue.addLast(command)
+        }
+
+        fun runAll() {
+            while (queue.isNotEmpty()) {
+                queue.removeFirst().run()
+            }
+        }
+    }
+
+    private companion object {
+
+        const val NAME_VIEW_ID = 1
+        const val ADDRESS_VIEW_ID = 2
+        const val HIGHLIGHT_COLOR = 0xFF0000
+
+        val NAME_PARAMS = mockk<PrecomputedTextCompat.Params>()
+        val ADDRESS_PARAMS = mockk<PrecomputedTextCompat.Params>()
+
+        val PRECOMPUTED_TEXTS = HashMap<Pair<String, PrecomputedTextCompat.Params>, PrecomputedTextCompat>()
+
+        fun precomputedText(text: String, params: PrecomputedTextCompat.Params): PrecomputedTextCompat {
+            return PRECOMPUTED_TEXTS.getOrPut(text to params) { mockk() }
+        }
+
+        fun createTextView(id: Int, params: PrecomputedTextCompat.Params): TextView {
+            val textView = mockk<TextView>(relaxed = true)
+            every { textView.id } returns id
+            every { TextViewCompat.getTextMetricsParams(textView) } returns params
+            return textView
+        }
+
+        fun createHighlightedText(text: String, start: Int, end: Int, color: Int): Spanned {
+            val span = mockk<ForegroundColorSpan> {
+                every { foregroundColor } returns color
+            }
+            return mockk {
+                every { length } returns text.length
+                every { this@mockk.toString() } returns text
+                every { getSpans(any(), any(), Any::class.java) } returns arrayOf<Any>(span)
+                every { getSpanStart(span) } returns start
+                every { getSpanEnd(span) } returns end
+            }
+        }
+
+        @BeforeAll
+        @JvmStatic
+        fun setUpAll() {
+            mockkStatic(TextViewCompat::class, PrecomputedTextCompat::class)
+            every { TextViewCompat.setPrecomputedText(any(), any()) } returns Unit
+            every { PrecomputedTextCompat.create(any(), any()) } answers {
+                precomputedText(firstArg<CharSequence>().toString(), secondArg())
+            }
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDownAll() {
+            unmockkStatic(TextViewCompat::class, PrecomputedTextCompat::class)
+        }
+    }
+}
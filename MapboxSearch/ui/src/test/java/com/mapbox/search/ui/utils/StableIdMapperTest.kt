@@ -0,0 +1,35 @@
+package com.mapbox.search.ui.utils
+
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+
+internal class StableIdMapperTest {
+
+    @TestFactory
+    fun `Check ids mapping`() = TestCase {
+        Given("StableIdMapper with max size 2") {
+            val mapper = StableIdMapper<String>(maxSize = 2)
+
+            When("Ids requested for different keys") {
+                val first = mapper.getId("first")
+                val second = mapper.getId("second")
+
+                Then("Ids are different", true, first != second)
+                Then("Same id returned for the same key", first, mapper.getId("first"))
+            }
+
+            When("More keys than max size requested") {
+                val first = mapper.getId("first")
+                val second = mapper.getId("second")
+
+                // "first" is the most recently used key, "second" is evicted
+                mapper.getId("first")
+                val third = mapper.getId("third")
+
+                Then("Mapper is bounded", 2, mapper.size)
+                Then("Recently used key keeps its id", first, mapper.getId("first"))
+                Then("Evicted key gets a new id", true, mapper.getId("second") !in listOf(first, second, third))
+            }
+        }
+    }
+}
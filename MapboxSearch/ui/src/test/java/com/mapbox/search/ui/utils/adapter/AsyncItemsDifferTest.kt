@@ -0,0 +1,116 @@
+package com.mapbox.search.ui.utils.adapter
+
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+import java.util.concurrent.Executor
+
+internal class AsyncItemsDifferTest {
+
+    @TestFactory
+    fun `Check items dispatching`() = TestCase {
+        Given("AsyncItemsDiffer with queued executors") {
+            val background = QueuedExecutor()
+            val main = QueuedExecutor()
+            val updates = RecordingUpdateCallback()
+            val differ = AsyncItemsDiffer(updates, ItemCallback, background, main)
+
+            val initialItems = listOf(Item(1, "a"), Item(2, "b"), Item(3, "c"))
+
+            When("Items submitted to the empty differ") {
+                differ.submitItems(initialItems)
+
+                Then("Items dispatched without diffing", listOf("inserted 0 3"), updates.events)
+                Then("Current items updated", initialItems, differ.currentItems)
+                Then("No background work scheduled", 0, background.size)
+            }
+
+            When("One of the items changed") {
+                updates.events.clear()
+
+                val newItems = listOf(Item(1, "a"), Item(2, "b2"), Item(3, "c"))
+                differ.submitItems(newItems)
+
+                Then("Current items are not updated before diff is calculated", initialItems, differ.currentItems)
+
+                background.runAll()
+                main.runAll()
+
+                Then("Only changed item dispatched", listOf("changed 1 1"), updates.events)
+                Then("Current items updated", newItems, differ.currentItems)
+            }
+
+            When("Newer items submitted before previous diff is dispatched") {
+                updates.events.clear()
+                val currentItems = differ.currentItems
+
+                differ.submitItems(listOf(Item(4, "d")) + currentItems)
+                background.runAll()
+
+                val latestItems = currentItems + listOf(Item(5, "e"))
+                differ.submitItems(latestItems)
+                background.runAll()
+                main.runAll()
+
+                Then("Stale diff dropped", listOf("inserted 3 1"), updates.events)
+                Then("Current items are the latest items", latestItems, differ.currentItems)
+            }
+
+            When("Empty items submitted") {
+                updates.events.clear()
+                differ.submitItems(emptyList())
+
+                Then("Items removed without diffing", listOf("removed 0 4"), updates.events)
+                Then("Current items updated", emptyList<Item>(), differ.currentItems)
+                Then("No background work scheduled", 0, background.size)
+            }
+        }
+    }
+
+    private data class Item(val id: Int, val text: String)
+
+    private object ItemCallback : DiffUtil.ItemCallback<Item>() {
+        override fun areItemsTheSame(oldItem: Item, newItem: Item) = oldItem.id == newItem.id
+        override fun areContentsTheSame(oldItem: Item, newItem: Item) = oldItem == newItem
+    }
+
+    private class QueuedExecutor : Executor {
+
+        private val queue = ArrayDeque<Runnable>()
+
+        val size: Int
+            get() = queue.size
+
+        override fun execute(command: Runnable) {
+            queue.addLast(command)
+        }
+
+        fun runAll() {
+            while (queue.isNotEmpty()) {
+                queue.removeFirst().run()
+            }
+        }
+    }
+
+    private class RecordingUpdateCallback : ListUpdateCallback {
+
+        val events = mutableListOf<String>()
+
+        override fun onInserted(position: Int, count: Int) {
+            events += "inserted $position $count"
+        }
+
+        override fun onRemoved(position: Int, count: Int) {
+            events += "removed $position $count"
+        }
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) {
+            events += "moved $fromPosition $toPosition"
+        }
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) {
+            events += "changed $position $count"
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mapbox.search.ui.view.adapter
+
+import com.mapbox.search.ui.view.SearchResultAdapterItem
+import com.mapbox.test.dsl.TestCase
+import org.junit.jupiter.api.TestFactory
+
+internal class SearchResultAdapterItemDiffCallbackTest {
+
+    @TestFactory
+    fun `Check stable keys`() = TestCase {
+        Given("Result items without id whose titles have the same hash") {
+            // "Aa" and "BB" have the same String.hashCode()
+            val first = createResultItem("Aa")
+            val second = createResultItem("BB")
+
+            When("Stable keys of the items requested") {
+                Then(
+                    "Keys are the same",
+                    SearchResultAdapterItemDiffCallback.stableKey(first),
+                    SearchResultAdapterItemDiffCallback.stableKey(second)
+                )
+            }
+
+            When("Stable keys of the list requested") {
+                val keys = SearchResultAdapterItemDiffCallback.stableKeys(listOf(first, second, first))
+
+                Then("Keys are unique within the list", 3, keys.toSet().size)
+                Then(
+                    "First occurrence keeps item's key",
+                    SearchResultAdapterItemDiffCallback.stableKey(first),
+                    keys.first()
+                )
+            }
+
+            When("Stable keys of the same list requested twice") {
+                val items = listOf(first, second, SearchResultAdapterItem.Loading)
+
+                Then(
+                    "Keys are the same",
+                    SearchResultAdapterItemDiffCallback.stableKeys(items),
+                    SearchResultAdapterItemDiffCallback.stableKeys(items)
+                )
+            }
+        }
+    }
+
+    private companion object {
+
+        fun createResultItem(title: String) = SearchResultAdapterItem.Result(
+            title = title,
+            subtitle = null,
+            distanceMeters = null,
+            drawable = 0,
+        )
+    }
+}